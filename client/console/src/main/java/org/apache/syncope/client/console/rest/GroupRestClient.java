@@ -25,6 +25,7 @@ import org.apache.syncope.common.lib.patch.GroupPatch;
 import org.apache.syncope.common.lib.to.GroupTO;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
 import org.apache.syncope.common.lib.types.ProvisionAction;
+import org.apache.syncope.common.lib.types.SearchCountMode;
 import org.apache.syncope.common.rest.api.beans.AnyQuery;
 import org.apache.syncope.common.rest.api.service.AnyService;
 import org.apache.syncope.common.rest.api.service.GroupService;
@@ -62,7 +63,8 @@ public class GroupRestClient extends AbstractAnyRestClient<GroupTO> {
     @Override
     public int count(final String realm, final String fiql, final String type) {
         return getService(GroupService.class).
-                search(new AnyQuery.Builder().realm(realm).fiql(fiql).page(1).size(1).build()).
+                search(new AnyQuery.Builder().realm(realm).fiql(fiql).page(1).size(1).
+                        count(SearchCountMode.ESTIMATE).build()).
                 getTotalCount();
     }
 
@@ -77,7 +79,7 @@ public class GroupRestClient extends AbstractAnyRestClient<GroupTO> {
 
         return getService(GroupService.class).
                 search(new AnyQuery.Builder().realm(realm).fiql(fiql).page(page).size(size).
-                        orderBy(toOrderBy(sort)).details(false).build()).getResult();
+                        orderBy(toOrderBy(sort)).details(false).count(SearchCountMode.NONE).build()).getResult();
     }
 
     public void provisionMembers(final String key, final ProvisionAction actionType) {
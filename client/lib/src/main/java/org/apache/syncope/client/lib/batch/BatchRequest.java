@@ -102,6 +102,22 @@ public class BatchRequest {
      * @return batch response
      */
     public BatchResponse commit(final boolean async) {
+        return commit(async, 1);
+    }
+
+    /**
+     * Sends the current request, with items accumulated by invoking methods on proxies obtained via
+     * {@link #getService(java.lang.Class)}, to the Batch service, and awaits for a synchronous or asynchronous
+     * response, depending on the {@code async} parameter.
+     * Items are processed concurrently by the given number of threads at most, unless sharing the same
+     * {@link RESTHeaders#BATCH_SEQUENCE} header value, which can be set via {@link #getItems()}.
+     * It also clears out the accumulated items, in case of reuse of this instance for subsequent requests.
+     *
+     * @param async whether asynchronous Batch process is requested, or not
+     * @param parallelism maximum number of items to be processed concurrently
+     * @return batch response
+     */
+    public BatchResponse commit(final boolean async, final int parallelism) {
         String boundary = "--batch_" + UUID.randomUUID().toString();
 
         WebClient webClient = WebClient.create(bcfb.getAddress()).path("batch").
@@ -110,6 +126,9 @@ public class BatchRequest {
         if (async) {
             webClient.header(RESTHeaders.PREFER, Preference.RESPOND_ASYNC);
         }
+        if (parallelism > 1) {
+            webClient.header(RESTHeaders.BATCH_PARALLELISM, parallelism);
+        }
 
         String body = BatchPayloadGenerator.generate(bcfb.getBatchRequestItems(), boundary);
         LOG.debug("Batch request body:\n{}", body);
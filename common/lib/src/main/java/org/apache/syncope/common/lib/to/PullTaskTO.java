@@ -52,6 +52,8 @@ public class PullTaskTO extends ProvisioningTaskTO implements TemplatableTO {
 
     private boolean remediation;
 
+    private int concurrentThreads = 1;
+
     @XmlTransient
     @JsonProperty("@class")
     @Schema(name = "@class", required = true, example = "org.apache.syncope.common.lib.to.PullTaskTO")
@@ -101,4 +103,12 @@ public class PullTaskTO extends ProvisioningTaskTO implements TemplatableTO {
         this.remediation = remediation;
     }
 
+    public int getConcurrentThreads() {
+        return concurrentThreads;
+    }
+
+    public void setConcurrentThreads(final int concurrentThreads) {
+        this.concurrentThreads = concurrentThreads;
+    }
+
 }
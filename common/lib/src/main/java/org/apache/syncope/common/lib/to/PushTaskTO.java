@@ -46,6 +46,8 @@ public class PushTaskTO extends ProvisioningTaskTO {
     @XmlJavaTypeAdapter(XmlGenericMapAdapter.class)
     private final Map<String, String> filters = new HashMap<>();
 
+    private int concurrentThreads = 1;
+
     @XmlTransient
     @JsonProperty("@class")
     @Schema(name = "@class", required = true, example = "org.apache.syncope.common.lib.to.PushTaskTO")
@@ -66,4 +68,12 @@ public class PushTaskTO extends ProvisioningTaskTO {
     public Map<String, String> getFilters() {
         return filters;
     }
+
+    public int getConcurrentThreads() {
+        return concurrentThreads;
+    }
+
+    public void setConcurrentThreads(final int concurrentThreads) {
+        this.concurrentThreads = concurrentThreads;
+    }
 }
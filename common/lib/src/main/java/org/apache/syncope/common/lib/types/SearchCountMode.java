@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.common.lib.types;
+
+import javax.xml.bind.annotation.XmlEnum;
+
+/**
+ * How the total number of matching entities is to be reported when searching.
+ */
+@XmlEnum
+public enum SearchCountMode {
+    /**
+     * Total count is computed on every request.
+     */
+    EXACT,
+    /**
+     * Total count is taken, if available, from the recent results of the same search, otherwise computed; it might
+     * not take into account the latest changes.
+     */
+    ESTIMATE,
+    /**
+     * Total count is not computed: only whether a further page exists is reported.
+     */
+    NONE;
+
+}
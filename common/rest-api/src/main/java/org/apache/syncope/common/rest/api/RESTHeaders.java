@@ -40,6 +40,18 @@ public final class RESTHeaders {
      */
     public static final String NULL_PRIORITY_ASYNC = "X-Syncope-Null-Priority-Async";
 
+    /**
+     * Asks for the items of a batch request to be processed concurrently, by at most the given number of threads;
+     * the actual value is capped by the server.
+     */
+    public static final String BATCH_PARALLELISM = "X-Syncope-Batch-Parallelism";
+
+    /**
+     * Marks the items of a parallel batch request depending on each other: items with the same value are processed
+     * one after the other, in the order they appear in the batch request.
+     */
+    public static final String BATCH_SEQUENCE = "X-Syncope-Batch-Sequence";
+
     /**
      * Declares the type of exception being raised.
      *
@@ -67,6 +79,16 @@ public final class RESTHeaders {
      */
     public static final MediaType APPLICATION_YAML_TYPE = new MediaType("application", "yaml");
 
+    /**
+     * Mediatype for newline-delimited JSON, not defined in {@link javax.ws.rs.core.MediaType}.
+     */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    /**
+     * Mediatype for CSV, not defined in {@link javax.ws.rs.core.MediaType}.
+     */
+    public static final String TEXT_CSV = "text/csv";
+
     /**
      * Mediatype for multipart/mixed, not defined in {@link javax.ws.rs.core.MediaType}.
      */
@@ -30,46 +30,76 @@ public final class BatchPayloadGenerator {
     public static <T extends BatchItem> String generate(final List<T> items, final String boundary) {
         StringBuilder payload = new StringBuilder();
 
-        items.forEach(item -> {
-            payload.append(boundary).append(SyncopeConstants.CRLF);
-            payload.append(HttpHeaders.CONTENT_TYPE).append(": ").append("application/http").append('\n');
-            payload.append("Content-Transfer-Encoding: binary").append('\n');
-            payload.append(SyncopeConstants.CRLF);
+        items.forEach(item -> append(item, boundary, payload));
+        appendEnd(boundary, payload);
 
-            if (item instanceof BatchRequestItem) {
-                BatchRequestItem bri = BatchRequestItem.class.cast(item);
-                payload.append(bri.getMethod()).append(' ').append(bri.getRequestURI());
-                if (bri.getQueryString() != null) {
-                    payload.append('?').append(bri.getQueryString());
-                }
-                payload.append(' ').append(HTTP_1_1).append('\n');
-            }
+        return payload.toString();
+    }
+
+    /**
+     * Appends the given item to the payload being generated; allows to generate the payload incrementally.
+     *
+     * @param <T> batch item type
+     * @param item batch item
+     * @param boundary boundary, including the leading double dash
+     * @param payload payload being generated
+     */
+    public static <T extends BatchItem> void append(final T item, final String boundary, final StringBuilder payload) {
+        payload.append(boundary).append(SyncopeConstants.CRLF);
+        payload.append(HttpHeaders.CONTENT_TYPE).append(": ").append("application/http").append('\n');
+        payload.append("Content-Transfer-Encoding: binary").append('\n');
+        payload.append(SyncopeConstants.CRLF);
 
-            if (item instanceof BatchResponseItem) {
-                BatchResponseItem bri = BatchResponseItem.class.cast(item);
-                payload.append(HTTP_1_1).append(' ').
-                        append(bri.getStatus()).append(' ').
-                        append(Response.Status.fromStatusCode(bri.getStatus()).getReasonPhrase()).
-                        append('\n');
+        if (item instanceof BatchRequestItem) {
+            BatchRequestItem bri = BatchRequestItem.class.cast(item);
+            payload.append(bri.getMethod()).append(' ').append(bri.getRequestURI());
+            if (bri.getQueryString() != null) {
+                payload.append('?').append(bri.getQueryString());
             }
+            payload.append(' ').append(HTTP_1_1).append('\n');
+        }
+
+        if (item instanceof BatchResponseItem) {
+            BatchResponseItem bri = BatchResponseItem.class.cast(item);
+            payload.append(HTTP_1_1).append(' ').
+                    append(bri.getStatus()).append(' ').
+                    append(Response.Status.fromStatusCode(bri.getStatus()).getReasonPhrase()).
+                    append('\n');
+        }
 
-            if (item.getHeaders() != null && !item.getHeaders().isEmpty()) {
-                item.getHeaders().forEach((key, values) -> {
-                    values.forEach(value -> {
-                        payload.append(key).append(": ").append(value).append('\n');
-                    });
+        if (item.getHeaders() != null && !item.getHeaders().isEmpty()) {
+            item.getHeaders().forEach((key, values) -> {
+                values.forEach(value -> {
+                    payload.append(key).append(": ").append(value).append('\n');
                 });
-                payload.append(SyncopeConstants.CRLF);
-            }
+            });
+            payload.append(SyncopeConstants.CRLF);
+        }
 
-            if (item.getContent() != null) {
-                payload.append(item.getContent()).append('\n');
-            }
-        });
+        if (item.getContent() != null) {
+            payload.append(item.getContent()).append('\n');
+        }
+    }
 
+    /**
+     * Closes the payload being generated.
+     *
+     * @param boundary boundary, including the leading double dash
+     * @param payload payload being generated
+     */
+    public static void appendEnd(final String boundary, final StringBuilder payload) {
         payload.append(boundary).append(SyncopeConstants.DOUBLE_DASH).append('\n');
+    }
 
-        return payload.toString();
+    /**
+     * Tells whether the given payload was closed via {@link #appendEnd(java.lang.String, java.lang.StringBuilder)}.
+     *
+     * @param boundary boundary, including the leading double dash
+     * @param payload payload being generated, possibly null
+     * @return whether the given payload is complete
+     */
+    public static boolean isComplete(final String boundary, final String payload) {
+        return payload != null && payload.endsWith(boundary + SyncopeConstants.DOUBLE_DASH + '\n');
     }
 
     private BatchPayloadGenerator() {
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.common.rest.api.beans;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.QueryParam;
+import org.apache.syncope.common.lib.AbstractBaseBean;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
+import org.apache.syncope.common.rest.api.service.JAXRSService;
+
+public class AnyExportQuery extends AbstractBaseBean {
+
+    private static final long serialVersionUID = 5120480927398340432L;
+
+    public static class Builder {
+
+        private final AnyExportQuery instance = new AnyExportQuery();
+
+        public Builder realm(final String realm) {
+            instance.setRealm(realm);
+            return this;
+        }
+
+        public Builder fiql(final String fiql) {
+            instance.setFiql(fiql);
+            return this;
+        }
+
+        public Builder format(final AnyExportFormat format) {
+            instance.setFormat(format);
+            return this;
+        }
+
+        public Builder fields(final String... fields) {
+            instance.getFields().addAll(Arrays.asList(fields));
+            return this;
+        }
+
+        public Builder plainAttrs(final String... plainAttrs) {
+            instance.getPlainAttrs().addAll(Arrays.asList(plainAttrs));
+            return this;
+        }
+
+        public Builder derAttrs(final String... derAttrs) {
+            instance.getDerAttrs().addAll(Arrays.asList(derAttrs));
+            return this;
+        }
+
+        public Builder virAttrs(final String... virAttrs) {
+            instance.getVirAttrs().addAll(Arrays.asList(virAttrs));
+            return this;
+        }
+
+        public AnyExportQuery build() {
+            return instance;
+        }
+    }
+
+    private String realm;
+
+    private String fiql;
+
+    private AnyExportFormat format;
+
+    private List<String> fields = new ArrayList<>();
+
+    private List<String> plainAttrs = new ArrayList<>();
+
+    private List<String> derAttrs = new ArrayList<>();
+
+    private List<String> virAttrs = new ArrayList<>();
+
+    public String getRealm() {
+        return realm;
+    }
+
+    @DefaultValue(SyncopeConstants.ROOT_REALM)
+    @QueryParam("realm")
+    public void setRealm(final String realm) {
+        this.realm = realm;
+    }
+
+    public String getFiql() {
+        return fiql;
+    }
+
+    @QueryParam(JAXRSService.PARAM_FIQL)
+    public void setFiql(final String fiql) {
+        this.fiql = fiql;
+    }
+
+    public AnyExportFormat getFormat() {
+        return format == null ? AnyExportFormat.NDJSON : format;
+    }
+
+    @QueryParam("format")
+    @DefaultValue("NDJSON")
+    public void setFormat(final AnyExportFormat format) {
+        this.format = format;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    @QueryParam("field")
+    public void setFields(final List<String> fields) {
+        this.fields = fields == null ? new ArrayList<>() : fields;
+    }
+
+    public List<String> getPlainAttrs() {
+        return plainAttrs;
+    }
+
+    @QueryParam("plainAttr")
+    public void setPlainAttrs(final List<String> plainAttrs) {
+        this.plainAttrs = plainAttrs == null ? new ArrayList<>() : plainAttrs;
+    }
+
+    public List<String> getDerAttrs() {
+        return derAttrs;
+    }
+
+    @QueryParam("derAttr")
+    public void setDerAttrs(final List<String> derAttrs) {
+        this.derAttrs = derAttrs == null ? new ArrayList<>() : derAttrs;
+    }
+
+    public List<String> getVirAttrs() {
+        return virAttrs;
+    }
+
+    @QueryParam("virAttr")
+    public void setVirAttrs(final List<String> virAttrs) {
+        this.virAttrs = virAttrs == null ? new ArrayList<>() : virAttrs;
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.syncope.common.rest.api.beans;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.QueryParam;
 import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.SearchCountMode;
 import org.apache.syncope.common.rest.api.service.JAXRSService;
 
 public class AnyQuery extends AbstractQuery {
@@ -49,6 +50,11 @@ public class AnyQuery extends AbstractQuery {
 
             return this;
         }
+
+        public Builder count(final SearchCountMode count) {
+            getInstance().setCount(count);
+            return this;
+        }
     }
 
     private String realm;
@@ -57,6 +63,8 @@ public class AnyQuery extends AbstractQuery {
 
     private String fiql;
 
+    private SearchCountMode count;
+
     public String getRealm() {
         return realm;
     }
@@ -86,4 +94,14 @@ public class AnyQuery extends AbstractQuery {
         this.fiql = fiql;
     }
 
+    public SearchCountMode getCount() {
+        return count == null ? SearchCountMode.EXACT : count;
+    }
+
+    @QueryParam(JAXRSService.PARAM_COUNT)
+    @DefaultValue("EXACT")
+    public void setCount(final SearchCountMode count) {
+        this.count = count;
+    }
+
 }
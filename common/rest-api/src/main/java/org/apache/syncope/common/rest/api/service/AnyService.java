@@ -50,6 +50,7 @@ import org.apache.syncope.common.lib.types.ResourceAssociationAction;
 import org.apache.syncope.common.lib.types.ResourceDeassociationAction;
 import org.apache.syncope.common.lib.types.SchemaType;
 import org.apache.syncope.common.rest.api.RESTHeaders;
+import org.apache.syncope.common.rest.api.beans.AnyExportQuery;
 import org.apache.syncope.common.rest.api.beans.AnyQuery;
 
 public interface AnyService<TO extends AnyTO> extends JAXRSService {
@@ -109,6 +110,18 @@ public interface AnyService<TO extends AnyTO> extends JAXRSService {
     @Produces({ MediaType.APPLICATION_JSON, RESTHeaders.APPLICATION_YAML, MediaType.APPLICATION_XML })
     PagedResult<TO> search(@BeanParam AnyQuery anyQuery);
 
+    /**
+     * Streams all any objects matching the given query, as newline-delimited JSON or CSV; only the requested fields
+     * and attributes are exported.
+     *
+     * @param exportQuery query conditions, format and projection
+     * @return a stream for content download
+     */
+    @GET
+    @Path("export")
+    @Produces({ RESTHeaders.APPLICATION_NDJSON, RESTHeaders.TEXT_CSV })
+    Response export(@BeanParam AnyExportQuery exportQuery);
+
     /**
      * Adds or replaces the attribute, owned by the given any object, for the given schema type and schema.
      *
@@ -18,10 +18,17 @@
  */
 package org.apache.syncope.core.logic;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.SyncopeClientException;
@@ -31,27 +38,49 @@ import org.apache.syncope.common.lib.to.GroupTO;
 import org.apache.syncope.common.lib.to.PropagationStatus;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
 import org.apache.syncope.common.lib.to.UserTO;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
+import org.apache.syncope.common.lib.types.SearchCountMode;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
+import org.apache.syncope.core.logic.export.AnyExport;
+import org.apache.syncope.core.logic.export.AnyExportWriter;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.provisioning.java.utils.TemplateUtils;
 import org.apache.syncope.core.spring.security.DelegatedAdministrationException;
 import org.apache.syncope.core.persistence.api.dao.AnyTypeDAO;
+import org.apache.syncope.core.persistence.api.dao.DerSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
+import org.apache.syncope.core.persistence.api.dao.NotFoundException;
+import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.dao.VirSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
+import org.apache.syncope.core.persistence.api.entity.DerSchema;
 import org.apache.syncope.core.persistence.api.entity.Realm;
+import org.apache.syncope.core.persistence.api.entity.VirSchema;
+import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.provisioning.api.DerAttrHandler;
 import org.apache.syncope.core.provisioning.api.LogicActions;
+import org.apache.syncope.core.provisioning.api.VirAttrHandler;
+import org.apache.syncope.core.provisioning.api.utils.FormatUtils;
 import org.apache.syncope.core.provisioning.api.utils.RealmUtils;
 import org.apache.syncope.core.spring.ImplementationManager;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 
 public abstract class AbstractAnyLogic<TO extends AnyTO, P extends AnyPatch> extends AbstractResourceAssociator<TO> {
 
+    protected static final Set<String> EXPORT_FIELDS = new HashSet<>(Arrays.asList(
+            "key", "type", "realm", "status", "creator", "creationDate", "lastModifier", "lastChangeDate"));
+
     @Autowired
     protected UserDAO userDAO;
 
@@ -61,6 +90,27 @@ public abstract class AbstractAnyLogic<TO extends AnyTO, P extends AnyPatch> ext
     @Autowired
     protected AnyObjectDAO anyObjectDAO;
 
+    @Autowired
+    protected AnySearchDAO searchDAO;
+
+    @Autowired
+    protected SearchCountCache searchCountCache;
+
+    @Autowired
+    protected PlainSchemaDAO plainSchemaDAO;
+
+    @Autowired
+    protected DerSchemaDAO derSchemaDAO;
+
+    @Autowired
+    protected VirSchemaDAO virSchemaDAO;
+
+    @Autowired
+    protected DerAttrHandler derAttrHandler;
+
+    @Autowired
+    protected VirAttrHandler virAttrHandler;
+
     @Autowired
     private RealmDAO realmDAO;
 
@@ -84,6 +134,202 @@ public abstract class AbstractAnyLogic<TO extends AnyTO, P extends AnyPatch> ext
         return actions;
     }
 
+    /**
+     * Searches for the given page of any objects, counting the matching ones as requested.
+     * When {@link SearchCountMode#NONE} is requested, the returned count is the least consistent with the page found:
+     * beyond the page end when a further page exists, otherwise exactly at the page end.
+     *
+     * @param <A> any
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param cond the search condition
+     * @param page position of the first result, start from 1
+     * @param size number of results per page
+     * @param orderBy list of ordering clauses
+     * @param kind any type kind
+     * @param countMode how to count the matching any objects
+     * @return count and page of matching any objects
+     */
+    protected <A extends Any<?>> Pair<Integer, List<A>> doSearch(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final int page,
+            final int size,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind,
+            final SearchCountMode countMode) {
+
+        if (countMode == SearchCountMode.NONE) {
+            List<A> matching = searchDAO.searchLookAhead(adminRealms, cond, page, size, orderBy, kind);
+            boolean hasNext = size >= 0 && matching.size() > size;
+            if (hasNext) {
+                matching = matching.subList(0, size);
+            }
+
+            return Pair.of((page <= 1 ? 0 : (page - 1) * size) + matching.size() + (hasNext ? 1 : 0), matching);
+        }
+
+        int count;
+        if (countMode == SearchCountMode.ESTIMATE) {
+            count = searchCountCache.get(
+                    AuthContextUtils.getDomain(), adminRealms, cond, kind,
+                    () -> searchDAO.count(adminRealms, cond, kind));
+        } else {
+            count = searchDAO.count(adminRealms, cond, kind);
+            searchCountCache.put(AuthContextUtils.getDomain(), adminRealms, cond, kind, count);
+        }
+
+        return Pair.of(count, searchDAO.search(adminRealms, cond, page, size, orderBy, kind));
+    }
+
+    protected static String exportField(final Any<?> any, final String field) {
+        switch (field) {
+            case "key":
+                return any.getKey();
+
+            case "type":
+                return any.getType().getKey();
+
+            case "realm":
+                return any.getRealm().getFullPath();
+
+            case "status":
+                return any.getStatus();
+
+            case "username":
+                return any instanceof User ? ((User) any).getUsername() : null;
+
+            case "name":
+                return any instanceof Group
+                        ? ((Group) any).getName()
+                        : any instanceof AnyObject ? ((AnyObject) any).getName() : null;
+
+            case "creator":
+                return any.getCreator();
+
+            case "creationDate":
+                return any.getCreationDate() == null ? null : FormatUtils.format(any.getCreationDate());
+
+            case "lastModifier":
+                return any.getLastModifier();
+
+            case "lastChangeDate":
+                return any.getLastChangeDate() == null ? null : FormatUtils.format(any.getLastChangeDate());
+
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Validates the requested fields and attributes, so that any error is reported before anything is written.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param cond the search condition
+     * @param kind any type kind
+     * @param format export format
+     * @param fields fields to export, if empty key and (user)name
+     * @param plainAttrs plain attributes to export
+     * @param derAttrs derived attributes to export
+     * @param virAttrs virtual attributes to export
+     * @return export ready to be written
+     */
+    protected AnyExport doPrepareExport(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final AnyTypeKind kind,
+            final AnyExportFormat format,
+            final List<String> fields,
+            final List<String> plainAttrs,
+            final List<String> derAttrs,
+            final List<String> virAttrs) {
+
+        List<String> effectiveFields = fields.isEmpty()
+                ? Arrays.asList("key", kind == AnyTypeKind.USER ? "username" : "name")
+                : fields;
+
+        Set<String> allowedFields = new HashSet<>(EXPORT_FIELDS);
+        allowedFields.add(kind == AnyTypeKind.USER ? "username" : "name");
+        List<String> invalid = effectiveFields.stream().
+                filter(field -> !allowedFields.contains(field)).collect(Collectors.toList());
+        if (!invalid.isEmpty()) {
+            SyncopeClientException sce = SyncopeClientException.build(ClientExceptionType.InvalidRequest);
+            sce.getElements().add("Unsupported field(s): " + invalid);
+            throw sce;
+        }
+
+        plainAttrs.stream().filter(schema -> plainSchemaDAO.find(schema) == null).findFirst().ifPresent(schema -> {
+            throw new NotFoundException("Plain schema " + schema);
+        });
+        derAttrs.stream().filter(schema -> derSchemaDAO.find(schema) == null).findFirst().ifPresent(schema -> {
+            throw new NotFoundException("Derived schema " + schema);
+        });
+        virAttrs.stream().filter(schema -> virSchemaDAO.find(schema) == null).findFirst().ifPresent(schema -> {
+            throw new NotFoundException("Virtual schema " + schema);
+        });
+
+        return new AnyExport(adminRealms, cond, kind, format, effectiveFields, plainAttrs, derAttrs, virAttrs);
+    }
+
+    /**
+     * Streams the any objects matching the given export to the given output stream; only the requested fields and
+     * attributes are read, while derived and virtual attributes are computed only when requested.
+     * Any objects are loaded by chunks of keys read via keyset pagination and the persistence context is cleared
+     * after each chunk, hence memory usage does not depend on the number of matching any objects.
+     *
+     * @param os output stream
+     * @param export export, as prepared by {@link #doPrepareExport}
+     * @throws IOException if writing fails
+     */
+    protected void doExport(final OutputStream os, final AnyExport export) throws IOException {
+        AnyTypeKind kind = export.getKind();
+        List<String> effectiveFields = export.getFields();
+        List<String> plainAttrs = export.getPlainAttrs();
+        List<String> derAttrs = export.getDerAttrs();
+        List<String> virAttrs = export.getVirAttrs();
+
+        AnyDAO<?> anyDAO = kind == AnyTypeKind.USER
+                ? userDAO
+                : kind == AnyTypeKind.GROUP ? groupDAO : anyObjectDAO;
+
+        try (AnyExportWriter writer = AnyExportWriter.of(
+                export.getFormat(), os, effectiveFields, plainAttrs, derAttrs, virAttrs)) {
+
+            Iterator<String> keys = searchDAO.streamKeys(
+                    export.getAdminRealms(), export.getCond(), kind, AnyDAO.DEFAULT_PAGE_SIZE).iterator();
+            List<String> chunk = new ArrayList<>(AnyDAO.DEFAULT_PAGE_SIZE);
+            while (keys.hasNext()) {
+                chunk.add(keys.next());
+                if (chunk.size() == AnyDAO.DEFAULT_PAGE_SIZE || !keys.hasNext()) {
+                    // schemas are looked up again for each chunk, as the persistence context is cleared below
+                    List<DerSchema> derSchemas = derAttrs.stream().
+                            map(derSchemaDAO::find).collect(Collectors.toList());
+                    List<VirSchema> virSchemas = virAttrs.stream().
+                            map(virSchemaDAO::find).collect(Collectors.toList());
+
+                    for (Any<?> any : anyDAO.findByKeys(chunk)) {
+                        Map<DerSchema, String> derValues = derSchemas.isEmpty()
+                                ? Collections.emptyMap()
+                                : derAttrHandler.getValues(any, derSchemas);
+
+                        writer.write(
+                                effectiveFields.stream().
+                                        map(field -> exportField(any, field)).collect(Collectors.toList()),
+                                plainAttrs.stream().map(schema -> any.getPlainAttr(schema).
+                                        map(attr -> attr.getValuesAsStrings()).
+                                        orElse(Collections.emptyList())).collect(Collectors.toList()),
+                                derSchemas.stream().map(derValues::get).collect(Collectors.toList()),
+                                virSchemas.stream().map(schema -> virAttrHandler.getValues(any, schema)).
+                                        collect(Collectors.toList()));
+                    }
+                    writer.flush();
+
+                    anyDAO.clear();
+                    chunk.clear();
+                }
+            }
+        }
+    }
+
     protected Pair<TO, List<LogicActions>> beforeCreate(final TO input) {
         Realm realm = realmDAO.findByFullPath(input.getRealm());
         if (realm == null) {
@@ -251,7 +497,19 @@ public abstract class AbstractAnyLogic<TO extends AnyTO, P extends AnyPatch> ext
             SearchCond searchCond,
             int page, int size, List<OrderByClause> orderBy,
             String realm,
-            boolean details);
+            boolean details,
+            SearchCountMode countMode);
+
+    public abstract AnyExport prepareExport(
+            SearchCond searchCond,
+            String realm,
+            AnyExportFormat format,
+            List<String> fields,
+            List<String> plainAttrs,
+            List<String> derAttrs,
+            List<String> virAttrs);
+
+    public abstract void export(OutputStream os, AnyExport export) throws IOException;
 
     public abstract ProvisioningResult<TO> update(P anyPatch, boolean nullPriorityAsync);
 
@@ -18,6 +18,8 @@
  */
 package org.apache.syncope.core.logic;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.HashSet;
@@ -34,10 +36,12 @@ import org.apache.syncope.common.lib.to.AnyObjectTO;
 import org.apache.syncope.common.lib.to.PropagationStatus;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
 import org.apache.syncope.common.lib.types.AnyEntitlement;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
 import org.apache.syncope.common.lib.types.PatchOperation;
-import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.common.lib.types.SearchCountMode;
+import org.apache.syncope.core.logic.export.AnyExport;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
@@ -58,9 +62,6 @@ import org.springframework.transaction.annotation.Transactional;
 @Component
 public class AnyObjectLogic extends AbstractAnyLogic<AnyObjectTO, AnyObjectPatch> {
 
-    @Autowired
-    protected AnySearchDAO searchDAO;
-
     @Autowired
     protected AnyObjectDataBinder binder;
 
@@ -79,7 +80,8 @@ public class AnyObjectLogic extends AbstractAnyLogic<AnyObjectTO, AnyObjectPatch
             final SearchCond searchCond,
             final int page, final int size, final List<OrderByClause> orderBy,
             final String realm,
-            final boolean details) {
+            final boolean details,
+            final SearchCountMode countMode) {
 
         if (searchCond.hasAnyTypeCond() == null) {
             throw new UnsupportedOperationException("Need to specify " + AnyType.class.getSimpleName());
@@ -89,14 +91,39 @@ public class AnyObjectLogic extends AbstractAnyLogic<AnyObjectTO, AnyObjectPatch
                 AuthContextUtils.getAuthorizations().get(AnyEntitlement.SEARCH.getFor(searchCond.hasAnyTypeCond())),
                 realm);
 
-        int count = searchDAO.count(effectiveRealms, searchCond, AnyTypeKind.ANY_OBJECT);
-
-        List<AnyObject> matching = searchDAO.search(
-                effectiveRealms, searchCond, page, size, orderBy, AnyTypeKind.ANY_OBJECT);
-        List<AnyObjectTO> result = matching.stream().
+        Pair<Integer, List<AnyObject>> matching = doSearch(
+                effectiveRealms, searchCond, page, size, orderBy, AnyTypeKind.ANY_OBJECT, countMode);
+        List<AnyObjectTO> result = matching.getRight().stream().
                 map(anyObject -> binder.getAnyObjectTO(anyObject, details)).collect(Collectors.toList());
 
-        return Pair.of(count, result);
+        return Pair.of(matching.getLeft(), result);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public AnyExport prepareExport(
+            final SearchCond searchCond,
+            final String realm,
+            final AnyExportFormat format,
+            final List<String> fields,
+            final List<String> plainAttrs,
+            final List<String> derAttrs,
+            final List<String> virAttrs) {
+
+        if (searchCond == null || searchCond.hasAnyTypeCond() == null) {
+            throw new UnsupportedOperationException("Need to specify " + AnyType.class.getSimpleName());
+        }
+
+        return doPrepareExport(RealmUtils.getEffective(
+                AuthContextUtils.getAuthorizations().get(AnyEntitlement.SEARCH.getFor(searchCond.hasAnyTypeCond())),
+                realm),
+                searchCond, AnyTypeKind.ANY_OBJECT, format, fields, plainAttrs, derAttrs, virAttrs);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void export(final OutputStream os, final AnyExport export) throws IOException {
+        doExport(os, export);
     }
 
     public ProvisioningResult<AnyObjectTO> create(final AnyObjectTO anyObjectTO, final boolean nullPriorityAsync) {
@@ -18,6 +18,8 @@
  */
 package org.apache.syncope.core.logic;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
@@ -39,6 +41,7 @@ import org.apache.syncope.common.lib.to.ExecTO;
 import org.apache.syncope.common.lib.to.GroupTO;
 import org.apache.syncope.common.lib.to.PropagationStatus;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.ProvisionAction;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
@@ -46,8 +49,9 @@ import org.apache.syncope.common.lib.types.ImplementationEngine;
 import org.apache.syncope.common.lib.types.ImplementationType;
 import org.apache.syncope.common.lib.types.JobType;
 import org.apache.syncope.common.lib.types.PatchOperation;
+import org.apache.syncope.common.lib.types.SearchCountMode;
 import org.apache.syncope.common.lib.types.StandardEntitlement;
-import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.logic.export.AnyExport;
 import org.apache.syncope.core.persistence.api.dao.ConfDAO;
 import org.apache.syncope.core.persistence.api.dao.ImplementationDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
@@ -86,9 +90,6 @@ public class GroupLogic extends AbstractAnyLogic<GroupTO, GroupPatch> {
     @Resource(name = "adminUser")
     protected String adminUser;
 
-    @Autowired
-    protected AnySearchDAO searchDAO;
-
     @Autowired
     protected ImplementationDAO implementationDAO;
 
@@ -156,20 +157,41 @@ public class GroupLogic extends AbstractAnyLogic<GroupTO, GroupPatch> {
             final SearchCond searchCond,
             final int page, final int size, final List<OrderByClause> orderBy,
             final String realm,
-            final boolean details) {
+            final boolean details,
+            final SearchCountMode countMode) {
 
-        int count = searchDAO.count(
-                RealmUtils.getEffective(SyncopeConstants.FULL_ADMIN_REALMS, realm),
-                searchCond == null ? groupDAO.getAllMatchingCond() : searchCond, AnyTypeKind.GROUP);
-
-        List<Group> matching = searchDAO.search(
+        Pair<Integer, List<Group>> matching = doSearch(
                 RealmUtils.getEffective(SyncopeConstants.FULL_ADMIN_REALMS, realm),
                 searchCond == null ? groupDAO.getAllMatchingCond() : searchCond,
-                page, size, orderBy, AnyTypeKind.GROUP);
-        List<GroupTO> result = matching.stream().
+                page, size, orderBy, AnyTypeKind.GROUP, countMode);
+        List<GroupTO> result = matching.getRight().stream().
                 map(group -> binder.getGroupTO(group, details)).collect(Collectors.toList());
 
-        return Pair.of(count, result);
+        return Pair.of(matching.getLeft(), result);
+    }
+
+    @PreAuthorize("hasRole('" + StandardEntitlement.GROUP_SEARCH + "')")
+    @Transactional(readOnly = true)
+    @Override
+    public AnyExport prepareExport(
+            final SearchCond searchCond,
+            final String realm,
+            final AnyExportFormat format,
+            final List<String> fields,
+            final List<String> plainAttrs,
+            final List<String> derAttrs,
+            final List<String> virAttrs) {
+
+        return doPrepareExport(RealmUtils.getEffective(SyncopeConstants.FULL_ADMIN_REALMS, realm),
+                searchCond == null ? groupDAO.getAllMatchingCond() : searchCond,
+                AnyTypeKind.GROUP, format, fields, plainAttrs, derAttrs, virAttrs);
+    }
+
+    @PreAuthorize("hasRole('" + StandardEntitlement.GROUP_SEARCH + "')")
+    @Transactional(readOnly = true)
+    @Override
+    public void export(final OutputStream os, final AnyExport export) throws IOException {
+        doExport(os, export);
     }
 
     @PreAuthorize("hasRole('" + StandardEntitlement.GROUP_CREATE + "')")
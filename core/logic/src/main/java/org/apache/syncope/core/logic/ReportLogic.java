@@ -18,7 +18,7 @@
  */
 package org.apache.syncope.core.logic;
 
-import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
@@ -60,6 +60,7 @@ import org.apache.syncope.core.persistence.api.dao.ConfDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
 import org.apache.syncope.core.persistence.api.dao.ReportDAO;
 import org.apache.syncope.core.persistence.api.dao.ReportExecDAO;
+import org.apache.syncope.core.persistence.api.dao.ReportExecResultDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.EntityFactory;
 import org.apache.syncope.core.persistence.api.entity.Report;
@@ -87,6 +88,9 @@ public class ReportLogic extends AbstractExecutableLogic<ReportTO> {
     @Autowired
     private ReportExecDAO reportExecDAO;
 
+    @Autowired
+    private ReportExecResultDAO reportExecResultDAO;
+
     @Autowired
     private ReportDataBinder binder;
 
@@ -203,9 +207,10 @@ public class ReportLogic extends AbstractExecutableLogic<ReportTO> {
         if (reportExec == null) {
             throw new NotFoundException("Report execution " + executionKey);
         }
-        if (!ReportExecStatus.SUCCESS.name().equals(reportExec.getStatus()) || reportExec.getExecResult() == null) {
+        boolean resultAvailable = reportExecResultDAO.exists(reportExec);
+        if (!ReportExecStatus.SUCCESS.name().equals(reportExec.getStatus()) || !resultAvailable) {
             SyncopeClientException sce = SyncopeClientException.build(ClientExceptionType.InvalidReportExec);
-            sce.getElements().add(reportExec.getExecResult() == null
+            sce.getElements().add(!resultAvailable
                     ? "No report data produced"
                     : "Report did not run successfully");
             throw sce;
@@ -217,9 +222,10 @@ public class ReportLogic extends AbstractExecutableLogic<ReportTO> {
     public void exportExecutionResult(final OutputStream os, final ReportExec reportExec,
             final ReportExecExportFormat format) {
 
-        // streaming SAX handler from a compressed byte array stream
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(reportExec.getExecResult());
-                ZipInputStream zis = new ZipInputStream(bais)) {
+        // streaming SAX handler from the compressed stream read from storage
+        try (InputStream result = reportExecResultDAO.read(reportExec).
+                orElseThrow(() -> new NotFoundException("Result of report execution " + reportExec.getKey()));
+                ZipInputStream zis = new ZipInputStream(result)) {
 
             // a single ZipEntry in the ZipInputStream (see ReportJob)
             zis.getNextEntry();
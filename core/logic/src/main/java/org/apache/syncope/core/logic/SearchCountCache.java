@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.logic;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.provisioning.api.event.AnyBulkUpdatedEvent;
+import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Short-lived, per-domain cache of search counts, by admin realms, search condition and any type kind: this avoids
+ * counting again while paging through the results of the same search.
+ * All counts for a domain are discarded as soon as any user, group or any object is created, updated or deleted there.
+ */
+public class SearchCountCache {
+
+    protected static final class Key {
+
+        private final Set<String> adminRealms;
+
+        private final SearchCond cond;
+
+        private final AnyTypeKind kind;
+
+        private Key(final Set<String> adminRealms, final SearchCond cond, final AnyTypeKind kind) {
+            this.adminRealms = new TreeSet<>(adminRealms);
+            this.cond = cond;
+            this.kind = kind;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return kind == other.kind && adminRealms.equals(other.adminRealms) && cond.equals(other.cond);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(adminRealms, cond, kind);
+        }
+    }
+
+    protected long maximumSize = 1000;
+
+    protected long expireAfterWrite = 30;
+
+    protected final Map<String, Cache<Key, Integer>> counts = new ConcurrentHashMap<>();
+
+    public void setMaximumSize(final long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public void setExpireAfterWrite(final long expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    protected Cache<Key, Integer> getCounts(final String domain) {
+        return counts.computeIfAbsent(domain, k -> Caffeine.newBuilder().
+                maximumSize(maximumSize).
+                expireAfterWrite(expireAfterWrite, TimeUnit.SECONDS).
+                build());
+    }
+
+    /**
+     * Returns the cached count for the given search, if still available, otherwise counts and caches.
+     *
+     * @param domain domain
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param cond the search condition
+     * @param kind any type kind
+     * @param counter actual count, performed when nothing is cached
+     * @return the number of any objects matching the given search
+     */
+    public int get(
+            final String domain,
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final AnyTypeKind kind,
+            final Supplier<Integer> counter) {
+
+        Cache<Key, Integer> cache = getCounts(domain);
+        Key key = new Key(adminRealms, cond, kind);
+
+        Integer count = cache.getIfPresent(key);
+        if (count == null) {
+            count = counter.get();
+            cache.put(key, count);
+        }
+        return count;
+    }
+
+    /**
+     * Caches the given count, just computed, for the given search.
+     *
+     * @param domain domain
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param cond the search condition
+     * @param kind any type kind
+     * @param count the number of any objects matching the given search
+     */
+    public void put(
+            final String domain,
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final AnyTypeKind kind,
+            final int count) {
+
+        getCounts(domain).put(new Key(adminRealms, cond, kind), count);
+    }
+
+    protected void invalidate(final String domain) {
+        Optional.ofNullable(counts.get(domain)).ifPresent(Cache::invalidateAll);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void after(final AnyCreatedUpdatedEvent<?> event) {
+        invalidate(event.getDomain());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void after(final AnyBulkUpdatedEvent event) {
+        invalidate(event.getDomain());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void after(final AnyDeletedEvent event) {
+        invalidate(event.getDomain());
+    }
+}
@@ -18,6 +18,8 @@
  */
 package org.apache.syncope.core.logic;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
@@ -37,12 +39,14 @@ import org.apache.syncope.common.lib.patch.UserPatch;
 import org.apache.syncope.common.lib.to.PropagationStatus;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
 import org.apache.syncope.common.lib.to.UserTO;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
 import org.apache.syncope.common.lib.types.PatchOperation;
+import org.apache.syncope.common.lib.types.SearchCountMode;
 import org.apache.syncope.common.lib.types.StandardEntitlement;
+import org.apache.syncope.core.logic.export.AnyExport;
 import org.apache.syncope.core.persistence.api.dao.AccessTokenDAO;
-import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.ConfDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
@@ -67,9 +71,6 @@ import org.springframework.transaction.annotation.Transactional;
 @Component
 public class UserLogic extends AbstractAnyLogic<UserTO, UserPatch> {
 
-    @Autowired
-    protected AnySearchDAO searchDAO;
-
     @Autowired
     protected ConfDAO confDAO;
 
@@ -107,21 +108,43 @@ public class UserLogic extends AbstractAnyLogic<UserTO, UserPatch> {
             final SearchCond searchCond,
             final int page, final int size, final List<OrderByClause> orderBy,
             final String realm,
-            final boolean details) {
+            final boolean details,
+            final SearchCountMode countMode) {
 
-        int count = searchDAO.count(RealmUtils.getEffective(
-                AuthContextUtils.getAuthorizations().get(StandardEntitlement.USER_SEARCH), realm),
-                searchCond == null ? userDAO.getAllMatchingCond() : searchCond, AnyTypeKind.USER);
-
-        List<User> matching = searchDAO.search(RealmUtils.getEffective(
+        Pair<Integer, List<User>> matching = doSearch(RealmUtils.getEffective(
                 AuthContextUtils.getAuthorizations().get(StandardEntitlement.USER_SEARCH), realm),
                 searchCond == null ? userDAO.getAllMatchingCond() : searchCond,
-                page, size, orderBy, AnyTypeKind.USER);
-        List<UserTO> result = matching.stream().
+                page, size, orderBy, AnyTypeKind.USER, countMode);
+        List<UserTO> result = matching.getRight().stream().
                 map(user -> binder.returnUserTO(binder.getUserTO(user, details))).
                 collect(Collectors.toList());
 
-        return Pair.of(count, result);
+        return Pair.of(matching.getLeft(), result);
+    }
+
+    @PreAuthorize("hasRole('" + StandardEntitlement.USER_SEARCH + "')")
+    @Transactional(readOnly = true)
+    @Override
+    public AnyExport prepareExport(
+            final SearchCond searchCond,
+            final String realm,
+            final AnyExportFormat format,
+            final List<String> fields,
+            final List<String> plainAttrs,
+            final List<String> derAttrs,
+            final List<String> virAttrs) {
+
+        return doPrepareExport(RealmUtils.getEffective(
+                AuthContextUtils.getAuthorizations().get(StandardEntitlement.USER_SEARCH), realm),
+                searchCond == null ? userDAO.getAllMatchingCond() : searchCond,
+                AnyTypeKind.USER, format, fields, plainAttrs, derAttrs, virAttrs);
+    }
+
+    @PreAuthorize("hasRole('" + StandardEntitlement.USER_SEARCH + "')")
+    @Transactional(readOnly = true)
+    @Override
+    public void export(final OutputStream os, final AnyExport export) throws IOException {
+        doExport(os, export);
     }
 
     @PreAuthorize("isAnonymous() or hasRole('" + StandardEntitlement.ANONYMOUS + "')")
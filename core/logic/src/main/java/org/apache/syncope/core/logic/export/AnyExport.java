@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.logic.export;
+
+import java.util.List;
+import java.util.Set;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+
+/**
+ * Export of users, groups or any objects, already authorized and validated: only writing is left.
+ */
+public class AnyExport {
+
+    private final Set<String> adminRealms;
+
+    private final SearchCond cond;
+
+    private final AnyTypeKind kind;
+
+    private final AnyExportFormat format;
+
+    private final List<String> fields;
+
+    private final List<String> plainAttrs;
+
+    private final List<String> derAttrs;
+
+    private final List<String> virAttrs;
+
+    public AnyExport(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final AnyTypeKind kind,
+            final AnyExportFormat format,
+            final List<String> fields,
+            final List<String> plainAttrs,
+            final List<String> derAttrs,
+            final List<String> virAttrs) {
+
+        this.adminRealms = adminRealms;
+        this.cond = cond;
+        this.kind = kind;
+        this.format = format;
+        this.fields = fields;
+        this.plainAttrs = plainAttrs;
+        this.derAttrs = derAttrs;
+        this.virAttrs = virAttrs;
+    }
+
+    public Set<String> getAdminRealms() {
+        return adminRealms;
+    }
+
+    public SearchCond getCond() {
+        return cond;
+    }
+
+    public AnyTypeKind getKind() {
+        return kind;
+    }
+
+    public AnyExportFormat getFormat() {
+        return format;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public List<String> getPlainAttrs() {
+        return plainAttrs;
+    }
+
+    public List<String> getDerAttrs() {
+        return derAttrs;
+    }
+
+    public List<String> getVirAttrs() {
+        return virAttrs;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.logic.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
+
+/**
+ * Writes users, groups or any objects to the given output stream, one at a time, as soon as they are provided; values
+ * are given in the same order as the projected fields and attributes.
+ * Closing does not close the underlying output stream.
+ */
+public abstract class AnyExportWriter implements Closeable {
+
+    public static AnyExportWriter of(
+            final AnyExportFormat format,
+            final OutputStream os,
+            final List<String> fields,
+            final List<String> plainAttrs,
+            final List<String> derAttrs,
+            final List<String> virAttrs) throws IOException {
+
+        return format == AnyExportFormat.CSV
+                ? new CSVAnyExportWriter(os, fields, plainAttrs, derAttrs, virAttrs)
+                : new NDJSONAnyExportWriter(os, fields, plainAttrs, derAttrs, virAttrs);
+    }
+
+    protected final List<String> fields;
+
+    protected final List<String> plainAttrs;
+
+    protected final List<String> derAttrs;
+
+    protected final List<String> virAttrs;
+
+    protected AnyExportWriter(
+            final List<String> fields,
+            final List<String> plainAttrs,
+            final List<String> derAttrs,
+            final List<String> virAttrs) {
+
+        this.fields = fields;
+        this.plainAttrs = plainAttrs;
+        this.derAttrs = derAttrs;
+        this.virAttrs = virAttrs;
+    }
+
+    /**
+     * @param fieldValues one value (possibly null) per projected field
+     * @param plainAttrValues one list of values per projected plain attribute
+     * @param derAttrValues one value (possibly null) per projected derived attribute
+     * @param virAttrValues one list of values per projected virtual attribute
+     * @throws IOException if writing fails
+     */
+    public abstract void write(
+            List<String> fieldValues,
+            List<List<String>> plainAttrValues,
+            List<String> derAttrValues,
+            List<List<String>> virAttrValues) throws IOException;
+
+    public abstract void flush() throws IOException;
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.logic.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Header line with field and attribute names, followed by one line per user, group or any object, as per RFC 4180;
+ * multiple attribute values are separated by {@link #VALUE_SEPARATOR}, each occurrence of {@link #VALUE_SEPARATOR}
+ * or {@link #VALUE_ESCAPE} within values being prefixed by {@link #VALUE_ESCAPE}: for example, values {@code a|b} and
+ * {@code c\} are exported as {@code a\|b|c\\}.
+ */
+public class CSVAnyExportWriter extends AnyExportWriter {
+
+    public static final String VALUE_SEPARATOR = "|";
+
+    public static final String VALUE_ESCAPE = "\\";
+
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    private static final char[] TO_BE_QUOTED = { ',', '"', '\r', '\n' };
+
+    private final Writer writer;
+
+    public CSVAnyExportWriter(
+            final OutputStream os,
+            final List<String> fields,
+            final List<String> plainAttrs,
+            final List<String> derAttrs,
+            final List<String> virAttrs) throws IOException {
+
+        super(fields, plainAttrs, derAttrs, virAttrs);
+        this.writer = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+
+        List<String> header = new ArrayList<>(fields);
+        header.addAll(plainAttrs);
+        header.addAll(derAttrs);
+        header.addAll(virAttrs);
+        writeLine(header);
+    }
+
+    private static String join(final List<String> values) {
+        return values.stream().
+                map(value -> value.replace(VALUE_ESCAPE, VALUE_ESCAPE + VALUE_ESCAPE).
+                replace(VALUE_SEPARATOR, VALUE_ESCAPE + VALUE_SEPARATOR)).
+                collect(Collectors.joining(VALUE_SEPARATOR));
+    }
+
+    private void writeLine(final List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+
+            String value = values.get(i);
+            if (value != null) {
+                if (StringUtils.containsAny(value, TO_BE_QUOTED)) {
+                    writer.write('"');
+                    writer.write(value.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(value);
+                }
+            }
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void write(
+            final List<String> fieldValues,
+            final List<List<String>> plainAttrValues,
+            final List<String> derAttrValues,
+            final List<List<String>> virAttrValues) throws IOException {
+
+        List<String> line = new ArrayList<>(fieldValues);
+        plainAttrValues.forEach(values -> line.add(join(values)));
+        line.addAll(derAttrValues);
+        virAttrValues.forEach(values -> line.add(join(values)));
+        writeLine(line);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // flush only, leaving the underlying output stream open
+        writer.flush();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.logic.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * One JSON object per line, with fields as properties and attributes grouped by schema type.
+ */
+public class NDJSONAnyExportWriter extends AnyExportWriter {
+
+    // objects are separated by newlines, written below, rather than by the default separator (space)
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().
+            disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET).
+            setRootValueSeparator(null);
+
+    private final JsonGenerator generator;
+
+    public NDJSONAnyExportWriter(
+            final OutputStream os,
+            final List<String> fields,
+            final List<String> plainAttrs,
+            final List<String> derAttrs,
+            final List<String> virAttrs) throws IOException {
+
+        super(fields, plainAttrs, derAttrs, virAttrs);
+        this.generator = JSON_FACTORY.createGenerator(os, JsonEncoding.UTF8);
+    }
+
+    private void writeMultiValued(
+            final String name, final List<String> schemas, final List<List<String>> values) throws IOException {
+
+        if (!schemas.isEmpty()) {
+            generator.writeObjectFieldStart(name);
+            for (int i = 0; i < schemas.size(); i++) {
+                generator.writeArrayFieldStart(schemas.get(i));
+                for (String value : values.get(i)) {
+                    generator.writeString(value);
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    @Override
+    public void write(
+            final List<String> fieldValues,
+            final List<List<String>> plainAttrValues,
+            final List<String> derAttrValues,
+            final List<List<String>> virAttrValues) throws IOException {
+
+        generator.writeStartObject();
+
+        for (int i = 0; i < fields.size(); i++) {
+            generator.writeStringField(fields.get(i), fieldValues.get(i));
+        }
+
+        writeMultiValued("plainAttrs", plainAttrs, plainAttrValues);
+
+        if (!derAttrs.isEmpty()) {
+            generator.writeObjectFieldStart("derAttrs");
+            for (int i = 0; i < derAttrs.size(); i++) {
+                generator.writeStringField(derAttrs.get(i), derAttrValues.get(i));
+            }
+            generator.writeEndObject();
+        }
+
+        writeMultiValued("virAttrs", virAttrs, virAttrValues);
+
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.logic.init;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.apache.syncope.core.persistence.api.DomainsHolder;
+import org.apache.syncope.core.persistence.api.SyncopeLoader;
+import org.apache.syncope.core.persistence.api.dao.ImplementationDAO;
+import org.apache.syncope.core.persistence.api.entity.Implementation;
+import org.apache.syncope.core.spring.ImplementationManager;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Optionally builds, at startup, all implementations defined for all domains, so that the cost of Groovy compilation
+ * and configuration parsing is not paid by the first request using each of them.
+ */
+public class ImplementationLoader implements SyncopeLoader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImplementationLoader.class);
+
+    @Autowired
+    private DomainsHolder domainsHolder;
+
+    @Autowired
+    private ImplementationDAO implementationDAO;
+
+    private boolean precompile;
+
+    public void setPrecompile(final boolean precompile) {
+        this.precompile = precompile;
+    }
+
+    @Override
+    public Integer getPriority() {
+        return 1100;
+    }
+
+    @Override
+    public void load() {
+        if (!precompile) {
+            return;
+        }
+
+        for (Map.Entry<String, DataSource> entry : domainsHolder.getDomains().entrySet()) {
+            AuthContextUtils.execWithAuthContext(entry.getKey(), () -> {
+                long start = System.currentTimeMillis();
+                int built = 0;
+                for (Implementation impl : implementationDAO.findAll()) {
+                    try {
+                        ImplementationManager.precompile(impl);
+                        built++;
+                    } catch (Exception e) {
+                        LOG.error("[{}] Could not precompile implementation {}", entry.getKey(), impl.getKey(), e);
+                    }
+                }
+                LOG.info("[{}] {} implementations precompiled in {} ms",
+                        entry.getKey(), built, System.currentTimeMillis() - start);
+                return null;
+            });
+        }
+        LOG.debug("Implementations built so far: {}, in {} ms overall",
+                ImplementationManager.getBuilds(),
+                TimeUnit.NANOSECONDS.toMillis(ImplementationManager.getBuildNanos()));
+    }
+}
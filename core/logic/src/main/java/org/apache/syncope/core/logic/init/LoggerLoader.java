@@ -29,11 +29,13 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AsyncAppender;
 import org.apache.logging.log4j.core.appender.db.ColumnMapping;
 import org.apache.logging.log4j.core.appender.db.jdbc.AbstractConnectionSource;
 import org.apache.logging.log4j.core.appender.db.jdbc.ColumnConfig;
 import org.apache.logging.log4j.core.appender.db.jdbc.JdbcAppender;
 import org.apache.logging.log4j.core.appender.rewrite.RewriteAppender;
+import org.apache.logging.log4j.core.config.AppenderRef;
 import org.apache.logging.log4j.core.config.LoggerConfig;
 import org.apache.syncope.common.lib.types.AuditLoggerName;
 import org.apache.syncope.core.logic.audit.AuditAppender;
@@ -47,11 +49,21 @@ import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.jdbc.datasource.DataSourceUtils;
-import org.springframework.stereotype.Component;
 
-@Component
 public class LoggerLoader implements SyncopeLoader {
 
+    /**
+     * Maximum number of audit entries written to the database within a single transaction, when writing
+     * asynchronously.
+     */
+    private static final int AUDIT_BATCH_SIZE = 100;
+
+    /**
+     * Maximum number of audit entries waiting to be written, when writing asynchronously; when full, callers are
+     * blocked.
+     */
+    private static final int AUDIT_QUEUE_SIZE = 1024;
+
     @Autowired
     private DomainsHolder domainsHolder;
 
@@ -63,6 +75,18 @@ public class LoggerLoader implements SyncopeLoader {
 
     private final Map<String, MemoryAppender> memoryAppenders = new HashMap<>();
 
+    private boolean auditAsync;
+
+    /**
+     * When enabled, audit entries are written to the database by a background thread, in batches: callers are no
+     * longer slowed down by audit, but entries still waiting to be written are lost if the JVM stops abruptly.
+     *
+     * @param auditAsync whether audit entries shall be written asynchronously
+     */
+    public void setAuditAsync(final boolean auditAsync) {
+        this.auditAsync = auditAsync;
+    }
+
     @Override
     public Integer getPriority() {
         return 300;
@@ -100,7 +124,7 @@ public class LoggerLoader implements SyncopeLoader {
                         withName("audit_for_" + entry.getKey()).
                         withIgnoreExceptions(false).
                         setConnectionSource(new DataSourceConnectionSource(entry.getKey(), entry.getValue())).
-                        setBufferSize(0).
+                        setBufferSize(auditAsync ? AUDIT_BATCH_SIZE : 0).
                         setTableName("SYNCOPEAUDIT").
                         setColumnConfigs(columnConfigs).
                         setColumnMappings(columnMappings).
@@ -109,6 +133,25 @@ public class LoggerLoader implements SyncopeLoader {
                 ctx.getConfiguration().addAppender(appender);
             }
 
+            if (auditAsync) {
+                // audit entries are written by a background thread, which flushes the buffered JDBC appender once
+                // the queue is drained or AUDIT_BATCH_SIZE entries were buffered, whichever comes first
+                Appender asyncAppender = ctx.getConfiguration().getAppender(appender.getName() + "_async");
+                if (asyncAppender == null) {
+                    AppenderRef appenderRef = AppenderRef.createAppenderRef(appender.getName(), null, null);
+                    asyncAppender = AsyncAppender.newBuilder().
+                            setName(appender.getName() + "_async").
+                            setConfiguration(ctx.getConfiguration()).
+                            setAppenderRefs(new AppenderRef[] { appenderRef }).
+                            setBlocking(true).
+                            setBufferSize(AUDIT_QUEUE_SIZE).
+                            build();
+                    asyncAppender.start();
+                    ctx.getConfiguration().addAppender(asyncAppender);
+                }
+                appender = asyncAppender;
+            }
+
             LoggerConfig logConf = new LoggerConfig(AuditLoggerName.getAuditLoggerName(entry.getKey()), null, false);
             logConf.addAppender(appender, Level.DEBUG, null);
             logConf.setLevel(Level.DEBUG);
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.logic.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class CSVAnyExportWriterTest {
+
+    private static String export(
+            final List<String> fields,
+            final List<String> plainAttrs,
+            final List<String> derAttrs,
+            final List<String> virAttrs,
+            final List<String> fieldValues,
+            final List<List<String>> plainAttrValues,
+            final List<String> derAttrValues,
+            final List<List<String>> virAttrValues) throws IOException {
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (AnyExportWriter writer = new CSVAnyExportWriter(os, fields, plainAttrs, derAttrs, virAttrs)) {
+            writer.write(fieldValues, plainAttrValues, derAttrValues, virAttrValues);
+        }
+        return new String(os.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void quoting() throws IOException {
+        String csv = export(
+                Arrays.asList("username", "status"),
+                Collections.singletonList("fullname"),
+                Collections.singletonList("cn"),
+                Collections.emptyList(),
+                Arrays.asList("rossini", "active, \"quoted\""),
+                Collections.singletonList(Collections.singletonList("Gioacchino\r\nRossini")),
+                Collections.singletonList("plain"),
+                Collections.emptyList());
+
+        assertEquals("username,status,fullname,cn\r\n"
+                + "rossini,\"active, \"\"quoted\"\"\",\"Gioacchino\r\nRossini\",plain\r\n", csv);
+    }
+
+    @Test
+    public void nullValues() throws IOException {
+        String csv = export(
+                Arrays.asList("username", "status"),
+                Collections.singletonList("fullname"),
+                Collections.singletonList("cn"),
+                Collections.singletonList("virtualdata"),
+                Arrays.asList("rossini", null),
+                Collections.singletonList(Collections.emptyList()),
+                Collections.singletonList(null),
+                Collections.singletonList(Collections.emptyList()));
+
+        assertEquals("username,status,fullname,cn,virtualdata\r\nrossini,,,,\r\n", csv);
+    }
+
+    @Test
+    public void multipleValues() throws IOException {
+        String csv = export(
+                Collections.singletonList("username"),
+                Collections.singletonList("loginDate"),
+                Collections.emptyList(),
+                Collections.singletonList("virtualdata"),
+                Collections.singletonList("rossini"),
+                Collections.singletonList(Arrays.asList("2009-05-26", "2010-05-26")),
+                Collections.emptyList(),
+                Collections.singletonList(Arrays.asList("a|b", "c\\", "d,e")));
+
+        // separators and escapes within values are escaped, then the whole cell is quoted if needed
+        assertEquals("username,loginDate,virtualdata\r\n"
+                + "rossini,2009-05-26|2010-05-26,\"a\\|b|c\\\\|d,e\"\r\n", csv);
+    }
+
+    @Test
+    public void emptyProjection() throws IOException {
+        String csv = export(
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList());
+
+        assertEquals("\r\n\r\n", csv);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.logic.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+public class NDJSONAnyExportWriterTest {
+
+    @Test
+    public void write() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (AnyExportWriter writer = new NDJSONAnyExportWriter(
+                os,
+                Arrays.asList("username", "status"),
+                Collections.singletonList("fullname"),
+                Collections.singletonList("cn"),
+                Collections.singletonList("virtualdata"))) {
+
+            writer.write(
+                    Arrays.asList("rossini", "active, \"quoted\""),
+                    Collections.singletonList(Arrays.asList("Gioacchino\r\nRossini", "a|b")),
+                    Collections.singletonList("plain"),
+                    Collections.singletonList(Collections.emptyList()));
+            writer.write(
+                    Arrays.asList("verdi", null),
+                    Collections.singletonList(Collections.emptyList()),
+                    Collections.singletonList(null),
+                    Collections.singletonList(Collections.singletonList("virtual")));
+        }
+
+        // one object per line, values being escaped as JSON strings
+        assertEquals("{\"username\":\"rossini\",\"status\":\"active, \\\"quoted\\\"\","
+                + "\"plainAttrs\":{\"fullname\":[\"Gioacchino\\r\\nRossini\",\"a|b\"]},"
+                + "\"derAttrs\":{\"cn\":\"plain\"},"
+                + "\"virAttrs\":{\"virtualdata\":[]}}\n"
+                + "{\"username\":\"verdi\",\"status\":null,"
+                + "\"plainAttrs\":{\"fullname\":[]},"
+                + "\"derAttrs\":{\"cn\":null},"
+                + "\"virAttrs\":{\"virtualdata\":[\"virtual\"]}}\n",
+                new String(os.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void emptyProjection() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (AnyExportWriter writer = new NDJSONAnyExportWriter(
+                os, Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList())) {
+
+            writer.write(Collections.emptyList(), Collections.emptyList(), Collections.emptyList(),
+                    Collections.emptyList());
+            writer.write(Collections.emptyList(), Collections.emptyList(), Collections.emptyList(),
+                    Collections.emptyList());
+        }
+
+        assertEquals("{}\n{}\n", new String(os.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
@@ -39,6 +39,14 @@ public interface AnyDAO<A extends Any<?>> extends DAO<A> {
 
     A find(String key);
 
+    /**
+     * Loads all entities matching the given keys at once, along with their plain attributes and memberships.
+     *
+     * @param keys entity keys
+     * @return entities found, in the same order as the given keys, without duplicates
+     */
+    List<A> findByKeys(Collection<String> keys);
+
     List<A> findByPlainAttrValue(String schemaName, PlainAttrValue attrValue, boolean ignoreCaseMatch);
 
     A findByPlainAttrUniqueValue(String schemaName, PlainAttrValue attrUniqueValue, boolean ignoreCaseMatch);
@@ -77,6 +85,16 @@ public interface AnyDAO<A extends Any<?>> extends DAO<A> {
      */
     List<A> findAll(int page, int itemsPerPage);
 
+    /**
+     * Find the keys of any objects without any limitation, seeking past the given key rather than skipping a number
+     * of rows: this allows to go through all any objects at a cost that does not depend on the position reached.
+     *
+     * @param afterKey only keys greater than this will be returned, null to start from the first
+     * @param itemsPerPage maximum number of keys to return
+     * @return keys of any objects of type {@link A}, in ascending order
+     */
+    List<String> findAllKeys(String afterKey, int itemsPerPage);
+
     <S extends Schema> AllowedSchemas<S> findAllowedSchemas(A any, Class<S> reference);
 
     A save(A any);
@@ -20,6 +20,7 @@ package org.apache.syncope.core.persistence.api.dao;
 
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
@@ -66,6 +67,64 @@ public interface AnySearchDAO extends DAO<Any<?>> {
             Set<String> adminRealms, SearchCond searchCondition, int page, int itemsPerPage,
             List<OrderByClause> orderBy, AnyTypeKind kind);
 
+    /**
+     * Same as {@link #search(java.util.Set, SearchCond, int, int, java.util.List, AnyTypeKind)} but, when available,
+     * also returns the first matching any object past the given page: this allows to tell whether further pages exist
+     * without counting.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param searchCondition the search condition
+     * @param page position of the first result, start from 1
+     * @param itemsPerPage number of results per page
+     * @param orderBy list of ordering clauses
+     * @param kind any object
+     * @param <T> any
+     * @return the list of any objects matching the given search condition (in the given page), followed by the first
+     * one of the next page, if any
+     */
+    <T extends Any<?>> List<T> searchLookAhead(
+            Set<String> adminRealms, SearchCond searchCondition, int page, int itemsPerPage,
+            List<OrderByClause> orderBy, AnyTypeKind kind);
+
+    /**
+     * Same as {@link #search(java.util.Set, SearchCond, int, int, java.util.List, AnyTypeKind)} but only returns the
+     * keys of matching any objects, in no particular order and without loading any entity.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param searchCondition the search condition
+     * @param kind any object
+     * @return the keys of any objects matching the given search condition
+     */
+    List<String> searchKeys(Set<String> adminRealms, SearchCond searchCondition, AnyTypeKind kind);
+
+    /**
+     * Keyset-paginated variant of {@link #searchKeys(java.util.Set, SearchCond, AnyTypeKind)}: unlike
+     * {@link #search(java.util.Set, SearchCond, int, int, java.util.List, AnyTypeKind)}, cost does not depend on the
+     * position reached and any objects created or deleted meanwhile do not cause others to be skipped or repeated.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param searchCondition the search condition
+     * @param kind any object
+     * @param afterKey only keys greater than this will be returned, null to start from the first key
+     * @param limit maximum number of keys to return
+     * @return the keys of any objects matching the given search condition, in ascending order
+     */
+    List<String> searchKeys(
+            Set<String> adminRealms, SearchCond searchCondition, AnyTypeKind kind, String afterKey, int limit);
+
+    /**
+     * Lazily streams the keys of any objects matching the given search condition, in ascending order; keys are
+     * fetched in chunks via {@link #searchKeys(java.util.Set, SearchCond, AnyTypeKind, java.lang.String, int)}, as
+     * the stream is consumed.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param searchCondition the search condition
+     * @param kind any object
+     * @param chunkSize number of keys fetched at once
+     * @return the keys of any objects matching the given search condition, in ascending order
+     */
+    Stream<String> streamKeys(Set<String> adminRealms, SearchCond searchCondition, AnyTypeKind kind, int chunkSize);
+
     /**
      * Verify if any matches the given search condition.
      *
@@ -75,4 +134,15 @@ public interface AnySearchDAO extends DAO<Any<?>> {
      * @return true if any matches searchCondition
      */
     <T extends Any<?>> boolean matches(T any, SearchCond searchCondition);
+
+    /**
+     * Same as {@link #matches(Any, SearchCond)}, but evaluates the given search condition against the given any as
+     * currently loaded in memory, without querying the database, whenever the condition allows to.
+     *
+     * @param any to be checked
+     * @param searchCondition to be verified
+     * @param <T> any
+     * @return true if any matches searchCondition
+     */
+    <T extends Any<?>> boolean matchesInMemory(T any, SearchCond searchCondition);
 }
@@ -26,6 +26,22 @@ public interface BatchDAO extends DAO<Batch> {
 
     Batch save(Batch batch);
 
+    /**
+     * Appends the given chunk to the results of the given batch, without loading or rewriting the results already
+     * saved.
+     *
+     * @param key batch key
+     * @param chunk results chunk to append
+     * @return whether the batch was found
+     */
+    boolean appendResults(String key, String chunk);
+
+    /**
+     * @param key batch key
+     * @return results saved so far for the given batch, or {@code null} if none was saved yet
+     */
+    String getResults(String key);
+
     void delete(String key);
 
     int deleteExpired();
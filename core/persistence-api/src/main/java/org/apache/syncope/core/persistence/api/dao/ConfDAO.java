@@ -20,6 +20,7 @@ package org.apache.syncope.core.persistence.api.dao;
 
 import java.util.Optional;
 import java.util.List;
+import java.util.Map;
 import org.apache.syncope.core.persistence.api.entity.conf.CPlainAttr;
 import org.apache.syncope.core.persistence.api.entity.conf.Conf;
 
@@ -29,10 +30,23 @@ public interface ConfDAO extends DAO<Conf> {
 
     List<String> getValuesAsStrings(String key);
 
+    /**
+     * @return values as strings of all configuration parameters, by schema key
+     */
+    Map<String, List<String>> getValuesAsStrings();
+
     <T> T find(String key, T defaultValue);
 
     Conf get();
 
+    /**
+     * Returns the version of configuration parameters, increased whenever any of them is changed: callers can use this
+     * value to check whether their own information derived from configuration parameters is still valid.
+     *
+     * @return version of configuration parameters
+     */
+    long getVersion();
+
     Conf save(CPlainAttr attr);
 
     Conf delete(String key);
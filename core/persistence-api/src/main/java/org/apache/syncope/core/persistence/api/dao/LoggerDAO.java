@@ -33,4 +33,12 @@ public interface LoggerDAO extends DAO<Logger> {
     void delete(String key);
 
     void delete(Logger logger);
+
+    /**
+     * Returns the version of loggers, increased whenever any of them is changed: callers can use this value to check
+     * whether their own information derived from loggers is still valid.
+     *
+     * @return version of loggers
+     */
+    long getVersion();
 }
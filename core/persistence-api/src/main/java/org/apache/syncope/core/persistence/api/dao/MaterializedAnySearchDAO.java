@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.dao;
+
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+
+/**
+ * {@link AnySearchDAO} reading plain attribute values from denormalized tables, kept up to date as users, groups
+ * and any objects are saved or deleted.
+ */
+public interface MaterializedAnySearchDAO extends AnySearchDAO {
+
+    /**
+     * Schedules the refresh of the denormalized table rows for the given user, group or any object, just saved or
+     * deleted: rows are refreshed right before commit, or before the first search issued meanwhile within the same
+     * transaction; immediately, when no transaction is active.
+     *
+     * @param kind any object
+     * @param key user, group or any object key
+     */
+    void refresh(AnyTypeKind kind, String key);
+
+    /**
+     * Rebuilds from scratch the denormalized table for the given kind.
+     *
+     * @param kind any object
+     * @return number of rows in the rebuilt table
+     */
+    int rebuild(AnyTypeKind kind);
+}
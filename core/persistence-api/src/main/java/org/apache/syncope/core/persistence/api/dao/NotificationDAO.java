@@ -36,4 +36,12 @@ public interface NotificationDAO extends DAO<Notification> {
     Notification save(Notification notification);
 
     void delete(String key);
+
+    /**
+     * Returns the version of notifications, increased whenever any of them is changed: callers can use this value to
+     * check whether their own information derived from notifications is still valid.
+     *
+     * @return version of notifications
+     */
+    long getVersion();
 }
@@ -47,6 +47,12 @@ public interface RealmDAO extends DAO<Realm> {
 
     List<Realm> findChildren(Realm realm);
 
+    /**
+     * @param realm realm
+     * @return keys of the given realm and of all of its descendants, without loading any of them
+     */
+    List<String> findDescendantKeys(Realm realm);
+
     List<Realm> findDescendants(Realm realm);
 
     List<Realm> findAll();
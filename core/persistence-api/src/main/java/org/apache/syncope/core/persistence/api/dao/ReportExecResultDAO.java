@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+import org.apache.syncope.core.persistence.api.entity.ReportExec;
+
+/**
+ * Stores report execution results - zipped XML documents - as streams, so that no result needs to be held in memory
+ * as a whole, no matter its size.
+ */
+public interface ReportExecResultDAO {
+
+    /**
+     * Opens a stream where to write the result of the given report execution: the result is actually stored,
+     * replacing any previous one, only when the returned stream is closed, within the same transaction where the
+     * given report execution was saved.
+     *
+     * @param execution report execution
+     * @return stream where to write the result of the given report execution
+     * @throws IOException if the stream could not be opened
+     */
+    OutputStream store(ReportExec execution) throws IOException;
+
+    /**
+     * @param execution report execution
+     * @return whether a result is available for the given report execution
+     */
+    boolean exists(ReportExec execution);
+
+    /**
+     * Opens a stream for reading the result of the given report execution, if available; the returned stream must
+     * be closed by the caller, within the same transaction.
+     *
+     * @param execution report execution
+     * @return stream for reading the result of the given report execution, if available
+     * @throws IOException if the stream could not be opened
+     */
+    Optional<InputStream> read(ReportExec execution) throws IOException;
+
+    /**
+     * Removes the result of the given report execution, if any; to be invoked when the report execution itself is
+     * removed.
+     *
+     * @param execution report execution
+     */
+    void delete(ReportExec execution);
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.api.dao;
 
+import java.util.Date;
 import java.util.List;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.TaskType;
@@ -46,6 +47,37 @@ public interface TaskDAO extends DAO<Task> {
 
     <T extends Task> List<T> findToExec(TaskType type);
 
+    /**
+     * Keyset-paginated lookup of notification tasks not yet executed, nor claimed by any owner; unlike
+     * {@link #findToExec(TaskType)}, only keys are returned, straight from the database.
+     *
+     * @param afterKey only keys greater than this will be returned, null to start from the first key
+     * @param limit maximum number of keys to return
+     * @return keys of notification tasks not yet executed nor claimed, in ascending order
+     */
+    List<String> findNotificationsToExec(String afterKey, int limit);
+
+    /**
+     * Atomically claims the given notification task for the given owner until the given expiry, unless the task was
+     * executed or claimed by another owner meanwhile; once expired, a claim can be taken over by other owners - e.g.
+     * other nodes, in case the owner stopped before executing the task.
+     * The executed flag is not affected.
+     *
+     * @param key notification task key
+     * @param owner claim owner
+     * @param expiry claim expiry
+     * @return whether the given notification task was claimed
+     */
+    boolean claimNotification(String key, String owner, Date expiry);
+
+    /**
+     * Releases the claim on the given notification task, if still held by the given owner.
+     *
+     * @param key notification task key
+     * @param owner claim owner
+     */
+    void releaseNotification(String key, String owner);
+
     <T extends Task> List<T> findAll(TaskType type);
 
     <T extends Task> List<T> findAll(
@@ -25,8 +25,4 @@ public interface Batch extends ProvidedKeyEntity {
     Date getExpiryTime();
 
     void setExpiryTime(Date expiryTime);
-
-    String getResults();
-
-    void setResults(String results);
 }
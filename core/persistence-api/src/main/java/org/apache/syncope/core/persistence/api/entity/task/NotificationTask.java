@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.api.entity.task;
 
+import java.util.Date;
 import java.util.Set;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.TraceLevel;
@@ -63,4 +64,16 @@ public interface NotificationTask extends Task {
 
     void setExecuted(boolean executed);
 
+    /**
+     * @return owner of the current claim, if any, see
+     * {@link org.apache.syncope.core.persistence.api.dao.TaskDAO#claimNotification}
+     */
+    String getClaimOwner();
+
+    /**
+     * @return expiry of the current claim, if any, see
+     * {@link org.apache.syncope.core.persistence.api.dao.TaskDAO#claimNotification}
+     */
+    Date getClaimExpiry();
+
 }
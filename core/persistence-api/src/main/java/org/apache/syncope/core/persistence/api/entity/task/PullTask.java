@@ -49,4 +49,12 @@ public interface PullTask extends ProvisioningTask {
 
     boolean isRemediation();
 
+    /**
+     * @return number of workers handling pulled objects concurrently; objects with the same Uid are always handled
+     * by the same worker, in the order they were received
+     */
+    int getConcurrentThreads();
+
+    void setConcurrentThreads(int concurrentThreads);
+
 }
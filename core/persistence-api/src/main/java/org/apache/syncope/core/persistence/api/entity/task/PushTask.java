@@ -34,4 +34,11 @@ public interface PushTask extends ProvisioningTask {
     Optional<? extends PushTaskAnyFilter> getFilter(AnyType anyType);
 
     List<? extends PushTaskAnyFilter> getFilters();
+
+    /**
+     * @return number of workers pushing objects concurrently, for each provision
+     */
+    int getConcurrentThreads();
+
+    void setConcurrentThreads(int concurrentThreads);
 }
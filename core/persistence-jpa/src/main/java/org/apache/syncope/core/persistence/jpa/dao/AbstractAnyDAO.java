@@ -25,16 +25,24 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import javax.persistence.Query;
 import javax.persistence.TemporalType;
+import javax.persistence.TypedQuery;
 import org.apache.commons.jexl3.parser.Parser;
 import org.apache.commons.jexl3.parser.ParserConstants;
 import org.apache.commons.jexl3.parser.Token;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.openjpa.persistence.FetchPlan;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.AllowedSchemas;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.DerSchemaDAO;
@@ -57,18 +65,28 @@ import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.persistence.jpa.entity.JPADerSchema;
+import org.apache.syncope.core.persistence.jpa.entity.JPAPlainSchema;
+import org.apache.syncope.core.persistence.jpa.entity.JPAVirSchema;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAUser;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> implements AnyDAO<A> {
 
+    /**
+     * Keeps IN clauses within the limits set by some DBMS, e.g. Oracle.
+     */
+    protected static final int MAX_IN_CLAUSE_SIZE = 1000;
+
     @Autowired
     protected ApplicationEventPublisher publisher;
 
+    @Autowired
+    private AllowedSchemasCache allowedSchemasCache;
+
     private PlainSchemaDAO plainSchemaDAO;
 
     private DerSchemaDAO derSchemaDAO;
@@ -176,6 +194,31 @@ public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> im
         return (A) entityManager().find(anyUtils().anyClass(), key);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<A> findByKeys(final Collection<String> keys) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+
+        Map<String, A> found = new HashMap<>(distinct.size());
+        for (int i = 0; i < distinct.size(); i += MAX_IN_CLAUSE_SIZE) {
+            Query query = entityManager().createQuery("SELECT e FROM " + anyUtils().anyClass().getSimpleName()
+                    + " e WHERE e.id IN :keys");
+            query.setParameter("keys", distinct.subList(i, Math.min(i + MAX_IN_CLAUSE_SIZE, distinct.size())));
+
+            // fetch plain attributes and memberships for all the entities found, rather than lazily one by one
+            FetchPlan fetchPlan = OpenJPAPersistence.cast(query).getFetchPlan();
+            fetchPlan.addField(anyUtils().anyClass(), "plainAttrs");
+            if (anyUtils().anyTypeKind() != AnyTypeKind.GROUP) {
+                fetchPlan.addField(anyUtils().anyClass(), "memberships");
+            }
+
+            ((List<A>) query.getResultList()).forEach(any -> found.put(any.getKey(), any));
+        }
+
+        return distinct.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
     private Query findByPlainAttrValueQuery(final String entityName, final boolean ignoreCaseMatch) {
         String query = "SELECT e FROM " + entityName + " e"
                 + " WHERE e.attribute.schema.id = :schemaKey AND (e.stringValue IS NOT NULL"
@@ -446,6 +489,21 @@ public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> im
         return query.getResultList();
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<String> findAllKeys(final String afterKey, final int itemsPerPage) {
+        TypedQuery<String> query = entityManager().createQuery(
+                "SELECT e.id FROM " + anyUtils().anyClass().getSimpleName() + " e"
+                + (afterKey == null ? "" : " WHERE e.id > :afterKey")
+                + " ORDER BY e.id", String.class);
+        if (afterKey != null) {
+            query.setParameter("afterKey", afterKey);
+        }
+        query.setMaxResults(itemsPerPage);
+
+        return query.getResultList();
+    }
+
     @Override
     public SearchCond getAllMatchingCond() {
         AnyCond idCond = new AnyCond(AttributeCond.Type.ISNOTNULL);
@@ -453,28 +511,40 @@ public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> im
         return SearchCond.getLeafCond(idCond);
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
-    @Override
-    @SuppressWarnings("unchecked")
-    public <S extends Schema> AllowedSchemas<S> findAllowedSchemas(final A any, final Class<S> reference) {
-        AllowedSchemas<S> result = new AllowedSchemas<>();
-
-        // schemas given by type and aux classes
-        Set<AnyTypeClass> typeOwnClasses = new HashSet<>();
-        typeOwnClasses.addAll(any.getType().getClasses());
-        typeOwnClasses.addAll(any.getAuxClasses());
+    private static Set<String> schemaKeys(
+            final Collection<? extends AnyTypeClass> typeClasses, final Class<? extends Schema> reference) {
 
-        typeOwnClasses.forEach(typeClass -> {
+        Set<String> keys = new HashSet<>();
+        typeClasses.forEach(typeClass -> {
             if (reference.equals(PlainSchema.class)) {
-                result.getForSelf().addAll((Collection<? extends S>) typeClass.getPlainSchemas());
+                typeClass.getPlainSchemas().forEach(schema -> keys.add(schema.getKey()));
             } else if (reference.equals(DerSchema.class)) {
-                result.getForSelf().addAll((Collection<? extends S>) typeClass.getDerSchemas());
+                typeClass.getDerSchemas().forEach(schema -> keys.add(schema.getKey()));
             } else if (reference.equals(VirSchema.class)) {
-                result.getForSelf().addAll((Collection<? extends S>) typeClass.getVirSchemas());
+                typeClass.getVirSchemas().forEach(schema -> keys.add(schema.getKey()));
             }
         });
+        return keys;
+    }
+
+    private static List<String> sortedKeys(final Collection<? extends AnyTypeClass> typeClasses) {
+        return typeClasses.stream().map(AnyTypeClass::getKey).sorted().collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S extends Schema> S findSchema(final Class<S> reference, final String key) {
+        Class<? extends Schema> entityReference = reference.equals(PlainSchema.class)
+                ? JPAPlainSchema.class
+                : reference.equals(DerSchema.class)
+                ? JPADerSchema.class
+                : JPAVirSchema.class;
+        return (S) entityManager().find(entityReference, key);
+    }
 
-        // schemas given by type extensions
+    @Transactional(readOnly = true)
+    @Override
+    public <S extends Schema> AllowedSchemas<S> findAllowedSchemas(final A any, final Class<S> reference) {
+        // type extensions are part of the signature: any type classes are only walked when not found in cache
         Map<Group, List<? extends AnyTypeClass>> typeExtensionClasses = new HashMap<>();
         if (any instanceof User) {
             ((User) any).getMemberships().forEach(memb -> {
@@ -492,22 +562,36 @@ public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> im
             });
         }
 
-        typeExtensionClasses.entrySet().stream().map(entry -> {
-            result.getForMemberships().put(entry.getKey(), new HashSet<>());
-            return entry;
-        }).forEachOrdered((entry) -> {
-            entry.getValue().forEach(typeClass -> {
-                if (reference.equals(PlainSchema.class)) {
-                    result.getForMemberships().get(entry.getKey()).
-                            addAll((Collection<? extends S>) typeClass.getPlainSchemas());
-                } else if (reference.equals(DerSchema.class)) {
-                    result.getForMemberships().get(entry.getKey()).
-                            addAll((Collection<? extends S>) typeClass.getDerSchemas());
-                } else if (reference.equals(VirSchema.class)) {
-                    result.getForMemberships().get(entry.getKey()).
-                            addAll((Collection<? extends S>) typeClass.getVirSchemas());
-                }
-            });
+        Map<String, List<String>> typeExtensions = new TreeMap<>();
+        typeExtensionClasses.forEach((group, auxClasses) -> typeExtensions.put(group.getKey(), sortedKeys(auxClasses)));
+
+        AllowedSchemasCache.Entry entry = allowedSchemasCache.get(
+                new AllowedSchemasCache.Signature(
+                        reference, any.getType().getKey(), sortedKeys(any.getAuxClasses()), typeExtensions),
+                signature -> {
+                    // schemas given by type and aux classes
+                    Set<AnyTypeClass> typeOwnClasses = new HashSet<>();
+                    typeOwnClasses.addAll(any.getType().getClasses());
+                    typeOwnClasses.addAll(any.getAuxClasses());
+
+                    // schemas given by type extensions
+                    Map<String, Set<String>> forMemberships = new HashMap<>();
+                    typeExtensionClasses.forEach((group, auxClasses) -> {
+                        forMemberships.put(group.getKey(), schemaKeys(auxClasses, reference));
+                    });
+
+                    return new AllowedSchemasCache.Entry(schemaKeys(typeOwnClasses, reference), forMemberships);
+                });
+
+        // schemas are found in the current persistence context, not shared via cache
+        AllowedSchemas<S> result = new AllowedSchemas<>();
+        entry.getForSelf().stream().map(key -> findSchema(reference, key)).filter(Objects::nonNull).
+                forEach(result.getForSelf()::add);
+        typeExtensionClasses.keySet().forEach(group -> {
+            Set<S> schemas = new HashSet<>();
+            entry.getForMembership(group.getKey()).stream().map(key -> findSchema(reference, key)).
+                    filter(Objects::nonNull).forEach(schemas::add);
+            result.getForMemberships().put(group, schemas);
         });
 
         return result;
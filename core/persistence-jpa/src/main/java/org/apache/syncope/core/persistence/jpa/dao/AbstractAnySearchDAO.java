@@ -21,11 +21,17 @@ package org.apache.syncope.core.persistence.jpa.dao;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.persistence.Entity;
 import javax.validation.ValidationException;
 import javax.validation.constraints.Max;
@@ -93,6 +99,9 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
     @Autowired
     protected AnyUtilsFactory anyUtilsFactory;
 
+    @Autowired
+    protected InMemorySearchCondMatcher matcher;
+
     protected SearchCond buildEffectiveCond(final SearchCond cond, final Set<String> dynRealmKeys) {
         List<SearchCond> effectiveConds = dynRealmKeys.stream().map(dynRealmKey -> {
             DynRealmCond dynRealmCond = new DynRealmCond();
@@ -140,11 +149,21 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
                 collect(Collectors.toList());
     }
 
+    /**
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param searchCondition the search condition
+     * @param firstResult position of the first result, start from 0
+     * @param maxResults maximum number of results, negative for no limit
+     * @param orderBy list of ordering clauses
+     * @param kind any object
+     * @param <T> any
+     * @return the list of any objects matching the given search condition
+     */
     protected abstract <T extends Any<?>> List<T> doSearch(
             Set<String> adminRealms,
             SearchCond searchCondition,
-            int page,
-            int itemsPerPage,
+            int firstResult,
+            int maxResults,
             List<OrderByClause> orderBy,
             AnyTypeKind kind);
 
@@ -307,25 +326,23 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
         return memberKey;
     }
 
+    @SuppressWarnings("unchecked")
     protected <T extends Any<?>> List<T> buildResult(final List<Object> raw, final AnyTypeKind kind) {
-        List<T> result = new ArrayList<>();
-
-        raw.stream().map(anyKey -> anyKey instanceof Object[]
+        Set<String> keys = new LinkedHashSet<>(raw.size());
+        raw.forEach(anyKey -> keys.add(anyKey instanceof Object[]
                 ? (String) ((Object[]) anyKey)[0]
-                : ((String) anyKey)).
-                forEachOrdered((actualKey) -> {
-                    @SuppressWarnings("unchecked")
-                    T any = kind == AnyTypeKind.USER
-                            ? (T) userDAO.find(actualKey)
-                            : kind == AnyTypeKind.GROUP
-                                    ? (T) groupDAO.find(actualKey)
-                                    : (T) anyObjectDAO.find(actualKey);
-                    if (any == null) {
-                        LOG.error("Could not find {} with id {}, even if returned by native query", kind, actualKey);
-                    } else if (!result.contains(any)) {
-                        result.add(any);
-                    }
-                });
+                : ((String) anyKey)));
+
+        List<T> result = (List<T>) (kind == AnyTypeKind.USER
+                ? userDAO.findByKeys(keys)
+                : kind == AnyTypeKind.GROUP
+                        ? groupDAO.findByKeys(keys)
+                        : anyObjectDAO.findByKeys(keys));
+
+        if (result.size() < keys.size()) {
+            result.forEach(any -> keys.remove(any.getKey()));
+            LOG.error("Could not find {} with id {}, even if returned by native query", kind, keys);
+        }
 
         return result;
     }
@@ -339,6 +356,40 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
             final List<OrderByClause> orderBy,
             final AnyTypeKind kind) {
 
+        return searchWindow(adminRealms, cond, firstResult(page, itemsPerPage), itemsPerPage, orderBy, kind);
+    }
+
+    @Override
+    public <T extends Any<?>> List<T> searchLookAhead(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final int page,
+            final int itemsPerPage,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind) {
+
+        return searchWindow(
+                adminRealms,
+                cond,
+                firstResult(page, itemsPerPage),
+                itemsPerPage < 0 ? itemsPerPage : itemsPerPage + 1,
+                orderBy,
+                kind);
+    }
+
+    private static int firstResult(final int page, final int itemsPerPage) {
+        // page starts from 1, while first result starts from 0
+        return itemsPerPage < 0 || page <= 1 ? 0 : itemsPerPage * (page - 1);
+    }
+
+    protected <T extends Any<?>> List<T> searchWindow(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final int firstResult,
+            final int maxResults,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind) {
+
         if (adminRealms == null || adminRealms.isEmpty()) {
             LOG.error("No realms provided");
             return Collections.<T>emptyList();
@@ -360,7 +411,82 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
             effectiveOrderBy = orderBy;
         }
 
-        return doSearch(adminRealms, cond, page, itemsPerPage, effectiveOrderBy, kind);
+        return doSearch(adminRealms, cond, firstResult, maxResults, effectiveOrderBy, kind);
+    }
+
+    /**
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param cond the search condition
+     * @param kind any object
+     * @param afterKey only keys greater than this will be returned, null for no lower bound
+     * @param limit maximum number of keys to return, negative for no limit: when not negative, keys are sorted
+     * @return the keys of any objects matching the given search condition
+     */
+    protected abstract List<String> doSearchKeys(
+            Set<String> adminRealms, SearchCond cond, AnyTypeKind kind, String afterKey, int limit);
+
+    @Override
+    public List<String> searchKeys(final Set<String> adminRealms, final SearchCond cond, final AnyTypeKind kind) {
+        return searchKeys(adminRealms, cond, kind, null, -1);
+    }
+
+    @Override
+    public List<String> searchKeys(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final AnyTypeKind kind,
+            final String afterKey,
+            final int limit) {
+
+        if (adminRealms == null || adminRealms.isEmpty()) {
+            LOG.error("No realms provided");
+            return Collections.<String>emptyList();
+        }
+
+        LOG.debug("Search condition:\n{}", cond);
+        if (cond == null || !cond.isValid()) {
+            LOG.error("Invalid search condition:\n{}", cond);
+            return Collections.<String>emptyList();
+        }
+
+        return doSearchKeys(adminRealms, cond, kind, afterKey, limit);
+    }
+
+    @Override
+    public Stream<String> streamKeys(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final AnyTypeKind kind,
+            final int chunkSize) {
+
+        Iterator<String> keys = new Iterator<String>() {
+
+            private List<String> chunk;
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                if (chunk == null) {
+                    chunk = searchKeys(adminRealms, cond, kind, null, chunkSize);
+                } else if (index >= chunk.size() && chunk.size() == chunkSize) {
+                    chunk = searchKeys(adminRealms, cond, kind, chunk.get(chunk.size() - 1), chunkSize);
+                    index = 0;
+                }
+                return index < chunk.size();
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.get(index++);
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                keys, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
     }
 
     @Override
@@ -370,4 +496,9 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
         keycond.setExpression(any.getKey());
         return !search(SearchCond.getAndCond(SearchCond.getLeafCond(keycond), cond), any.getType().getKind()).isEmpty();
     }
+
+    @Override
+    public <T extends Any<?>> boolean matchesInMemory(final T any, final SearchCond cond) {
+        return matcher.matches(any, matcher.compile(cond)).orElseGet(() -> matches(any, cond));
+    }
 }
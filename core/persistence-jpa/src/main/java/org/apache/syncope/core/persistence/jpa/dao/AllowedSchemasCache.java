@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.apache.syncope.core.persistence.api.entity.Schema;
+import org.apache.syncope.core.persistence.jpa.entity.JPAAnyType;
+import org.apache.syncope.core.persistence.jpa.entity.JPAAnyTypeClass;
+import org.apache.syncope.core.persistence.jpa.entity.JPADerSchema;
+import org.apache.syncope.core.persistence.jpa.entity.JPAPlainSchema;
+import org.apache.syncope.core.persistence.jpa.entity.JPAVirSchema;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keys of the schemas allowed for users, groups and any objects, by structural signature - see {@link Signature}.
+ * Cached entries are discarded whenever any type, any type class or schema is changed, either locally or by another
+ * node (see {@link DomainVersions}); type extensions are part of the signature, hence need no invalidation.
+ */
+@Component
+public class AllowedSchemasCache {
+
+    /**
+     * Everything determining the allowed schemas of a given type: any type, sorted auxiliary classes and, for each
+     * group providing a type extension, the sorted auxiliary classes of such type extension.
+     */
+    public static final class Signature {
+
+        private final Class<? extends Schema> reference;
+
+        private final String anyType;
+
+        private final List<String> auxClasses;
+
+        private final Map<String, List<String>> typeExtensions;
+
+        public Signature(
+                final Class<? extends Schema> reference,
+                final String anyType,
+                final List<String> auxClasses,
+                final Map<String, List<String>> typeExtensions) {
+
+            this.reference = reference;
+            this.anyType = anyType;
+            this.auxClasses = auxClasses;
+            this.typeExtensions = typeExtensions;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Signature)) {
+                return false;
+            }
+            Signature other = (Signature) obj;
+            return reference.equals(other.reference)
+                    && Objects.equals(anyType, other.anyType)
+                    && auxClasses.equals(other.auxClasses)
+                    && typeExtensions.equals(other.typeExtensions);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(reference, anyType, auxClasses, typeExtensions);
+        }
+    }
+
+    /**
+     * Keys of the allowed schemas, for self and for each group providing a type extension.
+     */
+    public static final class Entry {
+
+        private final Set<String> forSelf;
+
+        private final Map<String, Set<String>> forMemberships;
+
+        public Entry(final Set<String> forSelf, final Map<String, Set<String>> forMemberships) {
+            this.forSelf = Collections.unmodifiableSet(forSelf);
+            this.forMemberships = Collections.unmodifiableMap(forMemberships);
+        }
+
+        public Set<String> getForSelf() {
+            return forSelf;
+        }
+
+        public Set<String> getForMembership(final String group) {
+            return forMemberships.getOrDefault(group, Collections.emptySet());
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final long version;
+
+        private final Map<Signature, Entry> entries = new ConcurrentHashMap<>();
+
+        Snapshot(final long version) {
+            this.version = version;
+        }
+    }
+
+    private final DomainVersions versions = new DomainVersions("allowedSchemas",
+            JPAAnyType.class, JPAAnyTypeClass.class, JPAPlainSchema.class, JPADerSchema.class, JPAVirSchema.class);
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * @param signature structural signature
+     * @param loader invoked to compute the entry for the given signature, if not cached
+     * @return entry for the given signature
+     */
+    public Entry get(final Signature signature, final Function<Signature, Entry> loader) {
+        String domain = AuthContextUtils.getDomain();
+        if (versions.isChangedInTransaction(domain)) {
+            // changed within the current transaction: such changes are not visible to anybody else
+            return loader.apply(signature);
+        }
+
+        // a snapshot possibly stored concurrently to some change has an outdated version, and is not used
+        long version = versions.get(domain);
+        Snapshot snapshot = snapshots.get(domain);
+        if (snapshot == null || snapshot.version != version) {
+            snapshot = new Snapshot(version);
+            snapshots.put(domain, snapshot);
+        }
+
+        Entry entry = snapshot.entries.get(signature);
+        if (entry == null) {
+            entry = loader.apply(signature);
+            snapshot.entries.put(signature, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * To be invoked whenever any type, any type class or schema is changed.
+     */
+    public void changed() {
+        versions.changed(AuthContextUtils.getDomain());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.openjpa.enhance.PersistenceCapable;
+import org.apache.openjpa.kernel.OpenJPAStateManager;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.PlainAttr;
+import org.apache.syncope.core.persistence.api.entity.PlainAttrValue;
+
+/**
+ * Which fields and plain attributes of a managed entity were changed within the current transaction, as reported by
+ * the OpenJPA state manager; whenever this cannot be reliably told, everything is considered as changed.
+ */
+final class AnyChanges {
+
+    private static final String PLAIN_ATTRS_FIELD = "plainAttrs";
+
+    private boolean all;
+
+    private boolean allSchemas;
+
+    private final Set<String> fields = new HashSet<>();
+
+    private final Set<String> schemas = new HashSet<>();
+
+    static AnyChanges of(final Any<?> any) {
+        AnyChanges changes = new AnyChanges();
+
+        OpenJPAStateManager sm = stateManager(any);
+        if (sm == null || sm.isNew() || sm.isDeleted()) {
+            changes.all = true;
+            return changes;
+        }
+
+        BitSet dirty = sm.getDirty();
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+            changes.fields.add(sm.getMetaData().getField(i).getName());
+        }
+        // attributes were added or removed: cannot tell which ones were removed
+        changes.allSchemas = changes.fields.contains(PLAIN_ATTRS_FIELD);
+
+        if (!changes.allSchemas) {
+            for (PlainAttr<?> attr : any.getPlainAttrs()) {
+                boolean changed = isDirty(attr);
+                if (!changed && attr.getUniqueValue() != null) {
+                    changed = isDirty(attr.getUniqueValue());
+                }
+                for (int i = 0; !changed && i < attr.getValues().size(); i++) {
+                    PlainAttrValue value = attr.getValues().get(i);
+                    changed = isDirty(value);
+                }
+
+                if (changed) {
+                    changes.schemas.add(attr.getSchema().getKey());
+                }
+            }
+        }
+
+        return changes;
+    }
+
+    private static OpenJPAStateManager stateManager(final Object entity) {
+        if (entity instanceof PersistenceCapable
+                && ((PersistenceCapable) entity).pcGetStateManager() instanceof OpenJPAStateManager) {
+
+            return (OpenJPAStateManager) ((PersistenceCapable) entity).pcGetStateManager();
+        }
+        return null;
+    }
+
+    private static boolean isDirty(final Object entity) {
+        OpenJPAStateManager sm = stateManager(entity);
+        return sm == null || sm.isNew() || sm.isDeleted() || !sm.getDirty().isEmpty();
+    }
+
+    private AnyChanges() {
+    }
+
+    /**
+     * @param field entity field name
+     * @return whether the given entity field was changed
+     */
+    boolean isChanged(final String field) {
+        return all || fields.contains(field);
+    }
+
+    /**
+     * @param schema plain schema key
+     * @return whether the plain attribute for the given schema was changed (or added / removed)
+     */
+    boolean isSchemaChanged(final String schema) {
+        return all || allSchemas || schemas.contains(schema);
+    }
+}
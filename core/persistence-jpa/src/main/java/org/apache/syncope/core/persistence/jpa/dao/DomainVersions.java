@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.openjpa.event.RemoteCommitEvent;
+import org.apache.openjpa.event.RemoteCommitListener;
+import org.apache.openjpa.persistence.OpenJPAEntityManagerFactorySPI;
+import org.apache.openjpa.util.OpenJPAId;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-domain version of some set of entities, for DAOs keeping immutable snapshots built from such entities.
+ * The version is increased when the entities are changed - once at change time and again upon transaction completion
+ * - or when the OpenJPA remote commit provider reports that another node changed any of them; snapshots shall not be
+ * shared while {@link #isChangedInTransaction(java.lang.String)}, as they might contain uncommitted changes.
+ */
+final class DomainVersions {
+
+    private final String name;
+
+    private final Set<Class<?>> entityClasses;
+
+    private final Set<String> entityClassNames;
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private final Set<String> listening = ConcurrentHashMap.newKeySet();
+
+    DomainVersions(final String name, final Class<?>... entityClasses) {
+        this.name = name;
+        this.entityClasses = Collections.unmodifiableSet(Arrays.stream(entityClasses).collect(Collectors.toSet()));
+        this.entityClassNames = Collections.unmodifiableSet(
+                this.entityClasses.stream().map(Class::getName).collect(Collectors.toSet()));
+    }
+
+    private AtomicLong version(final String domain) {
+        return versions.computeIfAbsent(domain, k -> new AtomicLong());
+    }
+
+    private boolean affectsTypes(final Collection<?>... typeNames) {
+        return Stream.of(typeNames).filter(Objects::nonNull).flatMap(Collection::stream).
+                anyMatch(entityClassNames::contains);
+    }
+
+    private boolean affectsObjects(final Collection<?>... oids) {
+        return Stream.of(oids).filter(Objects::nonNull).flatMap(Collection::stream).
+                anyMatch(oid -> oid instanceof OpenJPAId
+                && entityClasses.stream().anyMatch(c -> c.isAssignableFrom(((OpenJPAId) oid).getType())));
+    }
+
+    private boolean affects(final RemoteCommitEvent event) {
+        if (event.getPayloadType() == RemoteCommitEvent.PAYLOAD_EXTENTS) {
+            return affectsTypes(
+                    event.getPersistedTypeNames(), event.getUpdatedTypeNames(), event.getDeletedTypeNames());
+        }
+
+        return event.getPayloadType() == RemoteCommitEvent.PAYLOAD_OIDS_WITH_ADDS
+                ? affectsObjects(
+                        event.getPersistedObjectIds(), event.getUpdatedObjectIds(), event.getDeletedObjectIds())
+                : affectsTypes(event.getPersistedTypeNames())
+                || affectsObjects(event.getUpdatedObjectIds(), event.getDeletedObjectIds());
+    }
+
+    private void listen(final String domain) {
+        if (listening.add(domain)) {
+            ((OpenJPAEntityManagerFactorySPI) EntityManagerFactoryUtils.findEntityManagerFactory(
+                    ApplicationContextProvider.getBeanFactory(), domain)).
+                    getConfiguration().getRemoteCommitEventManager().addListener(new RemoteCommitListener() {
+
+                @Override
+                public void afterCommit(final RemoteCommitEvent event) {
+                    if (affects(event)) {
+                        version(domain).incrementAndGet();
+                    }
+                }
+
+                @Override
+                public void close() {
+                    // nothing to do
+                }
+            });
+        }
+    }
+
+    private String transactionResource(final String domain) {
+        return DomainVersions.class.getName() + '.' + name + '.' + domain;
+    }
+
+    /**
+     * @param domain domain
+     * @return current version for the given domain
+     */
+    long get(final String domain) {
+        listen(domain);
+        return version(domain).get();
+    }
+
+    /**
+     * @param domain domain
+     * @return whether the entities were changed within the current transaction
+     */
+    boolean isChangedInTransaction(final String domain) {
+        return TransactionSynchronizationManager.hasResource(transactionResource(domain));
+    }
+
+    /**
+     * To be invoked whenever any of the entities is changed.
+     *
+     * @param domain domain
+     */
+    void changed(final String domain) {
+        version(domain).incrementAndGet();
+
+        String resource = transactionResource(domain);
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(resource)) {
+
+            TransactionSynchronizationManager.bindResource(resource, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(resource);
+                    version(domain).incrementAndGet();
+                }
+            });
+        }
+    }
+}
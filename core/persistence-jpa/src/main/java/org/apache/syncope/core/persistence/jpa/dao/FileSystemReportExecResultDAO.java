@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+import org.apache.syncope.common.lib.PropertyUtils;
+import org.apache.syncope.core.persistence.api.dao.ReportExecResultDAO;
+import org.apache.syncope.core.persistence.api.entity.ReportExec;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Stores report execution results as files, under one directory per domain; the base directory is read from
+ * {@code report.exec.result.directory} in {@code persistence.properties}, defaulting to {@code reports} under
+ * {@code content.directory}.
+ */
+public class FileSystemReportExecResultDAO implements ReportExecResultDAO {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReportExecResultDAO.class);
+
+    private final Path directory;
+
+    public FileSystemReportExecResultDAO() {
+        Properties props = PropertyUtils.read(getClass(), "persistence.properties", "content.directory").getLeft();
+        String dir = props.getProperty("report.exec.result.directory");
+        directory = dir == null
+                ? Paths.get(props.getProperty("content.directory"), "reports")
+                : Paths.get(dir);
+    }
+
+    private Path path(final ReportExec execution) {
+        return directory.resolve(AuthContextUtils.getDomain()).resolve(execution.getKey() + ".zip");
+    }
+
+    @Override
+    public OutputStream store(final ReportExec execution) throws IOException {
+        Path target = path(execution);
+        Files.createDirectories(target.getParent());
+        Path spool = Files.createTempFile(target.getParent(), execution.getKey(), ".tmp");
+
+        return new BufferedOutputStream(Files.newOutputStream(spool)) {
+
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+
+                try {
+                    super.close();
+                    Files.move(spool, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(spool);
+                }
+            }
+        };
+    }
+
+    @Override
+    public boolean exists(final ReportExec execution) {
+        return Files.isRegularFile(path(execution));
+    }
+
+    @Override
+    public Optional<InputStream> read(final ReportExec execution) throws IOException {
+        Path path = path(execution);
+        return Files.isRegularFile(path)
+                ? Optional.of(new BufferedInputStream(Files.newInputStream(path)))
+                : Optional.empty();
+    }
+
+    private static void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOG.error("While deleting {}", path, e);
+        }
+    }
+
+    @Override
+    public void delete(final ReportExec execution) {
+        Path path = path(execution);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // the report execution might still be restored if the current transaction is rolled back
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    deleteQuietly(path);
+                }
+            });
+        } else {
+            deleteQuietly(path);
+        }
+    }
+}
@@ -0,0 +1,454 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.beans.PropertyDescriptor;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.AttrSchemaType;
+import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AssignableCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
+import org.apache.syncope.core.persistence.api.entity.Entity;
+import org.apache.syncope.core.persistence.api.entity.PlainAttr;
+import org.apache.syncope.core.persistence.api.entity.PlainAttrValue;
+import org.apache.syncope.core.persistence.api.entity.PlainSchema;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evaluates search conditions against a single entity already loaded in memory, with the same semantics as
+ * {@link org.apache.syncope.core.persistence.api.dao.AnySearchDAO#matches} but without querying the database.
+ * Conditions on fields, plain attributes, any type, realm and resources are supported; whenever a condition cannot
+ * be evaluated in memory, the caller is expected to resort to the search DAO.
+ */
+@Component
+public class InMemorySearchCondMatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InMemorySearchCondMatcher.class);
+
+    private static final String TYPE_FIELD = "type";
+
+    private static final String REALM_FIELD = "realm";
+
+    private static final String RESOURCES_FIELD = "resources";
+
+    private static final String MEMBERSHIPS_FIELD = "memberships";
+
+    private static final long COMPILED_MAXIMUM_SIZE = 10000;
+
+    /**
+     * Search condition, along with the entity features it depends on.
+     */
+    public static class CompiledCond {
+
+        private final String signature;
+
+        private final SearchCond cond;
+
+        private final boolean inMemory;
+
+        private final Set<String> fields = new HashSet<>();
+
+        private final Set<String> schemas = new HashSet<>();
+
+        protected CompiledCond(final String signature, final SearchCond cond) {
+            this.signature = signature;
+            this.cond = cond;
+            this.inMemory = cond != null && index(cond);
+        }
+
+        private boolean index(final SearchCond node) {
+            switch (node.getType()) {
+                case AND:
+                case OR:
+                    boolean left = index(node.getLeftSearchCond());
+                    boolean right = index(node.getRightSearchCond());
+                    return left && right;
+
+                case LEAF:
+                case NOT_LEAF:
+                    if (node.getAnyCond() != null) {
+                        fields.add("key".equals(node.getAnyCond().getSchema()) ? "id" : node.getAnyCond().getSchema());
+                        return true;
+                    }
+                    if (node.getAttributeCond() != null) {
+                        schemas.add(node.getAttributeCond().getSchema());
+                        return true;
+                    }
+                    if (node.getAnyTypeCond() != null) {
+                        fields.add(TYPE_FIELD);
+                        return true;
+                    }
+                    if (node.getAssignableCond() != null) {
+                        fields.add(REALM_FIELD);
+                        return true;
+                    }
+                    if (node.getResourceCond() != null) {
+                        fields.add(RESOURCES_FIELD);
+                        fields.add(MEMBERSHIPS_FIELD);
+                        return true;
+                    }
+                    return false;
+
+                default:
+                    return false;
+            }
+        }
+
+        public SearchCond getCond() {
+            return cond;
+        }
+
+        /**
+         * @return whether this condition can be evaluated in memory
+         */
+        public boolean isInMemory() {
+            return inMemory;
+        }
+
+        /**
+         * Conditions that cannot be evaluated in memory might depend on features other than the entity's own, hence
+         * they are always considered as affected.
+         *
+         * @param changes changes to the entity being evaluated
+         * @return whether this condition needs to be evaluated again, given the changes
+         */
+        boolean isAffectedBy(final AnyChanges changes) {
+            return !inMemory
+                    || fields.stream().anyMatch(changes::isChanged)
+                    || schemas.stream().anyMatch(changes::isSchemaChanged);
+        }
+    }
+
+    /**
+     * Thrown when evaluation in memory turns out not to be possible.
+     */
+    private static class NotInMemoryException extends RuntimeException {
+
+        private static final long serialVersionUID = -8043622834393620473L;
+
+    }
+
+    @Autowired
+    private PlainSchemaDAO plainSchemaDAO;
+
+    @Autowired
+    private AnyUtilsFactory anyUtilsFactory;
+
+    /**
+     * Compiled conditions by key: bounded, since nothing tells when the entity defining a condition is removed.
+     */
+    private final Cache<String, CompiledCond> compiled = Caffeine.newBuilder().
+            maximumSize(COMPILED_MAXIMUM_SIZE).
+            build();
+
+    /**
+     * Returns the compiled form of the given condition, reusing the one previously compiled for the same key and
+     * signature.
+     *
+     * @param key identifies the condition, e.g. the key of the dynamic membership defining it
+     * @param signature the condition will be compiled again as soon as this changes, e.g. the FIQL expression
+     * @param cond builds the search condition, if needed
+     * @return compiled condition
+     */
+    public CompiledCond compile(final String key, final String signature, final Supplier<SearchCond> cond) {
+        CompiledCond result = compiled.getIfPresent(key);
+        if (result == null || !result.signature.equals(signature)) {
+            result = new CompiledCond(signature, cond.get());
+            compiled.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the compiled form of the given condition, without caching it.
+     *
+     * @param cond search condition
+     * @return compiled condition
+     */
+    public CompiledCond compile(final SearchCond cond) {
+        return new CompiledCond(StringUtils.EMPTY, cond);
+    }
+
+    /**
+     * Evaluates the given condition against the given entity.
+     *
+     * @param any entity
+     * @param cond compiled condition
+     * @return whether the given entity matches the given condition, or empty if this cannot be told in memory
+     */
+    public Optional<Boolean> matches(final Any<?> any, final CompiledCond cond) {
+        if (!cond.isInMemory()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(matches(any, cond.getCond()));
+        } catch (NotInMemoryException e) {
+            LOG.debug("Could not evaluate {} in memory against {}", cond.getCond(), any);
+            return Optional.empty();
+        }
+    }
+
+    private boolean matches(final Any<?> any, final SearchCond cond) {
+        boolean not = cond.getType() == SearchCond.Type.NOT_LEAF;
+
+        switch (cond.getType()) {
+            case AND:
+                return matches(any, cond.getLeftSearchCond()) && matches(any, cond.getRightSearchCond());
+
+            case OR:
+                return matches(any, cond.getLeftSearchCond()) || matches(any, cond.getRightSearchCond());
+
+            case LEAF:
+            case NOT_LEAF:
+                if (cond.getAnyTypeCond() != null) {
+                    if (any.getType().getKind() != AnyTypeKind.ANY_OBJECT) {
+                        throw new NotInMemoryException();
+                    }
+                    return any.getType().getKey().equals(cond.getAnyTypeCond().getAnyTypeKey()) != not;
+                }
+                if (cond.getAssignableCond() != null) {
+                    return matches(any, cond.getAssignableCond());
+                }
+                if (cond.getResourceCond() != null) {
+                    return resources(any).contains(cond.getResourceCond().getResourceKey()) != not;
+                }
+                if (cond.getAttributeCond() != null) {
+                    return matches(any, cond.getAttributeCond(), not);
+                }
+                if (cond.getAnyCond() != null) {
+                    return matches(any, cond.getAnyCond(), not);
+                }
+                throw new NotInMemoryException();
+
+            default:
+                throw new NotInMemoryException();
+        }
+    }
+
+    private boolean matches(final Any<?> any, final AssignableCond cond) {
+        String anyRealm = any.getRealm().getFullPath();
+        return cond.isFromGroup()
+                ? isSameOrDescendant(anyRealm, cond.getRealmFullPath())
+                : isSameOrDescendant(cond.getRealmFullPath(), anyRealm);
+    }
+
+    private static boolean isSameOrDescendant(final String realm, final String ancestor) {
+        return realm.equals(ancestor) || realm.startsWith(StringUtils.appendIfMissing(ancestor, "/"));
+    }
+
+    private Set<String> resources(final Any<?> any) {
+        Set<String> resources = any.getResources().stream().map(Entity::getKey).collect(Collectors.toSet());
+        if (any instanceof User) {
+            ((User) any).getMemberships().forEach(membership -> membership.getRightEnd().getResources().
+                    forEach(resource -> resources.add(resource.getKey())));
+        }
+        return resources;
+    }
+
+    private boolean matches(final Any<?> any, final AttributeCond cond, final boolean not) {
+        Optional<? extends PlainAttr<?>> attr = any.getPlainAttr(cond.getSchema());
+
+        switch (cond.getType()) {
+            case ISNULL:
+                return !attr.isPresent() && plainSchemaDAO.find(cond.getSchema()) != null;
+
+            case ISNOTNULL:
+                return attr.isPresent();
+
+            default:
+                if (!attr.isPresent()) {
+                    return false;
+                }
+
+                PlainSchema schema = attr.get().getSchema();
+                Collection<? extends PlainAttrValue> values = attr.get().getUniqueValue() == null
+                        ? attr.get().getValues()
+                        : Collections.singletonList(attr.get().getUniqueValue());
+                if (isLike(cond) && schema.getType() != AttrSchemaType.String
+                        && schema.getType() != AttrSchemaType.Enum) {
+
+                    return false;
+                }
+                if (schema.getType() == AttrSchemaType.Binary || schema.getType() == AttrSchemaType.Encrypted) {
+                    throw new NotInMemoryException();
+                }
+
+                Object expected = null;
+                if (!isLike(cond)) {
+                    PlainAttrValue parsed = anyUtilsFactory.getInstance(any).newPlainAttrValue();
+                    try {
+                        parsed.parseValue(schema, cond.getExpression());
+                    } catch (Exception e) {
+                        LOG.debug("Could not parse expression '{}'", cond.getExpression(), e);
+                        return false;
+                    }
+                    expected = parsed.getValue();
+                }
+
+                for (PlainAttrValue value : values) {
+                    if (compare(value.getValue(), expected, cond) != not) {
+                        return true;
+                    }
+                }
+                return false;
+        }
+    }
+
+    private boolean matches(final Any<?> any, final AnyCond cond, final boolean not) {
+        String field = "key".equals(cond.getSchema()) ? "id" : cond.getSchema();
+        PropertyDescriptor property = BeanUtils.getPropertyDescriptor(
+                any.getClass(), "id".equals(field) ? "key" : field);
+        if (property == null || property.getReadMethod() == null) {
+            throw new NotInMemoryException();
+        }
+
+        Object actual;
+        try {
+            actual = property.getReadMethod().invoke(any);
+        } catch (Exception e) {
+            LOG.debug("Could not read {} from {}", field, any, e);
+            throw new NotInMemoryException();
+        }
+        if (actual instanceof Entity) {
+            actual = ((Entity) actual).getKey();
+        } else if (actual instanceof Enum) {
+            actual = ((Enum<?>) actual).name();
+        }
+
+        switch (cond.getType()) {
+            case ISNULL:
+                return (actual == null) != not;
+
+            case ISNOTNULL:
+                return (actual != null) != not;
+
+            default:
+                if (actual == null) {
+                    return false;
+                }
+                if (isLike(cond)) {
+                    return actual instanceof String && compare(actual, null, cond) != not;
+                }
+
+                Object expected;
+                if (actual instanceof String) {
+                    expected = cond.getExpression();
+                } else if (actual instanceof Boolean) {
+                    expected = Boolean.parseBoolean(cond.getExpression());
+                } else if (actual instanceof Long || actual instanceof Integer) {
+                    actual = ((Number) actual).longValue();
+                    try {
+                        expected = Long.valueOf(cond.getExpression());
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                } else {
+                    // dates and other types are parsed according to the search DAO's own rules
+                    throw new NotInMemoryException();
+                }
+
+                return compare(actual, expected, cond) != not;
+        }
+    }
+
+    private static boolean isLike(final AttributeCond cond) {
+        return cond.getType() == AttributeCond.Type.LIKE || cond.getType() == AttributeCond.Type.ILIKE;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static boolean compare(final Object actual, final Object expected, final AttributeCond cond) {
+        switch (cond.getType()) {
+            case LIKE:
+                return like(cond.getExpression(), false).matcher(actual.toString()).matches();
+
+            case ILIKE:
+                return like(cond.getExpression(), true).matcher(actual.toString()).matches();
+
+            case EQ:
+                return actual.equals(expected);
+
+            case IEQ:
+                return actual instanceof String && expected instanceof String
+                        ? ((String) actual).equalsIgnoreCase((String) expected)
+                        : actual.equals(expected);
+
+            case GT:
+                return ((Comparable) actual).compareTo(expected) > 0;
+
+            case GE:
+                return ((Comparable) actual).compareTo(expected) >= 0;
+
+            case LT:
+                return ((Comparable) actual).compareTo(expected) < 0;
+
+            case LE:
+                return ((Comparable) actual).compareTo(expected) <= 0;
+
+            default:
+                throw new NotInMemoryException();
+        }
+    }
+
+    /**
+     * Translates the given SQL LIKE expression into a regular expression.
+     */
+    private static Pattern like(final String expression, final boolean ignoreCase) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : expression.toCharArray()) {
+            if (c == '%' || c == '_') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+
+        return ignoreCase
+                ? Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL)
+                : Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+}
@@ -67,6 +67,37 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
 
     private static final String[] RELATIONSHIP_FIELDS = new String[] { "realm", "userOwner", "groupOwner" };
 
+    /**
+     * @param kind any type kind
+     * @return the views, or tables, to query for the given any type kind
+     */
+    protected SearchSupport buildSearchSupport(final AnyTypeKind kind) {
+        return new SearchSupport(kind);
+    }
+
+    /**
+     * Appends to the given query the source of keys for any objects without - or, if {@code isNull} is false, with -
+     * at least one value for the given schema.
+     *
+     * @param query query to append to
+     * @param svs search support
+     * @param schema plain schema
+     * @param isNull whether any objects without values shall be matched
+     */
+    protected void appendNullAttrQuery(
+            final StringBuilder query, final SearchSupport svs, final PlainSchema schema, final boolean isNull) {
+
+        if (isNull) {
+            query.append(svs.nullAttr().name).
+                    append(" WHERE schema_id='").append(schema.getKey()).append("'");
+        } else {
+            query.append(svs.field().name).
+                    append(" WHERE any_id NOT IN (SELECT any_id FROM ").
+                    append(svs.nullAttr().name).
+                    append(" WHERE schema_id='").append(schema.getKey()).append("')");
+        }
+    }
+
     private Pair<String, Set<String>> getAdminRealmsFilter(
             final Set<String> adminRealms,
             final SearchSupport svs,
@@ -82,8 +113,7 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
                     noRealm.getElements().add("Invalid realm specified: " + realmPath);
                     throw noRealm;
                 } else {
-                    realmKeys.addAll(realmDAO.findDescendants(realm).stream().
-                            map(r -> r.getKey()).collect(Collectors.toSet()));
+                    realmKeys.addAll(realmDAO.findDescendantKeys(realm));
                 }
             } else {
                 DynRealm dynRealm = dynRealmDAO.find(realmPath);
@@ -95,8 +125,7 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
             }
         });
         if (!dynRealmKeys.isEmpty()) {
-            realmKeys.addAll(realmDAO.findAll().stream().
-                    map(r -> r.getKey()).collect(Collectors.toSet()));
+            realmKeys.addAll(realmDAO.findDescendantKeys(realmDAO.getRoot()));
         }
 
         StringBuilder adminRealmFilter = new StringBuilder("u.any_id IN (").
@@ -123,7 +152,7 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
     protected int doCount(final Set<String> adminRealms, final SearchCond cond, final AnyTypeKind kind) {
         List<Object> parameters = Collections.synchronizedList(new ArrayList<>());
 
-        SearchSupport svs = new SearchSupport(kind);
+        SearchSupport svs = buildSearchSupport(kind);
 
         Pair<String, Set<String>> filter = getAdminRealmsFilter(adminRealms, svs, parameters);
 
@@ -149,15 +178,15 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
     protected <T extends Any<?>> List<T> doSearch(
             final Set<String> adminRealms,
             final SearchCond cond,
-            final int page,
-            final int itemsPerPage,
+            final int firstResult,
+            final int maxResults,
             final List<OrderByClause> orderBy,
             final AnyTypeKind kind) {
 
         try {
             List<Object> parameters = Collections.synchronizedList(new ArrayList<>());
 
-            SearchSupport svs = new SearchSupport(kind);
+            SearchSupport svs = buildSearchSupport(kind);
 
             Pair<String, Set<String>> filter = getAdminRealmsFilter(adminRealms, svs, parameters);
 
@@ -180,11 +209,11 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
             // 3. prepare the search query
             Query query = entityManager().createNativeQuery(queryString.toString());
 
-            // 4. page starts from 1, while setFirtResult() starts from 0
-            query.setFirstResult(itemsPerPage * (page <= 0 ? 0 : page - 1));
+            // 4. set the requested window
+            query.setFirstResult(firstResult);
 
-            if (itemsPerPage >= 0) {
-                query.setMaxResults(itemsPerPage);
+            if (maxResults >= 0) {
+                query.setMaxResults(maxResults);
             }
 
             // 5. populate the search query with parameter values
@@ -199,6 +228,47 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
         return Collections.emptyList();
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    protected List<String> doSearchKeys(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final AnyTypeKind kind,
+            final String afterKey,
+            final int limit) {
+
+        List<Object> parameters = Collections.synchronizedList(new ArrayList<>());
+
+        SearchSupport svs = buildSearchSupport(kind);
+
+        Pair<String, Set<String>> filter = getAdminRealmsFilter(adminRealms, svs, parameters);
+
+        // 1. get the query string from the search condition
+        StringBuilder queryString = getQuery(buildEffectiveCond(cond, filter.getRight()), parameters, svs);
+
+        // 2. take into account administrative realms
+        queryString.insert(0, "SELECT DISTINCT u.any_id FROM (");
+        queryString.append(") u WHERE ").append(filter.getLeft());
+
+        // 3. seek after the given key, if paginating
+        if (afterKey != null) {
+            queryString.append(" AND u.any_id > ?").append(setParameter(parameters, afterKey));
+        }
+        if (limit >= 0) {
+            queryString.append(" ORDER BY u.any_id");
+        }
+
+        Query query = entityManager().createNativeQuery(queryString.toString());
+        fillWithParameters(query, parameters);
+        if (limit >= 0) {
+            query.setMaxResults(limit);
+        }
+
+        return ((List<Object>) query.getResultList()).stream().
+                map(key -> key instanceof Object[] ? (String) ((Object[]) key)[0] : ((String) key)).
+                collect(Collectors.toList());
+    }
+
     private int setParameter(final List<Object> parameters, final Object parameter) {
         int key;
         synchronized (parameters) {
@@ -649,8 +719,8 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
         StringBuilder query = new StringBuilder("SELECT DISTINCT any_id FROM ").
                 append(svs.field().name).append(" WHERE (");
         if (cond.isFromGroup()) {
-            realmDAO.findDescendants(realm).forEach(current -> {
-                query.append("realm_id=?").append(setParameter(parameters, current.getKey())).append(" OR ");
+            realmDAO.findDescendantKeys(realm).forEach(current -> {
+                query.append("realm_id=?").append(setParameter(parameters, current)).append(" OR ");
             });
             query.setLength(query.length() - 4);
         } else {
@@ -684,7 +754,7 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
         }
 
         query.append("SELECT DISTINCT group_id AS any_id FROM ").
-                append(new SearchSupport(AnyTypeKind.USER).membership().name).append(" WHERE (").
+                append(buildSearchSupport(AnyTypeKind.USER).membership().name).append(" WHERE (").
                 append("any_id=?").append(setParameter(parameters, memberKey)).
                 append(") ");
 
@@ -695,7 +765,7 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
         }
 
         query.append("SELECT DISTINCT group_id AS any_id FROM ").
-                append(new SearchSupport(AnyTypeKind.ANY_OBJECT).membership().name).append(" WHERE ").
+                append(buildSearchSupport(AnyTypeKind.ANY_OBJECT).membership().name).append(" WHERE ").
                 append("any_id=?").append(setParameter(parameters, memberKey)).
                 append("))");
 
@@ -831,15 +901,11 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
         StringBuilder query = new StringBuilder("SELECT DISTINCT any_id FROM ");
         switch (cond.getType()) {
             case ISNOTNULL:
-                query.append(svs.field().name).
-                        append(" WHERE any_id NOT IN (SELECT any_id FROM ").
-                        append(svs.nullAttr().name).
-                        append(" WHERE schema_id='").append(checked.getLeft().getKey()).append("')");
+                appendNullAttrQuery(query, svs, checked.getLeft(), false);
                 break;
 
             case ISNULL:
-                query.append(svs.nullAttr().name).
-                        append(" WHERE schema_id='").append(checked.getLeft().getKey()).append("'");
+                appendNullAttrQuery(query, svs, checked.getLeft(), true);
                 break;
 
             default:
@@ -42,6 +42,9 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class JPAAnyTypeClassDAO extends AbstractDAO<AnyTypeClass> implements AnyTypeClassDAO {
 
+    @Autowired
+    private AllowedSchemasCache allowedSchemasCache;
+
     @Autowired
     private AnyTypeDAO anyTypeDAO;
 
@@ -86,6 +89,7 @@ public class JPAAnyTypeClassDAO extends AbstractDAO<AnyTypeClass> implements Any
             schema.setAnyTypeClass(merge);
         }
 
+        allowedSchemasCache.changed();
         return merge;
     }
 
@@ -124,6 +128,7 @@ public class JPAAnyTypeClassDAO extends AbstractDAO<AnyTypeClass> implements Any
         }
 
         entityManager().remove(anyTypeClass);
+        allowedSchemasCache.changed();
     }
 
 }
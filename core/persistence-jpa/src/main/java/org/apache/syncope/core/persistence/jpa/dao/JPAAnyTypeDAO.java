@@ -33,6 +33,9 @@ import org.springframework.transaction.annotation.Transactional;
 @Repository
 public class JPAAnyTypeDAO extends AbstractDAO<AnyType> implements AnyTypeDAO {
 
+    @Autowired
+    private AllowedSchemasCache allowedSchemasCache;
+
     @Autowired
     private RemediationDAO remediationDAO;
 
@@ -73,7 +76,9 @@ public class JPAAnyTypeDAO extends AbstractDAO<AnyType> implements AnyTypeDAO {
 
     @Override
     public AnyType save(final AnyType anyType) {
-        return entityManager().merge(anyType);
+        AnyType merged = entityManager().merge(anyType);
+        allowedSchemasCache.changed();
+        return merged;
     }
 
     @Override
@@ -93,6 +98,7 @@ public class JPAAnyTypeDAO extends AbstractDAO<AnyType> implements AnyTypeDAO {
         });
 
         entityManager().remove(anyType);
+        allowedSchemasCache.changed();
     }
 
 }
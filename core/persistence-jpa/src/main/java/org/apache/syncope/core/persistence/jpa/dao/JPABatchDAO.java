@@ -19,10 +19,14 @@
 package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.util.Date;
+import java.util.List;
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
 import org.apache.syncope.core.persistence.api.dao.BatchDAO;
 import org.apache.syncope.core.persistence.api.entity.Batch;
 import org.apache.syncope.core.persistence.jpa.entity.JPABatch;
+import org.apache.syncope.core.persistence.jpa.entity.JPABatchResultChunk;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -41,6 +45,41 @@ public class JPABatchDAO extends AbstractDAO<Batch> implements BatchDAO {
         return entityManager().merge(batch);
     }
 
+    @Override
+    public boolean appendResults(final String key, final String chunk) {
+        JPABatch batch = entityManager().find(JPABatch.class, key);
+        if (batch == null) {
+            return false;
+        }
+
+        TypedQuery<Long> query = entityManager().createQuery(
+                "SELECT COUNT(e) FROM " + JPABatchResultChunk.class.getSimpleName() + " e "
+                + "WHERE e.batch.id = :key", Long.class);
+        // not to be served by the query cache, as chunks are removed via bulk deletes
+        OpenJPAPersistence.cast(query).getFetchPlan().setQueryResultCacheEnabled(false);
+        query.setParameter("key", key);
+
+        JPABatchResultChunk resultChunk = new JPABatchResultChunk();
+        resultChunk.setBatch(batch);
+        resultChunk.setChunkIndex(query.getSingleResult().intValue());
+        resultChunk.setContent(chunk);
+        entityManager().persist(resultChunk);
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public String getResults(final String key) {
+        TypedQuery<String> query = entityManager().createQuery(
+                "SELECT e.content FROM " + JPABatchResultChunk.class.getSimpleName() + " e "
+                + "WHERE e.batch.id = :key ORDER BY e.chunkIndex", String.class);
+        OpenJPAPersistence.cast(query).getFetchPlan().setQueryResultCacheEnabled(false);
+        query.setParameter("key", key);
+
+        List<String> chunks = query.getResultList();
+        return chunks.isEmpty() ? null : String.join("", chunks);
+    }
+
     @Override
     public void delete(final String key) {
         Batch batch = find(key);
@@ -48,15 +87,35 @@ public class JPABatchDAO extends AbstractDAO<Batch> implements BatchDAO {
             return;
         }
 
+        Query query = entityManager().createQuery(
+                "DELETE FROM " + JPABatchResultChunk.class.getSimpleName() + " e "
+                + "WHERE e.batch.id = :key");
+        query.setParameter("key", key);
+        query.executeUpdate();
+
         entityManager().remove(batch);
     }
 
     @Override
     public int deleteExpired() {
+        Date now = new Date();
+
         Query query = entityManager().createQuery(
+                "DELETE FROM " + JPABatchResultChunk.class.getSimpleName() + " e "
+                + "WHERE e.batch.id IN (SELECT b.id FROM " + JPABatch.class.getSimpleName() + " b "
+                + "WHERE b.expiryTime < :now)");
+        query.setParameter("now", now);
+        query.executeUpdate();
+
+        query = entityManager().createQuery(
                 "DELETE FROM " + JPABatch.class.getSimpleName() + " e "
                 + "WHERE e.expiryTime < :now");
-        query.setParameter("now", new Date());
-        return query.executeUpdate();
+        query.setParameter("now", now);
+        int deleted = query.executeUpdate();
+
+        // bulk deletes are not reflected by the data cache
+        entityManager().getEntityManagerFactory().getCache().evict(JPABatchResultChunk.class);
+        entityManager().getEntityManagerFactory().getCache().evict(JPABatch.class);
+        return deleted;
     }
 }
@@ -18,21 +18,90 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
-import java.util.Optional;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.syncope.core.persistence.api.dao.ConfDAO;
 import org.apache.syncope.core.persistence.api.entity.conf.CPlainAttr;
 import org.apache.syncope.core.persistence.api.entity.conf.Conf;
+import org.apache.syncope.core.persistence.jpa.entity.conf.JPACPlainAttr;
+import org.apache.syncope.core.persistence.jpa.entity.conf.JPACPlainAttrUniqueValue;
+import org.apache.syncope.core.persistence.jpa.entity.conf.JPACPlainAttrValue;
 import org.apache.syncope.core.persistence.jpa.entity.conf.JPAConf;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Typed and string values of configuration parameters are read from a per-domain immutable snapshot, discarded
+ * whenever any parameter is changed, either locally or by another node (see {@link DomainVersions}).
+ */
 @Repository
 public class JPAConfDAO extends AbstractDAO<Conf> implements ConfDAO {
 
     private static final String KEY = "cd64d66f-6fff-4008-b966-a06b1cc1436d";
 
+    private static final class Snapshot {
+
+        private final long version;
+
+        private final Map<String, List<Object>> values;
+
+        private final Map<String, List<String>> valuesAsStrings;
+
+        private Snapshot(final long version, final Conf conf) {
+            this.version = version;
+
+            Map<String, List<Object>> confValues = new HashMap<>();
+            Map<String, List<String>> confValuesAsStrings = new HashMap<>();
+            conf.getPlainAttrs().forEach(attr -> {
+                List<Object> attrValues = new ArrayList<>();
+                if (attr.getUniqueValue() == null) {
+                    attr.getValues().forEach(value -> attrValues.add(value.getValue()));
+                } else {
+                    attrValues.add(attr.getUniqueValue().getValue());
+                }
+                confValues.put(attr.getSchema().getKey(), Collections.unmodifiableList(attrValues));
+                confValuesAsStrings.put(attr.getSchema().getKey(),
+                        Collections.unmodifiableList(attr.getValuesAsStrings()));
+            });
+            this.values = Collections.unmodifiableMap(confValues);
+            this.valuesAsStrings = Collections.unmodifiableMap(confValuesAsStrings);
+        }
+    }
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    private final DomainVersions versions = new DomainVersions("conf",
+            JPAConf.class, JPACPlainAttr.class, JPACPlainAttrValue.class, JPACPlainAttrUniqueValue.class);
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private Snapshot snapshot() {
+        String domain = AuthContextUtils.getDomain();
+        if (versions.isChangedInTransaction(domain)) {
+            // parameters were changed within the current transaction: such changes are not visible to anybody else
+            return new Snapshot(-1, get());
+        }
+
+        // a snapshot possibly stored concurrently to some change has an outdated version, and is not used
+        long version = versions.get(domain);
+        Snapshot snapshot = snapshots.get(domain);
+        if (snapshot == null || snapshot.version != version) {
+            snapshot = new Snapshot(version, get());
+            snapshots.put(domain, snapshot);
+        }
+        return snapshot;
+    }
+
     @Override
     public Conf get() {
         Conf instance = entityManager().find(JPAConf.class, KEY);
@@ -46,6 +115,11 @@ public class JPAConfDAO extends AbstractDAO<Conf> implements ConfDAO {
         return instance;
     }
 
+    @Override
+    public long getVersion() {
+        return versions.get(AuthContextUtils.getDomain());
+    }
+
     @Transactional(readOnly = true)
     @Override
     public Optional<? extends CPlainAttr> find(final String key) {
@@ -55,23 +129,25 @@ public class JPAConfDAO extends AbstractDAO<Conf> implements ConfDAO {
     @Transactional(readOnly = true)
     @Override
     public List<String> getValuesAsStrings(final String key) {
-        Optional<? extends CPlainAttr> attr = find(key);
-        return attr.isPresent() ? attr.get().getValuesAsStrings() : Collections.<String>emptyList();
+        return snapshot().valuesAsStrings.getOrDefault(key, Collections.emptyList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<String, List<String>> getValuesAsStrings() {
+        return snapshot().valuesAsStrings;
     }
 
     @Transactional(readOnly = true)
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T find(final String key, final T defaultValue) {
-        Optional<? extends CPlainAttr> result = find(key);
-        if (!result.isPresent()) {
+        List<Object> values = snapshot().values.get(key);
+        if (values == null) {
             return defaultValue;
         }
 
-        return result.get().getUniqueValue() == null
-                ? result.get().getValues().isEmpty()
-                ? null
-                : result.get().getValues().get(0).<T>getValue()
-                : result.get().getUniqueValue().<T>getValue();
+        return values.isEmpty() ? null : (T) values.get(0);
     }
 
     @Override
@@ -89,7 +165,11 @@ public class JPAConfDAO extends AbstractDAO<Conf> implements ConfDAO {
         instance.add(attr);
         attr.setOwner(instance);
 
-        return entityManager().merge(instance);
+        Conf merged = entityManager().merge(instance);
+        versions.changed(AuthContextUtils.getDomain());
+        publisher.publishEvent(new EntityChangedEvent(
+                this, CPlainAttr.class, attr.getSchema().getKey(), false, AuthContextUtils.getDomain()));
+        return merged;
     }
 
     @Override
@@ -101,6 +181,9 @@ public class JPAConfDAO extends AbstractDAO<Conf> implements ConfDAO {
             instance.remove(attr.get());
 
             instance = entityManager().merge(instance);
+            versions.changed(AuthContextUtils.getDomain());
+            publisher.publishEvent(new EntityChangedEvent(
+                    this, CPlainAttr.class, key, true, AuthContextUtils.getDomain()));
         }
 
         return instance;
@@ -26,15 +26,24 @@ import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
 import org.apache.syncope.core.persistence.api.entity.AnyTypeClass;
 import org.apache.syncope.core.persistence.api.entity.DerSchema;
 import org.apache.syncope.core.persistence.jpa.entity.JPADerSchema;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class JPADerSchemaDAO extends AbstractDAO<DerSchema> implements DerSchemaDAO {
 
+    @Autowired
+    private AllowedSchemasCache allowedSchemasCache;
+
     @Autowired
     private ExternalResourceDAO resourceDAO;
 
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
     @Override
     public DerSchema find(final String key) {
         return entityManager().find(JPADerSchema.class, key);
@@ -73,7 +82,9 @@ public class JPADerSchemaDAO extends AbstractDAO<DerSchema> implements DerSchema
 
     @Override
     public DerSchema save(final DerSchema derSchema) {
-        return entityManager().merge(derSchema);
+        DerSchema merged = entityManager().merge(derSchema);
+        allowedSchemasCache.changed();
+        return merged;
     }
 
     @Override
@@ -92,5 +103,8 @@ public class JPADerSchemaDAO extends AbstractDAO<DerSchema> implements DerSchema
         }
 
         entityManager().remove(schema);
+        allowedSchemasCache.changed();
+        publisher.publishEvent(new EntityChangedEvent(
+                this, DerSchema.class, key, true, AuthContextUtils.getDomain()));
     }
 }
@@ -19,14 +19,14 @@
 package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.DynRealmDAO;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.DynRealm;
-import org.apache.syncope.core.persistence.api.entity.DynRealmMembership;
 import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
 import org.apache.syncope.core.persistence.jpa.entity.JPADynRealm;
 import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
@@ -47,6 +47,9 @@ public class JPADynRealmDAO extends AbstractDAO<DynRealm> implements DynRealmDAO
     @Autowired
     private ApplicationEventPublisher publisher;
 
+    @Autowired
+    private InMemorySearchCondMatcher matcher;
+
     private AnySearchDAO searchDAO;
 
     private AnySearchDAO jpaAnySearchDAO;
@@ -134,25 +137,45 @@ public class JPADynRealmDAO extends AbstractDAO<DynRealm> implements DynRealmDAO
         delete.executeUpdate();
     }
 
+    @SuppressWarnings("unchecked")
+    private Set<String> findDynRealmKeys(final Any<?> any) {
+        Query query = entityManager().createNativeQuery(
+                "SELECT dynRealm_id FROM " + DYNMEMB_TABLE + " WHERE any_id=?");
+        query.setParameter(1, any.getKey());
+
+        return ((List<Object>) query.getResultList()).stream().
+                map(key -> key instanceof Object[] ? (String) ((Object[]) key)[0] : ((String) key)).
+                collect(Collectors.toSet());
+    }
+
     @Transactional
     @Override
     public void refreshDynMemberships(final Any<?> any) {
-        findAll().forEach(dynRealm -> {
-            Optional<? extends DynRealmMembership> memb = dynRealm.getDynMembership(any.getType());
-            if (memb.isPresent()) {
-                Query delete = entityManager().createNativeQuery(
-                        "DELETE FROM " + DYNMEMB_TABLE + " WHERE dynRealm_id=? AND any_id=?");
-                delete.setParameter(1, dynRealm.getKey());
-                delete.setParameter(2, any.getKey());
-                delete.executeUpdate();
-                if (jpaAnySearchDAO().matches(any, SearchCondConverter.convert(memb.get().getFIQLCond()))) {
+        Set<String> current = findDynRealmKeys(any);
+        AnyChanges changes = AnyChanges.of(any);
+
+        findAll().forEach(dynRealm -> dynRealm.getDynMembership(any.getType()).ifPresent(memb -> {
+            InMemorySearchCondMatcher.CompiledCond cond = matcher.compile(
+                    memb.getKey(),
+                    memb.getFIQLCond(),
+                    () -> SearchCondConverter.convert(memb.getFIQLCond()));
+            if (cond.isAffectedBy(changes)) {
+                boolean matches = matcher.matches(any, cond).
+                        orElseGet(() -> jpaAnySearchDAO().matches(any, cond.getCond()));
+                if (!matches && current.contains(dynRealm.getKey())) {
+                    Query delete = entityManager().createNativeQuery(
+                            "DELETE FROM " + DYNMEMB_TABLE + " WHERE dynRealm_id=? AND any_id=?");
+                    delete.setParameter(1, dynRealm.getKey());
+                    delete.setParameter(2, any.getKey());
+                    delete.executeUpdate();
+                } else if (matches && !current.contains(dynRealm.getKey())) {
                     Query insert = entityManager().createNativeQuery("INSERT INTO " + DYNMEMB_TABLE + " VALUES(?, ?)");
                     insert.setParameter(1, any.getKey());
                     insert.setParameter(2, dynRealm.getKey());
                     insert.executeUpdate();
                 }
             }
-        });
+        }));
     }
 
     @Override
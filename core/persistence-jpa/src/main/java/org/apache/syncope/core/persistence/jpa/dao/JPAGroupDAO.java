@@ -18,20 +18,28 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.persistence.NoResultException;
+import javax.persistence.PersistenceException;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
@@ -39,7 +47,6 @@ import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.jpa.entity.group.JPAGroup;
 import org.apache.syncope.common.lib.types.StandardEntitlement;
-import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.provisioning.api.utils.RealmUtils;
 import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
@@ -48,11 +55,12 @@ import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.PlainAttrDAO;
 import org.apache.syncope.core.persistence.api.dao.search.AssignableCond;
-import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
 import org.apache.syncope.core.persistence.api.entity.AnyTypeClass;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
+import org.apache.syncope.core.persistence.api.entity.DynGroupMembership;
 import org.apache.syncope.core.persistence.api.entity.Entity;
 import org.apache.syncope.core.persistence.api.entity.Realm;
 import org.apache.syncope.core.persistence.api.entity.anyobject.ADynGroupMembership;
@@ -67,6 +75,7 @@ import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAMembership;
 import org.apache.syncope.core.persistence.jpa.entity.group.JPATypeExtension;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAUDynGroupMembership;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAUMembership;
+import org.apache.syncope.core.provisioning.api.event.AnyBulkUpdatedEvent;
 import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
 import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
@@ -83,9 +92,14 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
 
     public static final String ADYNMEMB_TABLE = "ADynGroupMembers";
 
+    private static final int DYNMEMB_BATCH_SIZE = 1000;
+
     @Autowired
     private PlainAttrDAO plainAttrDAO;
 
+    @Autowired
+    private InMemorySearchCondMatcher matcher;
+
     private UserDAO userDAO;
 
     private AnyObjectDAO anyObjectDAO;
@@ -280,62 +294,153 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
         return SearchCond.getAndCond(SearchCond.getLeafCond(cond), SearchCondConverter.convert(baseCondFIQL));
     }
 
+    @SuppressWarnings("unchecked")
+    private Set<String> findUDynMemberKeys(final Group group) {
+        Query query = entityManager().createNativeQuery(
+                "SELECT any_id FROM " + UDYNMEMB_TABLE + " WHERE group_id=?");
+        query.setParameter(1, group.getKey());
+
+        return ((List<Object>) query.getResultList()).stream().
+                map(key -> key instanceof Object[] ? (String) ((Object[]) key)[0] : ((String) key)).
+                collect(Collectors.toSet());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Set<String>> findADynMemberKeys(final Group group) {
+        Query query = entityManager().createNativeQuery(
+                "SELECT anyType_id, any_id FROM " + ADYNMEMB_TABLE + " WHERE group_id=?");
+        query.setParameter(1, group.getKey());
+
+        Map<String, Set<String>> result = new HashMap<>();
+        ((List<Object[]>) query.getResultList()).forEach(row -> result.computeIfAbsent(
+                row[0].toString(), k -> new HashSet<>()).add(row[1].toString()));
+        return result;
+    }
+
+    /**
+     * Executes the given statement in JDBC batches, once per provided row of parameters.
+     *
+     * @param sql statement to execute
+     * @param rows statement parameters
+     */
+    private void executeBatch(final String sql, final List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        // JDBC access below bypasses the persistence context: push any pending change first
+        entityManager().flush();
+
+        Connection conn = (Connection) OpenJPAPersistence.cast(entityManager()).getConnection();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int count = 0;
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    stmt.setObject(i + 1, row[i]);
+                }
+                stmt.addBatch();
+
+                if (++count % DYNMEMB_BATCH_SIZE == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            if (count % DYNMEMB_BATCH_SIZE != 0) {
+                stmt.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("While executing " + sql, e);
+        } finally {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                LOG.error("While releasing connection", e);
+            }
+        }
+    }
+
+    /**
+     * Aligns the dynamic members of the given group with the entities currently matching the given condition, by
+     * only removing and adding the difference.
+     *
+     * @param group group
+     * @param anyType any type key, null for users
+     * @param cond dynamic membership condition, null to remove all dynamic members
+     * @param current current dynamic members
+     * @return keys of entities whose dynamic membership was added or removed
+     */
+    private Set<String> refreshDynMembers(
+            final Group group, final String anyType, final SearchCond cond, final Set<String> current) {
+
+        Set<String> changed = new HashSet<>();
+
+        // matching keys are streamed and compared with current members, so that they are never all held in memory
+        Set<String> removed = new HashSet<>(current);
+        if (cond != null) {
+            List<Object[]> added = new ArrayList<>();
+            Iterator<String> matching = jpaAnySearchDAO().streamKeys(
+                    Collections.<String>singleton(group.getRealm().getFullPath()),
+                    cond,
+                    anyType == null ? AnyTypeKind.USER : AnyTypeKind.ANY_OBJECT,
+                    DYNMEMB_BATCH_SIZE).iterator();
+            while (matching.hasNext()) {
+                String key = matching.next();
+                if (!removed.remove(key)) {
+                    added.add(anyType == null
+                            ? new Object[] { key, group.getKey() }
+                            : new Object[] { anyType, key, group.getKey() });
+                    changed.add(key);
+                }
+
+                if (added.size() == DYNMEMB_BATCH_SIZE || (!matching.hasNext() && !added.isEmpty())) {
+                    executeBatch(anyType == null
+                            ? "INSERT INTO " + UDYNMEMB_TABLE + " VALUES(?, ?)"
+                            : "INSERT INTO " + ADYNMEMB_TABLE + " VALUES(?, ?, ?)",
+                            added);
+                    added.clear();
+                }
+            }
+        }
+
+        executeBatch(
+                "DELETE FROM " + (anyType == null ? UDYNMEMB_TABLE : ADYNMEMB_TABLE) + " WHERE group_id=? AND any_id=?",
+                removed.stream().map(key -> new Object[] { group.getKey(), key }).collect(Collectors.toList()));
+        changed.addAll(removed);
+
+        return changed;
+    }
+
     @Override
     public Group saveAndRefreshDynMemberships(final Group group) {
         Group merged = save(group);
         publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, merged, AuthContextUtils.getDomain()));
 
         // refresh dynamic memberships
-        clearUDynMembers(merged);
-        if (merged.getUDynMembership() != null) {
-            SearchCond cond = buildDynMembershipCond(merged.getUDynMembership().getFIQLCond(), merged.getRealm());
-            int count = searchDAO().count(
-                    Collections.<String>singleton(merged.getRealm().getFullPath()), cond, AnyTypeKind.USER);
-            for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
-                List<User> matching = searchDAO().search(
-                        Collections.<String>singleton(merged.getRealm().getFullPath()),
-                        cond,
-                        page,
-                        AnyDAO.DEFAULT_PAGE_SIZE,
-                        Collections.<OrderByClause>emptyList(),
-                        AnyTypeKind.USER);
-
-                matching.forEach(user -> {
-                    Query insert = entityManager().createNativeQuery("INSERT INTO " + UDYNMEMB_TABLE + " VALUES(?, ?)");
-                    insert.setParameter(1, user.getKey());
-                    insert.setParameter(2, merged.getKey());
-                    insert.executeUpdate();
-
-                    publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, user, AuthContextUtils.getDomain()));
-                });
-            }
+        Set<String> uChanged = refreshDynMembers(
+                merged,
+                null,
+                merged.getUDynMembership() == null
+                ? null
+                : buildDynMembershipCond(merged.getUDynMembership().getFIQLCond(), merged.getRealm()),
+                findUDynMemberKeys(merged));
+        if (!uChanged.isEmpty()) {
+            publisher.publishEvent(new AnyBulkUpdatedEvent(
+                    this, AnyTypeKind.USER, uChanged, AuthContextUtils.getDomain()));
+        }
+
+        Map<String, Set<String>> aCurrent = findADynMemberKeys(merged);
+        Set<String> aChanged = new HashSet<>();
+        merged.getADynMemberships().forEach(memb -> aChanged.addAll(refreshDynMembers(
+                merged,
+                memb.getAnyType().getKey(),
+                buildDynMembershipCond(memb.getFIQLCond(), merged.getRealm()),
+                Optional.ofNullable(aCurrent.remove(memb.getAnyType().getKey())).orElse(Collections.emptySet()))));
+        // any type no longer having dynamic membership for this group
+        aCurrent.forEach((anyType, current) -> aChanged.addAll(
+                refreshDynMembers(merged, anyType, null, current)));
+        if (!aChanged.isEmpty()) {
+            publisher.publishEvent(new AnyBulkUpdatedEvent(
+                    this, AnyTypeKind.ANY_OBJECT, aChanged, AuthContextUtils.getDomain()));
         }
-        clearADynMembers(merged);
-        merged.getADynMemberships().stream().forEach(memb -> {
-            SearchCond cond = buildDynMembershipCond(memb.getFIQLCond(), merged.getRealm());
-            int count = searchDAO().count(
-                    Collections.<String>singleton(merged.getRealm().getFullPath()), cond, AnyTypeKind.ANY_OBJECT);
-            for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
-                List<AnyObject> matching = searchDAO().search(
-                        Collections.<String>singleton(merged.getRealm().getFullPath()),
-                        cond,
-                        page,
-                        AnyDAO.DEFAULT_PAGE_SIZE,
-                        Collections.<OrderByClause>emptyList(),
-                        AnyTypeKind.ANY_OBJECT);
-
-                matching.forEach(anyObject -> {
-                    Query insert = entityManager().createNativeQuery(
-                            "INSERT INTO " + ADYNMEMB_TABLE + " VALUES(?, ?, ?)");
-                    insert.setParameter(1, anyObject.getType().getKey());
-                    insert.setParameter(2, anyObject.getKey());
-                    insert.setParameter(3, merged.getKey());
-                    insert.executeUpdate();
-
-                    publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, anyObject, AuthContextUtils.getDomain()));
-                });
-            }
-        });
 
         dynRealmDAO().refreshDynMemberships(merged);
 
@@ -472,36 +577,7 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
     @Transactional
     @Override
     public Pair<Set<String>, Set<String>> refreshDynMemberships(final AnyObject anyObject) {
-        Set<String> before = new HashSet<>();
-        Set<String> after = new HashSet<>();
-        findWithADynMemberships(anyObject.getType()).stream().map(memb -> {
-            Query delete = entityManager().createNativeQuery(
-                    "DELETE FROM " + ADYNMEMB_TABLE + " WHERE group_id=? AND any_id=?");
-            delete.setParameter(1, memb.getGroup().getKey());
-            delete.setParameter(2, anyObject.getKey());
-
-            if (delete.executeUpdate() > 0) {
-                before.add(memb.getGroup().getKey());
-            }
-
-            if (jpaAnySearchDAO().matches(
-                    anyObject,
-                    buildDynMembershipCond(memb.getFIQLCond(), memb.getGroup().getRealm()))) {
-
-                Query insert = entityManager().createNativeQuery(
-                        "INSERT INTO " + ADYNMEMB_TABLE + " VALUES(?, ?, ?)");
-                insert.setParameter(1, anyObject.getType().getKey());
-                insert.setParameter(2, anyObject.getKey());
-                insert.setParameter(3, memb.getGroup().getKey());
-                insert.executeUpdate();
-
-                after.add(memb.getGroup().getKey());
-            }
-            return memb;
-        }).forEachOrdered(memb -> publisher.publishEvent(
-                new AnyCreatedUpdatedEvent<>(this, memb.getGroup(), AuthContextUtils.getDomain())));
-
-        return Pair.of(before, after);
+        return refreshDynMemberships(anyObject, findWithADynMemberships(anyObject.getType()));
     }
 
     @Override
@@ -558,33 +634,72 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
     @Transactional
     @Override
     public Pair<Set<String>, Set<String>> refreshDynMemberships(final User user) {
-        Set<String> before = new HashSet<>();
-        Set<String> after = new HashSet<>();
-        findWithUDynMemberships().stream().map(memb -> {
-            Query delete = entityManager().createNativeQuery(
-                    "DELETE FROM " + UDYNMEMB_TABLE + " WHERE group_id=? AND any_id=?");
-            delete.setParameter(1, memb.getGroup().getKey());
-            delete.setParameter(2, user.getKey());
-
-            if (delete.executeUpdate() > 0) {
-                before.add(memb.getGroup().getKey());
-            }
+        return refreshDynMemberships(user, findWithUDynMemberships());
+    }
 
-            if (jpaAnySearchDAO().matches(
-                    user,
-                    buildDynMembershipCond(memb.getFIQLCond(), memb.getGroup().getRealm()))) {
+    @SuppressWarnings("unchecked")
+    private Set<String> findDynGroupKeys(final Any<?> any) {
+        Query query = entityManager().createNativeQuery("SELECT group_id FROM "
+                + (any.getType().getKind() == AnyTypeKind.USER ? UDYNMEMB_TABLE : ADYNMEMB_TABLE)
+                + " WHERE any_id=?");
+        query.setParameter(1, any.getKey());
+
+        return ((List<Object>) query.getResultList()).stream().
+                map(key -> key instanceof Object[] ? (String) ((Object[]) key)[0] : ((String) key)).
+                collect(Collectors.toSet());
+    }
+
+    /**
+     * Only re-evaluates the dynamic membership conditions depending on features of the given entity which were
+     * changed within the current transaction, in memory whenever possible.
+     *
+     * @param any user or any object
+     * @param membs dynamic memberships to consider
+     * @return dynamic group memberships before and after refresh
+     */
+    private Pair<Set<String>, Set<String>> refreshDynMemberships(
+            final Any<?> any, final List<? extends DynGroupMembership<?>> membs) {
+
+        boolean isUser = any.getType().getKind() == AnyTypeKind.USER;
+
+        Set<String> before = findDynGroupKeys(any);
+        Set<String> after = new HashSet<>(before);
+
+        AnyChanges changes = AnyChanges.of(any);
+        List<Object[]> removed = new ArrayList<>();
+        List<Object[]> added = new ArrayList<>();
+        List<Group> changed = new ArrayList<>();
+        membs.forEach(memb -> {
+            Group group = memb.getGroup();
+            InMemorySearchCondMatcher.CompiledCond cond = matcher.compile(
+                    memb.getKey(),
+                    group.getRealm().getFullPath() + ' ' + memb.getFIQLCond(),
+                    () -> buildDynMembershipCond(memb.getFIQLCond(), group.getRealm()));
+            if (cond.isAffectedBy(changes)) {
+                boolean matches = matcher.matches(any, cond).
+                        orElseGet(() -> jpaAnySearchDAO().matches(any, cond.getCond()));
+                if (matches && after.add(group.getKey())) {
+                    added.add(isUser
+                            ? new Object[] { any.getKey(), group.getKey() }
+                            : new Object[] { any.getType().getKey(), any.getKey(), group.getKey() });
+                    changed.add(group);
+                } else if (!matches && after.remove(group.getKey())) {
+                    removed.add(new Object[] { group.getKey(), any.getKey() });
+                    changed.add(group);
+                }
+            }
+        });
 
-                Query insert = entityManager().createNativeQuery(
-                        "INSERT INTO " + UDYNMEMB_TABLE + " VALUES(?, ?)");
-                insert.setParameter(1, user.getKey());
-                insert.setParameter(2, memb.getGroup().getKey());
-                insert.executeUpdate();
+        executeBatch(
+                "DELETE FROM " + (isUser ? UDYNMEMB_TABLE : ADYNMEMB_TABLE) + " WHERE group_id=? AND any_id=?",
+                removed);
+        executeBatch(isUser
+                ? "INSERT INTO " + UDYNMEMB_TABLE + " VALUES(?, ?)"
+                : "INSERT INTO " + ADYNMEMB_TABLE + " VALUES(?, ?, ?)",
+                added);
 
-                after.add(memb.getGroup().getKey());
-            }
-            return memb;
-        }).forEachOrdered(memb -> publisher.publishEvent(
-                new AnyCreatedUpdatedEvent<>(this, memb.getGroup(), AuthContextUtils.getDomain())));
+        changed.forEach(group -> publisher.publishEvent(
+                new AnyCreatedUpdatedEvent<>(this, group, AuthContextUtils.getDomain())));
 
         return Pair.of(before, after);
     }
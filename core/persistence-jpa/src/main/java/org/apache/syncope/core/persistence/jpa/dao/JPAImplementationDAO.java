@@ -46,6 +46,7 @@ public class JPAImplementationDAO extends AbstractDAO<Implementation> implements
         return query.getResultList();
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<Implementation> findAll() {
         TypedQuery<Implementation> query = entityManager().createQuery(
@@ -25,11 +25,14 @@ import org.apache.syncope.common.lib.types.LoggerType;
 import org.apache.syncope.core.persistence.api.dao.LoggerDAO;
 import org.apache.syncope.core.persistence.api.entity.Logger;
 import org.apache.syncope.core.persistence.jpa.entity.JPALogger;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class JPALoggerDAO extends AbstractDAO<Logger> implements LoggerDAO {
 
+    private final DomainVersions versions = new DomainVersions("loggers", JPALogger.class);
+
     @Override
     public Logger find(final String key) {
         return entityManager().find(JPALogger.class, key);
@@ -49,12 +52,15 @@ public class JPALoggerDAO extends AbstractDAO<Logger> implements LoggerDAO {
         if (LoggerType.AUDIT == logger.getType() && LoggerLevel.OFF != logger.getLevel()) {
             logger.setLevel(LoggerLevel.DEBUG);
         }
-        return entityManager().merge(logger);
+        Logger merged = entityManager().merge(logger);
+        versions.changed(AuthContextUtils.getDomain());
+        return merged;
     }
 
     @Override
     public void delete(final Logger logger) {
         entityManager().remove(logger);
+        versions.changed(AuthContextUtils.getDomain());
     }
 
     @Override
@@ -66,4 +72,9 @@ public class JPALoggerDAO extends AbstractDAO<Logger> implements LoggerDAO {
 
         delete(logger);
     }
+
+    @Override
+    public long getVersion() {
+        return versions.get(AuthContextUtils.getDomain());
+    }
 }
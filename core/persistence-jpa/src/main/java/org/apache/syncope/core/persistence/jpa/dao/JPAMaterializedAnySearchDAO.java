@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.persistence.Query;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.MaterializedAnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.PlainSchema;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Search engine implementation for users, groups and any objects, reading plain attribute values from
+ * denormalized, indexed tables rather than from the {@code _attr} and {@code _unique_attr} views.
+ * Such tables are refreshed for users, groups and any objects saved or deleted within a transaction all at once,
+ * right before commit or before the first search issued meanwhile within the same transaction, as reported by
+ * {@link MaterializedAnySearchListener};
+ * {@link #rebuild(org.apache.syncope.common.lib.types.AnyTypeKind)} shall be invoked once for each kind
+ * after enabling this implementation on an existing database.
+ */
+public class JPAMaterializedAnySearchDAO extends JPAAnySearchDAO implements MaterializedAnySearchDAO {
+
+    private static final String COLUMNS =
+            "any_id, schema_id, booleanvalue, datevalue, doublevalue, longvalue, stringvalue";
+
+    /**
+     * Maximum number of users, groups or any objects refreshed by a single statement.
+     */
+    private static final int REFRESH_BATCH_SIZE = 100;
+
+    @Override
+    protected SearchSupport buildSearchSupport(final AnyTypeKind kind) {
+        return new MaterializedSearchSupport(kind);
+    }
+
+    @Override
+    protected void appendNullAttrQuery(
+            final StringBuilder query, final SearchSupport svs, final PlainSchema schema, final boolean isNull) {
+
+        String materialized = ((MaterializedSearchSupport) svs).materialized().name;
+        if (isNull) {
+            query.append(svs.field().name).
+                    append(" WHERE any_id NOT IN (SELECT any_id FROM ").append(materialized).
+                    append(" WHERE schema_id='").append(schema.getKey()).append("')");
+        } else {
+            query.append(materialized).
+                    append(" WHERE schema_id='").append(schema.getKey()).append("'");
+        }
+    }
+
+    private static String inClause(final List<String> anyKeys) {
+        return IntStream.rangeClosed(1, anyKeys.size()).mapToObj(i -> "?" + i).
+                collect(Collectors.joining(",", " WHERE any_id IN (", ")"));
+    }
+
+    private static void fillWithKeys(final Query query, final List<String> anyKeys) {
+        for (int i = 0; i < anyKeys.size(); i++) {
+            query.setParameter(i + 1, anyKeys.get(i));
+        }
+    }
+
+    private int copy(final AnyTypeKind kind, final List<String> anyKeys) {
+        SearchSupport views = new SearchSupport(kind);
+        String materialized = new MaterializedSearchSupport(kind).materialized().name;
+
+        int copied = 0;
+        for (String view : new String[] { views.attr().name, views.uniqueAttr().name }) {
+            StringBuilder queryString = new StringBuilder("INSERT INTO ").append(materialized).
+                    append(" (").append(COLUMNS).append(") SELECT ").append(COLUMNS).append(" FROM ").append(view);
+            if (anyKeys != null) {
+                queryString.append(inClause(anyKeys));
+            }
+
+            Query query = entityManager().createNativeQuery(queryString.toString());
+            if (anyKeys != null) {
+                fillWithKeys(query, anyKeys);
+            }
+            copied += query.executeUpdate();
+        }
+        return copied;
+    }
+
+    private void remove(final AnyTypeKind kind, final List<String> anyKeys) {
+        Query query = entityManager().createNativeQuery(
+                "DELETE FROM " + new MaterializedSearchSupport(kind).materialized().name + inClause(anyKeys));
+        fillWithKeys(query, anyKeys);
+        query.executeUpdate();
+    }
+
+    private void refresh(final Map<AnyTypeKind, Set<String>> anyKeys) {
+        // make pending changes visible to the views
+        entityManager().flush();
+
+        anyKeys.forEach((kind, keys) -> {
+            List<String> list = new ArrayList<>(keys);
+            for (int i = 0; i < list.size(); i += REFRESH_BATCH_SIZE) {
+                List<String> batch = list.subList(i, Math.min(i + REFRESH_BATCH_SIZE, list.size()));
+                remove(kind, batch);
+                copy(kind, batch);
+            }
+        });
+    }
+
+    private static String pendingResource() {
+        return JPAMaterializedAnySearchDAO.class.getName() + '.' + AuthContextUtils.getDomain();
+    }
+
+    private void refreshPending(final Map<AnyTypeKind, Set<String>> pending) {
+        if (!pending.isEmpty()) {
+            Map<AnyTypeKind, Set<String>> anyKeys = new EnumMap<>(pending);
+            pending.clear();
+            refresh(anyKeys);
+        }
+    }
+
+    /**
+     * Refreshes the users, groups and any objects changed so far within the current transaction, if any.
+     */
+    @SuppressWarnings("unchecked")
+    private void refreshPending() {
+        Map<AnyTypeKind, Set<String>> pending =
+                (Map<AnyTypeKind, Set<String>>) TransactionSynchronizationManager.getResource(pendingResource());
+        if (pending != null) {
+            refreshPending(pending);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void refresh(final AnyTypeKind kind, final String anyKey) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(Collections.singletonMap(kind, Collections.singleton(anyKey)));
+            return;
+        }
+
+        String resource = pendingResource();
+        Map<AnyTypeKind, Set<String>> pending =
+                (Map<AnyTypeKind, Set<String>>) TransactionSynchronizationManager.getResource(resource);
+        if (pending == null) {
+            Map<AnyTypeKind, Set<String>> bound = new EnumMap<>(AnyTypeKind.class);
+            TransactionSynchronizationManager.bindResource(resource, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void beforeCommit(final boolean readOnly) {
+                    refreshPending(bound);
+                }
+
+                @Override
+                public void afterCompletion(final int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(resource);
+                }
+            });
+            pending = bound;
+        }
+        pending.computeIfAbsent(kind, k -> new LinkedHashSet<>()).add(anyKey);
+    }
+
+    @Override
+    protected int doCount(final Set<String> adminRealms, final SearchCond cond, final AnyTypeKind kind) {
+        refreshPending();
+        return super.doCount(adminRealms, cond, kind);
+    }
+
+    @Override
+    protected <T extends Any<?>> List<T> doSearch(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final int firstResult,
+            final int maxResults,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind) {
+
+        refreshPending();
+        return super.doSearch(adminRealms, cond, firstResult, maxResults, orderBy, kind);
+    }
+
+    @Override
+    protected List<String> doSearchKeys(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final AnyTypeKind kind,
+            final String afterKey,
+            final int limit) {
+
+        refreshPending();
+        return super.doSearchKeys(adminRealms, cond, kind, afterKey, limit);
+    }
+
+    @Transactional
+    @Override
+    public int rebuild(final AnyTypeKind kind) {
+        entityManager().createNativeQuery(
+                "DELETE FROM " + new MaterializedSearchSupport(kind).materialized().name).executeUpdate();
+        return copy(kind, null);
+    }
+}
@@ -29,7 +29,9 @@ import org.apache.syncope.core.persistence.api.entity.Entity;
 import org.apache.syncope.core.persistence.api.entity.Implementation;
 import org.apache.syncope.core.persistence.api.entity.MailTemplate;
 import org.apache.syncope.core.persistence.api.entity.Notification;
+import org.apache.syncope.core.persistence.jpa.entity.JPAAnyAbout;
 import org.apache.syncope.core.persistence.jpa.entity.JPANotification;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,6 +39,9 @@ import org.springframework.transaction.annotation.Transactional;
 @Repository
 public class JPANotificationDAO extends AbstractDAO<Notification> implements NotificationDAO {
 
+    private final DomainVersions versions =
+            new DomainVersions("notifications", JPANotification.class, JPAAnyAbout.class);
+
     @Autowired
     private TaskDAO taskDAO;
 
@@ -76,7 +81,9 @@ public class JPANotificationDAO extends AbstractDAO<Notification> implements Not
 
     @Override
     public Notification save(final Notification notification) {
-        return entityManager().merge(notification);
+        Notification merged = entityManager().merge(notification);
+        versions.changed(AuthContextUtils.getDomain());
+        return merged;
     }
 
     @Override
@@ -91,5 +98,11 @@ public class JPANotificationDAO extends AbstractDAO<Notification> implements Not
                 stream().map(Entity::getKey).forEach(task -> delete(task));
 
         entityManager().remove(notification);
+        versions.changed(AuthContextUtils.getDomain());
+    }
+
+    @Override
+    public long getVersion() {
+        return versions.get(AuthContextUtils.getDomain());
     }
 }
@@ -20,6 +20,7 @@ package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.util.Collection;
 import java.util.List;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
@@ -40,6 +41,9 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class JPAPlainSchemaDAO extends AbstractDAO<PlainSchema> implements PlainSchemaDAO {
 
+    @Autowired
+    private AllowedSchemasCache allowedSchemasCache;
+
     @Autowired
     private PlainAttrDAO plainAttrDAO;
 
@@ -112,7 +116,9 @@ public class JPAPlainSchemaDAO extends AbstractDAO<PlainSchema> implements Plain
 
     @Override
     public PlainSchema save(final PlainSchema schema) {
-        return entityManager().merge(schema);
+        PlainSchema merged = entityManager().merge(schema);
+        allowedSchemasCache.changed();
+        return merged;
     }
 
     @Override
@@ -132,6 +138,13 @@ public class JPAPlainSchemaDAO extends AbstractDAO<PlainSchema> implements Plain
                 plainAttrDAO.delete(attr.getKey(), anyUtils.plainAttrClass());
             });
 
+            // values denormalized for JPAMaterializedAnySearchDAO: no change event is published for such attributes
+            Query query = entityManager().createNativeQuery(
+                    "DELETE FROM " + new MaterializedSearchSupport(anyTypeKind).materialized().name
+                    + " WHERE schema_id=?1");
+            query.setParameter(1, key);
+            query.executeUpdate();
+
             resourceDAO().deleteMapping(key);
         }
 
@@ -140,5 +153,6 @@ public class JPAPlainSchemaDAO extends AbstractDAO<PlainSchema> implements Plain
         }
 
         entityManager().remove(schema);
+        allowedSchemasCache.changed();
     }
 }
@@ -20,9 +20,12 @@ package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
-import javax.persistence.NoResultException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import javax.persistence.TypedQuery;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.SyncopeConstants;
@@ -37,29 +40,78 @@ import org.apache.syncope.core.persistence.api.entity.policy.Policy;
 import org.apache.syncope.core.persistence.api.entity.policy.ProvisioningPolicy;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.jpa.entity.JPARealm;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Realm hierarchy lookups are served by a per-domain {@link RealmTree} snapshot, built with a single query and
+ * discarded whenever any realm is changed, either locally or by another node (see {@link DomainVersions}).
+ */
 @Repository
 public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
 
+    private static final int MAX_IN_CLAUSE_SIZE = 1000;
+
     @Autowired
     private RoleDAO roleDAO;
 
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    private final DomainVersions versions = new DomainVersions("realms", JPARealm.class);
+
+    private final Map<String, RealmTree> trees = new ConcurrentHashMap<>();
+
+    private RealmTree loadTree(final long version) {
+        TypedQuery<Object[]> query = entityManager().createQuery(
+                "SELECT e.id, p.id, e.name FROM " + JPARealm.class.getSimpleName() + " e LEFT JOIN e.parent p",
+                Object[].class);
+        return RealmTree.build(version, query.getResultList());
+    }
+
+    private RealmTree tree() {
+        String domain = AuthContextUtils.getDomain();
+        if (versions.isChangedInTransaction(domain)) {
+            // realms were changed within the current transaction: such changes are not visible to anybody else
+            return loadTree(-1);
+        }
+
+        // a snapshot possibly stored concurrently to some change has an outdated version, and is not used
+        long version = versions.get(domain);
+        RealmTree tree = trees.get(domain);
+        if (tree == null || tree.getVersion() != version) {
+            tree = loadTree(version);
+            trees.put(domain, tree);
+        }
+        return tree;
+    }
+
+    private List<Realm> findByKeys(final List<String> keys) {
+        Map<String, Realm> found = new HashMap<>(keys.size());
+        for (int i = 0; i < keys.size(); i += MAX_IN_CLAUSE_SIZE) {
+            TypedQuery<Realm> query = entityManager().createQuery(
+                    "SELECT e FROM " + JPARealm.class.getSimpleName() + " e WHERE e.id IN :keys", Realm.class);
+            query.setParameter("keys", keys.subList(i, Math.min(i + MAX_IN_CLAUSE_SIZE, keys.size())));
+
+            query.getResultList().forEach(realm -> found.put(realm.getKey(), realm));
+        }
+
+        return keys.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
     @Override
     public Realm getRoot() {
-        TypedQuery<Realm> query = entityManager().createQuery(
-                "SELECT e FROM " + JPARealm.class.getSimpleName() + " e WHERE e.parent IS NULL", Realm.class);
-
-        Realm result = null;
-        try {
-            result = query.getSingleResult();
-        } catch (NoResultException e) {
-            LOG.debug("Root realm not found", e);
+        String key = tree().getRootKey();
+        if (key == null) {
+            LOG.debug("Root realm not found");
+            return null;
         }
 
-        return result;
+        return find(key);
     }
 
     @Transactional(readOnly = true)
@@ -79,22 +131,8 @@ public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
             throw new MalformedPathException(fullPath);
         }
 
-        Realm root = getRoot();
-        if (root == null) {
-            return null;
-        }
-
-        Realm current = root;
-        for (final String pathElement : fullPath.substring(1).split("/")) {
-            Optional<Realm> first = findChildren(current).stream().
-                    filter(realm -> pathElement.equals(realm.getName())).findFirst();
-            if (first.isPresent()) {
-                current = first.get();
-            } else {
-                return null;
-            }
-        }
-        return current;
+        String key = tree().getKey(fullPath);
+        return key == null ? null : find(key);
     }
 
     private <T extends Policy> List<Realm> findSamePolicyChildren(final Realm realm, final T policy) {
@@ -179,50 +217,53 @@ public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
 
     @Override
     public List<Realm> findChildren(final Realm realm) {
-        TypedQuery<Realm> query = entityManager().createQuery(
-                "SELECT e FROM " + JPARealm.class.getSimpleName() + " e WHERE e.parent=:realm", Realm.class);
-        query.setParameter("realm", realm);
-
-        return query.getResultList();
+        return findByKeys(tree().getChildren(realm.getKey()));
     }
 
-    private void findDescendants(final List<Realm> result, final Realm realm) {
-        result.add(realm);
-        List<Realm> children = findChildren(realm);
-        if (children != null) {
-            for (Realm child : children) {
-                findDescendants(result, child);
-            }
-        }
+    @Override
+    public List<String> findDescendantKeys(final Realm realm) {
+        List<String> keys = tree().getDescendants(realm.getKey());
+        return keys.isEmpty() ? Collections.singletonList(realm.getKey()) : keys;
     }
 
     @Override
     public List<Realm> findDescendants(final Realm realm) {
-        List<Realm> result = new ArrayList<>();
-        findDescendants(result, realm);
-        return result;
+        List<String> keys = tree().getDescendants(realm.getKey());
+        return keys.isEmpty() ? new ArrayList<>(Collections.singletonList(realm)) : findByKeys(keys);
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<Realm> findAll() {
-        return findDescendants(getRoot());
+        RealmTree tree = tree();
+        return tree.getRootKey() == null
+                ? new ArrayList<>()
+                : findByKeys(tree.getDescendants(tree.getRootKey()));
     }
 
     @Override
     public Realm save(final Realm realm) {
-        return entityManager().merge(realm);
+        Realm merged = entityManager().merge(realm);
+        versions.changed(AuthContextUtils.getDomain());
+        publisher.publishEvent(new EntityChangedEvent(
+                this, Realm.class, merged.getKey(), false, AuthContextUtils.getDomain()));
+        return merged;
     }
 
     @Override
     public void delete(final Realm realm) {
+        versions.changed(AuthContextUtils.getDomain());
         findDescendants(realm).stream().map(toBeDeleted -> {
             roleDAO.findByRealm(toBeDeleted).forEach(role -> role.getRealms().remove(toBeDeleted));
             return toBeDeleted;
         }).map(toBeDeleted -> {
             toBeDeleted.setParent(null);
             return toBeDeleted;
-        }).forEachOrdered(toBeDeleted -> entityManager().remove(toBeDeleted));
+        }).forEachOrdered(toBeDeleted -> {
+            entityManager().remove(toBeDeleted);
+            publisher.publishEvent(new EntityChangedEvent(
+                    this, Realm.class, toBeDeleted.getKey(), true, AuthContextUtils.getDomain()));
+        });
     }
 
     @Override
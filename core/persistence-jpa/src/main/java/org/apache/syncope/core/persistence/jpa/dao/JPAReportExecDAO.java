@@ -23,10 +23,12 @@ import java.util.List;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import org.apache.syncope.core.persistence.api.dao.ReportExecDAO;
+import org.apache.syncope.core.persistence.api.dao.ReportExecResultDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.Report;
 import org.apache.syncope.core.persistence.api.entity.ReportExec;
 import org.apache.syncope.core.persistence.jpa.entity.JPAReportExec;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ReflectionUtils;
@@ -34,6 +36,9 @@ import org.springframework.util.ReflectionUtils;
 @Repository
 public class JPAReportExecDAO extends AbstractDAO<ReportExec> implements ReportExecDAO {
 
+    @Autowired
+    private ReportExecResultDAO reportExecResultDAO;
+
     @Override
     public ReportExec find(final String key) {
         return entityManager().find(JPAReportExec.class, key);
@@ -181,6 +186,7 @@ public class JPAReportExecDAO extends AbstractDAO<ReportExec> implements ReportE
             execution.getReport().getExecs().remove(execution);
         }
 
+        reportExecResultDAO.delete(execution);
         entityManager().remove(execution);
     }
 }
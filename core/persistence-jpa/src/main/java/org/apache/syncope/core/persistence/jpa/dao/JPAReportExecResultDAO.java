@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import javax.persistence.Query;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
+import org.apache.syncope.core.persistence.api.dao.ReportExecResultDAO;
+import org.apache.syncope.core.persistence.api.entity.ReportExec;
+import org.apache.syncope.core.persistence.jpa.entity.JPAReportExec;
+
+/**
+ * Stores report execution results in the {@code execResult} column of the {@code ReportExec} table, via JDBC streams
+ * rather than via the mapped entity field: while being written, results are spooled to a temporary file.
+ */
+public class JPAReportExecResultDAO extends AbstractDAO<ReportExec> implements ReportExecResultDAO {
+
+    private static final String COLUMN = "execResult";
+
+    private Connection connection() {
+        // JDBC access below bypasses the persistence context: push any pending change first
+        entityManager().flush();
+
+        return (Connection) OpenJPAPersistence.cast(entityManager()).getConnection();
+    }
+
+    private static void close(final AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource != null) {
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    LOG.error("While releasing {}", resource, e);
+                }
+            }
+        }
+    }
+
+    private void storeSpool(final String key, final Path spool) throws IOException {
+        Connection conn = connection();
+        try (InputStream in = Files.newInputStream(spool);
+                PreparedStatement stmt = conn.prepareStatement(
+                        "UPDATE " + JPAReportExec.TABLE + " SET " + COLUMN + "=? WHERE id=?")) {
+
+            stmt.setBinaryStream(1, in, Files.size(spool));
+            stmt.setString(2, key);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new IOException("While storing the result of report execution " + key, e);
+        } finally {
+            close(conn);
+        }
+
+        entityManager().getEntityManagerFactory().getCache().evict(JPAReportExec.class, key);
+    }
+
+    @Override
+    public OutputStream store(final ReportExec execution) throws IOException {
+        String key = execution.getKey();
+        Path spool = Files.createTempFile("reportExec", ".zip");
+
+        return new BufferedOutputStream(Files.newOutputStream(spool)) {
+
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+
+                try {
+                    super.close();
+                    storeSpool(key, spool);
+                } finally {
+                    Files.deleteIfExists(spool);
+                }
+            }
+        };
+    }
+
+    @Override
+    public boolean exists(final ReportExec execution) {
+        Query query = entityManager().createNativeQuery(
+                "SELECT id FROM " + JPAReportExec.TABLE + " WHERE id=?1 AND " + COLUMN + " IS NOT NULL");
+        query.setParameter(1, execution.getKey());
+
+        return !query.getResultList().isEmpty();
+    }
+
+    @Override
+    public Optional<InputStream> read(final ReportExec execution) throws IOException {
+        Connection conn = connection();
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            stmt = conn.prepareStatement(
+                    "SELECT " + COLUMN + " FROM " + JPAReportExec.TABLE + " WHERE id=?");
+            stmt.setString(1, execution.getKey());
+            rs = stmt.executeQuery();
+
+            InputStream in = rs.next() ? rs.getBinaryStream(1) : null;
+            if (in == null) {
+                close(rs, stmt, conn);
+                return Optional.empty();
+            }
+
+            // JDBC resources are released only once the result was fully read
+            AutoCloseable[] resources = new AutoCloseable[] { rs, stmt, conn };
+            return Optional.of(new FilterInputStream(in) {
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        JPAReportExecResultDAO.close(resources);
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            close(rs, stmt, conn);
+            throw new IOException("While reading the result of report execution " + execution.getKey(), e);
+        }
+    }
+
+    @Override
+    public void delete(final ReportExec execution) {
+        // nothing to do: the result is removed together with the report execution itself
+    }
+}
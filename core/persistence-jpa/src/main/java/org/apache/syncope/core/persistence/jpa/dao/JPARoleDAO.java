@@ -34,6 +34,7 @@ import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.jpa.entity.JPARole;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAUser;
 import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -98,7 +99,10 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
 
     @Override
     public Role save(final Role role) {
-        return entityManager().merge(role);
+        Role merged = entityManager().merge(role);
+        publisher.publishEvent(new EntityChangedEvent(
+                this, Role.class, merged.getKey(), false, AuthContextUtils.getDomain()));
+        return merged;
     }
 
     @Override
@@ -138,6 +142,8 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
         clearDynMembers(role);
 
         entityManager().remove(role);
+        publisher.publishEvent(new EntityChangedEvent(
+                this, Role.class, role.getKey(), true, AuthContextUtils.getDomain()));
     }
 
     @Override
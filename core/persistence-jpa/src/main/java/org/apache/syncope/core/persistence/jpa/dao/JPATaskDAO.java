@@ -21,13 +21,16 @@ package org.apache.syncope.core.persistence.jpa.dao;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Query;
+import javax.persistence.TemporalType;
 import javax.persistence.TypedQuery;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.TaskType;
 import org.apache.syncope.core.persistence.api.dao.RemediationDAO;
@@ -200,6 +203,62 @@ public class JPATaskDAO extends AbstractDAO<Task> implements TaskDAO {
         return query.getResultList();
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<String> findNotificationsToExec(final String afterKey, final int limit) {
+        StringBuilder queryString = new StringBuilder("SELECT e.id FROM ").append(JPANotificationTask.class.
+                getSimpleName()).append(" e WHERE e.executed = :executed").
+                append(" AND (e.claimExpiry IS NULL OR e.claimExpiry < :now)");
+        if (afterKey != null) {
+            queryString.append(" AND e.id > :afterKey");
+        }
+        queryString.append(" ORDER BY e.id");
+
+        TypedQuery<String> query = entityManager().createQuery(queryString.toString(), String.class);
+        // not to be served by the query cache, as claims are performed via bulk updates
+        OpenJPAPersistence.cast(query).getFetchPlan().setQueryResultCacheEnabled(false);
+        query.setParameter("executed", Boolean.FALSE);
+        query.setParameter("now", new Date(), TemporalType.TIMESTAMP);
+        if (afterKey != null) {
+            query.setParameter("afterKey", afterKey);
+        }
+        query.setMaxResults(limit);
+
+        return query.getResultList();
+    }
+
+    @Transactional
+    @Override
+    public boolean claimNotification(final String key, final String owner, final Date expiry) {
+        Query query = entityManager().createQuery("UPDATE " + JPANotificationTask.class.getSimpleName() + " e "
+                + "SET e.claimOwner = :owner, e.claimExpiry = :expiry "
+                + "WHERE e.id = :key AND e.executed = :executed "
+                + "AND (e.claimExpiry IS NULL OR e.claimExpiry < :now)");
+        query.setParameter("owner", owner);
+        query.setParameter("expiry", expiry, TemporalType.TIMESTAMP);
+        query.setParameter("key", key);
+        query.setParameter("executed", Boolean.FALSE);
+        query.setParameter("now", new Date(), TemporalType.TIMESTAMP);
+        boolean claimed = query.executeUpdate() > 0;
+
+        if (claimed) {
+            entityManager().getEntityManagerFactory().getCache().evict(JPANotificationTask.class, key);
+        }
+        return claimed;
+    }
+
+    @Transactional
+    @Override
+    public void releaseNotification(final String key, final String owner) {
+        Query query = entityManager().createQuery("UPDATE " + JPANotificationTask.class.getSimpleName() + " e "
+                + "SET e.claimOwner = NULL, e.claimExpiry = NULL WHERE e.id = :key AND e.claimOwner = :owner");
+        query.setParameter("key", key);
+        query.setParameter("owner", owner);
+        if (query.executeUpdate() > 0) {
+            entityManager().getEntityManagerFactory().getCache().evict(JPANotificationTask.class, key);
+        }
+    }
+
     @Transactional(readOnly = true)
     @Override
     public <T extends Task> List<T> findAll(final TaskType type) {
@@ -39,11 +39,15 @@ import org.apache.syncope.core.persistence.jpa.entity.resource.JPAExternalResour
 import org.apache.syncope.core.persistence.jpa.entity.resource.JPAMapping;
 import org.apache.syncope.core.persistence.jpa.entity.resource.JPAProvision;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class JPAVirSchemaDAO extends AbstractDAO<VirSchema> implements VirSchemaDAO {
 
+    @Autowired
+    private AllowedSchemasCache allowedSchemasCache;
+
     private ExternalResourceDAO resourceDAO;
 
     private ExternalResourceDAO resourceDAO() {
@@ -125,7 +129,9 @@ public class JPAVirSchemaDAO extends AbstractDAO<VirSchema> implements VirSchema
 
     @Override
     public VirSchema save(final VirSchema virSchema) {
-        return entityManager().merge(virSchema);
+        VirSchema merged = entityManager().merge(virSchema);
+        allowedSchemasCache.changed();
+        return merged;
     }
 
     @Override
@@ -144,5 +150,6 @@ public class JPAVirSchemaDAO extends AbstractDAO<VirSchema> implements VirSchema
         }
 
         entityManager().remove(schema);
+        allowedSchemasCache.changed();
     }
 }
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.MaterializedAnySearchDAO;
+import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports users, groups and any objects saved or deleted to the configured {@link AnySearchDAO}, when such is a
+ * {@link MaterializedAnySearchDAO}; events are observed here rather than by the DAO itself, as the latter is only
+ * exposed via its interfaces by transactional proxies.
+ * {@link org.apache.syncope.core.provisioning.api.event.AnyBulkUpdatedEvent} is not observed, as it only reports
+ * membership changes: plain attributes are not affected.
+ */
+@Component
+public class MaterializedAnySearchListener {
+
+    @Autowired
+    private AnySearchDAO searchDAO;
+
+    @EventListener
+    public void refresh(final AnyCreatedUpdatedEvent<?> event) {
+        if (searchDAO instanceof MaterializedAnySearchDAO) {
+            ((MaterializedAnySearchDAO) searchDAO).refresh(
+                    event.getAny().getType().getKind(), event.getAny().getKey());
+        }
+    }
+
+    @EventListener
+    public void refresh(final AnyDeletedEvent event) {
+        if (searchDAO instanceof MaterializedAnySearchDAO) {
+            ((MaterializedAnySearchDAO) searchDAO).refresh(event.getAnyTypeKind(), event.getAnyKey());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+
+/**
+ * Reads plain attribute values - both unique and not - from the per-kind tables maintained by
+ * {@link JPAMaterializedAnySearchDAO}, rather than from the {@code _attr} and {@code _unique_attr} views.
+ */
+class MaterializedSearchSupport extends SearchSupport {
+
+    MaterializedSearchSupport(final AnyTypeKind anyTypeKind) {
+        super(anyTypeKind);
+    }
+
+    public SearchView materialized() {
+        return new SearchView("svm", field().name + "_attr_mv");
+    }
+
+    @Override
+    public SearchView attr() {
+        return new SearchView("sva", materialized().name);
+    }
+
+    @Override
+    public SearchView uniqueAttr() {
+        return new SearchView("svua", materialized().name);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.syncope.common.lib.SyncopeConstants;
+
+/**
+ * Immutable snapshot of the realm tree of a domain, built from a single query: realms are numbered in pre-order, so
+ * that the descendants of any realm are found in a contiguous interval.
+ */
+final class RealmTree {
+
+    private static final int[] NO_CHILDREN = new int[0];
+
+    private final long version;
+
+    private final String[] keys;
+
+    private final String[] fullPaths;
+
+    private final int[] parents;
+
+    private final int[] ends;
+
+    private final int[][] children;
+
+    private final Map<String, Integer> byKey;
+
+    private final Map<String, Integer> byFullPath;
+
+    /**
+     * @param version version of the domain realms this snapshot was built from
+     * @param rows realms, as {@code [key, parent key, name]}
+     * @return realm tree
+     */
+    static RealmTree build(final long version, final List<Object[]> rows) {
+        Map<String, List<Object[]>> byParent = new HashMap<>();
+        Object[] root = null;
+        for (Object[] row : rows) {
+            if (row[1] == null) {
+                if (root == null || SyncopeConstants.ROOT_REALM.equals(row[2])) {
+                    root = row;
+                }
+            } else {
+                byParent.computeIfAbsent((String) row[1], k -> new ArrayList<>()).add(row);
+            }
+        }
+        // siblings by key, as formerly returned by the per-parent queries on the parent index
+        byParent.values().forEach(siblings -> siblings.sort(Comparator.comparing(row -> (String) row[0])));
+
+        List<String> keys = new ArrayList<>(rows.size());
+        List<String> fullPaths = new ArrayList<>(rows.size());
+        List<Integer> parents = new ArrayList<>(rows.size());
+        if (root != null) {
+            // iterative depth-first visit, to cope with arbitrarily deep trees
+            Deque<Object[]> stack = new ArrayDeque<>();
+            stack.push(new Object[] { root, -1 });
+            while (!stack.isEmpty()) {
+                Object[] current = stack.pop();
+                Object[] row = (Object[]) current[0];
+                int parent = (Integer) current[1];
+
+                int index = keys.size();
+                keys.add((String) row[0]);
+                parents.add(parent);
+                fullPaths.add(parent == -1
+                        ? SyncopeConstants.ROOT_REALM
+                        : parent == 0
+                                ? SyncopeConstants.ROOT_REALM + row[2]
+                                : fullPaths.get(parent) + '/' + row[2]);
+
+                List<Object[]> siblings = byParent.getOrDefault((String) row[0], Collections.emptyList());
+                for (int i = siblings.size() - 1; i >= 0; i--) {
+                    stack.push(new Object[] { siblings.get(i), index });
+                }
+            }
+        }
+
+        return new RealmTree(version, keys, fullPaths, parents);
+    }
+
+    private RealmTree(
+            final long version,
+            final List<String> keys,
+            final List<String> fullPaths,
+            final List<Integer> parents) {
+
+        this.version = version;
+        this.keys = keys.toArray(new String[keys.size()]);
+        this.fullPaths = fullPaths.toArray(new String[fullPaths.size()]);
+        this.parents = parents.stream().mapToInt(Integer::intValue).toArray();
+
+        this.byKey = new HashMap<>(this.keys.length);
+        this.byFullPath = new HashMap<>(this.keys.length);
+        for (int i = 0; i < this.keys.length; i++) {
+            byKey.put(this.keys[i], i);
+            byFullPath.put(this.fullPaths[i], i);
+        }
+
+        List<List<Integer>> childLists = new ArrayList<>(this.keys.length);
+        for (int i = 0; i < this.keys.length; i++) {
+            childLists.add(new ArrayList<>());
+            if (this.parents[i] != -1) {
+                childLists.get(this.parents[i]).add(i);
+            }
+        }
+        this.children = new int[this.keys.length][];
+        for (int i = 0; i < this.keys.length; i++) {
+            this.children[i] = childLists.get(i).isEmpty()
+                    ? NO_CHILDREN
+                    : childLists.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // in pre-order, a subtree ends where the subtree of its last child ends
+        this.ends = new int[this.keys.length];
+        for (int i = this.keys.length - 1; i >= 0; i--) {
+            this.ends[i] = this.children[i].length == 0
+                    ? i + 1
+                    : this.ends[this.children[i][this.children[i].length - 1]];
+        }
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    String getRootKey() {
+        return keys.length == 0 ? null : keys[0];
+    }
+
+    String getKey(final String fullPath) {
+        Integer index = byFullPath.get(fullPath);
+        return index == null ? null : keys[index];
+    }
+
+    List<String> getChildren(final String key) {
+        Integer index = byKey.get(key);
+        if (index == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> result = new ArrayList<>(children[index].length);
+        for (int child : children[index]) {
+            result.add(keys[child]);
+        }
+        return result;
+    }
+
+    /**
+     * @param key realm key
+     * @return the given realm followed by all of its descendants, in pre-order
+     */
+    List<String> getDescendants(final String key) {
+        Integer index = byKey.get(key);
+        return index == null
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(Arrays.asList(keys).subList(index, ends[index]));
+    }
+}
@@ -20,7 +20,6 @@ package org.apache.syncope.core.persistence.jpa.entity;
 
 import java.util.Date;
 import javax.persistence.Entity;
-import javax.persistence.Lob;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
@@ -37,9 +36,6 @@ public class JPABatch extends AbstractProvidedKeyEntity implements Batch {
     @Temporal(TemporalType.TIMESTAMP)
     private Date expiryTime;
 
-    @Lob
-    private String results;
-
     @Override
     public Date getExpiryTime() {
         return expiryTime == null
@@ -55,14 +51,4 @@ public class JPABatch extends AbstractProvidedKeyEntity implements Batch {
             this.expiryTime = new Date(expiryTime.getTime());
         }
     }
-
-    @Override
-    public String getResults() {
-        return results;
-    }
-
-    @Override
-    public void setResults(final String results) {
-        this.results = results;
-    }
 }
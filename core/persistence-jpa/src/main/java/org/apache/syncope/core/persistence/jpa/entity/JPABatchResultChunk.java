@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.entity;
+
+import javax.persistence.Entity;
+import javax.persistence.Lob;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * Chunk of the results of a batch: results are saved as a sequence of chunks, so that appending does not require to
+ * load or rewrite the chunks already saved.
+ */
+@Entity
+@Table(name = JPABatchResultChunk.TABLE, uniqueConstraints =
+        @UniqueConstraint(columnNames = { "batch_id", "chunkIndex" }))
+public class JPABatchResultChunk extends AbstractGeneratedKeyEntity {
+
+    private static final long serialVersionUID = -2305218467420564578L;
+
+    public static final String TABLE = "SyncopeBatchResultChunk";
+
+    @ManyToOne(optional = false)
+    private JPABatch batch;
+
+    private int chunkIndex;
+
+    @Lob
+    private String content;
+
+    public JPABatch getBatch() {
+        return batch;
+    }
+
+    public void setBatch(final JPABatch batch) {
+        this.batch = batch;
+    }
+
+    public int getChunkIndex() {
+        return chunkIndex;
+    }
+
+    public void setChunkIndex(final int chunkIndex) {
+        this.chunkIndex = chunkIndex;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(final String content) {
+        this.content = content;
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.jpa.entity.task;
 
+import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 import javax.persistence.CollectionTable;
@@ -31,6 +32,8 @@ import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
 import javax.validation.constraints.NotNull;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.TraceLevel;
@@ -77,6 +80,11 @@ public class JPANotificationTask extends AbstractTask implements NotificationTas
     @NotNull
     private Boolean executed = false;
 
+    private String claimOwner;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date claimExpiry;
+
     @Enumerated(EnumType.STRING)
     @NotNull
     private TraceLevel traceLevel;
@@ -167,6 +175,18 @@ public class JPANotificationTask extends AbstractTask implements NotificationTas
         this.executed = executed;
     }
 
+    @Override
+    public String getClaimOwner() {
+        return claimOwner;
+    }
+
+    @Override
+    public Date getClaimExpiry() {
+        return claimExpiry == null
+                ? null
+                : new Date(claimExpiry.getTime());
+    }
+
     @Override
     public TraceLevel getTraceLevel() {
         return traceLevel;
@@ -33,6 +33,7 @@ import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import org.apache.syncope.common.lib.types.ImplementationType;
 import org.apache.syncope.common.lib.types.PullMode;
@@ -74,6 +75,9 @@ public class JPAPullTask extends AbstractProvisioningTask implements PullTask {
     @NotNull
     private Boolean remediation = false;
 
+    @Min(1)
+    private Integer concurrentThreads;
+
     @Override
     public PullMode getPullMode() {
         return pullMode;
@@ -146,4 +150,14 @@ public class JPAPullTask extends AbstractProvisioningTask implements PullTask {
     public boolean isRemediation() {
         return remediation;
     }
+
+    @Override
+    public int getConcurrentThreads() {
+        return concurrentThreads == null ? 1 : concurrentThreads;
+    }
+
+    @Override
+    public void setConcurrentThreads(final int concurrentThreads) {
+        this.concurrentThreads = concurrentThreads;
+    }
 }
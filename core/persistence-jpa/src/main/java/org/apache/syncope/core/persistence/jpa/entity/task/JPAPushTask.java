@@ -30,6 +30,7 @@ import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
+import javax.validation.constraints.Min;
 import org.apache.syncope.common.lib.types.ImplementationType;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
 import org.apache.syncope.core.persistence.api.entity.Implementation;
@@ -59,6 +60,9 @@ public class JPAPushTask extends AbstractProvisioningTask implements PushTask {
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER, mappedBy = "pushTask")
     private List<JPAPushTaskAnyFilter> filters = new ArrayList<>();
 
+    @Min(1)
+    private Integer concurrentThreads;
+
     @Override
     public JPARealm getSourceRealm() {
         return sourceRealm;
@@ -97,4 +101,14 @@ public class JPAPushTask extends AbstractProvisioningTask implements PushTask {
     public List<? extends PushTaskAnyFilter> getFilters() {
         return filters;
     }
+
+    @Override
+    public int getConcurrentThreads() {
+        return concurrentThreads == null ? 1 : concurrentThreads;
+    }
+
+    @Override
+    public void setConcurrentThreads(final int concurrentThreads) {
+        this.concurrentThreads = concurrentThreads;
+    }
 }
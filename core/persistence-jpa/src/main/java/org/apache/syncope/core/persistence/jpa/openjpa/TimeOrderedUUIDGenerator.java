@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.openjpa;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generates time-ordered UUIDs, according to the version 7 layout: the most significant 48 bits hold the Unix time in
+ * milliseconds, followed by a 12 bits counter which keeps UUIDs generated within the same millisecond in ascending
+ * order, and by 62 random bits.
+ * Being time-ordered, such UUIDs are appended to - rather than scattered across - primary and foreign key indexes,
+ * while keeping the same format, hence being fully compatible with random UUIDs already stored.
+ */
+public class TimeOrderedUUIDGenerator {
+
+    private static final int COUNTER_BITS = 12;
+
+    private static final long MAX_COUNTER = (1L << COUNTER_BITS) - 1;
+
+    private final Random random = new SecureRandom();
+
+    private long lastTimestamp = -1;
+
+    private long counter;
+
+    public UUID generate() {
+        long timestamp;
+        long seq;
+        synchronized (this) {
+            timestamp = System.currentTimeMillis();
+            if (timestamp > lastTimestamp) {
+                lastTimestamp = timestamp;
+                // start from a random value in the lower half, leaving room for increments
+                counter = random.nextInt((int) (MAX_COUNTER + 1) / 2);
+            } else if (counter < MAX_COUNTER) {
+                counter++;
+            } else {
+                // counter exhausted, or clock moved backwards: keep ascending order by borrowing from the future
+                lastTimestamp++;
+                counter = 0;
+            }
+            timestamp = lastTimestamp;
+            seq = counter;
+        }
+
+        long msb = (timestamp << 16) | 0x7000L | seq;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
@@ -20,17 +20,40 @@ package org.apache.syncope.core.persistence.jpa.openjpa;
 
 import com.fasterxml.uuid.Generators;
 import com.fasterxml.uuid.impl.RandomBasedGenerator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.openjpa.kernel.Seq;
 import org.apache.openjpa.kernel.StoreContext;
 import org.apache.openjpa.meta.ClassMetaData;
 
 /**
  * Fast UUID generator for OpenJPA entities.
+ * Random UUIDs are generated, unless time-ordered keys were enabled for the domain of the persisting
+ * {@link StoreContext} - as identified by its configuration id, which is the persistence unit name: see
+ * {@link TimeOrderedUUIDGenerator}.
  */
 public class UUIDGenerator implements Seq {
 
     private static final RandomBasedGenerator GENERATOR = Generators.randomBasedGenerator();
 
+    private static final TimeOrderedUUIDGenerator TIME_ORDERED_GENERATOR = new TimeOrderedUUIDGenerator();
+
+    private static final Set<String> TIME_ORDERED_DOMAINS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Enables or disables time-ordered keys for the given domain.
+     *
+     * @param domain domain, matching the persistence unit name
+     * @param timeOrdered whether keys for entities in the given domain shall be time-ordered
+     */
+    public static void setTimeOrdered(final String domain, final boolean timeOrdered) {
+        if (timeOrdered) {
+            TIME_ORDERED_DOMAINS.add(domain);
+        } else {
+            TIME_ORDERED_DOMAINS.remove(domain);
+        }
+    }
+
     private String last;
 
     @Override
@@ -39,7 +62,9 @@ public class UUIDGenerator implements Seq {
 
     @Override
     public Object next(final StoreContext sc, final ClassMetaData cmd) {
-        last = GENERATOR.generate().toString();
+        last = (TIME_ORDERED_DOMAINS.contains(sc.getConfiguration().getId())
+                ? TIME_ORDERED_GENERATOR.generate()
+                : GENERATOR.generate()).toString();
         return last;
     }
 
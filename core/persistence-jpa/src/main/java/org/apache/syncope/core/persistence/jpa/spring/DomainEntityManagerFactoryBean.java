@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.jpa.spring;
 
+import org.apache.syncope.core.persistence.jpa.openjpa.UUIDGenerator;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 
 /**
@@ -28,6 +29,15 @@ public class DomainEntityManagerFactoryBean extends LocalContainerEntityManagerF
 
     private static final long serialVersionUID = 49152547930966545L;
 
+    private boolean timeOrderedKeys;
+
+    /**
+     * @param timeOrderedKeys whether generated entity keys shall be time-ordered rather than random
+     */
+    public void setTimeOrderedKeys(final boolean timeOrderedKeys) {
+        this.timeOrderedKeys = timeOrderedKeys;
+    }
+
     public void setCommonEntityManagerFactoryConf(final CommonEntityManagerFactoryConf commonEMFConf) {
         super.setJpaPropertyMap(commonEMFConf.getJpaPropertyMap());
 
@@ -42,4 +52,9 @@ public class DomainEntityManagerFactoryBean extends LocalContainerEntityManagerF
         }
     }
 
+    @Override
+    public void afterPropertiesSet() {
+        UUIDGenerator.setTimeOrdered(getPersistenceUnitName(), timeOrderedKeys);
+        super.afterPropertiesSet();
+    }
 }
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.CipherAlgorithm;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.MaterializedAnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.RealmDAO;
+import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.Realm;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares user searches via {@link JPAAnySearchDAO}, reading from the {@code user_search_*} views, and via
+ * {@link JPAMaterializedAnySearchDAO}, on the embedded test database enlarged with the given number of users without
+ * plain attributes; not run as part of the build, launch via {@link #main(java.lang.String[])} from the test
+ * classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MaterializedAnySearchBenchmark {
+
+    @Param({ "views", "materialized" })
+    public String engine;
+
+    @Param({ "0", "5000" })
+    public int additionalUsers;
+
+    private ClassPathXmlApplicationContext ctx;
+
+    private TransactionTemplate txTemplate;
+
+    private AnySearchDAO searchDAO;
+
+    private static SearchCond attrCond(final AttributeCond.Type type, final String schema, final String expression) {
+        AttributeCond cond = new AttributeCond(type);
+        cond.setSchema(schema);
+        cond.setExpression(expression);
+        return SearchCond.getLeafCond(cond);
+    }
+
+    @Setup
+    public void setup() {
+        ctx = new ClassPathXmlApplicationContext("classpath:persistenceTest.xml");
+        txTemplate = new TransactionTemplate(
+                ctx.getBean(SyncopeConstants.MASTER_DOMAIN + "TransactionManager", PlatformTransactionManager.class));
+
+        EntityFactory entityFactory = ctx.getBean(EntityFactory.class);
+        RealmDAO realmDAO = ctx.getBean(RealmDAO.class);
+        UserDAO userDAO = ctx.getBean(UserDAO.class);
+        txTemplate.execute(status -> {
+            Realm root = realmDAO.getRoot();
+            for (int i = 0; i < additionalUsers; i++) {
+                User user = entityFactory.newEntity(User.class);
+                user.setUsername("benchmark" + i);
+                user.setRealm(root);
+                user.setCreator("admin");
+                user.setCreationDate(new Date());
+                user.setPassword("password123", CipherAlgorithm.SHA256);
+                userDAO.save(user);
+            }
+            return null;
+        });
+
+        if ("materialized".equals(engine)) {
+            MaterializedAnySearchDAO materializedDAO = (MaterializedAnySearchDAO) ctx.getAutowireCapableBeanFactory().
+                    createBean(JPAMaterializedAnySearchDAO.class);
+            txTemplate.execute(status -> {
+                for (AnyTypeKind kind : AnyTypeKind.values()) {
+                    materializedDAO.rebuild(kind);
+                }
+                return null;
+            });
+            searchDAO = materializedDAO;
+        } else {
+            searchDAO = ctx.getBean(AnySearchDAO.class);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    private int search(final SearchCond cond) {
+        return txTemplate.execute(status -> searchDAO.search(cond, AnyTypeKind.USER).size());
+    }
+
+    @Benchmark
+    public int like() {
+        return search(attrCond(AttributeCond.Type.LIKE, "fullname", "%o%"));
+    }
+
+    @Benchmark
+    public int eq() {
+        return search(attrCond(AttributeCond.Type.EQ, "surname", "Rossini"));
+    }
+
+    @Benchmark
+    public int isNull() {
+        return search(attrCond(AttributeCond.Type.ISNULL, "loginDate", null));
+    }
+
+    @Benchmark
+    public int isNotNull() {
+        return search(attrCond(AttributeCond.Type.ISNOTNULL, "loginDate", null));
+    }
+
+    @Benchmark
+    public int count() {
+        return txTemplate.execute(status -> searchDAO.count(
+                SyncopeConstants.FULL_ADMIN_REALMS,
+                attrCond(AttributeCond.Type.LIKE, "fullname", "%o%"),
+                AnyTypeKind.USER));
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MaterializedAnySearchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
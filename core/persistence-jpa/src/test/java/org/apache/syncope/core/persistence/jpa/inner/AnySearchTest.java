@@ -127,6 +127,36 @@ public class AnySearchTest extends AbstractTest {
         assertTrue(searchDAO.matches(user, SearchCond.getLeafCond(relationshipTypeCond)));
     }
 
+    @Test
+    public void matchesInMemory() {
+        User user = userDAO.find("1417acbe-cbf6-4277-9372-e75e04f97000");
+        assertNotNull(user);
+
+        AttributeCond firstnameCond = new AttributeCond(AttributeCond.Type.EQ);
+        firstnameCond.setSchema("firstname");
+        firstnameCond.setExpression("Gioacchino");
+
+        AnyCond usernameCond = new AnyCond(AttributeCond.Type.LIKE);
+        usernameCond.setSchema("username");
+        usernameCond.setExpression("ros%");
+
+        SearchCond inMemory = SearchCond.getAndCond(
+                SearchCond.getLeafCond(firstnameCond), SearchCond.getLeafCond(usernameCond));
+        assertTrue(searchDAO.matchesInMemory(user, inMemory));
+        assertEquals(searchDAO.matches(user, inMemory), searchDAO.matchesInMemory(user, inMemory));
+
+        firstnameCond.setExpression("Giuseppe");
+        assertFalse(searchDAO.matchesInMemory(user, inMemory));
+        assertEquals(searchDAO.matches(user, inMemory), searchDAO.matchesInMemory(user, inMemory));
+
+        // membership conditions cannot be evaluated in memory
+        MembershipCond groupCond = new MembershipCond();
+        groupCond.setGroup("root");
+        SearchCond notInMemory = SearchCond.getOrCond(
+                SearchCond.getLeafCond(firstnameCond), SearchCond.getLeafCond(groupCond));
+        assertTrue(searchDAO.matchesInMemory(user, notInMemory));
+    }
+
     @Test
     public void groupMatch() {
         Group group = groupDAO.find("37d15e4c-cdc1-460b-a591-8505c8133806");
@@ -280,6 +310,29 @@ public class AnySearchTest extends AbstractTest {
         assertTrue(users.isEmpty());
     }
 
+    @Test
+    public void searchLookAhead() {
+        SearchCond cond = userDAO.getAllMatchingCond();
+        int count = searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.USER);
+        assertTrue(count > 2);
+
+        List<User> page = searchDAO.search(SyncopeConstants.FULL_ADMIN_REALMS,
+                cond, 1, 2, Collections.<OrderByClause>emptyList(), AnyTypeKind.USER);
+        List<User> lookAhead = searchDAO.searchLookAhead(SyncopeConstants.FULL_ADMIN_REALMS,
+                cond, 1, 2, Collections.<OrderByClause>emptyList(), AnyTypeKind.USER);
+        assertEquals(3, lookAhead.size());
+        assertEquals(page, lookAhead.subList(0, 2));
+
+        List<User> next = searchDAO.search(SyncopeConstants.FULL_ADMIN_REALMS,
+                cond, 2, 2, Collections.<OrderByClause>emptyList(), AnyTypeKind.USER);
+        assertEquals(next.get(0), lookAhead.get(2));
+
+        // last page: nothing beyond
+        lookAhead = searchDAO.searchLookAhead(SyncopeConstants.FULL_ADMIN_REALMS,
+                cond, 1, count, Collections.<OrderByClause>emptyList(), AnyTypeKind.USER);
+        assertEquals(count, lookAhead.size());
+    }
+
     @Test
     public void searchByGroup() {
         MembershipCond groupCond = new MembershipCond();
@@ -18,15 +18,21 @@
  */
 package org.apache.syncope.core.persistence.jpa.inner;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
+import org.apache.syncope.common.lib.types.AttrSchemaType;
+import org.apache.syncope.core.persistence.api.dao.AllowedSchemas;
 import org.apache.syncope.core.persistence.api.dao.AnyTypeClassDAO;
 import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
+import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.entity.AnyTypeClass;
+import org.apache.syncope.core.persistence.api.entity.PlainSchema;
+import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.jpa.AbstractTest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,6 +47,9 @@ public class AnyTypeClassTest extends AbstractTest {
     @Autowired
     private AnyTypeClassDAO anyTypeClassDAO;
 
+    @Autowired
+    private UserDAO userDAO;
+
     @Test
     public void find() {
         AnyTypeClass minimalGroup = anyTypeClassDAO.find("minimal group");
@@ -78,4 +87,25 @@ public class AnyTypeClassTest extends AbstractTest {
         anyTypeClassDAO.delete(minimalUser.getKey());
         assertNull(anyTypeClassDAO.find("minimal user"));
     }
+
+    @Test
+    public void allowedSchemas() {
+        User user = userDAO.findByUsername("rossini");
+        assertNotNull(user);
+
+        AllowedSchemas<PlainSchema> allowed = userDAO.findAllowedSchemas(user, PlainSchema.class);
+        assertTrue(allowed.forSelfContains("fullname"));
+        assertFalse(allowed.forSelfContains("allowedSchemasTest"));
+        assertEquals(allowed.getForSelf(), userDAO.findAllowedSchemas(user, PlainSchema.class).getForSelf());
+
+        AnyTypeClass minimalUser = anyTypeClassDAO.find("minimal user");
+        PlainSchema schema = entityFactory.newEntity(PlainSchema.class);
+        schema.setKey("allowedSchemasTest");
+        schema.setType(AttrSchemaType.String);
+        schema.setAnyTypeClass(minimalUser);
+        minimalUser.add(plainSchemaDAO.save(schema));
+        anyTypeClassDAO.save(minimalUser);
+
+        assertTrue(userDAO.findAllowedSchemas(user, PlainSchema.class).forSelfContains("allowedSchemasTest"));
+    }
 }
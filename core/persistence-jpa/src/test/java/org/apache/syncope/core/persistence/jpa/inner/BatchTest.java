@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.inner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.UUID;
+import org.apache.syncope.core.persistence.api.dao.BatchDAO;
+import org.apache.syncope.core.persistence.api.entity.Batch;
+import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class BatchTest extends AbstractTest {
+
+    @Autowired
+    private BatchDAO batchDAO;
+
+    @Test
+    public void appendResults() {
+        Batch batch = entityFactory.newEntity(Batch.class);
+        batch.setKey(UUID.randomUUID().toString());
+        batch.setExpiryTime(new Date(System.currentTimeMillis() + 5 * 60 * 1000));
+        batch = batchDAO.save(batch);
+        entityManager().flush();
+        assertNull(batchDAO.getResults(batch.getKey()));
+
+        assertTrue(batchDAO.appendResults(batch.getKey(), "first\n"));
+        assertEquals("first\n", batchDAO.getResults(batch.getKey()));
+        assertTrue(batchDAO.appendResults(batch.getKey(), "second\n"));
+        assertTrue(batchDAO.appendResults(batch.getKey(), "third\n"));
+
+        entityManager().flush();
+        entityManager().clear();
+        assertEquals("first\nsecond\nthird\n", batchDAO.getResults(batch.getKey()));
+
+        assertFalse(batchDAO.appendResults(UUID.randomUUID().toString(), "none\n"));
+    }
+
+    @Test
+    public void delete() {
+        Batch batch = entityFactory.newEntity(Batch.class);
+        batch.setKey(UUID.randomUUID().toString());
+        batch.setExpiryTime(new Date(System.currentTimeMillis() + 5 * 60 * 1000));
+        batchDAO.save(batch);
+
+        Batch expired = entityFactory.newEntity(Batch.class);
+        expired.setKey(UUID.randomUUID().toString());
+        expired.setExpiryTime(new Date(System.currentTimeMillis() - 1000));
+        batchDAO.save(expired);
+        entityManager().flush();
+
+        assertTrue(batchDAO.appendResults(batch.getKey(), "results\n"));
+        assertTrue(batchDAO.appendResults(expired.getKey(), "expired\n"));
+        entityManager().flush();
+
+        assertEquals(1, batchDAO.deleteExpired());
+        entityManager().clear();
+        assertNull(batchDAO.find(expired.getKey()));
+        assertNull(batchDAO.getResults(expired.getKey()));
+        assertEquals("results\n", batchDAO.getResults(batch.getKey()));
+
+        batchDAO.delete(batch.getKey());
+        entityManager().flush();
+        assertNull(batchDAO.find(batch.getKey()));
+        assertNull(batchDAO.getResults(batch.getKey()));
+    }
+}
@@ -20,9 +20,13 @@ package org.apache.syncope.core.persistence.jpa.inner;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import org.apache.syncope.common.lib.types.AttrSchemaType;
 import org.apache.syncope.common.lib.types.EntityViolationType;
@@ -34,8 +38,12 @@ import org.apache.syncope.core.persistence.api.entity.PlainSchema;
 import org.apache.syncope.core.persistence.api.entity.conf.CPlainAttr;
 import org.apache.syncope.core.persistence.jpa.AbstractTest;
 import org.apache.syncope.core.persistence.jpa.entity.conf.JPACPlainAttrValue;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.transaction.annotation.Transactional;
 
 @Transactional("Master")
@@ -47,6 +55,9 @@ public class ConfTest extends AbstractTest {
     @Autowired
     private PlainSchemaDAO plainSchemaDAO;
 
+    @Autowired
+    private ConfigurableApplicationContext ctx;
+
     @Test
     public void read() {
         Optional<? extends CPlainAttr> conf = confDAO.find("selfRegistration.allowed");
@@ -59,6 +70,14 @@ public class ConfTest extends AbstractTest {
 
         conf = confDAO.find("non.existing");
         assertFalse(conf.isPresent());
+
+        assertTrue(confDAO.find("selfRegistration.allowed", false));
+        assertEquals(2, confDAO.getValuesAsStrings("authentication.statuses").size());
+        assertEquals(
+                confDAO.getValuesAsStrings("authentication.statuses"),
+                confDAO.getValuesAsStrings().get("authentication.statuses"));
+        assertEquals(Long.valueOf(5), confDAO.find("non.existing", 5L));
+        assertTrue(confDAO.getValuesAsStrings("non.existing").isEmpty());
     }
 
     private void add(final CPlainAttr newAttr, final String value) {
@@ -82,6 +101,7 @@ public class ConfTest extends AbstractTest {
         useless = plainSchemaDAO.save(useless);
 
         // 2. create conf
+        long version = confDAO.getVersion();
         CPlainAttr newConf = entityFactory.newEntity(CPlainAttr.class);
         newConf.setOwner(confDAO.get());
         newConf.setSchema(useless);
@@ -90,6 +110,8 @@ public class ConfTest extends AbstractTest {
 
         Optional<? extends CPlainAttr> actual = confDAO.find("useless");
         assertEquals(actual.get().getValuesAsStrings(), newConf.getValuesAsStrings());
+        assertEquals(newConf.getValuesAsStrings(), confDAO.getValuesAsStrings("useless"));
+        assertNotEquals(version, confDAO.getVersion());
 
         // 3. update conf
         newConf.getValues().clear();
@@ -102,6 +124,50 @@ public class ConfTest extends AbstractTest {
         // 4. delete conf
         confDAO.delete("useless");
         assertFalse(confDAO.find("useless").isPresent());
+        assertTrue(confDAO.getValuesAsStrings("useless").isEmpty());
+    }
+
+    @Test
+    public void invalidation() {
+        List<EntityChangedEvent> events = new ArrayList<>();
+        ctx.addApplicationListener((ApplicationListener<ApplicationEvent>) event -> {
+            if (event instanceof EntityChangedEvent) {
+                events.add((EntityChangedEvent) event);
+            }
+        });
+
+        List<String> statuses = confDAO.getValuesAsStrings("authentication.statuses");
+        assertEquals(2, statuses.size());
+
+        // 1. save: new values are read and an event is published
+        long version = confDAO.getVersion();
+        CPlainAttr authStatuses = confDAO.find("authentication.statuses").get();
+        authStatuses.getValues().clear();
+        add(authStatuses, "active");
+        confDAO.save(authStatuses);
+
+        assertNotEquals(version, confDAO.getVersion());
+        assertEquals(Collections.singletonList("active"), confDAO.getValuesAsStrings("authentication.statuses"));
+        assertEquals(1, events.size());
+        assertEquals("authentication.statuses", events.get(0).getKey());
+        assertFalse(events.get(0).isDeleted());
+
+        // 2. delete: values are gone and an event is published
+        version = confDAO.getVersion();
+        confDAO.delete("authentication.statuses");
+
+        assertNotEquals(version, confDAO.getVersion());
+        assertTrue(confDAO.getValuesAsStrings("authentication.statuses").isEmpty());
+        assertFalse(confDAO.getValuesAsStrings().containsKey("authentication.statuses"));
+        assertEquals(2, events.size());
+        assertEquals("authentication.statuses", events.get(1).getKey());
+        assertTrue(events.get(1).isDeleted());
+
+        // 3. deleting again changes nothing
+        version = confDAO.getVersion();
+        confDAO.delete("authentication.statuses");
+        assertEquals(version, confDAO.getVersion());
+        assertEquals(2, events.size());
     }
 
     @Test
@@ -22,7 +22,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.core.persistence.api.dao.AnyTypeDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
@@ -62,6 +64,18 @@ public class GroupTest extends AbstractTest {
         assertEquals(2, group.getTypeExtension(anyTypeDAO.findUser()).get().getAuxClasses().size());
     }
 
+    @Test
+    public void findByKeys() {
+        List<Group> groups = groupDAO.findByKeys(Arrays.asList(
+                "29f96485-729e-4d31-88a1-6fc60e4677f3",
+                "37d15e4c-cdc1-460b-a591-8505c8133806",
+                "missing",
+                "29f96485-729e-4d31-88a1-6fc60e4677f3"));
+        assertEquals(
+                Arrays.asList("citizen", "root"),
+                groups.stream().map(Group::getName).collect(Collectors.toList()));
+    }
+
     @Test
     public void save() {
         Group group = entityFactory.newEntity(Group.class);
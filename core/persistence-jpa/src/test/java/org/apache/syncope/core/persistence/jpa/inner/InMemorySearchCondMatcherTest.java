@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.inner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.GroupDAO;
+import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AnyTypeCond;
+import org.apache.syncope.core.persistence.api.dao.search.AssignableCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
+import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
+import org.apache.syncope.core.persistence.api.dao.search.ResourceCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.apache.syncope.core.persistence.jpa.dao.InMemorySearchCondMatcher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Verifies that conditions evaluated in memory give the same outcome as the search DAO, for all test entities.
+ */
+@Transactional("Master")
+public class InMemorySearchCondMatcherTest extends AbstractTest {
+
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private GroupDAO groupDAO;
+
+    @Autowired
+    private AnyObjectDAO anyObjectDAO;
+
+    @Autowired
+    private AnySearchDAO searchDAO;
+
+    @Autowired
+    private InMemorySearchCondMatcher matcher;
+
+    private static SearchCond anyCond(final AttributeCond.Type type, final String schema, final String expression) {
+        AnyCond cond = new AnyCond(type);
+        cond.setSchema(schema);
+        cond.setExpression(expression);
+        return SearchCond.getLeafCond(cond);
+    }
+
+    private static SearchCond notAnyCond(final AttributeCond.Type type, final String schema, final String expression) {
+        AnyCond cond = new AnyCond(type);
+        cond.setSchema(schema);
+        cond.setExpression(expression);
+        return SearchCond.getNotLeafCond(cond);
+    }
+
+    private static SearchCond attrCond(final AttributeCond.Type type, final String schema, final String expression) {
+        AttributeCond cond = new AttributeCond(type);
+        cond.setSchema(schema);
+        cond.setExpression(expression);
+        return SearchCond.getLeafCond(cond);
+    }
+
+    private static SearchCond notAttrCond(
+            final AttributeCond.Type type, final String schema, final String expression) {
+
+        AttributeCond cond = new AttributeCond(type);
+        cond.setSchema(schema);
+        cond.setExpression(expression);
+        return SearchCond.getNotLeafCond(cond);
+    }
+
+    private static SearchCond resourceCond(final String resource, final boolean not) {
+        ResourceCond cond = new ResourceCond();
+        cond.setResourceKey(resource);
+        return not ? SearchCond.getNotLeafCond(cond) : SearchCond.getLeafCond(cond);
+    }
+
+    private static SearchCond assignableCond(final String realm, final boolean fromGroup) {
+        AssignableCond cond = new AssignableCond();
+        cond.setRealmFullPath(realm);
+        cond.setFromGroup(fromGroup);
+        return SearchCond.getLeafCond(cond);
+    }
+
+    private void assertSameMatch(final List<? extends Any<?>> anys, final List<SearchCond> conds) {
+        assertFalse(anys.isEmpty());
+
+        conds.forEach(cond -> {
+            InMemorySearchCondMatcher.CompiledCond compiled = matcher.compile(cond);
+            assertTrue(compiled.isInMemory(), cond::toString);
+
+            for (Any<?> any : anys) {
+                Optional<Boolean> inMemory = matcher.matches(any, compiled);
+                assertTrue(inMemory.isPresent(), () -> cond + " against " + any);
+                assertEquals(searchDAO.matches(any, cond), inMemory.get(), () -> cond + " against " + any);
+            }
+        });
+    }
+
+    @Test
+    public void users() {
+        List<SearchCond> conds = new ArrayList<>();
+        conds.add(anyCond(AttributeCond.Type.EQ, "key", "1417acbe-cbf6-4277-9372-e75e04f97000"));
+        conds.add(anyCond(AttributeCond.Type.EQ, "username", "rossini"));
+        conds.add(notAnyCond(AttributeCond.Type.EQ, "username", "rossini"));
+        conds.add(anyCond(AttributeCond.Type.IEQ, "username", "ROSSINI"));
+        conds.add(anyCond(AttributeCond.Type.LIKE, "username", "%i%"));
+        conds.add(notAnyCond(AttributeCond.Type.LIKE, "username", "ros%"));
+        conds.add(anyCond(AttributeCond.Type.ILIKE, "username", "VIV%"));
+        conds.add(anyCond(AttributeCond.Type.EQ, "status", "active"));
+        conds.add(anyCond(AttributeCond.Type.ISNULL, "status", null));
+        conds.add(anyCond(AttributeCond.Type.ISNOTNULL, "status", null));
+        conds.add(attrCond(AttributeCond.Type.EQ, "firstname", "Gioacchino"));
+        conds.add(notAttrCond(AttributeCond.Type.EQ, "firstname", "Gioacchino"));
+        conds.add(attrCond(AttributeCond.Type.IEQ, "firstname", "gioacchino"));
+        conds.add(attrCond(AttributeCond.Type.LIKE, "fullname", "%o%"));
+        conds.add(attrCond(AttributeCond.Type.ILIKE, "fullname", "%O%"));
+        conds.add(attrCond(AttributeCond.Type.GT, "surname", "R"));
+        conds.add(attrCond(AttributeCond.Type.EQ, "cool", "true"));
+        conds.add(attrCond(AttributeCond.Type.ISNULL, "cool", null));
+        conds.add(attrCond(AttributeCond.Type.ISNOTNULL, "cool", null));
+        conds.add(resourceCond("ws-target-resource-2", false));
+        conds.add(resourceCond("ws-target-resource-list-mappings-2", true));
+        conds.add(assignableCond("/even/two", false));
+        conds.add(assignableCond("/even", true));
+        conds.add(SearchCond.getAndCond(
+                attrCond(AttributeCond.Type.LIKE, "fullname", "%o%"),
+                notAnyCond(AttributeCond.Type.EQ, "username", "rossini")));
+        conds.add(SearchCond.getOrCond(
+                attrCond(AttributeCond.Type.EQ, "cool", "true"),
+                resourceCond("ws-target-resource-2", false)));
+
+        assertSameMatch(userDAO.findAll(1, 100), conds);
+    }
+
+    @Test
+    public void groups() {
+        List<SearchCond> conds = new ArrayList<>();
+        conds.add(anyCond(AttributeCond.Type.EQ, "name", "root"));
+        conds.add(anyCond(AttributeCond.Type.LIKE, "name", "%child"));
+        conds.add(notAnyCond(AttributeCond.Type.IEQ, "name", "ROOT"));
+        conds.add(attrCond(AttributeCond.Type.ISNOTNULL, "show", null));
+        conds.add(attrCond(AttributeCond.Type.EQ, "show", "true"));
+        conds.add(resourceCond("resource-ldap", false));
+        conds.add(assignableCond("/even/two", false));
+        conds.add(assignableCond("/", true));
+        conds.add(SearchCond.getAndCond(
+                anyCond(AttributeCond.Type.LIKE, "name", "%child"),
+                assignableCond("/", true)));
+
+        assertSameMatch(groupDAO.findAll(1, 100), conds);
+    }
+
+    @Test
+    public void anyObjects() {
+        AnyTypeCond printer = new AnyTypeCond();
+        printer.setAnyTypeKey("PRINTER");
+
+        List<SearchCond> conds = new ArrayList<>();
+        conds.add(SearchCond.getLeafCond(printer));
+        conds.add(SearchCond.getNotLeafCond(SearchCond.getLeafCond(printer)));
+        conds.add(anyCond(AttributeCond.Type.LIKE, "name", "%Canon%"));
+        conds.add(attrCond(AttributeCond.Type.ISNOTNULL, "model", null));
+        conds.add(attrCond(AttributeCond.Type.ISNULL, "model", null));
+        conds.add(resourceCond("ws-target-resource-1", false));
+        conds.add(assignableCond("/odd", false));
+        conds.add(SearchCond.getAndCond(
+                SearchCond.getLeafCond(printer),
+                anyCond(AttributeCond.Type.LIKE, "name", "%Canon%")));
+
+        assertSameMatch(anyObjectDAO.findAll(1, 100), conds);
+    }
+
+    @Test
+    public void notInMemory() {
+        MembershipCond membershipCond = new MembershipCond();
+        membershipCond.setGroup("root");
+
+        assertFalse(matcher.compile(SearchCond.getLeafCond(membershipCond)).isInMemory());
+        assertFalse(matcher.compile(SearchCond.getOrCond(
+                attrCond(AttributeCond.Type.EQ, "firstname", "Gioacchino"),
+                SearchCond.getLeafCond(membershipCond))).isInMemory());
+
+        // AnyTypeCond is meaningful only for any objects
+        AnyTypeCond anyTypeCond = new AnyTypeCond();
+        anyTypeCond.setAnyTypeKey("USER");
+        assertFalse(matcher.matches(
+                userDAO.findByUsername("rossini"), matcher.compile(SearchCond.getLeafCond(anyTypeCond))).isPresent());
+    }
+
+    @Test
+    public void compileCached() {
+        SearchCond cond = attrCond(AttributeCond.Type.EQ, "firstname", "Gioacchino");
+
+        InMemorySearchCondMatcher.CompiledCond compiled = matcher.compile("key", "firstname==Gioacchino", () -> cond);
+        assertSame(compiled, matcher.compile("key", "firstname==Gioacchino", () -> cond));
+        assertNotSame(compiled, matcher.compile("key", "firstname==Giuseppe", () -> cond));
+    }
+}
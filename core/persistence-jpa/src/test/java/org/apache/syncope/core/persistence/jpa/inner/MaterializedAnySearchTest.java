@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.inner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.MaterializedAnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
+import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
+import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
+import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.apache.syncope.core.persistence.jpa.dao.JPAMaterializedAnySearchDAO;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class MaterializedAnySearchTest extends AbstractTest {
+
+    private static final String ROSSINI = "1417acbe-cbf6-4277-9372-e75e04f97000";
+
+    private static final String VIVALDI = "b3cbc78d-32e6-4bd4-92e0-bbe07566a2ee";
+
+    @Autowired
+    private AnySearchDAO searchDAO;
+
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private PlainSchemaDAO plainSchemaDAO;
+
+    private MaterializedAnySearchDAO materializedDAO;
+
+    private static SearchCond attrCond(final AttributeCond.Type type, final String schema, final String expression) {
+        AttributeCond cond = new AttributeCond(type);
+        cond.setSchema(schema);
+        cond.setExpression(expression);
+        return SearchCond.getLeafCond(cond);
+    }
+
+    private static List<SearchCond> userConds() {
+        MembershipCond rootCond = new MembershipCond();
+        rootCond.setGroup("root");
+
+        return Arrays.asList(
+                attrCond(AttributeCond.Type.LIKE, "fullname", "%o%"),
+                attrCond(AttributeCond.Type.EQ, "surname", "Rossini"),
+                attrCond(AttributeCond.Type.EQ, "cool", "true"),
+                attrCond(AttributeCond.Type.GE, "loginDate", "2009-05-26"),
+                attrCond(AttributeCond.Type.ISNULL, "loginDate", null),
+                attrCond(AttributeCond.Type.ISNOTNULL, "loginDate", null),
+                SearchCond.getAndCond(
+                        attrCond(AttributeCond.Type.LIKE, "fullname", "%o%"),
+                        SearchCond.getLeafCond(rootCond)));
+    }
+
+    private static List<String> keys(final List<? extends Any<?>> anys) {
+        return anys.stream().map(Any::getKey).sorted().collect(Collectors.toList());
+    }
+
+    @BeforeEach
+    public void setUp() {
+        materializedDAO = (MaterializedAnySearchDAO) ApplicationContextProvider.getBeanFactory().
+                createBean(JPAMaterializedAnySearchDAO.class);
+        for (AnyTypeKind kind : AnyTypeKind.values()) {
+            materializedDAO.rebuild(kind);
+        }
+    }
+
+    @Test
+    public void sameResults() {
+        userConds().forEach(cond -> {
+            assertEquals(
+                    keys(searchDAO.search(cond, AnyTypeKind.USER)),
+                    keys(materializedDAO.search(cond, AnyTypeKind.USER)));
+            assertEquals(
+                    searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.USER),
+                    materializedDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.USER));
+        });
+
+        SearchCond showCond = attrCond(AttributeCond.Type.ISNOTNULL, "show", null);
+        assertEquals(
+                keys(searchDAO.search(showCond, AnyTypeKind.GROUP)),
+                keys(materializedDAO.search(showCond, AnyTypeKind.GROUP)));
+    }
+
+    @Test
+    public void sameOrdering() {
+        OrderByClause bySurname = new OrderByClause();
+        bySurname.setField("surname");
+        bySurname.setDirection(OrderByClause.Direction.DESC);
+        OrderByClause byUsername = new OrderByClause();
+        byUsername.setField("username");
+        List<OrderByClause> orderBy = Arrays.asList(bySurname, byUsername);
+
+        SearchCond cond = attrCond(AttributeCond.Type.LIKE, "fullname", "%o%");
+        assertEquals(
+                searchDAO.search(cond, orderBy, AnyTypeKind.USER).stream().
+                        map(Any::getKey).collect(Collectors.toList()),
+                materializedDAO.search(cond, orderBy, AnyTypeKind.USER).stream().
+                        map(Any::getKey).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void refresh() {
+        SearchCond cond = attrCond(AttributeCond.Type.EQ, "surname", "Rossini");
+        assertTrue(keys(materializedDAO.search(cond, AnyTypeKind.USER)).contains(ROSSINI));
+
+        User rossini = userDAO.find(ROSSINI);
+        rossini.getPlainAttr("surname").get().getValues().get(0).setStringValue("Verdi");
+        userDAO.save(rossini);
+
+        // not refreshed yet
+        assertTrue(keys(materializedDAO.search(cond, AnyTypeKind.USER)).contains(ROSSINI));
+
+        materializedDAO.refresh(AnyTypeKind.USER, ROSSINI);
+        assertFalse(keys(materializedDAO.search(cond, AnyTypeKind.USER)).contains(ROSSINI));
+        SearchCond verdiCond = attrCond(AttributeCond.Type.EQ, "surname", "Verdi");
+        assertTrue(keys(materializedDAO.search(verdiCond, AnyTypeKind.USER)).contains(ROSSINI));
+
+        userDAO.delete(ROSSINI);
+        materializedDAO.refresh(AnyTypeKind.USER, ROSSINI);
+        assertFalse(keys(materializedDAO.search(verdiCond, AnyTypeKind.USER)).contains(ROSSINI));
+    }
+
+    @Test
+    public void sameResultsAfterChanges() {
+        User rossini = userDAO.find(ROSSINI);
+        rossini.getPlainAttr("surname").get().getValues().get(0).setStringValue("Verdi");
+        rossini = userDAO.save(rossini);
+        materializedDAO.refresh(AnyTypeKind.USER, rossini.getKey());
+
+        userDAO.delete(VIVALDI);
+        materializedDAO.refresh(AnyTypeKind.USER, VIVALDI);
+
+        // both changes are refreshed at once, before the first search
+        userConds().forEach(cond -> {
+            List<String> materialized = keys(materializedDAO.search(cond, AnyTypeKind.USER));
+            assertFalse(materialized.contains(VIVALDI));
+            assertEquals(keys(searchDAO.search(cond, AnyTypeKind.USER)), materialized);
+        });
+    }
+
+    @Test
+    public void schemaDeleted() {
+        String count = "SELECT COUNT(*) FROM user_search_attr_mv WHERE schema_id='cool'";
+        assertTrue(((Number) entityManager().createNativeQuery(count).getSingleResult()).intValue() > 0);
+
+        plainSchemaDAO.delete("cool");
+        plainSchemaDAO.flush();
+
+        assertEquals(0, ((Number) entityManager().createNativeQuery(count).getSingleResult()).intValue());
+    }
+}
@@ -24,21 +24,26 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.CipherAlgorithm;
 import org.apache.syncope.common.lib.types.StandardEntitlement;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.spring.security.SyncopeAuthenticationDetails;
 import org.apache.syncope.core.spring.security.SyncopeGrantedAuthority;
 import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.entity.user.SecurityQuestion;
 import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.jpa.AbstractTest;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -98,5 +103,28 @@ public class MultitenancyTest extends AbstractTest {
         User actual = userDAO.save(user);
         assertNotNull(actual);
         assertEquals(0, actual.getPasswordHistory().size());
+
+        // time-ordered keys are enabled for this domain
+        assertEquals(7, UUID.fromString(actual.getKey()).version());
+    }
+
+    @Test
+    public void timeOrderedKeysByEntityManagerFactory() {
+        // no auth context, hence Master domain: keys shall be generated according to the persisting EntityManager
+        SecurityContextHolder.getContext().setAuthentication(null);
+        try {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(
+                    EntityManagerFactoryUtils.findEntityManagerFactory(
+                            ApplicationContextProvider.getBeanFactory(), "Two"));
+
+            SecurityQuestion question = entityFactory.newEntity(SecurityQuestion.class);
+            question.setContent("What is your favorite domain?");
+            entityManager.persist(question);
+            entityManager.flush();
+
+            assertEquals(7, UUID.fromString(question.getKey()).version());
+        } finally {
+            setAuthContext();
+        }
     }
 }
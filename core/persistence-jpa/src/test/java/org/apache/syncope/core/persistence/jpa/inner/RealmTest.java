@@ -26,7 +26,9 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.EntityViolationType;
 import org.apache.syncope.core.persistence.api.attrvalue.validation.InvalidEntityException;
@@ -94,6 +96,36 @@ public class RealmTest extends AbstractTest {
         assertTrue(children.isEmpty());
     }
 
+    @Test
+    public void findDescendants() {
+        Realm even = realmDAO.findByFullPath("/even");
+        List<Realm> descendants = realmDAO.findDescendants(even);
+        assertEquals(even, descendants.get(0));
+        assertTrue(descendants.contains(realmDAO.findByFullPath("/even/two")));
+        assertFalse(descendants.contains(realmDAO.findByFullPath("/odd")));
+
+        assertEquals(
+                descendants.stream().map(Realm::getKey).collect(Collectors.toList()),
+                realmDAO.findDescendantKeys(even));
+        assertEquals(realmDAO.findAll().size(), realmDAO.findDescendantKeys(realmDAO.getRoot()).size());
+    }
+
+    @Test
+    public void findAfterSave() {
+        assertNull(realmDAO.findByFullPath("/even/two/last"));
+
+        Realm realm = entityFactory.newEntity(Realm.class);
+        realm.setName("last");
+        realm.setParent(realmDAO.findByFullPath("/even/two"));
+        Realm actual = realmDAO.save(realm);
+
+        assertEquals(actual, realmDAO.findByFullPath("/even/two/last"));
+        assertTrue(realmDAO.findDescendantKeys(realmDAO.findByFullPath("/even")).contains(actual.getKey()));
+        assertEquals(
+                Collections.singletonList(actual),
+                realmDAO.findChildren(realmDAO.findByFullPath("/even/two")));
+    }
+
     @Test
     public void findAll() {
         List<Realm> list = realmDAO.findAll();
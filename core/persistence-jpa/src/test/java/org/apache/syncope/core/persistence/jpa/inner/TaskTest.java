@@ -25,6 +25,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -36,6 +37,7 @@ import org.apache.syncope.core.persistence.api.dao.TaskDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.task.NotificationTask;
 import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
 import org.apache.syncope.core.persistence.api.entity.task.Task;
 import org.apache.syncope.core.persistence.api.entity.user.User;
@@ -65,6 +67,49 @@ public class TaskTest extends AbstractTest {
         assertEquals(3, tasks.size());
     }
 
+    @Test
+    public void claimNotification() {
+        List<String> keys = taskDAO.findNotificationsToExec(null, 10);
+        assertEquals(Collections.singletonList("e1e520f0-2cbd-4e11-9a89-ea58a0f957e7"), keys);
+        assertTrue(taskDAO.findNotificationsToExec(keys.get(0), 10).isEmpty());
+
+        Date expiry = new Date(System.currentTimeMillis() + 60000);
+        assertTrue(taskDAO.claimNotification(keys.get(0), "owner1", expiry));
+        assertFalse(taskDAO.claimNotification(keys.get(0), "owner2", expiry));
+        assertTrue(taskDAO.findNotificationsToExec(null, 10).isEmpty());
+
+        // claiming does not affect the executed flag
+        NotificationTask task = taskDAO.find(keys.get(0));
+        assertFalse(task.isExecuted());
+        assertEquals("owner1", task.getClaimOwner());
+        assertEquals(expiry.getTime() / 1000, task.getClaimExpiry().getTime() / 1000);
+
+        // only the owner can release its claim
+        taskDAO.releaseNotification(keys.get(0), "owner2");
+        assertTrue(taskDAO.findNotificationsToExec(null, 10).isEmpty());
+
+        taskDAO.releaseNotification(keys.get(0), "owner1");
+        assertEquals(
+                Collections.singletonList("e1e520f0-2cbd-4e11-9a89-ea58a0f957e7"),
+                taskDAO.findNotificationsToExec(null, 10));
+    }
+
+    @Test
+    public void claimExpiredNotification() {
+        String key = "e1e520f0-2cbd-4e11-9a89-ea58a0f957e7";
+
+        // e.g. the owner was stopped before sending
+        assertTrue(taskDAO.claimNotification(key, "owner1", new Date(System.currentTimeMillis() - 1000)));
+        assertEquals(Collections.singletonList(key), taskDAO.findNotificationsToExec(null, 10));
+
+        assertTrue(taskDAO.claimNotification(key, "owner2", new Date(System.currentTimeMillis() + 60000)));
+        assertTrue(taskDAO.findNotificationsToExec(null, 10).isEmpty());
+
+        // the former owner cannot release the claim taken over
+        taskDAO.releaseNotification(key, "owner1");
+        assertEquals("owner2", taskDAO.<NotificationTask>find(key).getClaimOwner());
+    }
+
     @Test
     public void findPaginated() {
         List<Task> tasks = taskDAO.findAll(
@@ -19,13 +19,19 @@
 package org.apache.syncope.core.persistence.jpa.inner;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 import org.apache.syncope.common.lib.types.CipherAlgorithm;
 import org.apache.syncope.core.persistence.api.attrvalue.validation.InvalidEntityException;
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
@@ -141,6 +147,40 @@ public class UserTest extends AbstractTest {
         assertNotNull(user);
     }
 
+    @Test
+    public void findByKeys() {
+        List<User> users = userDAO.findByKeys(Arrays.asList(
+                "c9b2dec2-00a7-4855-97c0-d854842b4b24",
+                "missing",
+                "1417acbe-cbf6-4277-9372-e75e04f97000",
+                "c9b2dec2-00a7-4855-97c0-d854842b4b24",
+                "74cd8ece-715a-44a4-a736-e17b46c4e7e6"));
+
+        // same order as the given keys, without duplicates nor missing keys
+        assertEquals(
+                Arrays.asList("bellini", "rossini", "verdi"),
+                users.stream().map(User::getUsername).collect(Collectors.toList()));
+        assertFalse(users.get(1).getPlainAttrs().isEmpty());
+
+        assertTrue(userDAO.findByKeys(Collections.emptyList()).isEmpty());
+        assertTrue(userDAO.findByKeys(Collections.singletonList("missing")).isEmpty());
+    }
+
+    @Test
+    public void findByKeysExceedingInClause() {
+        List<String> keys = new ArrayList<>();
+        keys.add("823074dc-d280-436d-a7dd-07399fae48ec");
+        for (int i = 0; i < 1500; i++) {
+            keys.add(UUID.randomUUID().toString());
+        }
+        keys.add("1417acbe-cbf6-4277-9372-e75e04f97000");
+        keys.add("823074dc-d280-436d-a7dd-07399fae48ec");
+
+        assertEquals(
+                Arrays.asList("puccini", "rossini"),
+                userDAO.findByKeys(keys).stream().map(User::getUsername).collect(Collectors.toList()));
+    }
+
     @Test
     public void findByUsername() {
         User user = userDAO.findByUsername("rossini");
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.openjpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+public class TimeOrderedUUIDGeneratorTest {
+
+    private final TimeOrderedUUIDGenerator generator = new TimeOrderedUUIDGenerator();
+
+    @Test
+    public void format() {
+        UUID uuid = generator.generate();
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+
+        String key = uuid.toString();
+        assertEquals(36, key.length());
+        assertEquals(uuid, UUID.fromString(key));
+
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(Math.abs(System.currentTimeMillis() - timestamp) < 1000);
+    }
+
+    @Test
+    public void ascending() {
+        String previous = generator.generate().toString();
+        for (int i = 0; i < 100000; i++) {
+            String current = generator.generate().toString();
+            assertTrue(current.compareTo(previous) > 0, current + " not after " + previous);
+            previous = current;
+        }
+    }
+
+    @Test
+    public void concurrentUsage() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> uuids = new ArrayList<>();
+                    for (int j = 0; j < 10000; j++) {
+                        uuids.add(generator.generate());
+                    }
+                    return uuids;
+                }));
+            }
+
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> future : futures) {
+                all.addAll(future.get());
+            }
+            assertEquals(40000, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
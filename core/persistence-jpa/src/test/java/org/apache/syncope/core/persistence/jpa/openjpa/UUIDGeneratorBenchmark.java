@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.openjpa;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.CipherAlgorithm;
+import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
+import org.apache.syncope.core.persistence.api.dao.RealmDAO;
+import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.entity.AnyUtils;
+import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.Realm;
+import org.apache.syncope.core.persistence.api.entity.user.UPlainAttr;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Measures the throughput of inserting users with plain attributes - hence rows on the user, plain attribute and
+ * plain attribute value tables - with random and with time-ordered keys, see {@link UUIDGenerator}; not run as part
+ * of the build, launch via {@link #main(java.lang.String[])} from the test classpath.
+ * The embedded test database is used by default: meaningful figures about index page splits require to point the
+ * {@code Master} domain to the actual DBMS.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UUIDGeneratorBenchmark {
+
+    private static final List<String> SCHEMAS = Arrays.asList("fullname", "firstname", "surname");
+
+    @Param({ "false", "true" })
+    public boolean timeOrdered;
+
+    @Param({ "10" })
+    public int usersPerTransaction;
+
+    private final AtomicLong counter = new AtomicLong();
+
+    private String prefix;
+
+    private ClassPathXmlApplicationContext ctx;
+
+    private TransactionTemplate txTemplate;
+
+    private EntityFactory entityFactory;
+
+    private AnyUtils anyUtils;
+
+    private RealmDAO realmDAO;
+
+    private PlainSchemaDAO plainSchemaDAO;
+
+    private UserDAO userDAO;
+
+    @Setup
+    public void setup() {
+        ctx = new ClassPathXmlApplicationContext("classpath:persistenceTest.xml");
+        UUIDGenerator.setTimeOrdered(SyncopeConstants.MASTER_DOMAIN, timeOrdered);
+        // the embedded database might be shared by several trials in the same JVM
+        prefix = "benchmark" + Long.toString(System.currentTimeMillis(), Character.MAX_RADIX) + '_';
+
+        txTemplate = new TransactionTemplate(
+                ctx.getBean(SyncopeConstants.MASTER_DOMAIN + "TransactionManager", PlatformTransactionManager.class));
+        entityFactory = ctx.getBean(EntityFactory.class);
+        anyUtils = ctx.getBean(AnyUtilsFactory.class).getInstance(AnyTypeKind.USER);
+        realmDAO = ctx.getBean(RealmDAO.class);
+        plainSchemaDAO = ctx.getBean(PlainSchemaDAO.class);
+        userDAO = ctx.getBean(UserDAO.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public void insertUsers() {
+        txTemplate.execute(status -> {
+            Realm root = realmDAO.getRoot();
+            for (int i = 0; i < usersPerTransaction; i++) {
+                String username = prefix + counter.incrementAndGet();
+
+                User user = entityFactory.newEntity(User.class);
+                user.setUsername(username);
+                user.setRealm(root);
+                user.setCreator("admin");
+                user.setCreationDate(new Date());
+                user.setPassword("password123", CipherAlgorithm.SHA256);
+
+                SCHEMAS.forEach(schema -> {
+                    UPlainAttr attr = entityFactory.newEntity(UPlainAttr.class);
+                    attr.setOwner(user);
+                    attr.setSchema(plainSchemaDAO.find(schema));
+                    attr.add(schema + ' ' + username, anyUtils);
+                    user.add(attr);
+                });
+
+                userDAO.save(user);
+            }
+            return null;
+        });
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UUIDGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
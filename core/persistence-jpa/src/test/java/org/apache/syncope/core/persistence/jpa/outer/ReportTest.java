@@ -18,17 +18,25 @@
  */
 package org.apache.syncope.core.persistence.jpa.outer;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Date;
+import java.util.Optional;
 import javax.persistence.EntityExistsException;
+import org.apache.commons.io.IOUtils;
 import org.apache.syncope.common.lib.types.ReportExecStatus;
 import org.apache.syncope.core.persistence.api.dao.ReportDAO;
 import org.apache.syncope.core.persistence.api.dao.ReportExecDAO;
+import org.apache.syncope.core.persistence.api.dao.ReportExecResultDAO;
 import org.apache.syncope.core.persistence.api.dao.ReportTemplateDAO;
 import org.apache.syncope.core.persistence.api.entity.Report;
 import org.apache.syncope.core.persistence.api.entity.ReportExec;
@@ -49,6 +57,9 @@ public class ReportTest extends AbstractTest {
     @Autowired
     private ReportExecDAO reportExecDAO;
 
+    @Autowired
+    private ReportExecResultDAO reportExecResultDAO;
+
     @Test
     public void find() {
         Report report = reportDAO.find("0062ea9c-924d-4ecf-9961-4492a8cc6d1b");
@@ -102,6 +113,44 @@ public class ReportTest extends AbstractTest {
         assertEquals(2, report.getExecs().size());
     }
 
+    @Test
+    public void execResult() throws IOException {
+        Report report = reportDAO.find("0062ea9c-924d-4ecf-9961-4492a8cc6d1b");
+        assertNotNull(report);
+
+        ReportExec reportExec = entityFactory.newEntity(ReportExec.class);
+        reportExec.setReport(report);
+        reportExec.setStart(new Date());
+        reportExec.setStatus(ReportExecStatus.RUNNING);
+        report.add(reportExec);
+        reportExec = reportExecDAO.save(reportExec);
+
+        assertFalse(reportExecResultDAO.exists(reportExec));
+        assertFalse(reportExecResultDAO.read(reportExec).isPresent());
+
+        byte[] content = new byte[256 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        try (OutputStream out = reportExecResultDAO.store(reportExec)) {
+            for (int i = 0; i < content.length; i += 1000) {
+                out.write(content, i, Math.min(1000, content.length - i));
+            }
+        }
+
+        reportExec.setEnd(new Date());
+        reportExec.setStatus(ReportExecStatus.SUCCESS);
+        reportExec = reportExecDAO.save(reportExec);
+        reportExecDAO.flush();
+
+        assertTrue(reportExecResultDAO.exists(reportExec));
+        Optional<InputStream> in = reportExecResultDAO.read(reportExec);
+        assertTrue(in.isPresent());
+        try (InputStream result = in.get()) {
+            assertArrayEquals(content, IOUtils.toByteArray(result));
+        }
+    }
+
     @Test
     public void deleteReport() {
         reportDAO.delete("0062ea9c-924d-4ecf-9961-4492a8cc6d1b");
@@ -20,6 +20,7 @@ package org.apache.syncope.core.provisioning.api;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.ConnInstance;
@@ -153,6 +154,22 @@ public interface Connector {
             boolean ignoreCaseMatch,
             OperationOptions options);
 
+    /**
+     * Get remote object, without waiting for the connector: the caller is in charge of waiting for the result, within
+     * the connector request timeout, and of cancelling the request if not completed in time.
+     *
+     * @param objectClass ConnId's object class
+     * @param connObjectKey ConnId's key attribute
+     * @param ignoreCaseMatch whether match should be performed regardless of the value case
+     * @param options ConnId's OperationOptions
+     * @return future ConnId's connector object for given uid
+     */
+    Future<ConnectorObject> getObjectAsync(
+            ObjectClass objectClass,
+            Attribute connObjectKey,
+            boolean ignoreCaseMatch,
+            OperationOptions options);
+
     /**
      * Search for remote objects.
      *
@@ -18,11 +18,14 @@
  */
 package org.apache.syncope.core.provisioning.api;
 
+import java.util.Collection;
 import java.util.Map;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.DerSchema;
 import org.apache.syncope.core.persistence.api.entity.GroupableRelatable;
 import org.apache.syncope.core.persistence.api.entity.Membership;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 public interface DerAttrHandler {
 
@@ -43,6 +46,15 @@ public interface DerAttrHandler {
      */
     Map<DerSchema, String> getValues(Any<?> any);
 
+    /**
+     * Calculates derived attributes values associated to the given any, for the given derived schemas only.
+     *
+     * @param any any object
+     * @param schemas derived schemas
+     * @return derived attribute values
+     */
+    Map<DerSchema, String> getValues(Any<?> any, Collection<DerSchema> schemas);
+
     /**
      * Calculates derived attribute value associated to the given any, for the given membership and
      * derived schema.
@@ -62,4 +74,12 @@ public interface DerAttrHandler {
      * @return derived attribute values
      */
     Map<DerSchema, String> getValues(GroupableRelatable<?, ?, ?, ?, ?> any, Membership<?> membership);
+
+    /**
+     * Discards the parsed expression of derived schemas being deleted.
+     *
+     * @param event entity change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    void after(EntityChangedEvent event);
 }
@@ -60,4 +60,10 @@ public interface VirAttrCache {
      */
     void put(String type, String key, String schemaName, VirAttrCacheValue value);
 
+    /**
+     * Cache statistics: hit, miss and eviction counters, current size.
+     *
+     * @return cache statistics
+     */
+    VirAttrCacheStats getStats();
 }
@@ -35,18 +35,18 @@ public class VirAttrCacheValue {
     private final List<String> values;
 
     /**
-     * Entry creation date.
+     * Entry creation time, in milliseconds.
      */
-    private Date creationDate;
+    private volatile long creationTime;
 
     /**
-     * Entry access date.
+     * Entry access time, in milliseconds.
      */
-    private Date lastAccessDate;
+    private volatile long lastAccessTime;
 
     public VirAttrCacheValue() {
-        this.creationDate = new Date();
-        this.lastAccessDate = new Date();
+        this.creationTime = System.currentTimeMillis();
+        this.lastAccessTime = this.creationTime;
         this.values = new ArrayList<>();
     }
 
@@ -60,42 +60,44 @@ public class VirAttrCacheValue {
         }
     }
 
+    public long getCreationTime() {
+        return creationTime;
+    }
+
     public Date getCreationDate() {
-        if (creationDate != null) {
-            return new Date(creationDate.getTime());
-        }
-        return null;
+        return new Date(creationTime);
     }
 
     public void forceExpiring() {
-        creationDate = new Date(0);
+        creationTime = 0;
     }
 
     public List<String> getValues() {
         return values;
     }
 
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    public void setLastAccessTime(final long lastAccessTime) {
+        this.lastAccessTime = lastAccessTime;
+    }
+
     public Date getLastAccessDate() {
-        if (lastAccessDate != null) {
-            return new Date(lastAccessDate.getTime());
-        }
-        return null;
+        return new Date(lastAccessTime);
     }
 
     public void setLastAccessDate(final Date lastAccessDate) {
-        if (lastAccessDate != null) {
-            this.lastAccessDate = new Date(lastAccessDate.getTime());
-        } else {
-            this.lastAccessDate = null;
-        }
+        this.lastAccessTime = lastAccessDate == null ? 0 : lastAccessDate.getTime();
     }
 
     @Override
     public int hashCode() {
         int hash = 5;
         hash = 67 * hash + Objects.hashCode(this.values);
-        hash = 67 * hash + Objects.hashCode(this.creationDate);
-        hash = 67 * hash + Objects.hashCode(this.lastAccessDate);
+        hash = 67 * hash + Long.hashCode(this.creationTime);
+        hash = 67 * hash + Long.hashCode(this.lastAccessTime);
         return hash;
     }
 
@@ -114,16 +116,16 @@ public class VirAttrCacheValue {
         if (!Objects.equals(this.values, other.values)) {
             return false;
         }
-        if (!Objects.equals(this.creationDate, other.creationDate)) {
+        if (this.creationTime != other.creationTime) {
             return false;
         }
-        return Objects.equals(this.lastAccessDate, other.lastAccessDate);
+        return this.lastAccessTime == other.lastAccessTime;
     }
 
     @Override
     public String toString() {
         return "VirAttrCacheValue{"
-                + "values=" + values + ", creationDate=" + creationDate + ", lastAccessDate=" + lastAccessDate
+                + "values=" + values + ", creationTime=" + creationTime + ", lastAccessTime=" + lastAccessTime
                 + '}';
     }
 }
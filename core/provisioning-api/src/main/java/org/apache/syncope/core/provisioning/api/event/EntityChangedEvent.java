@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.api.event;
+
+import org.apache.syncope.core.persistence.api.entity.Entity;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when an entity other than users, groups and any objects - e.g. role, realm or configuration - is created,
+ * updated or deleted.
+ */
+public class EntityChangedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = -4181853312768420474L;
+
+    private final Class<? extends Entity> reference;
+
+    private final String key;
+
+    private final boolean deleted;
+
+    private final String domain;
+
+    public EntityChangedEvent(
+            final Object source,
+            final Class<? extends Entity> reference,
+            final String key,
+            final boolean deleted,
+            final String domain) {
+
+        super(source);
+        this.reference = reference;
+        this.key = key;
+        this.deleted = deleted;
+        this.domain = domain;
+    }
+
+    public Class<? extends Entity> getReference() {
+        return reference;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+}
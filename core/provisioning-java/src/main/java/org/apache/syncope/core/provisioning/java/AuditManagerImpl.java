@@ -18,11 +18,18 @@
  */
 package org.apache.syncope.core.provisioning.java;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.core.provisioning.api.AuditManager;
 import org.apache.syncope.common.lib.types.AuditElements;
 import org.apache.syncope.common.lib.types.AuditElements.Result;
 import org.apache.syncope.common.lib.types.AuditLoggerName;
 import org.apache.syncope.common.lib.types.LoggerLevel;
+import org.apache.syncope.common.lib.types.LoggerType;
 import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
 import org.apache.syncope.core.persistence.api.dao.LoggerDAO;
 import org.apache.syncope.core.provisioning.api.event.AfterHandlingEvent;
@@ -33,6 +40,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Enabled audit loggers are read once per domain and kept as an immutable set, replaced as soon as the version of
+ * loggers changes - either locally or on another node.
+ */
 @Transactional(readOnly = true)
 @Component
 public class AuditManagerImpl implements AuditManager {
@@ -40,6 +51,25 @@ public class AuditManagerImpl implements AuditManager {
     @Autowired
     private LoggerDAO loggerDAO;
 
+    /**
+     * Names of the enabled audit loggers, for each domain, along with the version of loggers they were read for.
+     */
+    private final Map<String, Pair<Long, Set<String>>> enabledAudits = new ConcurrentHashMap<>();
+
+    private Set<String> getEnabledAudits() {
+        // read the version first: should loggers change meanwhile, what is read below will be discarded next time
+        long version = loggerDAO.getVersion();
+        Pair<Long, Set<String>> enabled = enabledAudits.get(AuthContextUtils.getDomain());
+        if (enabled == null || enabled.getLeft() != version) {
+            enabled = Pair.of(version, Collections.unmodifiableSet(loggerDAO.findAll(LoggerType.AUDIT).stream().
+                    filter(logger -> logger.getLevel() == LoggerLevel.DEBUG).
+                    map(org.apache.syncope.core.persistence.api.entity.Logger::getKey).
+                    collect(Collectors.toSet())));
+            enabledAudits.put(AuthContextUtils.getDomain(), enabled);
+        }
+        return enabled.getRight();
+    }
+
     @Override
     public boolean auditRequested(
             final String who,
@@ -48,30 +78,15 @@ public class AuditManagerImpl implements AuditManager {
             final String subcategory,
             final String event) {
 
-        AuditEntry auditEntry = new AuditEntry(
-                who,
-                new AuditLoggerName(type, category, subcategory, event, Result.SUCCESS),
-                null,
-                null,
-                null);
-        org.apache.syncope.core.persistence.api.entity.Logger syncopeLogger =
-                loggerDAO.find(auditEntry.getLogger().toLoggerName());
-        boolean auditRequested = syncopeLogger != null && syncopeLogger.getLevel() == LoggerLevel.DEBUG;
-
-        if (auditRequested) {
-            return true;
+        Set<String> enabled = getEnabledAudits();
+        if (enabled.isEmpty()) {
+            return false;
         }
 
-        auditEntry = new AuditEntry(
-                who,
-                new AuditLoggerName(type, category, subcategory, event, Result.FAILURE),
-                null,
-                null,
-                null);
-        syncopeLogger = loggerDAO.find(auditEntry.getLogger().toLoggerName());
-        auditRequested = syncopeLogger != null && syncopeLogger.getLevel() == LoggerLevel.DEBUG;
-
-        return auditRequested;
+        return enabled.contains(
+                new AuditLoggerName(type, category, subcategory, event, Result.SUCCESS).toLoggerName())
+                || enabled.contains(
+                        new AuditLoggerName(type, category, subcategory, event, Result.FAILURE).toLoggerName());
     }
 
     @Override
@@ -105,20 +120,20 @@ public class AuditManagerImpl implements AuditManager {
             throwable = (Throwable) output;
         }
 
-        AuditEntry auditEntry = new AuditEntry(
-                who,
-                new AuditLoggerName(type, category, subcategory, event, condition),
-                before,
-                throwable == null ? output : throwable.getMessage(),
-                input);
+        AuditLoggerName auditLoggerName = new AuditLoggerName(type, category, subcategory, event, condition);
+        String loggerName = auditLoggerName.toLoggerName();
+        if (getEnabledAudits().contains(loggerName)) {
+            AuditEntry auditEntry = new AuditEntry(
+                    who,
+                    auditLoggerName,
+                    before,
+                    throwable == null ? output : throwable.getMessage(),
+                    input);
 
-        org.apache.syncope.core.persistence.api.entity.Logger syncopeLogger =
-                loggerDAO.find(auditEntry.getLogger().toLoggerName());
-        if (syncopeLogger != null && syncopeLogger.getLevel() == LoggerLevel.DEBUG) {
             Logger logger = LoggerFactory.getLogger(
                     AuditLoggerName.getAuditLoggerName(AuthContextUtils.getDomain()));
             Logger eventLogger = LoggerFactory.getLogger(
-                    AuditLoggerName.getAuditEventLoggerName(AuthContextUtils.getDomain(), syncopeLogger.getKey()));
+                    AuditLoggerName.getAuditEventLoggerName(AuthContextUtils.getDomain(), loggerName));
             String serializedAuditEntry = POJOHelper.serialize(auditEntry);
 
             if (throwable == null) {
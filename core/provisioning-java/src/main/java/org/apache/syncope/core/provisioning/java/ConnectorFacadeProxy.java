@@ -60,6 +60,7 @@ import org.identityconnectors.framework.spi.SearchResultsHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.AsyncResult;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ClassUtils;
 
@@ -408,17 +409,10 @@ public class ConnectorFacadeProxy implements Connector {
             final boolean ignoreCaseMatch,
             final OperationOptions options) {
 
-        Future<ConnectorObject> future = null;
-
-        if (connInstance.getCapabilities().contains(ConnectorCapability.SEARCH)) {
-            future = asyncFacade.getObject(connector, objectClass, connObjectKey, ignoreCaseMatch, options);
-        } else {
-            LOG.info("Search was attempted, although the connector only has these capabilities: {}. No action.",
-                    connInstance.getCapabilities());
-        }
+        Future<ConnectorObject> future = getObjectAsync(objectClass, connObjectKey, ignoreCaseMatch, options);
 
         try {
-            return future == null ? null : future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
+            return future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
         } catch (java.util.concurrent.TimeoutException e) {
             future.cancel(true);
             throw new TimeoutException("Request timeout");
@@ -432,6 +426,22 @@ public class ConnectorFacadeProxy implements Connector {
         }
     }
 
+    @Override
+    public Future<ConnectorObject> getObjectAsync(
+            final ObjectClass objectClass,
+            final Attribute connObjectKey,
+            final boolean ignoreCaseMatch,
+            final OperationOptions options) {
+
+        if (connInstance.getCapabilities().contains(ConnectorCapability.SEARCH)) {
+            return asyncFacade.getObject(connector, objectClass, connObjectKey, ignoreCaseMatch, options);
+        }
+
+        LOG.info("Search was attempted, although the connector only has these capabilities: {}. No action.",
+                connInstance.getCapabilities());
+        return new AsyncResult<>(null);
+    }
+
     @Override
     public SearchResult search(
             final ObjectClass objectClass,
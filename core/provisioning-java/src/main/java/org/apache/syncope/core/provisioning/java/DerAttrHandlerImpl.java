@@ -18,19 +18,27 @@
  */
 package org.apache.syncope.core.provisioning.java;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
-import org.apache.commons.jexl3.JexlContext;
-import org.apache.commons.jexl3.MapContext;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apache.commons.jexl3.JexlExpression;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.syncope.core.provisioning.java.jexl.AnyJexlContext;
 import org.apache.syncope.core.provisioning.java.jexl.JexlUtils;
+import org.apache.syncope.core.persistence.api.dao.AllowedSchemas;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
 import org.apache.syncope.core.persistence.api.entity.DerSchema;
 import org.apache.syncope.core.persistence.api.entity.GroupableRelatable;
 import org.apache.syncope.core.persistence.api.entity.Membership;
+import org.apache.syncope.core.persistence.api.entity.PlainAttr;
 import org.apache.syncope.core.provisioning.api.DerAttrHandler;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,23 +51,75 @@ public class DerAttrHandlerImpl implements DerAttrHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(DerAttrHandler.class);
 
+    /**
+     * Derived schema expression, as parsed by JEXL.
+     */
+    private static class CompiledExpression {
+
+        private final String expression;
+
+        private final JexlExpression jexlExpression;
+
+        CompiledExpression(final String expression, final JexlExpression jexlExpression) {
+            this.expression = expression;
+            this.jexlExpression = jexlExpression;
+        }
+    }
+
     @Autowired
     private AnyUtilsFactory anyUtilsFactory;
 
-    private Map<DerSchema, String> getValues(final Any<?> any, final Set<DerSchema> schemas) {
-        Map<DerSchema, String> result = new HashMap<>(schemas.size());
+    /**
+     * Parsed expressions, by domain and derived schema; entries are replaced as soon as the schema expression is
+     * found to be changed, and removed when the schema is deleted.
+     */
+    private final Map<String, CompiledExpression> expressions = new ConcurrentHashMap<>();
 
-        schemas.forEach(schema -> {
-            JexlContext jexlContext = new MapContext();
-            JexlUtils.addPlainAttrsToContext(any.getPlainAttrs(), jexlContext);
-            JexlUtils.addFieldsToContext(any, jexlContext);
+    private JexlExpression getExpression(final DerSchema schema) {
+        if (StringUtils.isBlank(schema.getExpression())) {
+            return null;
+        }
+
+        String key = AuthContextUtils.getDomain() + '/' + schema.getKey();
+
+        CompiledExpression compiled = expressions.get(key);
+        if (compiled == null || !compiled.expression.equals(schema.getExpression())) {
+            try {
+                compiled = new CompiledExpression(
+                        schema.getExpression(), JexlUtils.createExpression(schema.getExpression()));
+                expressions.put(key, compiled);
+            } catch (Exception e) {
+                LOG.error("Error while parsing JEXL expression: " + schema.getExpression(), e);
+                return null;
+            }
+        }
+        return compiled.jexlExpression;
+    }
 
-            result.put(schema, JexlUtils.evaluate(schema.getExpression(), jexlContext));
-        });
+    @Override
+    public void after(final EntityChangedEvent event) {
+        if (DerSchema.class.isAssignableFrom(event.getReference()) && event.isDeleted()) {
+            expressions.remove(event.getDomain() + '/' + event.getKey());
+        }
+    }
+
+    private Map<DerSchema, String> getValues(
+            final Any<?> any, final Collection<? extends PlainAttr<?>> plainAttrs, final Set<DerSchema> schemas) {
+
+        Map<DerSchema, String> result = new HashMap<>(schemas.size());
+
+        // fields and plain attributes are read once, upon first need, for all derived schemas
+        AnyJexlContext jexlContext = new AnyJexlContext(any, plainAttrs);
+        schemas.forEach(schema -> result.put(
+                schema, JexlUtils.evaluate(getExpression(schema), jexlContext.local())));
 
         return result;
     }
 
+    private Map<DerSchema, String> getValues(final Any<?> any, final Set<DerSchema> schemas) {
+        return getValues(any, any.getPlainAttrs(), schemas);
+    }
+
     @Override
     public String getValue(final Any<?> any, final DerSchema schema) {
         if (!anyUtilsFactory.getInstance(any).dao().
@@ -91,20 +151,18 @@ public class DerAttrHandlerImpl implements DerAttrHandler {
                 anyUtilsFactory.getInstance(any).dao().findAllowedSchemas(any, DerSchema.class).getForSelf());
     }
 
-    private Map<DerSchema, String> getValues(
-            final GroupableRelatable<?, ?, ?, ?, ?> any, final Membership<?> membership, final Set<DerSchema> schemas) {
-
-        Map<DerSchema, String> result = new HashMap<>(schemas.size());
+    @Override
+    public Map<DerSchema, String> getValues(final Any<?> any, final Collection<DerSchema> schemas) {
+        AllowedSchemas<DerSchema> allowed = anyUtilsFactory.getInstance(any).dao().
+                findAllowedSchemas(any, DerSchema.class);
 
-        schemas.forEach(schema -> {
-            JexlContext jexlContext = new MapContext();
-            JexlUtils.addPlainAttrsToContext(any.getPlainAttrs(membership), jexlContext);
-            JexlUtils.addFieldsToContext(any, jexlContext);
+        return getValues(any, schemas.stream().filter(allowed::forSelfContains).collect(Collectors.toSet()));
+    }
 
-            result.put(schema, JexlUtils.evaluate(schema.getExpression(), jexlContext));
-        });
+    private Map<DerSchema, String> getValues(
+            final GroupableRelatable<?, ?, ?, ?, ?> any, final Membership<?> membership, final Set<DerSchema> schemas) {
 
-        return result;
+        return getValues(any, any.getPlainAttrs(membership), schemas);
     }
 
     @Override
@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.provisioning.java;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -25,7 +26,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
+import org.apache.syncope.core.persistence.api.dao.VirSchemaDAO;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
 import org.apache.syncope.core.persistence.api.entity.Membership;
@@ -40,6 +46,7 @@ import org.apache.syncope.core.provisioning.api.VirAttrHandler;
 import org.apache.syncope.core.provisioning.api.cache.VirAttrCache;
 import org.apache.syncope.core.provisioning.api.cache.VirAttrCacheValue;
 import org.apache.syncope.core.provisioning.java.utils.MappingUtils;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeBuilder;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
@@ -55,6 +62,54 @@ public class VirAttrHandlerImpl implements VirAttrHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(VirAttrHandler.class);
 
+    /**
+     * Read in progress, along with the number of requests waiting for it.
+     */
+    private static class InFlight {
+
+        private final Future<ConnectorObject> future;
+
+        private int waiters = 1;
+
+        InFlight(final Future<ConnectorObject> future) {
+            this.future = future;
+        }
+    }
+
+    /**
+     * Read issued to the connector of a given provision.
+     */
+    private static class Read {
+
+        private final String key;
+
+        private final Provision provision;
+
+        private final Set<VirSchema> schemas;
+
+        private final List<VirSchema> provisionSchemas;
+
+        private final int timeout;
+
+        private final InFlight inFlight;
+
+        Read(
+                final String key,
+                final Provision provision,
+                final Set<VirSchema> schemas,
+                final List<VirSchema> provisionSchemas,
+                final int timeout,
+                final InFlight inFlight) {
+
+            this.key = key;
+            this.provision = provision;
+            this.schemas = schemas;
+            this.provisionSchemas = provisionSchemas;
+            this.timeout = timeout;
+            this.inFlight = inFlight;
+        }
+    }
+
     @Autowired
     private ConnectorFactory connFactory;
 
@@ -67,6 +122,32 @@ public class VirAttrHandlerImpl implements VirAttrHandler {
     @Autowired
     private AnyUtilsFactory anyUtilsFactory;
 
+    @Autowired
+    private VirSchemaDAO virSchemaDAO;
+
+    /**
+     * Reads in progress, by domain, any object and provision: concurrent requests for values not found in cache wait
+     * for the same read rather than issuing their own; a read is cancelled only when the last request waiting for it
+     * gives up.
+     */
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private void leave(final Read read) {
+        inFlight.computeIfPresent(read.key, (key, current) -> {
+            if (current != read.inFlight) {
+                return current;
+            }
+
+            current.waiters--;
+            if (current.waiters > 0) {
+                return current;
+            }
+
+            current.future.cancel(true);
+            return null;
+        });
+    }
+
     private Map<VirSchema, List<String>> getValues(final Any<?> any, final Set<VirSchema> schemas) {
         Set<ExternalResource> ownedResources = anyUtilsFactory.getInstance(any).getAllResources(any);
 
@@ -96,6 +177,10 @@ public class VirAttrHandlerImpl implements VirAttrHandler {
             }
         });
 
+        // all reads are issued at once, then each is waited for until its connector request timeout, counted from the
+        // same instant: the overall wait is bounded by the slowest allowed connector, not by the sum of them
+        long start = System.currentTimeMillis();
+        List<Read> reads = new ArrayList<>();
         toRead.forEach((provision, schemasToRead) -> {
             LOG.debug("About to read from {}: {}", provision, schemasToRead);
 
@@ -106,50 +191,89 @@ public class VirAttrHandlerImpl implements VirAttrHandler {
             if (!connObjectKeyItem.isPresent() || connObjectKeyValue == null) {
                 LOG.error("No ConnObjectKey or value found for {}, ignoring...", provision);
             } else {
+                // all virtual schemas for the provision are read, so that the read can be shared
+                List<VirSchema> provisionSchemas = virSchemaDAO.findByProvision(provision);
+
                 Set<MappingItem> linkingMappingItems = new HashSet<>();
                 linkingMappingItems.add(connObjectKeyItem.get());
-                linkingMappingItems.addAll(schemasToRead.stream().
+                linkingMappingItems.addAll(provisionSchemas.stream().
                         map(schema -> schema.asLinkingMappingItem()).collect(Collectors.toSet()));
 
                 Connector connector = connFactory.getConnector(provision.getResource());
+                String key = AuthContextUtils.getDomain() + '/' + any.getKey() + '/' + provision.getKey();
                 try {
-                    ConnectorObject connectorObject = connector.getObject(
-                            provision.getObjectClass(),
-                            AttributeBuilder.build(connObjectKeyItem.get().getExtAttrName(), connObjectKeyValue),
-                            provision.isIgnoreCaseMatch(),
-                            MappingUtils.buildOperationOptions(linkingMappingItems.iterator()));
-
-                    if (connectorObject == null) {
-                        LOG.debug("No read from {} with filter '{} == {}'",
-                                provision, connObjectKeyItem.get().getExtAttrName(), connObjectKeyValue);
-                    } else {
-                        schemasToRead.forEach(schema -> {
-                            Attribute attr = connectorObject.getAttributeByName(schema.getExtAttrName());
-                            if (attr != null) {
-                                VirAttrCacheValue virAttrCacheValue = new VirAttrCacheValue();
-                                virAttrCacheValue.setValues(attr.getValue());
-                                virAttrCache.put(
-                                        any.getType().getKey(), any.getKey(), schema.getKey(),
-                                        virAttrCacheValue);
-                                LOG.debug("Values for {} set in cache: {}", schema, virAttrCacheValue);
+                    int timeout = connector.getConnInstance().getConnRequestTimeout();
+                    InFlight joined = inFlight.compute(key, (k, current) -> {
+                        if (current == null) {
+                            return new InFlight(connector.getObjectAsync(
+                                    provision.getObjectClass(),
+                                    AttributeBuilder.build(
+                                            connObjectKeyItem.get().getExtAttrName(), connObjectKeyValue),
+                                    provision.isIgnoreCaseMatch(),
+                                    MappingUtils.buildOperationOptions(linkingMappingItems.iterator())));
+                        }
 
-                                result.put(schema, virAttrCacheValue.getValues());
-                            }
-                        });
-                    }
+                        current.waiters++;
+                        return current;
+                    });
+
+                    reads.add(new Read(
+                            key,
+                            provision,
+                            schemasToRead,
+                            provisionSchemas,
+                            timeout,
+                            joined));
                 } catch (Exception e) {
                     LOG.error("Error reading from {}", provision, e);
                 }
             }
         });
 
+        reads.forEach(read -> {
+            try {
+                long wait = TimeUnit.SECONDS.toMillis(read.timeout) - (System.currentTimeMillis() - start);
+                ConnectorObject connectorObject =
+                        read.inFlight.future.get(Math.max(wait, 0), TimeUnit.MILLISECONDS);
+
+                if (connectorObject == null) {
+                    LOG.debug("No read from {} for {}", read.provision, any);
+                } else {
+                    read.provisionSchemas.forEach(schema -> {
+                        Attribute attr = connectorObject.getAttributeByName(schema.getExtAttrName());
+                        if (attr != null) {
+                            VirAttrCacheValue virAttrCacheValue = new VirAttrCacheValue();
+                            virAttrCacheValue.setValues(attr.getValue());
+                            virAttrCache.put(
+                                    any.getType().getKey(), any.getKey(), schema.getKey(),
+                                    virAttrCacheValue);
+                            LOG.debug("Values for {} set in cache: {}", schema, virAttrCacheValue);
+
+                            if (read.schemas.contains(schema)) {
+                                result.put(schema, virAttrCacheValue.getValues());
+                            }
+                        }
+                    });
+                }
+            } catch (TimeoutException e) {
+                LOG.error("Timeout reading from {}, values for {} not available", read.provision, read.schemas);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOG.error("Interrupted while reading from {}", read.provision, e);
+            } catch (Exception e) {
+                LOG.error("Error reading from {}", read.provision, e);
+            } finally {
+                leave(read);
+            }
+        });
+
         return result;
     }
 
     @Override
     public List<String> getValues(final Any<?> any, final VirSchema schema) {
         if (!anyUtilsFactory.getInstance(any).dao().
-                findAllowedSchemas(any, VirSchema.class).forSelfContains(schema)) {
+                findAllowedSchemas(any, VirSchema.class).forSelfContains(schema.getKey())) {
 
             LOG.debug("{} not allowed for {}", schema, any);
             return Collections.emptyList();
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.concurrent.TimeUnit;
+import org.apache.syncope.core.provisioning.api.cache.VirAttrCache;
+import org.apache.syncope.core.provisioning.api.cache.VirAttrCacheKey;
+import org.apache.syncope.core.provisioning.api.cache.VirAttrCacheStats;
+import org.apache.syncope.core.provisioning.api.cache.VirAttrCacheValue;
+
+/**
+ * In-memory virtual attribute value cache implementation, backed by <a href="https://github.com/ben-manes/caffeine">
+ * Caffeine</a>: size-based eviction follows W-TinyLFU, entries expire after TTL from creation, with no global lock
+ * and constant time cost for both operations.
+ */
+public class CaffeineVirAttrCache implements VirAttrCache {
+
+    /**
+     * Elapsed time in seconds.
+     */
+    protected final int ttl;
+
+    /**
+     * Max cache size.
+     */
+    protected final int maxCacheSize;
+
+    /**
+     * Cache entries.
+     */
+    protected final Cache<VirAttrCacheKey, VirAttrCacheValue> cache;
+
+    public CaffeineVirAttrCache(final int ttl, final int maxCacheSize) {
+        this.ttl = ttl;
+        this.maxCacheSize = maxCacheSize;
+        this.cache = Caffeine.newBuilder().
+                maximumSize(maxCacheSize).
+                expireAfter(new CreationTimeExpiry()).
+                recordStats().
+                build();
+    }
+
+    @Override
+    public void put(
+            final String type,
+            final String key,
+            final String schemaKey,
+            final VirAttrCacheValue value) {
+
+        cache.put(new VirAttrCacheKey(type, key, schemaKey), value);
+    }
+
+    @Override
+    public VirAttrCacheValue get(final String type, final String key, final String schemaKey) {
+        VirAttrCacheValue value = cache.getIfPresent(new VirAttrCacheKey(type, key, schemaKey));
+        if (value != null) {
+            value.setLastAccessTime(System.currentTimeMillis());
+        }
+        return value;
+    }
+
+    @Override
+    public void expire(final String type, final String key, final String schemaKey) {
+        cache.invalidate(new VirAttrCacheKey(type, key, schemaKey));
+    }
+
+    /**
+     * Cache entry is valid if and only if value exist and it is not expired.
+     *
+     * @param value cache entry value.
+     * @return TRUE if the value is valid; FALSE otherwise.
+     */
+    @Override
+    public boolean isValidEntry(final VirAttrCacheValue value) {
+        return value != null && value.getCreationTime() + ttl * 1000L > System.currentTimeMillis();
+    }
+
+    @Override
+    public VirAttrCacheStats getStats() {
+        CacheStats stats = cache.stats();
+        return new VirAttrCacheStats(
+                stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize());
+    }
+
+    /**
+     * Expires entries after TTL from {@link VirAttrCacheValue#getCreationTime()}, regardless of reads.
+     */
+    protected class CreationTimeExpiry implements Expiry<VirAttrCacheKey, VirAttrCacheValue> {
+
+        protected long remaining(final VirAttrCacheValue value) {
+            long remaining = value.getCreationTime() + ttl * 1000L - System.currentTimeMillis();
+            return remaining > 0 ? TimeUnit.MILLISECONDS.toNanos(remaining) : 0;
+        }
+
+        @Override
+        public long expireAfterCreate(
+                final VirAttrCacheKey key,
+                final VirAttrCacheValue value,
+                final long currentTime) {
+
+            return remaining(value);
+        }
+
+        @Override
+        public long expireAfterUpdate(
+                final VirAttrCacheKey key,
+                final VirAttrCacheValue value,
+                final long currentTime,
+                final long currentDuration) {
+
+            return remaining(value);
+        }
+
+        @Override
+        public long expireAfterRead(
+                final VirAttrCacheKey key,
+                final VirAttrCacheValue value,
+                final long currentTime,
+                final long currentDuration) {
+
+            return currentDuration;
+        }
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.syncope.core.provisioning.java.cache;
 
 import org.apache.syncope.core.provisioning.api.cache.VirAttrCache;
+import org.apache.syncope.core.provisioning.api.cache.VirAttrCacheStats;
 import org.apache.syncope.core.provisioning.api.cache.VirAttrCacheValue;
 
 /**
@@ -50,4 +51,8 @@ public class DisabledVirAttrCache implements VirAttrCache {
         // nothing to do
     }
 
+    @Override
+    public VirAttrCacheStats getStats() {
+        return new VirAttrCacheStats(0, 0, 0, 0);
+    }
 }
@@ -18,17 +18,20 @@
  */
 package org.apache.syncope.core.provisioning.java.cache;
 
-import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.syncope.core.provisioning.api.cache.VirAttrCache;
 import org.apache.syncope.core.provisioning.api.cache.VirAttrCacheKey;
+import org.apache.syncope.core.provisioning.api.cache.VirAttrCacheStats;
 import org.apache.syncope.core.provisioning.api.cache.VirAttrCacheValue;
 
 /**
- * In-memory (HashMap) virtual attribute value cache implementation.
+ * In-memory (ConcurrentHashMap) virtual attribute value cache implementation.
+ * When full, expired entries are removed or, if none, the least recently accessed entry: this requires a full scan,
+ * consider {@link CaffeineVirAttrCache} for large caches.
  */
 public class MemoryVirAttrCache implements VirAttrCache {
 
@@ -45,7 +48,13 @@ public class MemoryVirAttrCache implements VirAttrCache {
     /**
      * Cache entries.
      */
-    protected final Map<VirAttrCacheKey, VirAttrCacheValue> cache = new HashMap<>();
+    protected final Map<VirAttrCacheKey, VirAttrCacheValue> cache = new ConcurrentHashMap<>();
+
+    protected final LongAdder hitCount = new LongAdder();
+
+    protected final LongAdder missCount = new LongAdder();
+
+    protected final LongAdder evictionCount = new LongAdder();
 
     public MemoryVirAttrCache(final int ttl, final int maxCacheSize) {
         this.ttl = ttl;
@@ -71,16 +80,21 @@ public class MemoryVirAttrCache implements VirAttrCache {
 
     @Override
     public VirAttrCacheValue get(final String type, final String key, final String schemaKey) {
-        return cache.get(new VirAttrCacheKey(type, key, schemaKey));
+        VirAttrCacheValue value = cache.get(new VirAttrCacheKey(type, key, schemaKey));
+        if (value == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+            value.setLastAccessTime(System.currentTimeMillis());
+        }
+        return value;
     }
 
     @Override
     public void expire(final String type, final String key, final String schemaKey) {
-        final VirAttrCacheValue value = cache.get(new VirAttrCacheKey(type, key, schemaKey));
+        VirAttrCacheValue value = cache.get(new VirAttrCacheKey(type, key, schemaKey));
         if (isValidEntry(value)) {
-            synchronized (cache) {
-                value.forceExpiring();
-            }
+            value.forceExpiring();
         }
     }
 
@@ -89,14 +103,15 @@ public class MemoryVirAttrCache implements VirAttrCache {
      * This method is not thread safe: the caller have to take care to synchronize the call.
      */
     private void free() {
-        final Set<VirAttrCacheKey> toBeRemoved = new HashSet<>();
+        Set<VirAttrCacheKey> toBeRemoved = new HashSet<>();
 
         Map.Entry<VirAttrCacheKey, VirAttrCacheValue> latest = null;
 
         for (Map.Entry<VirAttrCacheKey, VirAttrCacheValue> entry : cache.entrySet()) {
             if (isValidEntry(entry.getValue())) {
-                final Date date = entry.getValue().getLastAccessDate();
-                if (latest == null || latest.getValue().getLastAccessDate().after(date)) {
+                if (latest == null
+                        || latest.getValue().getLastAccessTime() > entry.getValue().getLastAccessTime()) {
+
                     latest = entry;
                 }
             } else {
@@ -107,9 +122,11 @@ public class MemoryVirAttrCache implements VirAttrCache {
         if (toBeRemoved.isEmpty() && latest != null) {
             // remove the oldest entry
             cache.remove(latest.getKey());
+            evictionCount.increment();
         } else {
             // remove expired entries
             cache.keySet().removeAll(toBeRemoved);
+            evictionCount.add(toBeRemoved.size());
         }
     }
 
@@ -121,7 +138,11 @@ public class MemoryVirAttrCache implements VirAttrCache {
      */
     @Override
     public boolean isValidEntry(final VirAttrCacheValue value) {
-        final Date expiringDate = new Date(value == null ? 0 : value.getCreationDate().getTime() + ttl * 1000);
-        return expiringDate.after(new Date());
+        return value != null && value.getCreationTime() + ttl * 1000L > System.currentTimeMillis();
+    }
+
+    @Override
+    public VirAttrCacheStats getStats() {
+        return new VirAttrCacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), cache.size());
     }
 }
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.jexl;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.MapContext;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.PlainAttr;
+
+/**
+ * {@link JexlContext} exposing the same variables as a {@link MapContext} populated via
+ * {@link JexlUtils#addPlainAttrsToContext(Collection, JexlContext)} and
+ * {@link JexlUtils#addFieldsToContext(Object, JexlContext)}, but resolving each of them only upon first access.
+ * Meant to be shared among the evaluations of several expressions against the same entity, each via
+ * {@link #local()} so that variables set by any evaluation are not visible to others.
+ */
+public class AnyJexlContext implements JexlContext {
+
+    private static final Object UNDEFINED = new Object();
+
+    private static final String REALM = "realm";
+
+    private final Any<?> any;
+
+    private final Collection<? extends PlainAttr<?>> plainAttrs;
+
+    private final Map<String, Object> resolved = new HashMap<>();
+
+    private JexlContext plainAttrValues;
+
+    /**
+     * @param any entity whose fields are exposed
+     * @param plainAttrs plain attributes to expose, e.g. the entity's own or those of a given membership
+     */
+    public AnyJexlContext(final Any<?> any, final Collection<? extends PlainAttr<?>> plainAttrs) {
+        this.any = any;
+        this.plainAttrs = plainAttrs;
+    }
+
+    private Object resolve(final String name) {
+        Object value;
+        if (resolved.containsKey(name)) {
+            value = resolved.get(name);
+        } else {
+            // fields take precedence over plain attributes, as with the MapContext populated in such order
+            if (REALM.equals(name) && any.getRealm() != null) {
+                value = any.getRealm().getFullPath();
+            } else {
+                Optional<Object> fieldValue = JexlUtils.getFieldValue(any, name);
+                if (fieldValue.isPresent()) {
+                    value = fieldValue.get();
+                } else {
+                    if (plainAttrValues == null) {
+                        plainAttrValues = new MapContext();
+                        JexlUtils.addPlainAttrsToContext(plainAttrs, plainAttrValues);
+                    }
+                    value = plainAttrValues.has(name) ? plainAttrValues.get(name) : UNDEFINED;
+                }
+            }
+
+            resolved.put(name, value);
+        }
+        return value;
+    }
+
+    @Override
+    public Object get(final String name) {
+        Object value = resolve(name);
+        return value == UNDEFINED ? null : value;
+    }
+
+    @Override
+    public void set(final String name, final Object value) {
+        resolved.put(name, value);
+    }
+
+    @Override
+    public boolean has(final String name) {
+        return resolve(name) != UNDEFINED;
+    }
+
+    /**
+     * @return context reading from this one, but keeping variables set during evaluation to itself
+     */
+    public JexlContext local() {
+        Map<String, Object> vars = new HashMap<>();
+
+        return new JexlContext() {
+
+            @Override
+            public Object get(final String name) {
+                return vars.containsKey(name) ? vars.get(name) : AnyJexlContext.this.get(name);
+            }
+
+            @Override
+            public void set(final String name, final Object value) {
+                vars.put(name, value);
+            }
+
+            @Override
+            public boolean has(final String name) {
+                return vars.containsKey(name) || AnyJexlContext.this.has(name);
+            }
+        };
+    }
+}
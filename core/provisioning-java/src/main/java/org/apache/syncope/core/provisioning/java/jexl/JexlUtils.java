@@ -25,11 +25,11 @@ import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.jexl3.JexlBuilder;
 import org.apache.commons.jexl3.JexlContext;
 import org.apache.commons.jexl3.JexlEngine;
@@ -61,9 +61,7 @@ public final class JexlUtils {
 
     private static final String[] IGNORE_FIELDS = { "password", "clearPassword", "serialVersionUID", "class" };
 
-    private static final Map<Class<?>, Set<PropertyDescriptor>> FIELD_CACHE =
-            Collections.<Class<?>, Set<PropertyDescriptor>>synchronizedMap(
-                    new HashMap<Class<?>, Set<PropertyDescriptor>>());
+    private static final Map<Class<?>, Map<String, PropertyDescriptor>> FIELD_CACHE = new ConcurrentHashMap<>();
 
     private static JexlEngine JEXL_ENGINE;
 
@@ -101,18 +99,28 @@ public final class JexlUtils {
         return result;
     }
 
-    public static String evaluate(final String expression, final JexlContext jexlContext) {
+    /**
+     * Parses the given expression, for later evaluation via {@link #evaluate(JexlExpression, JexlContext)}.
+     *
+     * @param expression JEXL expression
+     * @return parsed expression
+     * @throws JexlException if the given expression is not valid
+     */
+    public static JexlExpression createExpression(final String expression) {
+        return getEngine().createExpression(expression);
+    }
+
+    public static String evaluate(final JexlExpression expression, final JexlContext jexlContext) {
         String result = StringUtils.EMPTY;
 
-        if (StringUtils.isNotBlank(expression) && jexlContext != null) {
+        if (expression != null && jexlContext != null) {
             try {
-                JexlExpression jexlExpression = getEngine().createExpression(expression);
-                Object evaluated = jexlExpression.evaluate(jexlContext);
+                Object evaluated = expression.evaluate(jexlContext);
                 if (evaluated != null) {
                     result = evaluated.toString();
                 }
             } catch (Exception e) {
-                LOG.error("Error while evaluating JEXL expression: " + expression, e);
+                LOG.error("Error while evaluating JEXL expression: " + expression.getSourceText(), e);
             }
         } else {
             LOG.debug("Expression not provided or invalid context");
@@ -121,45 +129,85 @@ public final class JexlUtils {
         return result;
     }
 
-    public static void addFieldsToContext(final Object object, final JexlContext jexlContext) {
-        Set<PropertyDescriptor> cached = FIELD_CACHE.get(object.getClass());
-        if (cached == null) {
-            cached = new HashSet<>();
-            FIELD_CACHE.put(object.getClass(), cached);
+    public static String evaluate(final String expression, final JexlContext jexlContext) {
+        String result = StringUtils.EMPTY;
+
+        if (StringUtils.isNotBlank(expression) && jexlContext != null) {
+            try {
+                result = evaluate(createExpression(expression), jexlContext);
+            } catch (Exception e) {
+                LOG.error("Error while evaluating JEXL expression: " + expression, e);
+            }
+        } else {
+            LOG.debug("Expression not provided or invalid context");
+        }
 
+        return result;
+    }
+
+    private static Map<String, PropertyDescriptor> getFieldDescriptors(final Class<?> clazz) {
+        return FIELD_CACHE.computeIfAbsent(clazz, k -> {
+            Map<String, PropertyDescriptor> descs = new LinkedHashMap<>();
             try {
-                for (PropertyDescriptor desc : Introspector.getBeanInfo(object.getClass()).getPropertyDescriptors()) {
+                for (PropertyDescriptor desc : Introspector.getBeanInfo(clazz).getPropertyDescriptors()) {
                     if ((!desc.getName().startsWith("pc"))
                             && (!ArrayUtils.contains(IGNORE_FIELDS, desc.getName()))
                             && (!Iterable.class.isAssignableFrom(desc.getPropertyType()))
                             && (!desc.getPropertyType().isArray())) {
 
-                        cached.add(desc);
+                        descs.put(desc.getName(), desc);
                     }
                 }
             } catch (IntrospectionException ie) {
                 LOG.error("Reading class attributes error", ie);
             }
+            return Collections.unmodifiableMap(descs);
+        });
+    }
+
+    private static Object getFieldValue(final Object object, final PropertyDescriptor desc) throws Exception {
+        Object fieldValue;
+        if (desc.getReadMethod() == null) {
+            final Field field = object.getClass().getDeclaredField(desc.getName());
+            field.setAccessible(true);
+            fieldValue = field.get(object);
+        } else {
+            fieldValue = desc.getReadMethod().invoke(object);
         }
+        return fieldValue == null
+                ? StringUtils.EMPTY
+                : (desc.getPropertyType().equals(Date.class)
+                ? FormatUtils.format((Date) fieldValue, false)
+                : fieldValue);
+    }
 
-        for (PropertyDescriptor desc : cached) {
+    /**
+     * Reads the given field, as it would be added by {@link #addFieldsToContext(Object, JexlContext)}.
+     *
+     * @param object object
+     * @param fieldName field name
+     * @return field value, or empty if the given object has no such field or it could not be read
+     */
+    static Optional<Object> getFieldValue(final Object object, final String fieldName) {
+        PropertyDescriptor desc = getFieldDescriptors(object.getClass()).get(fieldName);
+        if (desc == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(getFieldValue(object, desc));
+        } catch (Exception e) {
+            LOG.error("Reading '{}' value error", fieldName, e);
+            return Optional.empty();
+        }
+    }
+
+    public static void addFieldsToContext(final Object object, final JexlContext jexlContext) {
+        for (PropertyDescriptor desc : getFieldDescriptors(object.getClass()).values()) {
             String fieldName = desc.getName();
-            Class<?> fieldType = desc.getPropertyType();
 
             try {
-                Object fieldValue;
-                if (desc.getReadMethod() == null) {
-                    final Field field = object.getClass().getDeclaredField(fieldName);
-                    field.setAccessible(true);
-                    fieldValue = field.get(object);
-                } else {
-                    fieldValue = desc.getReadMethod().invoke(object);
-                }
-                fieldValue = fieldValue == null
-                        ? StringUtils.EMPTY
-                        : (fieldType.equals(Date.class)
-                        ? FormatUtils.format((Date) fieldValue, false)
-                        : fieldValue);
+                Object fieldValue = getFieldValue(object, desc);
 
                 jexlContext.set(fieldName, fieldValue);
 
@@ -76,9 +76,9 @@ public abstract class AbstractSchedTaskJobDelegate implements SchedTaskJobDelega
 
     protected final AtomicReference<String> status = new AtomicReference<>();
 
-    protected boolean interrupt;
+    protected volatile boolean interrupt;
 
-    protected boolean interrupted;
+    protected volatile boolean interrupted;
 
     @Override
     public String currentStatus() {
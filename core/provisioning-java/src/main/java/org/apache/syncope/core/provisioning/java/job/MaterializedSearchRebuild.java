@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job;
+
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.MaterializedAnySearchDAO;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Rebuild the tables read by {@link MaterializedAnySearchDAO} with plain attribute values from existing users,
+ * groups and any objects; to be run once after enabling such implementation on an existing database.
+ */
+public class MaterializedSearchRebuild extends AbstractSchedTaskJobDelegate {
+
+    @Autowired
+    private AnySearchDAO searchDAO;
+
+    @Override
+    protected String doExecute(final boolean dryRun) throws JobExecutionException {
+        if (!(searchDAO instanceof MaterializedAnySearchDAO)) {
+            LOG.warn("Configured search engine {} does not rely on materialized tables", searchDAO.getClass());
+            return "NOT APPLICABLE";
+        }
+
+        if (!dryRun) {
+            for (AnyTypeKind kind : AnyTypeKind.values()) {
+                if (interrupt) {
+                    interrupted = true;
+                    return "INTERRUPTED";
+                }
+
+                status.set("Rebuilding " + kind);
+                try {
+                    int rows = ((MaterializedAnySearchDAO) searchDAO).rebuild(kind);
+                    LOG.debug("Rebuilt search table for {}: {} rows", kind, rows);
+                } catch (Exception e) {
+                    throw new JobExecutionException("While rebuilding search table for " + kind, e);
+                }
+            }
+        }
+
+        return "SUCCESS";
+    }
+
+    @Override
+    protected boolean hasToBeRegistered(final TaskExec execution) {
+        return true;
+    }
+}
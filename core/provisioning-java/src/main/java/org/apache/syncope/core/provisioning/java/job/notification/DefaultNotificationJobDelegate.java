@@ -22,8 +22,16 @@ import java.io.PrintStream;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import javax.mail.MessagingException;
 import javax.mail.Session;
 import javax.mail.internet.MimeMessage;
 import org.apache.commons.lang3.BooleanUtils;
@@ -31,7 +39,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.LogOutputStream;
 import org.apache.syncope.common.lib.PropertyUtils;
 import org.apache.syncope.common.lib.types.AuditElements;
-import org.apache.syncope.common.lib.types.TaskType;
 import org.apache.syncope.common.lib.types.TraceLevel;
 import org.apache.syncope.core.provisioning.api.utils.ExceptionUtils2;
 import org.apache.syncope.core.persistence.api.dao.TaskDAO;
@@ -51,6 +58,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -59,6 +69,12 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
 
     private static final Logger LOG = LoggerFactory.getLogger(NotificationJobDelegate.class);
 
+    private static final int DEFAULT_SENDERS = 5;
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    private static final int DEFAULT_CLAIM_TIMEOUT = 600;
+
     @Autowired
     private TaskDAO taskDAO;
 
@@ -80,14 +96,49 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
 
     private boolean interrupted;
 
+    /**
+     * Number of notification tasks executed concurrently by {@link #execute()}.
+     */
+    private int senders = DEFAULT_SENDERS;
+
+    /**
+     * Number of notification tasks claimed at once by {@link #execute()}.
+     */
+    private int pageSize = DEFAULT_PAGE_SIZE;
+
+    /**
+     * Time, in milliseconds, after which notification tasks claimed by {@link #execute()} but not executed can be
+     * claimed again.
+     */
+    private long claimTimeout = TimeUnit.SECONDS.toMillis(DEFAULT_CLAIM_TIMEOUT);
+
+    /**
+     * Minimum interval, in nanoseconds, between e-mails sent for the same domain; 0 means no limit.
+     */
+    private long sendInterval;
+
+    private final Map<String, AtomicLong> nextSendSlots = new ConcurrentHashMap<>();
+
+    private MailTransportPool transports;
+
     @Override
     public void afterPropertiesSet() throws Exception {
+        Properties props = PropertyUtils.read(Encryptor.class, "mail.properties", "conf.directory").getLeft();
+
+        senders = Math.max(1, Integer.parseInt(
+                props.getProperty("notificationJob.senders", String.valueOf(DEFAULT_SENDERS))));
+        pageSize = Math.max(1, Integer.parseInt(
+                props.getProperty("notificationJob.pageSize", String.valueOf(DEFAULT_PAGE_SIZE))));
+        claimTimeout = TimeUnit.SECONDS.toMillis(Math.max(1, Integer.parseInt(
+                props.getProperty("notificationJob.claimTimeout", String.valueOf(DEFAULT_CLAIM_TIMEOUT)))));
+        int maxPerSecond = Integer.parseInt(props.getProperty("notificationJob.maxPerSecond", "0"));
+        sendInterval = maxPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxPerSecond : 0;
+
         if (mailSender instanceof JavaMailSenderImpl) {
             JavaMailSenderImpl javaMailSender = (JavaMailSenderImpl) mailSender;
 
             Properties javaMailProperties = javaMailSender.getJavaMailProperties();
 
-            Properties props = PropertyUtils.read(Encryptor.class, "mail.properties", "conf.directory").getLeft();
             for (Enumeration<?> e = props.propertyNames(); e.hasMoreElements();) {
                 String prop = (String) e.nextElement();
                 if (prop.startsWith("mail.smtp.")) {
@@ -107,6 +158,8 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
                 session.setDebug(true);
                 session.setDebugOut(new PrintStream(new LogOutputStream(LOG)));
             }
+
+            transports = new MailTransportPool(javaMailSender);
         }
     }
 
@@ -125,9 +178,52 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
         return interrupted;
     }
 
+    /**
+     * Waits, if needed, so that e-mails for the given domain are not sent more often than configured.
+     *
+     * @param domain domain
+     */
+    private void throttle(final String domain) {
+        if (sendInterval <= 0) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long slot = Math.max(now, nextSendSlots.computeIfAbsent(domain, k -> new AtomicLong(now)).
+                getAndUpdate(next -> Math.max(next, now) + sendInterval));
+        if (slot > now) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(slot - now);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void send(final MimeMessage message) throws MessagingException {
+        throttle(AuthContextUtils.getDomain());
+
+        if (transports == null) {
+            mailSender.send(message);
+        } else {
+            transports.send(message);
+        }
+    }
+
     @Transactional
     @Override
     public TaskExec executeSingle(final NotificationTask task) {
+        return doExecuteSingle(task);
+    }
+
+    /**
+     * Sends out the given notification task; not bound to any transaction, since all updates are performed via
+     * {@link NotificationManager}.
+     *
+     * @param task notification task
+     * @return execution
+     */
+    private TaskExec doExecuteSingle(final NotificationTask task) {
         TaskExec execution = entityFactory.newEntity(TaskExec.class);
         execution.setTask(task);
         execution.setStart(new Date());
@@ -172,7 +268,7 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
                     helper.setSubject(task.getSubject());
                     helper.setText(task.getTextBody(), task.getHtmlBody());
 
-                    mailSender.send(message);
+                    send(message);
 
                     execution.setStatus(NotificationJob.Status.SENT.name());
 
@@ -246,24 +342,146 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
         return execution;
     }
 
-    @Transactional
+    /**
+     * Claims the notification tasks to be executed, page by page, and hands them to a bounded pool of senders; once
+     * all senders are busy, further tasks are executed by the invoking thread, thus slowing down claiming.
+     * Claims only last for the configured timeout and are released after each execution attempt: the executed flag is
+     * set according to the outcome of sending, so that tasks failing unexpectedly are recorded as not sent and picked
+     * again by the next run, while tasks claimed by a node stopping before sending them are picked again once their
+     * claim has expired.
+     *
+     * @throws JobExecutionException if anything goes wrong
+     */
     @Override
     public void execute() throws JobExecutionException {
-        List<NotificationTask> tasks = taskDAO.<NotificationTask>findToExec(TaskType.NOTIFICATION);
+        String domain = AuthContextUtils.getDomain();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String owner = UUID.randomUUID().toString();
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                senders, senders, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(senders),
+                new CustomizableThreadFactory("notification-" + domain + '-'),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        AtomicLong sent = new AtomicLong();
+        AtomicLong notSent = new AtomicLong();
+        long start = System.currentTimeMillis();
+        try {
+            String afterKey = null;
+            List<String> keys;
+            do {
+                keys = taskDAO.findNotificationsToExec(afterKey, pageSize);
+                status.set("Sending out notifications: " + sent.get() + " sent, " + notSent.get() + " not sent");
+
+                for (int i = 0; i < keys.size() && !interrupt; i++) {
+                    String key = keys.get(i);
+                    if (taskDAO.claimNotification(
+                            key, owner, new Date(System.currentTimeMillis() + claimTimeout))) {
+                        executor.execute(() -> {
+                            Authentication original = SecurityContextHolder.getContext().getAuthentication();
+                            SecurityContextHolder.getContext().setAuthentication(authentication);
+                            try {
+                                NotificationTask task = taskDAO.find(key);
+                                LOG.debug("Found notification task {} to be executed: starting...", task);
+                                TaskExec execution = doExecuteSingle(task);
+                                LOG.debug("Notification task {} executed", task);
+
+                                if (NotificationJob.Status.valueOf(execution.getStatus())
+                                        == NotificationJob.Status.SENT) {
+
+                                    sent.incrementAndGet();
+                                } else {
+                                    notSent.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                LOG.error("While executing notification task {}", key, e);
+                                notSent.incrementAndGet();
+                                recordFailure(key, e);
+                            } finally {
+                                release(key, owner);
+                                SecurityContextHolder.getContext().setAuthentication(original);
+                            }
+                        });
+                    } else {
+                        LOG.debug("Notification task {} was already claimed, skipping", key);
+                    }
+                }
 
-        status.set("Sending out " + tasks.size() + " notifications");
+                if (!keys.isEmpty()) {
+                    afterKey = keys.get(keys.size() - 1);
+                }
+            } while (keys.size() == pageSize && !interrupt);
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+            }
+
+            if (transports != null) {
+                transports.closeIdle();
+            }
+        }
 
-        for (int i = 0; i < tasks.size() && !interrupt; i++) {
-            LOG.debug("Found notification task {} to be executed: starting...", tasks.get(i));
-            executeSingle(tasks.get(i));
-            LOG.debug("Notification task {} executed", tasks.get(i));
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        if (sent.get() + notSent.get() > 0) {
+            LOG.info("[{}] {} notification tasks sent, {} not sent in {} ms ({} tasks/s)",
+                    domain, sent.get(), notSent.get(), elapsed, (sent.get() + notSent.get()) * 1000 / elapsed);
         }
+        status.set(sent.get() + " notifications sent, " + notSent.get() + " not sent");
+
         if (interrupt) {
             LOG.debug("Notification job interrupted");
             interrupted = true;
         }
     }
 
+    /**
+     * Records the failure of the given notification task, which was claimed but could not be executed, and makes it
+     * available again for the next run.
+     *
+     * @param key notification task key
+     * @param e failure
+     */
+    private void recordFailure(final String key, final Exception e) {
+        try {
+            NotificationTask task = taskDAO.find(key);
+            if (task == null) {
+                LOG.debug("Notification task {} was removed meanwhile, ignoring", key);
+                return;
+            }
+
+            TaskExec execution = entityFactory.newEntity(TaskExec.class);
+            execution.setTask(task);
+            execution.setStart(new Date());
+            execution.setEnd(execution.getStart());
+            execution.setStatus(NotificationJob.Status.NOT_SENT.name());
+            execution.setMessage(ExceptionUtils2.getFullStackTrace(e));
+            notificationManager.storeExec(execution);
+
+            notificationManager.setTaskExecuted(key, false);
+        } catch (Exception re) {
+            LOG.error("Could not record failure of notification task {}", key, re);
+        }
+    }
+
+    /**
+     * Releases the claim on the given notification task, if still held; otherwise, the claim will expire anyway.
+     *
+     * @param key notification task key
+     * @param owner claim owner
+     */
+    private void release(final String key, final String owner) {
+        try {
+            taskDAO.releaseNotification(key, owner);
+        } catch (Exception e) {
+            LOG.error("Could not release claim on notification task {}, expiring in {} ms", key, claimTimeout, e);
+        }
+    }
+
     private boolean hasToBeRegistered(final TaskExec execution) {
         NotificationTask task = (NotificationTask) execution.getTask();
 
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job.notification;
+
+import java.util.Date;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * Sends e-mails via the session and settings of the given {@link JavaMailSenderImpl}, keeping transport connections
+ * open across messages, unlike {@link JavaMailSenderImpl#send(javax.mail.internet.MimeMessage)}; each connection
+ * is used by one thread at a time, hence no more connections are opened than concurrent senders.
+ */
+public class MailTransportPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailTransportPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+
+    private final Deque<Transport> idle = new ConcurrentLinkedDeque<>();
+
+    private final AtomicLong connections = new AtomicLong();
+
+    private final AtomicLong sent = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    public MailTransportPool(final JavaMailSenderImpl mailSender) {
+        this.mailSender = mailSender;
+    }
+
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    protected Transport connect() throws MessagingException {
+        String username = StringUtils.isEmpty(mailSender.getUsername()) ? null : mailSender.getUsername();
+        String password = username == null && StringUtils.isEmpty(mailSender.getPassword())
+                ? null : mailSender.getPassword();
+
+        Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        connections.incrementAndGet();
+        return transport;
+    }
+
+    protected Transport borrow() throws MessagingException {
+        for (Transport transport = idle.pollFirst(); transport != null; transport = idle.pollFirst()) {
+            // connections might have been dropped by the server meanwhile
+            if (transport.isConnected()) {
+                return transport;
+            }
+            close(transport);
+        }
+        return connect();
+    }
+
+    protected void close(final Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            LOG.debug("While closing {}", transport, e);
+        }
+    }
+
+    /**
+     * Sends the given message via an idle connection, if available, or via a new one otherwise.
+     *
+     * @param message message to send
+     * @throws MessagingException if the message could not be sent
+     */
+    public void send(final MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+
+        Transport transport = borrow();
+        try {
+            transport.sendMessage(message, message.getAllRecipients());
+            sent.incrementAndGet();
+        } catch (MessagingException e) {
+            failed.incrementAndGet();
+
+            // the connection state is unknown after a failure: do not reuse it
+            close(transport);
+            transport = null;
+            throw e;
+        } finally {
+            if (transport != null) {
+                idle.offerFirst(transport);
+            }
+        }
+    }
+
+    /**
+     * Closes all idle connections; meant to be invoked when no more messages are expected for a while.
+     */
+    public void closeIdle() {
+        for (Transport transport = idle.pollFirst(); transport != null; transport = idle.pollFirst()) {
+            close(transport);
+        }
+    }
+
+    /**
+     * @return number of connections opened so far
+     */
+    public long getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * @return number of messages successfully sent so far
+     */
+    public long getSent() {
+        return sent.get();
+    }
+
+    /**
+     * @return number of messages which could not be sent so far
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+}
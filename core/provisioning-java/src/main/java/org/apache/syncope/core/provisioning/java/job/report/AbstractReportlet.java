@@ -18,7 +18,11 @@
  */
 package org.apache.syncope.core.provisioning.java.job.report;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
+import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.Reportlet;
 import org.apache.syncope.common.lib.report.ReportletConf;
 import org.slf4j.Logger;
@@ -39,6 +43,21 @@ public abstract class AbstractReportlet implements Reportlet {
         this.conf = conf;
     }
 
+    /**
+     * Takes up to {@link AnyDAO#DEFAULT_PAGE_SIZE} keys from the given iterator, typically obtained via
+     * {@link org.apache.syncope.core.persistence.api.dao.AnySearchDAO#streamKeys}; also used by push tasks.
+     *
+     * @param keys keys to take from
+     * @return next chunk of keys, empty when none is left
+     */
+    public static List<String> nextChunk(final Iterator<String> keys) {
+        List<String> chunk = new ArrayList<>(AnyDAO.DEFAULT_PAGE_SIZE);
+        while (keys.hasNext() && chunk.size() < AnyDAO.DEFAULT_PAGE_SIZE) {
+            chunk.add(keys.next());
+        }
+        return chunk;
+    }
+
     protected abstract void doExtract(ReportletConf conf, ContentHandler handler, AtomicReference<String> status)
             throws SAXException;
 
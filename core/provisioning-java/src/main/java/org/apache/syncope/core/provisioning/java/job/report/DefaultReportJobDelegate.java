@@ -18,7 +18,6 @@
  */
 package org.apache.syncope.core.provisioning.java.job.report;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
@@ -39,6 +38,7 @@ import org.apache.syncope.common.lib.types.ReportExecStatus;
 import org.apache.syncope.core.provisioning.api.utils.ExceptionUtils2;
 import org.apache.syncope.core.persistence.api.dao.ReportDAO;
 import org.apache.syncope.core.persistence.api.dao.ReportExecDAO;
+import org.apache.syncope.core.persistence.api.dao.ReportExecResultDAO;
 import org.apache.syncope.core.persistence.api.dao.Reportlet;
 import org.apache.syncope.core.persistence.api.entity.EntityFactory;
 import org.apache.syncope.core.persistence.api.entity.Report;
@@ -82,6 +82,9 @@ public class DefaultReportJobDelegate implements ReportJobDelegate {
     @Autowired
     private ReportExecDAO reportExecDAO;
 
+    @Autowired
+    private ReportExecResultDAO reportExecResultDAO;
+
     @Autowired
     private EntityFactory entityFactory;
 
@@ -132,10 +135,12 @@ public class DefaultReportJobDelegate implements ReportJobDelegate {
         // 2. define a SAX handler for generating result as XML
         TransformerHandler handler;
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ZipOutputStream zos = new ZipOutputStream(baos);
-        zos.setLevel(Deflater.BEST_COMPRESSION);
+        ZipOutputStream zos;
         try {
+            // streaming to the configured storage, as the result is not supposed to fit in memory
+            zos = new ZipOutputStream(reportExecResultDAO.store(execution));
+            zos.setLevel(Deflater.BEST_COMPRESSION);
+
             handler = TRANSFORMER_FACTORY.newTransformerHandler();
             Transformer serializer = handler.getTransformer();
             serializer.setOutputProperty(OutputKeys.ENCODING, StandardCharsets.UTF_8.name());
@@ -144,7 +149,7 @@ public class DefaultReportJobDelegate implements ReportJobDelegate {
             // a single ZipEntry in the ZipOutputStream
             zos.putNextEntry(new ZipEntry(report.getName()));
 
-            // streaming SAX handler in a compressed byte array stream
+            // streaming SAX handler in a compressed stream
             handler.setResult(new StreamResult(zos));
         } catch (Exception e) {
             throw new JobExecutionException("While configuring for SAX generation", e, true);
@@ -209,15 +214,14 @@ public class DefaultReportJobDelegate implements ReportJobDelegate {
         } finally {
             status.set("Completed");
 
+            // closing the stream actually stores the result
             try {
                 zos.closeEntry();
                 zos.close();
-                baos.close();
             } catch (IOException e) {
                 LOG.error("While closing StreamResult's backend", e);
             }
 
-            execution.setExecResult(baos.toByteArray());
             execution.setMessage(reportExecutionMessage.toString());
             execution.setEnd(new Date());
             reportExecDAO.save(execution);
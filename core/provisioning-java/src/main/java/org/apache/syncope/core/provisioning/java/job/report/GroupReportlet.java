@@ -19,7 +19,7 @@
 package org.apache.syncope.core.provisioning.java.job.report;
 
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
@@ -35,7 +35,6 @@ import org.apache.syncope.common.lib.to.GroupTO;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
-import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
@@ -304,29 +303,22 @@ public class GroupReportlet extends AbstractReportlet {
         doExtractConf(handler);
 
         int total = count();
-        int pages = (total / AnyDAO.DEFAULT_PAGE_SIZE) + 1;
-
-        status.set("Processing " + total + " groups in " + pages + " pages");
-
-        for (int page = 1; page <= pages; page++) {
-            status.set("Processing " + total + " groups: page " + page + " of " + pages);
-
-            List<Group> groups;
-            if (StringUtils.isBlank(this.conf.getMatchingCond())) {
-                groups = groupDAO.findAll(page, AnyDAO.DEFAULT_PAGE_SIZE);
-            } else {
-                groups = searchDAO.search(
-                        SyncopeConstants.FULL_ADMIN_REALMS,
-                        SearchCondConverter.convert(this.conf.getMatchingCond()),
-                        page,
-                        AnyDAO.DEFAULT_PAGE_SIZE,
-                        Collections.<OrderByClause>emptyList(),
-                        AnyTypeKind.USER);
-            }
-
-            doExtract(handler, groups);
 
-            status.set("Processed " + total + " groups: page " + page + " of " + pages);
+        status.set("Processing " + total + " groups");
+
+        Iterator<String> keys = searchDAO.streamKeys(
+                SyncopeConstants.FULL_ADMIN_REALMS,
+                StringUtils.isBlank(this.conf.getMatchingCond())
+                ? groupDAO.getAllMatchingCond()
+                : SearchCondConverter.convert(this.conf.getMatchingCond()),
+                AnyTypeKind.GROUP,
+                AnyDAO.DEFAULT_PAGE_SIZE).iterator();
+        int processed = 0;
+        for (List<String> chunk = nextChunk(keys); !chunk.isEmpty(); chunk = nextChunk(keys)) {
+            doExtract(handler, groupDAO.findByKeys(chunk));
+            processed += chunk.size();
+
+            status.set("Processed " + processed + " of " + total + " groups");
         }
     }
 }
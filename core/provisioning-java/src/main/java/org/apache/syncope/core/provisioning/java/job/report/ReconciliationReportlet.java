@@ -22,6 +22,7 @@ import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -44,7 +45,6 @@ import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.ReportletConfClass;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.search.AnyTypeCond;
-import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
@@ -75,8 +75,6 @@ import org.xml.sax.helpers.AttributesImpl;
 @ReportletConfClass(ReconciliationReportletConf.class)
 public class ReconciliationReportlet extends AbstractReportlet {
 
-    private static final int PAGE_SIZE = 10;
-
     @Autowired
     private UserDAO userDAO;
 
@@ -377,123 +375,82 @@ public class ReconciliationReportlet extends AbstractReportlet {
 
         AttributesImpl atts = new AttributesImpl();
 
-        if (StringUtils.isBlank(this.conf.getUserMatchingCond())) {
-            int total = userDAO.count();
-            int pages = (total / AnyDAO.DEFAULT_PAGE_SIZE) + 1;
-
-            status.set("Processing " + total + " users in " + pages + " pages");
-
-            atts.addAttribute("", "", "total", ReportXMLConst.XSD_INT, String.valueOf(total));
-            handler.startElement("", "", getAnyElementName(AnyTypeKind.USER) + "s", atts);
-
-            for (int page = 1; page <= pages; page++) {
-                status.set("Processing " + total + " users: page " + page + " of " + pages);
-
-                doExtract(handler, userDAO.findAll(page, AnyDAO.DEFAULT_PAGE_SIZE));
-            }
-        } else {
-            SearchCond cond = SearchCondConverter.convert(this.conf.getUserMatchingCond());
-
-            int total = searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.USER);
-            int pages = (total / AnyDAO.DEFAULT_PAGE_SIZE) + 1;
-
-            status.set("Processing " + total + " users in " + pages + " pages");
+        SearchCond cond = StringUtils.isBlank(this.conf.getUserMatchingCond())
+                ? userDAO.getAllMatchingCond()
+                : SearchCondConverter.convert(this.conf.getUserMatchingCond());
+        int total = StringUtils.isBlank(this.conf.getUserMatchingCond())
+                ? userDAO.count()
+                : searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.USER);
 
-            atts.addAttribute("", "", "total", ReportXMLConst.XSD_INT, String.valueOf(total));
-            handler.startElement("", "", getAnyElementName(AnyTypeKind.USER) + "s", atts);
+        status.set("Processing " + total + " users");
 
-            for (int page = 1; page <= pages; page++) {
-                status.set("Processing " + total + " users: page " + page + " of " + pages);
-
-                doExtract(handler, searchDAO.search(
-                        SyncopeConstants.FULL_ADMIN_REALMS,
-                        cond,
-                        page,
-                        PAGE_SIZE,
-                        Collections.<OrderByClause>emptyList(),
-                        AnyTypeKind.USER));
-            }
-        }
+        atts.addAttribute("", "", "total", ReportXMLConst.XSD_INT, String.valueOf(total));
+        handler.startElement("", "", getAnyElementName(AnyTypeKind.USER) + "s", atts);
+        doExtract(handler, status, userDAO, cond, AnyTypeKind.USER, total, "users");
         handler.endElement("", "", getAnyElementName(AnyTypeKind.USER) + "s");
 
         atts.clear();
-        if (StringUtils.isBlank(this.conf.getGroupMatchingCond())) {
-            int total = groupDAO.count();
-            int pages = (total / AnyDAO.DEFAULT_PAGE_SIZE) + 1;
-
-            status.set("Processing " + total + " groups in " + pages + " pages");
-
-            atts.addAttribute("", "", "total", ReportXMLConst.XSD_INT, String.valueOf(total));
-            handler.startElement("", "", getAnyElementName(AnyTypeKind.GROUP) + "s", atts);
-
-            for (int page = 1; page <= pages; page++) {
-                status.set("Processing " + total + " groups: page " + page + " of " + pages);
-
-                doExtract(handler, groupDAO.findAll(page, AnyDAO.DEFAULT_PAGE_SIZE));
-            }
-        } else {
-            SearchCond cond = SearchCondConverter.convert(this.conf.getUserMatchingCond());
-
-            int total = searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.GROUP);
-            int pages = (total / AnyDAO.DEFAULT_PAGE_SIZE) + 1;
-
-            status.set("Processing " + total + " groups in " + pages + " pages");
-
-            atts.addAttribute("", "", "total", ReportXMLConst.XSD_INT, String.valueOf(total));
-            handler.startElement("", "", getAnyElementName(AnyTypeKind.GROUP) + "s", atts);
-
-            for (int page = 1; page <= pages; page++) {
-                status.set("Processing " + total + " groups: page " + page + " of " + pages);
-
-                doExtract(handler, searchDAO.search(
-                        SyncopeConstants.FULL_ADMIN_REALMS,
-                        cond,
-                        page,
-                        PAGE_SIZE,
-                        Collections.<OrderByClause>emptyList(),
-                        AnyTypeKind.GROUP));
-            }
-        }
+        cond = StringUtils.isBlank(this.conf.getGroupMatchingCond())
+                ? groupDAO.getAllMatchingCond()
+                : SearchCondConverter.convert(this.conf.getGroupMatchingCond());
+        total = StringUtils.isBlank(this.conf.getGroupMatchingCond())
+                ? groupDAO.count()
+                : searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.GROUP);
+
+        status.set("Processing " + total + " groups");
+
+        atts.addAttribute("", "", "total", ReportXMLConst.XSD_INT, String.valueOf(total));
+        handler.startElement("", "", getAnyElementName(AnyTypeKind.GROUP) + "s", atts);
+        doExtract(handler, status, groupDAO, cond, AnyTypeKind.GROUP, total, "groups");
         handler.endElement("", "", getAnyElementName(AnyTypeKind.GROUP) + "s");
 
+        AnyDAO<?> anyObjectDAO = anyUtilsFactory.getInstance(AnyTypeKind.ANY_OBJECT).dao();
         for (AnyType anyType : anyTypeDAO.findAll()) {
             if (!anyType.equals(anyTypeDAO.findUser()) && !anyType.equals(anyTypeDAO.findGroup())) {
                 AnyTypeCond anyTypeCond = new AnyTypeCond();
                 anyTypeCond.setAnyTypeKey(anyType.getKey());
-                SearchCond cond = StringUtils.isBlank(this.conf.getAnyObjectMatchingCond())
+                cond = StringUtils.isBlank(this.conf.getAnyObjectMatchingCond())
                         ? SearchCond.getLeafCond(anyTypeCond)
                         : SearchCond.getAndCond(
                                 SearchCond.getLeafCond(anyTypeCond),
                                 SearchCondConverter.convert(this.conf.getAnyObjectMatchingCond()));
 
-                int total = searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.ANY_OBJECT);
-                int pages = (total / AnyDAO.DEFAULT_PAGE_SIZE) + 1;
+                total = searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.ANY_OBJECT);
 
-                status.set("Processing " + total + " any objects " + anyType.getKey() + " in " + pages + " pages");
+                status.set("Processing " + total + " any objects " + anyType.getKey());
 
                 atts.clear();
                 atts.addAttribute("", "", "type", ReportXMLConst.XSD_STRING, anyType.getKey());
                 atts.addAttribute("", "", "total", ReportXMLConst.XSD_INT, String.valueOf(total));
                 handler.startElement("", "", getAnyElementName(AnyTypeKind.ANY_OBJECT) + "s", atts);
-
-                for (int page = 1; page <= pages; page++) {
-                    status.set("Processing " + total + " any objects " + anyType.getKey()
-                            + ": page " + page + " of " + pages);
-
-                    doExtract(handler, searchDAO.search(
-                            SyncopeConstants.FULL_ADMIN_REALMS,
-                            cond,
-                            page,
-                            PAGE_SIZE,
-                            Collections.<OrderByClause>emptyList(),
-                            AnyTypeKind.ANY_OBJECT));
-                }
-
+                doExtract(handler, status, anyObjectDAO, cond, AnyTypeKind.ANY_OBJECT, total,
+                        "any objects " + anyType.getKey());
                 handler.endElement("", "", getAnyElementName(AnyTypeKind.ANY_OBJECT) + "s");
             }
         }
     }
 
+    private void doExtract(
+            final ContentHandler handler,
+            final AtomicReference<String> status,
+            final AnyDAO<?> anyDAO,
+            final SearchCond cond,
+            final AnyTypeKind kind,
+            final int total,
+            final String description)
+            throws SAXException {
+
+        Iterator<String> keys = searchDAO.streamKeys(
+                SyncopeConstants.FULL_ADMIN_REALMS, cond, kind, AnyDAO.DEFAULT_PAGE_SIZE).iterator();
+        int processed = 0;
+        for (List<String> chunk = nextChunk(keys); !chunk.isEmpty(); chunk = nextChunk(keys)) {
+            doExtract(handler, anyDAO.findByKeys(chunk));
+            processed += chunk.size();
+
+            status.set("Processed " + processed + " of " + total + " " + description);
+        }
+    }
+
     private static class Missing {
 
         private final String resource;
@@ -19,7 +19,7 @@
 package org.apache.syncope.core.provisioning.java.job.report;
 
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
@@ -37,7 +37,6 @@ import org.apache.syncope.common.lib.to.UserTO;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
-import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
 import org.apache.syncope.core.provisioning.api.utils.FormatUtils;
@@ -366,27 +365,22 @@ public class UserReportlet extends AbstractReportlet {
         doExtractConf(handler);
 
         int total = count();
-        int pages = (total / AnyDAO.DEFAULT_PAGE_SIZE) + 1;
-
-        status.set("Processing " + total + " users in " + pages + " pages");
-
-        for (int page = 1; page <= pages; page++) {
-            status.set("Processing " + total + " users: page " + page + " of " + pages);
-
-            List<User> users;
-            if (StringUtils.isBlank(this.conf.getMatchingCond())) {
-                users = userDAO.findAll(page, AnyDAO.DEFAULT_PAGE_SIZE);
-            } else {
-                users = searchDAO.search(
-                        SyncopeConstants.FULL_ADMIN_REALMS,
-                        SearchCondConverter.convert(this.conf.getMatchingCond()),
-                        page,
-                        AnyDAO.DEFAULT_PAGE_SIZE,
-                        Collections.<OrderByClause>emptyList(),
-                        AnyTypeKind.USER);
-            }
 
-            doExtract(handler, users);
+        status.set("Processing " + total + " users");
+
+        Iterator<String> keys = searchDAO.streamKeys(
+                SyncopeConstants.FULL_ADMIN_REALMS,
+                StringUtils.isBlank(this.conf.getMatchingCond())
+                ? userDAO.getAllMatchingCond()
+                : SearchCondConverter.convert(this.conf.getMatchingCond()),
+                AnyTypeKind.USER,
+                AnyDAO.DEFAULT_PAGE_SIZE).iterator();
+        int processed = 0;
+        for (List<String> chunk = nextChunk(keys); !chunk.isEmpty(); chunk = nextChunk(keys)) {
+            doExtract(handler, userDAO.findByKeys(chunk));
+            processed += chunk.size();
+
+            status.set("Processed " + processed + " of " + total + " users");
         }
     }
 }
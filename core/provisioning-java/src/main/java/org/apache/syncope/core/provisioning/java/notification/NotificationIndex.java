@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.notification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.AnyAbout;
+import org.apache.syncope.core.persistence.api.entity.Notification;
+import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Active notifications of a given domain, indexed by the events they are about; conditions are parsed once, when
+ * the index is built.
+ */
+final class NotificationIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationIndex.class);
+
+    static final class Entry {
+
+        private final String key;
+
+        private final Map<String, SearchCond> abouts;
+
+        private Entry(final String key, final Map<String, SearchCond> abouts) {
+            this.key = key;
+            this.abouts = abouts;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        /**
+         * @param anyType any type key
+         * @return the condition that entities of the given type must match, if any
+         */
+        Optional<SearchCond> getAbout(final String anyType) {
+            return Optional.ofNullable(abouts.get(anyType));
+        }
+    }
+
+    static NotificationIndex build(final List<Notification> notifications) {
+        Map<String, List<Entry>> byEvent = new HashMap<>();
+
+        notifications.stream().filter(Notification::isActive).forEach(notification -> {
+            Map<String, SearchCond> abouts = new HashMap<>();
+            try {
+                for (AnyAbout about : notification.getAbouts()) {
+                    abouts.put(about.getAnyType().getKey(), SearchCondConverter.convert(about.get()));
+                }
+            } catch (Exception e) {
+                LOG.error("Invalid condition found for notification {}, ignoring", notification.getKey(), e);
+                return;
+            }
+
+            Entry entry = new Entry(notification.getKey(), abouts);
+            notification.getEvents().forEach(event -> byEvent.computeIfAbsent(
+                    event, k -> new ArrayList<>()).add(entry));
+        });
+
+        return new NotificationIndex(byEvent);
+    }
+
+    private final Map<String, List<Entry>> byEvent;
+
+    private NotificationIndex(final Map<String, List<Entry>> byEvent) {
+        this.byEvent = byEvent;
+    }
+
+    /**
+     * @param event event, as built by
+     * {@link org.apache.syncope.common.lib.types.AuditLoggerName#buildEvent}
+     * @return active notifications about the given event
+     */
+    List<Entry> get(final String event) {
+        return byEvent.getOrDefault(event, Collections.emptyList());
+    }
+
+    /**
+     * @param event event, as built by
+     * {@link org.apache.syncope.common.lib.types.AuditLoggerName#buildEvent}
+     * @return whether any active notification is about the given event
+     */
+    boolean contains(final String event) {
+        return byEvent.containsKey(event);
+    }
+}
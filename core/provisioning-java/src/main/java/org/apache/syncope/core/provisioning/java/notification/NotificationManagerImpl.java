@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.apache.commons.jexl3.MapContext;
 import org.apache.commons.lang3.StringUtils;
@@ -47,6 +48,7 @@ import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.TaskDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.EntityFactory;
 import org.apache.syncope.core.persistence.api.entity.Notification;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
@@ -81,6 +83,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import org.apache.syncope.core.provisioning.api.notification.RecipientsProvider;
 import org.apache.syncope.core.spring.ImplementationManager;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 
 @Component
 @Transactional(rollbackFor = { Throwable.class })
@@ -157,6 +160,26 @@ public class NotificationManagerImpl implements NotificationManager {
     @Autowired
     private IntAttrNameParser intAttrNameParser;
 
+    /**
+     * Per-domain first value of each configuration parameter, along with the configuration version it was read at.
+     */
+    private final Map<String, Pair<Long, Map<String, String>>> syncopeConfs = new ConcurrentHashMap<>();
+
+    /**
+     * Per-domain index of active notifications, along with the notifications version it was built at.
+     */
+    private final Map<String, Pair<Long, NotificationIndex>> indexes = new ConcurrentHashMap<>();
+
+    private NotificationIndex getIndex() {
+        long version = notificationDAO.getVersion();
+        Pair<Long, NotificationIndex> index = indexes.get(AuthContextUtils.getDomain());
+        if (index == null || index.getLeft() != version) {
+            index = Pair.of(version, NotificationIndex.build(notificationDAO.findAll()));
+            indexes.put(AuthContextUtils.getDomain(), index);
+        }
+        return index.getRight();
+    }
+
     @Transactional(readOnly = true)
     @Override
     public long getMaxRetries() {
@@ -260,12 +283,9 @@ public class NotificationManagerImpl implements NotificationManager {
             final String subcategory,
             final String event) {
 
-        final String successEvent = AuditLoggerName.buildEvent(type, category, subcategory, event, Result.SUCCESS);
-        final String failureEvent = AuditLoggerName.buildEvent(type, category, subcategory, event, Result.FAILURE);
-        return notificationDAO.findAll().stream().
-                anyMatch(notification -> notification.isActive()
-                && (notification.getEvents().contains(successEvent)
-                || notification.getEvents().contains(failureEvent)));
+        NotificationIndex index = getIndex();
+        return index.contains(AuditLoggerName.buildEvent(type, category, subcategory, event, Result.SUCCESS))
+                || index.contains(AuditLoggerName.buildEvent(type, category, subcategory, event, Result.FAILURE));
     }
 
     @Override
@@ -327,49 +347,48 @@ public class NotificationManagerImpl implements NotificationManager {
         AnyType anyType = any == null ? null : any.getType();
         LOG.debug("Search notification for [{}]{}", anyType, any);
 
-        List<NotificationTask> notifications = new ArrayList<>();
-        for (Notification notification : notificationDAO.findAll()) {
-            if (LOG.isDebugEnabled()) {
-                notification.getAbouts().forEach(about -> {
-                    LOG.debug("Notification about {} defined: {}", about.getAnyType(), about.get());
-                });
-            }
+        String currentEvent = AuditLoggerName.buildEvent(type, category, subcategory, event, condition);
+        List<NotificationIndex.Entry> entries = getIndex().get(currentEvent);
+        if (entries.isEmpty()) {
+            LOG.debug("No active notifications found about {}", currentEvent);
+            return Collections.emptyList();
+        }
 
-            if (notification.isActive()) {
-                String currentEvent = AuditLoggerName.buildEvent(type, category, subcategory, event, condition);
-                if (!notification.getEvents().contains(currentEvent)) {
-                    LOG.debug("No events found about {}", any);
-                } else if (anyType == null || any == null
-                        || !notification.getAbout(anyType).isPresent()
-                        || searchDAO.matches(
-                                any, SearchCondConverter.convert(notification.getAbout(anyType).get().get()))) {
-
-                    LOG.debug("Creating notification task for event {} about {}", currentEvent, any);
-
-                    final Map<String, Object> model = new HashMap<>();
-                    model.put("type", type);
-                    model.put("category", category);
-                    model.put("subcategory", subcategory);
-                    model.put("event", event);
-                    model.put("condition", condition);
-                    model.put("before", before);
-                    model.put("output", output);
-                    model.put("input", input);
-
-                    if (any instanceof User) {
-                        model.put("user", userDataBinder.getUserTO((User) any, true));
-                    } else if (any instanceof Group) {
-                        model.put("group", groupDataBinder.getGroupTO((Group) any, true));
-                    } else if (any instanceof AnyObject) {
-                        model.put("group", anyObjectDataBinder.getAnyObjectTO((AnyObject) any, true));
-                    }
+        List<NotificationTask> notifications = new ArrayList<>();
+        for (NotificationIndex.Entry entry : entries) {
+            Optional<SearchCond> about = anyType == null ? Optional.empty() : entry.getAbout(anyType.getKey());
+            LOG.debug("Notification {} about {} defined: {}", entry.getKey(), anyType, about);
+
+            if (!about.isPresent() || searchDAO.matchesInMemory(any, about.get())) {
+                Notification notification = notificationDAO.find(entry.getKey());
+                if (notification == null) {
+                    LOG.debug("Notification {} was removed meanwhile, ignoring", entry.getKey());
+                    continue;
+                }
 
-                    NotificationTask notificationTask = getNotificationTask(notification, any, model);
-                    notificationTask = taskDAO.save(notificationTask);
-                    notifications.add(notificationTask);
+                LOG.debug("Creating notification task for event {} about {}", currentEvent, any);
+
+                final Map<String, Object> model = new HashMap<>();
+                model.put("type", type);
+                model.put("category", category);
+                model.put("subcategory", subcategory);
+                model.put("event", event);
+                model.put("condition", condition);
+                model.put("before", before);
+                model.put("output", output);
+                model.put("input", input);
+
+                if (any instanceof User) {
+                    model.put("user", userDataBinder.getUserTO((User) any, true));
+                } else if (any instanceof Group) {
+                    model.put("group", groupDataBinder.getGroupTO((Group) any, true));
+                } else if (any instanceof AnyObject) {
+                    model.put("group", anyObjectDataBinder.getAnyObjectTO((AnyObject) any, true));
                 }
-            } else {
-                LOG.debug("Notification {} is not active, task will not be created", notification.getKey());
+
+                NotificationTask notificationTask = getNotificationTask(notification, any, model);
+                notificationTask = taskDAO.save(notificationTask);
+                notifications.add(notificationTask);
             }
         }
         return notifications;
@@ -442,6 +461,8 @@ public class NotificationManagerImpl implements NotificationManager {
     @Override
     public TaskExec storeExec(final TaskExec execution) {
         NotificationTask task = taskDAO.find(execution.getTask().getKey());
+        // the given execution might refer to a detached instance
+        execution.setTask(task);
         task.add(execution);
         task.setExecuted(true);
         taskDAO.save(task);
@@ -474,7 +495,14 @@ public class NotificationManagerImpl implements NotificationManager {
     }
 
     protected Map<String, String> findAllSyncopeConfs() {
-        return confDAO.get().getPlainAttrs().stream().collect(
-                Collectors.toMap(attr -> attr.getSchema().getKey(), attr -> attr.getValuesAsStrings().get(0)));
+        long version = confDAO.getVersion();
+        Pair<Long, Map<String, String>> confs = syncopeConfs.get(AuthContextUtils.getDomain());
+        if (confs == null || confs.getLeft() != version) {
+            confs = Pair.of(version, Collections.unmodifiableMap(confDAO.getValuesAsStrings().entrySet().stream().
+                    filter(entry -> !entry.getValue().isEmpty()).
+                    collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().get(0)))));
+            syncopeConfs.put(AuthContextUtils.getDomain(), confs);
+        }
+        return confs.getRight();
     }
 }
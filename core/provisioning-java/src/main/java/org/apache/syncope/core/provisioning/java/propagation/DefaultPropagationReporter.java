@@ -39,7 +39,7 @@ public class DefaultPropagationReporter implements PropagationReporter {
 
     protected final List<PropagationStatus> statuses = new ArrayList<>();
 
-    protected boolean add(final PropagationStatus status) {
+    protected synchronized boolean add(final PropagationStatus status) {
         return statuses.stream().anyMatch(item -> item.getResource().equals(status.getResource()))
                 ? false
                 : statuses.add(status);
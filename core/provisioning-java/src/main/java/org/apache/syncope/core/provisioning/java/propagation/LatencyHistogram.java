@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies, in milliseconds, over fixed buckets.
+ */
+public class LatencyHistogram {
+
+    /**
+     * Upper bounds (inclusive) of buckets; an additional bucket counts all greater values.
+     */
+    private static final long[] BOUNDS = { 10, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000 };
+
+    private final AtomicLongArray counts = new AtomicLongArray(BOUNDS.length + 1);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final LongAdder totalMillis = new LongAdder();
+
+    /**
+     * @param millis latency
+     * @return number of latencies recorded so far, including the given one
+     */
+    public long record(final long millis) {
+        int bucket = Arrays.binarySearch(BOUNDS, millis);
+        counts.incrementAndGet(bucket >= 0 ? bucket : -bucket - 1);
+        totalMillis.add(millis);
+        return count.incrementAndGet();
+    }
+
+    public long[] getBounds() {
+        return BOUNDS.clone();
+    }
+
+    /**
+     * @return count of latencies for each bucket, the last one being for latencies greater than all bounds
+     */
+    public long[] getCounts() {
+        long[] result = new long[counts.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = counts.get(i);
+        }
+        return result;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotalMillis() {
+        return totalMillis.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{bounds=" + Arrays.toString(BOUNDS)
+                + ", counts=" + Arrays.toString(getCounts())
+                + ", totalMillis=" + getTotalMillis() + '}';
+    }
+}
@@ -18,21 +18,19 @@
  */
 package org.apache.syncope.core.provisioning.java.propagation;
 
-import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.CompletionService;
-import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.Future;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeoutException;
 import javax.annotation.Resource;
 import org.apache.syncope.common.lib.to.PropagationTaskTO;
 import org.apache.syncope.common.lib.types.ExecStatus;
@@ -46,25 +44,36 @@ import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
- * Sorts the tasks to be executed according to related
- * {@link org.apache.syncope.core.persistence.api.entity.resource.ExternalResource}'s priority, then execute.
+ * Groups the tasks to be executed according to related
+ * {@link org.apache.syncope.core.persistence.api.entity.resource.ExternalResource}'s priority, then execute, one
+ * priority level after the other: tasks within the same level are executed concurrently, and each level is started
+ * only once all tasks of the previous level were successfully executed.
  * Tasks related to resources with NULL priority are executed after other tasks, concurrently.
  * Failure during execution of a task related to resource with non-NULL priority are treated as fatal and will interrupt
  * the whole process, resulting in a global failure.
  */
 public class PriorityPropagationTaskExecutor extends AbstractPropagationTaskExecutor {
 
+    /**
+     * Latencies of each resource are logged every time such number of executions is reached.
+     */
+    protected static final long LATENCIES_LOG_INTERVAL = 1000;
+
     @Resource(name = "propagationTaskExecutorAsyncExecutor")
     protected ThreadPoolTaskExecutor executor;
 
     /**
-     * Creates new instances of {@link PropagationTaskCallable} for usage with
-     * {@link java.util.concurrent.CompletionService}.
+     * Execution latencies, for each resource.
+     */
+    protected final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * Creates new instances of {@link PropagationTaskCallable} for execution on the calling thread or via
+     * {@link #executor}.
      *
      * @param taskTO to be executed
      * @param reporter to report propagation execution status
-     * @return new {@link PropagationTaskCallable} instance for usage with
-     * {@link java.util.concurrent.CompletionService}
+     * @return new {@link PropagationTaskCallable} instance
      */
     protected PropagationTaskCallable newPropagationTaskCallable(
             final PropagationTaskTO taskTO, final PropagationReporter reporter) {
@@ -77,23 +86,65 @@ public class PriorityPropagationTaskExecutor extends AbstractPropagationTaskExec
         return callable;
     }
 
+    /**
+     * @return execution latencies, for each resource
+     */
+    public Map<String, LatencyHistogram> getLatencies() {
+        return Collections.unmodifiableMap(latencies);
+    }
+
+    protected TaskExec call(final PropagationTaskTO task, final PropagationTaskCallable callable) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return callable.call();
+        } finally {
+            LatencyHistogram histogram = latencies.computeIfAbsent(task.getResource(), k -> new LatencyHistogram());
+            long count = histogram.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            if (count % LATENCIES_LOG_INTERVAL == 0) {
+                LOG.info("Propagation latencies for {}: {}", task.getResource(), histogram);
+            } else {
+                LOG.debug("Propagation latencies for {}: {}", task.getResource(), histogram);
+            }
+        }
+    }
+
+    /**
+     * Submits the given task for execution; the callable is created on the calling thread, so that the security
+     * context can be propagated.
+     *
+     * @param task to be executed
+     * @param reporter to report propagation execution status
+     * @return future execution
+     */
+    protected CompletableFuture<TaskExec> submit(final PropagationTaskTO task, final PropagationReporter reporter) {
+        PropagationTaskCallable callable = newPropagationTaskCallable(task, reporter);
+        return executor.submitListenable(() -> call(task, callable)).completable();
+    }
+
+    protected void check(final PropagationTaskTO task, final TaskExec execution) {
+        if (execution == null || ExecStatus.valueOf(execution.getStatus()) != ExecStatus.SUCCESS) {
+            throw new PropagationException(task.getResource(), execution == null ? null : execution.getMessage());
+        }
+    }
+
     @Override
     protected void doExecute(
             final Collection<PropagationTaskTO> tasks,
             final PropagationReporter reporter,
             final boolean nullPriorityAsync) {
 
-        Map<PropagationTaskTO, ExternalResource> taskToResource = new HashMap<>(tasks.size());
-        List<PropagationTaskTO> prioritizedTasks = new ArrayList<>();
+        SortedMap<Integer, List<PropagationTaskTO>> prioritizedTasks = new TreeMap<>();
+        List<PropagationTaskTO> concurrentTasks = new ArrayList<>();
 
         int[] connRequestTimeout = { 60 };
 
         tasks.forEach(task -> {
             ExternalResource resource = resourceDAO.find(task.getResource());
-            taskToResource.put(task, resource);
 
-            if (resource.getPropagationPriority() != null) {
-                prioritizedTasks.add(task);
+            if (resource.getPropagationPriority() == null) {
+                concurrentTasks.add(task);
+            } else {
+                prioritizedTasks.computeIfAbsent(resource.getPropagationPriority(), k -> new ArrayList<>()).add(task);
 
                 if (resource.getConnector().getConnRequestTimeout() != null
                         && connRequestTimeout[0] < resource.getConnector().getConnRequestTimeout()) {
@@ -103,37 +154,37 @@ public class PriorityPropagationTaskExecutor extends AbstractPropagationTaskExec
             }
         });
 
-        Collections.sort(prioritizedTasks, new PriorityComparator(taskToResource));
-        LOG.debug("Propagation tasks sorted by priority, for serial execution: {}", prioritizedTasks);
-
-        Collection<PropagationTaskTO> concurrentTasks = tasks.stream().
-                filter(task -> !prioritizedTasks.contains(task)).collect(Collectors.toSet());
+        LOG.debug("Propagation tasks grouped by priority, for serial execution: {}", prioritizedTasks);
         LOG.debug("Propagation tasks for concurrent execution: {}", concurrentTasks);
 
-        // first process priority resources sequentially and fail as soon as any propagation failure is reported
-        prioritizedTasks.forEach(task -> {
-            TaskExec execution = null;
-            ExecStatus execStatus;
-            try {
-                execution = newPropagationTaskCallable(task, reporter).call();
-                execStatus = ExecStatus.valueOf(execution.getStatus());
-            } catch (Exception e) {
-                LOG.error("Unexpected exception", e);
-                execStatus = ExecStatus.FAILURE;
-            }
-            if (execStatus != ExecStatus.SUCCESS) {
-                throw new PropagationException(task.getResource(), execution == null ? null : execution.getMessage());
+        // first process priority resources, level by level, and fail as soon as any propagation failure is reported
+        prioritizedTasks.values().forEach(level -> {
+            if (level.size() == 1) {
+                // single task: execute on the calling thread, as no concurrency is possible
+                TaskExec execution = null;
+                try {
+                    execution = call(level.get(0), newPropagationTaskCallable(level.get(0), reporter));
+                } catch (Exception e) {
+                    LOG.error("Unexpected exception", e);
+                }
+                check(level.get(0), execution);
+            } else {
+                Map<PropagationTaskTO, CompletableFuture<TaskExec>> futures = new LinkedHashMap<>(level.size());
+                level.forEach(task -> futures.put(task, submit(task, reporter).exceptionally(e -> {
+                    LOG.error("Unexpected exception", e);
+                    return null;
+                })));
+
+                CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[futures.size()])).join();
+                futures.forEach((task, future) -> check(task, future.join()));
             }
         });
 
         // then process non-priority resources concurrently...
-        CompletionService<TaskExec> completionService = new ExecutorCompletionService<>(executor);
-        Map<PropagationTaskTO, Future<TaskExec>> nullPriority = new HashMap<>(concurrentTasks.size());
+        Map<PropagationTaskTO, CompletableFuture<TaskExec>> nullPriority = new LinkedHashMap<>(concurrentTasks.size());
         concurrentTasks.forEach(task -> {
             try {
-                nullPriority.put(
-                        task,
-                        completionService.submit(newPropagationTaskCallable(task, reporter)));
+                nullPriority.put(task, submit(task, reporter));
             } catch (Exception e) {
                 LOG.error("Unexpected exception", e);
             }
@@ -145,54 +196,20 @@ public class PriorityPropagationTaskExecutor extends AbstractPropagationTaskExec
                     reporter.onSuccessOrNonPriorityResourceFailures(task, ExecStatus.CREATED, null, null, null);
                 });
             } else {
-                final Set<Future<TaskExec>> nullPriorityFutures = new HashSet<>(nullPriority.values());
                 try {
-                    executor.submit(() -> {
-                        while (!nullPriorityFutures.isEmpty()) {
-                            try {
-                                nullPriorityFutures.remove(completionService.take());
-                            } catch (Exception e) {
-                                LOG.error("Unexpected exception", e);
-                            }
-                        }
-                    }).get(connRequestTimeout[0], TimeUnit.SECONDS);
-                } catch (Exception e) {
+                    CompletableFuture.allOf(
+                            nullPriority.values().toArray(new CompletableFuture<?>[nullPriority.size()])).
+                            get(connRequestTimeout[0], TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    LOG.error("Interrupted while waiting for propagation tasks to complete", e);
+                } catch (ExecutionException | TimeoutException e) {
                     LOG.error("Unexpected exception", e);
                 } finally {
-                    nullPriorityFutures.forEach(future -> {
-                        future.cancel(true);
-                    });
-                    nullPriorityFutures.clear();
+                    nullPriority.values().forEach(future -> future.cancel(true));
                     nullPriority.clear();
                 }
             }
         }
     }
-
-    /**
-     * Compare propagation tasks according to related ExternalResource's priority.
-     */
-    protected static class PriorityComparator implements Comparator<PropagationTaskTO>, Serializable {
-
-        private static final long serialVersionUID = -1969355670784448878L;
-
-        private final Map<PropagationTaskTO, ExternalResource> taskToResource;
-
-        public PriorityComparator(final Map<PropagationTaskTO, ExternalResource> taskToResource) {
-            this.taskToResource = taskToResource;
-        }
-
-        @Override
-        public int compare(final PropagationTaskTO task1, final PropagationTaskTO task2) {
-            int prop1 = taskToResource.get(task1).getPropagationPriority();
-            int prop2 = taskToResource.get(task2).getPropagationPriority();
-
-            return prop1 > prop2
-                    ? 1
-                    : prop1 == prop2
-                            ? 0
-                            : -1;
-        }
-    }
-
 }
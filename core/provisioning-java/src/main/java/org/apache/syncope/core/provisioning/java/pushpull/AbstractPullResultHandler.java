@@ -95,7 +95,11 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
 
     protected SyncopePullExecutor executor;
 
-    protected Result latestResult;
+    /**
+     * Result of the latest {@link SyncDelta} handled by the current thread: when pulling in parallel, the same handler
+     * instance is shared among several workers.
+     */
+    protected final ThreadLocal<Result> latestResult = new ThreadLocal<>();
 
     protected abstract String getName(AnyTO anyTO);
 
@@ -134,11 +138,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
                 return true;
             }
 
-            boolean shouldContinue;
-            synchronized (this) {
-                shouldContinue = latestResult == Result.SUCCESS;
-                this.latestResult = null;
-            }
+            boolean shouldContinue = latestResult.get() == Result.SUCCESS;
             if (shouldContinue) {
                 executor.setLatestSyncToken(delta.getObjectClass(), delta.getToken());
             }
@@ -169,6 +169,9 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
             LOG.error("Pull failed", e);
 
             return false;
+        } finally {
+            // workers are pooled threads: never leave the result of this delta behind
+            latestResult.remove();
         }
     }
 
@@ -895,9 +898,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
             final SyncDelta delta,
             final Object... furtherInput) {
 
-        synchronized (this) {
-            this.latestResult = result;
-        }
+        latestResult.set(result);
 
         AnyUtils anyUtils = getAnyUtils();
 
@@ -19,9 +19,9 @@
 package org.apache.syncope.core.provisioning.java.pushpull;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.patch.AnyPatch;
 import org.apache.syncope.common.lib.patch.AttrPatch;
@@ -45,7 +45,7 @@ public class DefaultGroupPullResultHandler extends AbstractPullResultHandler imp
     @Autowired
     private GroupProvisioningManager groupProvisioningManager;
 
-    private final Map<String, String> groupOwnerMap = new HashMap<>();
+    private final Map<String, String> groupOwnerMap = new ConcurrentHashMap<>();
 
     @Override
     public Map<String, String> getGroupOwnerMap() {
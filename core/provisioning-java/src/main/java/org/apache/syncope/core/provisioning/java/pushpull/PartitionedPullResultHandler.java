@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.syncope.core.provisioning.api.pushpull.SyncopePullExecutor;
+import org.apache.syncope.core.provisioning.api.pushpull.SyncopePullResultHandler;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.SyncDelta;
+import org.identityconnectors.framework.common.objects.SyncResultsHandler;
+import org.identityconnectors.framework.common.objects.SyncToken;
+import org.quartz.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Dispatches the {@link SyncDelta} instances received from the connector to a fixed number of workers, each invoking
+ * the given {@link SyncopePullResultHandler}.
+ * Deltas are partitioned by {@link org.identityconnectors.framework.common.objects.Uid}, hence all deltas about the
+ * same remote object are handled by the same worker, in the order they were received; each worker is fed via a
+ * bounded queue, so that the connector is blocked when workers cannot keep up.
+ * Sync tokens are reported to the actual {@link SyncopePullExecutor} only when all the previous deltas were
+ * successfully handled.
+ */
+public class PartitionedPullResultHandler implements SyncResultsHandler, SyncopePullExecutor {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(PartitionedPullResultHandler.class);
+
+    protected static final Item POISON = new Item(-1, null);
+
+    protected static class Item {
+
+        protected final long seq;
+
+        protected final SyncDelta delta;
+
+        protected Item(final long seq, final SyncDelta delta) {
+            this.seq = seq;
+            this.delta = delta;
+        }
+    }
+
+    protected final SyncopePullResultHandler handler;
+
+    protected final SyncopePullExecutor executor;
+
+    protected final boolean incremental;
+
+    protected final List<BlockingQueue<Item>> partitions;
+
+    protected final ExecutorService workers;
+
+    protected final Authentication authentication;
+
+    /**
+     * Set by the handler on the worker thread when the latest delta can be considered as committed.
+     */
+    protected final ThreadLocal<Boolean> committed = new ThreadLocal<>();
+
+    /**
+     * Deltas successfully handled but not yet reported because some previous delta is still pending.
+     */
+    protected final Map<Long, SyncDelta> pending = new TreeMap<>();
+
+    protected final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    protected long seq;
+
+    protected long nextToReport;
+
+    protected long firstFailed = Long.MAX_VALUE;
+
+    protected volatile boolean stop;
+
+    public PartitionedPullResultHandler(
+            final SyncopePullResultHandler handler,
+            final SyncopePullExecutor executor,
+            final boolean incremental,
+            final String name,
+            final int threads,
+            final int queueCapacity) {
+
+        this.handler = handler;
+        this.executor = executor;
+        this.incremental = incremental;
+        this.authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        handler.setPullExecutor(this);
+
+        this.partitions = new ArrayList<>(threads);
+        this.workers = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory(name + '-'));
+        for (int i = 0; i < threads; i++) {
+            BlockingQueue<Item> partition = new ArrayBlockingQueue<>(queueCapacity);
+            partitions.add(partition);
+            workers.execute(() -> work(partition));
+        }
+    }
+
+    @Override
+    public boolean handle(final SyncDelta delta) {
+        if (stop) {
+            return false;
+        }
+        if (executor.wasInterruptRequested()) {
+            LOG.debug("Pull interrupted");
+            executor.setInterrupted();
+            stop = true;
+            return false;
+        }
+
+        Item item = new Item(seq++, delta);
+        BlockingQueue<Item> partition = partitions.get(
+                Math.floorMod(delta.getUid().getUidValue().hashCode(), partitions.size()));
+        try {
+            while (!partition.offer(item, 1, TimeUnit.SECONDS)) {
+                if (stop) {
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stop = true;
+            return false;
+        }
+
+        return !stop;
+    }
+
+    protected void work(final BlockingQueue<Item> partition) {
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        try {
+            for (Item item = partition.take(); item != POISON; item = partition.take()) {
+                // once stopped, keep consuming in order to release any blocked producer
+                if (!stop) {
+                    boolean result;
+                    boolean success;
+                    try {
+                        result = handler.handle(item.delta);
+                        success = committed.get() != null;
+                    } catch (Throwable t) {
+                        LOG.error("While handling {}", item.delta, t);
+                        failure.compareAndSet(null, t);
+                        result = false;
+                        success = false;
+                    } finally {
+                        committed.remove();
+                    }
+
+                    if (incremental) {
+                        completed(item, success);
+                    }
+                    if (!result) {
+                        stop = true;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            LOG.debug("Pull worker interrupted", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    protected void completed(final Item item, final boolean success) {
+        synchronized (pending) {
+            if (success) {
+                pending.put(item.seq, item.delta);
+            } else {
+                firstFailed = Math.min(firstFailed, item.seq);
+            }
+
+            SyncDelta latest = null;
+            while (nextToReport < firstFailed && pending.containsKey(nextToReport)) {
+                latest = pending.remove(nextToReport);
+                nextToReport++;
+            }
+            if (latest != null) {
+                executor.setLatestSyncToken(latest.getObjectClass(), latest.getToken());
+            }
+        }
+    }
+
+    /**
+     * Waits for all the received deltas to be handled, then releases the workers.
+     *
+     * @throws JobExecutionException if any unexpected error was raised while handling deltas
+     */
+    public void await() throws JobExecutionException {
+        try {
+            for (BlockingQueue<Item> partition : partitions) {
+                partition.put(POISON);
+            }
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JobExecutionException("Interrupted while waiting for pull workers", e);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        if (failure.get() != null) {
+            throw new JobExecutionException("While pulling from connector", failure.get());
+        }
+    }
+
+    /**
+     * Stops the workers without waiting for the pending deltas to be handled.
+     */
+    public void shutdown() {
+        stop = true;
+        workers.shutdownNow();
+    }
+
+    @Override
+    public void setLatestSyncToken(final ObjectClass objectClass, final SyncToken latestSyncToken) {
+        // invoked by the handler on the worker thread: actual reporting happens via completed()
+        committed.set(Boolean.TRUE);
+    }
+
+    @Override
+    public void reportHandled(final ObjectClass objectClass, final Name name) {
+        executor.reportHandled(objectClass, name);
+    }
+
+    @Override
+    public boolean wasInterruptRequested() {
+        return executor.wasInterruptRequested();
+    }
+
+    @Override
+    public void setInterrupted() {
+        stop = true;
+        executor.setInterrupted();
+    }
+}
@@ -19,18 +19,21 @@
 package org.apache.syncope.core.provisioning.java.pushpull;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.collections.IteratorChain;
 import org.apache.syncope.common.lib.types.ConflictResolutionAction;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.PullMode;
 import org.apache.syncope.common.lib.types.ResourceOperation;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
@@ -60,6 +63,7 @@ import org.apache.syncope.core.provisioning.java.utils.MappingUtils;
 import org.identityconnectors.framework.common.objects.Name;
 import org.identityconnectors.framework.common.objects.ObjectClass;
 import org.identityconnectors.framework.common.objects.OperationOptions;
+import org.identityconnectors.framework.common.objects.SyncResultsHandler;
 import org.identityconnectors.framework.common.objects.SyncToken;
 import org.apache.syncope.core.provisioning.api.pushpull.ReconFilterBuilder;
 import org.apache.syncope.core.spring.ImplementationManager;
@@ -81,9 +85,14 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
     @Autowired
     protected AnyUtilsFactory anyUtilsFactory;
 
-    protected final Map<ObjectClass, SyncToken> latestSyncTokens = new HashMap<>();
+    /**
+     * Capacity of the queue feeding each worker, when pulling with more than one concurrent thread.
+     */
+    protected static final int PARTITION_QUEUE_CAPACITY = 100;
 
-    protected final Map<ObjectClass, MutablePair<Integer, String>> handled = new HashMap<>();
+    protected final Map<ObjectClass, SyncToken> latestSyncTokens = Collections.synchronizedMap(new HashMap<>());
+
+    protected final Map<ObjectClass, MutablePair<Integer, String>> handled = new ConcurrentHashMap<>();
 
     protected ProvisioningProfile<PullTask, PullActions> profile;
 
@@ -94,13 +103,12 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
 
     @Override
     public void reportHandled(final ObjectClass objectClass, final Name name) {
-        MutablePair<Integer, String> pair = handled.get(objectClass);
-        if (pair == null) {
-            pair = MutablePair.of(0, null);
-            handled.put(objectClass, pair);
-        }
-        pair.setLeft(pair.getLeft() + 1);
-        pair.setRight(name.getNameValue());
+        handled.compute(objectClass, (key, value) -> {
+            MutablePair<Integer, String> pair = value == null ? MutablePair.of(0, null) : value;
+            pair.setLeft(pair.getLeft() + 1);
+            pair.setRight(name.getNameValue());
+            return pair;
+        });
     }
 
     @Override
@@ -309,6 +317,19 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
                 handler.setProfile(profile);
                 handler.setPullExecutor(this);
 
+                SyncResultsHandler connHandler = handler;
+                PartitionedPullResultHandler partitioned = null;
+                if (pullTask.getConcurrentThreads() > 1) {
+                    partitioned = new PartitionedPullResultHandler(
+                            handler,
+                            this,
+                            pullTask.getPullMode() == PullMode.INCREMENTAL,
+                            "pull-" + provision.getObjectClass().getObjectClassValue(),
+                            pullTask.getConcurrentThreads(),
+                            PARTITION_QUEUE_CAPACITY);
+                    connHandler = partitioned;
+                }
+
                 try {
                     Set<MappingItem> linkingMappingItems = virSchemaDAO.findByProvision(provision).stream().
                             map(schema -> schema.asLinkingMappingItem()).collect(Collectors.toSet());
@@ -326,8 +347,11 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
                             connector.sync(
                                     provision.getObjectClass(),
                                     provision.getSyncToken(),
-                                    handler,
+                                    connHandler,
                                     options);
+                            if (partitioned != null) {
+                                partitioned.await();
+                            }
 
                             if (!dryRun) {
                                 provision.setSyncToken(latestSyncTokens.get(provision.getObjectClass()));
@@ -340,15 +364,21 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
                                     ImplementationManager.build(pullTask.getReconFilterBuilder());
                             connector.filteredReconciliation(provision.getObjectClass(),
                                     filterBuilder,
-                                    handler,
+                                    connHandler,
                                     options);
+                            if (partitioned != null) {
+                                partitioned.await();
+                            }
                             break;
 
                         case FULL_RECONCILIATION:
                         default:
                             connector.fullReconciliation(provision.getObjectClass(),
-                                    handler,
+                                    connHandler,
                                     options);
+                            if (partitioned != null) {
+                                partitioned.await();
+                            }
                             break;
                     }
 
@@ -363,6 +393,10 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
                     }
                 } catch (Throwable t) {
                     throw new JobExecutionException("While pulling from connector", t);
+                } finally {
+                    if (partitioned != null) {
+                        partitioned.shutdown();
+                    }
                 }
             }
         }
@@ -20,10 +20,15 @@ package org.apache.syncope.core.provisioning.java.pushpull;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.apache.syncope.common.lib.SyncopeConstants;
@@ -33,7 +38,6 @@ import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
-import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
@@ -53,13 +57,22 @@ import org.apache.syncope.core.provisioning.api.pushpull.PushActions;
 import org.apache.syncope.core.provisioning.api.pushpull.RealmPushResultHandler;
 import org.apache.syncope.core.provisioning.api.pushpull.SyncopePushResultHandler;
 import org.apache.syncope.core.provisioning.api.pushpull.UserPushResultHandler;
+import org.apache.syncope.core.provisioning.java.job.report.AbstractReportlet;
 import org.apache.syncope.core.spring.ImplementationManager;
 import org.quartz.JobExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
 
+    /**
+     * Capacity of the queue feeding workers, when pushing with more than one concurrent thread.
+     */
+    protected static final int PUSH_QUEUE_CAPACITY = 100;
+
     /**
      * Search DAO.
      */
@@ -74,16 +87,23 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
 
     protected ProvisioningProfile<PushTask, PushActions> profile;
 
-    protected final Map<String, MutablePair<Integer, String>> handled = new HashMap<>();
+    protected final Map<String, MutablePair<Integer, String>> handled = new ConcurrentHashMap<>();
 
     protected void reportHandled(final String anyType, final String key) {
-        MutablePair<Integer, String> pair = handled.get(anyType);
-        if (pair == null) {
-            pair = MutablePair.of(0, null);
-            handled.put(anyType, pair);
-        }
-        pair.setLeft(pair.getLeft() + 1);
-        pair.setRight(key);
+        handled.compute(anyType, (type, value) -> {
+            MutablePair<Integer, String> pair = value == null ? MutablePair.of(0, null) : value;
+            pair.setLeft(pair.getLeft() + 1);
+            pair.setRight(key);
+            return pair;
+        });
+    }
+
+    protected static String getName(final Any<?> any) {
+        return any instanceof User
+                ? ((User) any).getUsername()
+                : any instanceof Group
+                        ? ((Group) any).getName()
+                        : ((AnyObject) any).getName();
     }
 
     @Override
@@ -112,13 +132,7 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
         for (int i = 0; i < anys.size() && !interrupt; i++) {
             try {
                 handler.handle(anys.get(i).getKey());
-                reportHandled(
-                        anys.get(i).getType().getKey(),
-                        (anys.get(i) instanceof User
-                        ? ((User) anys.get(i)).getUsername()
-                        : anys.get(i) instanceof Group
-                        ? ((Group) anys.get(i)).getName()
-                        : ((AnyObject) anys.get(i)).getName()));
+                reportHandled(anys.get(i).getType().getKey(), getName(anys.get(i)));
             } catch (Exception e) {
                 LOG.warn("Failure pushing '{}' on '{}'", anys.get(i), resource, e);
                 throw new JobExecutionException("While pushing " + anys.get(i) + " on " + resource, e);
@@ -126,6 +140,86 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
         }
     }
 
+    /**
+     * Hands the given any objects over to the given workers; when the workers' queue is full, the calling thread
+     * pushes by itself, hence no more than the queue capacity any objects are ever pending.
+     *
+     * @param anys any objects to push
+     * @param handler push result handler
+     * @param resource external resource
+     * @param workers workers
+     * @param failure first failure reported by workers, if any
+     */
+    protected void doHandle(
+            final List<? extends Any<?>> anys,
+            final SyncopePushResultHandler handler,
+            final ExternalResource resource,
+            final ThreadPoolExecutor workers,
+            final AtomicReference<Throwable> failure) {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        for (int i = 0; i < anys.size() && !interrupt && failure.get() == null; i++) {
+            // read everything needed on this thread, as entities are bound to the current persistence context
+            String key = anys.get(i).getKey();
+            String type = anys.get(i).getType().getKey();
+            String name = getName(anys.get(i));
+
+            workers.execute(() -> {
+                boolean worker = SecurityContextHolder.getContext().getAuthentication() == null;
+                if (worker) {
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
+                try {
+                    if (!interrupt && failure.get() == null) {
+                        handler.handle(key);
+                        reportHandled(type, name);
+                    }
+                } catch (Throwable t) {
+                    LOG.warn("Failure pushing '{}' on '{}'", key, resource, t);
+                    failure.compareAndSet(null, t);
+                } finally {
+                    if (worker) {
+                        SecurityContextHolder.clearContext();
+                    }
+                }
+            });
+        }
+    }
+
+    protected ThreadPoolExecutor buildWorkers(final PushTask pushTask, final Provision provision) {
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(
+                pushTask.getConcurrentThreads(),
+                pushTask.getConcurrentThreads(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(PUSH_QUEUE_CAPACITY),
+                new CustomizableThreadFactory("push-" + provision.getAnyType().getKey() + '-'));
+        workers.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return workers;
+    }
+
+    protected void awaitWorkers(
+            final ThreadPoolExecutor workers,
+            final AtomicReference<Throwable> failure,
+            final ExternalResource resource)
+            throws JobExecutionException {
+
+        try {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JobExecutionException("Interrupted while waiting for push workers", e);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        if (failure.get() != null) {
+            throw new JobExecutionException("While pushing on " + resource, failure.get());
+        }
+    }
+
     protected RealmPushResultHandler buildRealmHandler() {
         return (RealmPushResultHandler) ApplicationContextProvider.getBeanFactory().
                 createBean(DefaultRealmPushResultHandler.class, AbstractBeanDefinition.AUTOWIRE_BY_NAME, false);
@@ -229,19 +323,40 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
                 SearchCond cond = StringUtils.isBlank(filter)
                         ? anyDAO.getAllMatchingCond()
                         : SearchCondConverter.convert(filter);
-                int count = searchDAO.count(
+                Iterator<String> keys = searchDAO.streamKeys(
                         Collections.singleton(profile.getTask().getSourceRealm().getFullPath()),
                         cond,
-                        provision.getAnyType().getKind());
-                for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1 && !interrupt; page++) {
-                    List<? extends Any<?>> anys = searchDAO.search(
-                            Collections.singleton(profile.getTask().getSourceRealm().getFullPath()),
-                            cond,
-                            page,
-                            AnyDAO.DEFAULT_PAGE_SIZE,
-                            Collections.<OrderByClause>emptyList(),
-                            provision.getAnyType().getKind());
-                    doHandle(anys, handler, pushTask.getResource());
+                        provision.getAnyType().getKind(),
+                        AnyDAO.DEFAULT_PAGE_SIZE).iterator();
+
+                ThreadPoolExecutor workers = pushTask.getConcurrentThreads() > 1
+                        ? buildWorkers(pushTask, provision)
+                        : null;
+                AtomicReference<Throwable> failure = new AtomicReference<>();
+                try {
+                    for (List<String> chunk = AbstractReportlet.nextChunk(keys);
+                            !chunk.isEmpty() && !interrupt && failure.get() == null;
+                            chunk = AbstractReportlet.nextChunk(keys)) {
+
+                        List<? extends Any<?>> anys = anyDAO.findByKeys(chunk);
+                        if (workers == null) {
+                            doHandle(anys, handler, pushTask.getResource());
+                        } else {
+                            doHandle(anys, handler, pushTask.getResource(), workers, failure);
+                        }
+                    }
+                } catch (RuntimeException | JobExecutionException e) {
+                    if (workers != null) {
+                        try {
+                            awaitWorkers(workers, failure, pushTask.getResource());
+                        } catch (JobExecutionException we) {
+                            e.addSuppressed(we);
+                        }
+                    }
+                    throw e;
+                }
+                if (workers != null) {
+                    awaitWorkers(workers, failure, pushTask.getResource());
                 }
             }
         }
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import org.apache.syncope.core.provisioning.api.cache.VirAttrCacheStats;
+import org.apache.syncope.core.provisioning.api.cache.VirAttrCacheValue;
+import org.apache.syncope.core.provisioning.java.cache.CaffeineVirAttrCache;
+import org.junit.jupiter.api.Test;
+
+public class CaffeineVirAttrCacheTest {
+
+    private static class TestCaffeineVirAttrCache extends CaffeineVirAttrCache {
+
+        TestCaffeineVirAttrCache(final int ttl, final int maxCacheSize) {
+            super(ttl, maxCacheSize);
+        }
+
+        void cleanUp() {
+            cache.cleanUp();
+        }
+    }
+
+    private static VirAttrCacheValue value(final String value) {
+        VirAttrCacheValue cacheValue = new VirAttrCacheValue();
+        cacheValue.setValues(Collections.singletonList(value));
+        return cacheValue;
+    }
+
+    @Test
+    public void putGetAndExpire() {
+        TestCaffeineVirAttrCache cache = new TestCaffeineVirAttrCache(60, 10);
+
+        assertNull(cache.get("USER", "key", "virtualdata"));
+
+        cache.put("USER", "key", "virtualdata", value("value"));
+        VirAttrCacheValue value = cache.get("USER", "key", "virtualdata");
+        assertNotNull(value);
+        assertEquals(Collections.singletonList("value"), value.getValues());
+        assertTrue(cache.isValidEntry(value));
+
+        assertNull(cache.get("GROUP", "key", "virtualdata"));
+        assertNull(cache.get("USER", "key", "other"));
+
+        cache.expire("USER", "key", "virtualdata");
+        assertNull(cache.get("USER", "key", "virtualdata"));
+
+        VirAttrCacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(4, stats.getMissCount());
+    }
+
+    @Test
+    public void isValidEntry() {
+        TestCaffeineVirAttrCache cache = new TestCaffeineVirAttrCache(60, 10);
+
+        assertFalse(cache.isValidEntry(null));
+
+        VirAttrCacheValue value = value("value");
+        assertTrue(cache.isValidEntry(value));
+
+        value.forceExpiring();
+        assertFalse(cache.isValidEntry(value));
+    }
+
+    @Test
+    public void ttl() throws InterruptedException {
+        TestCaffeineVirAttrCache cache = new TestCaffeineVirAttrCache(1, 10);
+
+        cache.put("USER", "key", "virtualdata", value("value"));
+        VirAttrCacheValue value = cache.get("USER", "key", "virtualdata");
+        assertNotNull(value);
+
+        // reads do not extend the entry lifetime
+        long deadline = value.getCreationTime() + 1000L;
+        while (System.currentTimeMillis() <= deadline) {
+            cache.get("USER", "key", "virtualdata");
+            Thread.sleep(100);
+        }
+        Thread.sleep(100);
+
+        assertFalse(cache.isValidEntry(value));
+        assertNull(cache.get("USER", "key", "virtualdata"));
+    }
+
+    @Test
+    public void maxCacheSize() {
+        TestCaffeineVirAttrCache cache = new TestCaffeineVirAttrCache(60, 10);
+
+        for (int i = 0; i < 100; i++) {
+            cache.put("USER", "key" + i, "virtualdata", value("value" + i));
+        }
+        cache.cleanUp();
+
+        VirAttrCacheStats stats = cache.getStats();
+        assertTrue(stats.getSize() <= 10);
+        assertTrue(stats.getEvictionCount() >= 90);
+    }
+}
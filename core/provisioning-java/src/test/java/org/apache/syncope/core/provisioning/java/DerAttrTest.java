@@ -23,11 +23,15 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Map;
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.MapContext;
 import org.apache.syncope.core.persistence.api.dao.DerSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.entity.DerSchema;
 import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.provisioning.api.DerAttrHandler;
+import org.apache.syncope.core.provisioning.java.jexl.JexlUtils;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
@@ -58,4 +62,34 @@ public class DerAttrTest extends AbstractTest {
         assertTrue(value.startsWith("vivaldi - 2010-10-20"));
         assertTrue(value.endsWith("[0]"));
     }
+
+    @Test
+    public void sameAsFullContext() {
+        User user = userDAO.findByUsername("vivaldi");
+        assertNotNull(user);
+
+        Map<DerSchema, String> values = derAttrHandler.getValues(user);
+        assertFalse(values.isEmpty());
+        values.forEach((schema, value) -> {
+            JexlContext jexlContext = new MapContext();
+            JexlUtils.addPlainAttrsToContext(user.getPlainAttrs(), jexlContext);
+            JexlUtils.addFieldsToContext(user, jexlContext);
+
+            assertEquals(JexlUtils.evaluate(schema.getExpression(), jexlContext), value);
+        });
+    }
+
+    @Test
+    public void expressionChanged() {
+        User user = userDAO.findByUsername("vivaldi");
+        assertNotNull(user);
+
+        DerSchema info = derSchemaDAO.find("info");
+        assertTrue(derAttrHandler.getValue(user, info).startsWith("vivaldi - "));
+
+        info.setExpression("username + '@' + realm");
+        info = derSchemaDAO.save(info);
+
+        assertEquals("vivaldi@/", derAttrHandler.getValue(user, info));
+    }
 }
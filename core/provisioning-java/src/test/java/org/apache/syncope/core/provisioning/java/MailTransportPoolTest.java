@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.mail.internet.MimeMessage;
+import org.apache.syncope.core.provisioning.java.job.notification.MailTransportPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+public class MailTransportPoolTest {
+
+    private static GreenMail greenMail;
+
+    @BeforeAll
+    public static void startGreenMail() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP);
+        greenMail.start();
+    }
+
+    @AfterAll
+    public static void stopGreenMail() {
+        if (greenMail != null) {
+            greenMail.stop();
+        }
+    }
+
+    @Test
+    public void concurrentSend() throws Exception {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        mailSender.setProtocol(ServerSetupTest.SMTP.getProtocol());
+
+        MailTransportPool pool = new MailTransportPool(mailSender);
+
+        int senders = 4;
+        int messages = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(senders);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < messages; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    MimeMessage message = pool.createMimeMessage();
+                    MimeMessageHelper helper = new MimeMessageHelper(message);
+                    helper.setFrom("syncope@apache.org");
+                    helper.setTo("recipient" + index + "@apache.org");
+                    helper.setSubject("Message " + index);
+                    helper.setText("Body " + index);
+
+                    pool.send(message);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(greenMail.waitForIncomingEmail(10000, messages));
+        assertEquals(messages, greenMail.getReceivedMessages().length);
+        assertEquals(messages, pool.getSent());
+        assertEquals(0, pool.getFailed());
+
+        // connections were reused across messages
+        assertTrue(pool.getConnections() <= senders);
+
+        pool.closeIdle();
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import org.apache.syncope.core.persistence.api.entity.task.PullTask;
+import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningProfile;
+import org.apache.syncope.core.provisioning.api.pushpull.PullActions;
+import org.apache.syncope.core.provisioning.api.pushpull.SyncopePullExecutor;
+import org.apache.syncope.core.provisioning.api.pushpull.SyncopePullResultHandler;
+import org.apache.syncope.core.provisioning.java.pushpull.PartitionedPullResultHandler;
+import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.SyncDelta;
+import org.identityconnectors.framework.common.objects.SyncDeltaBuilder;
+import org.identityconnectors.framework.common.objects.SyncDeltaType;
+import org.identityconnectors.framework.common.objects.SyncToken;
+import org.junit.jupiter.api.Test;
+
+public class PartitionedPullResultHandlerTest {
+
+    private static class TestPullExecutor implements SyncopePullExecutor {
+
+        private volatile SyncToken latestSyncToken;
+
+        @Override
+        public void setLatestSyncToken(final ObjectClass objectClass, final SyncToken latestSyncToken) {
+            this.latestSyncToken = latestSyncToken;
+        }
+
+        @Override
+        public void reportHandled(final ObjectClass objectClass, final Name name) {
+            // nothing to do
+        }
+
+        @Override
+        public boolean wasInterruptRequested() {
+            return false;
+        }
+
+        @Override
+        public void setInterrupted() {
+            // nothing to do
+        }
+    }
+
+    /**
+     * Records the order in which deltas are handled for each Uid, and commits all deltas matching the given predicate.
+     */
+    private static class TestPullResultHandler implements SyncopePullResultHandler {
+
+        private final Predicate<SyncDelta> commit;
+
+        private final Map<String, List<Integer>> handled = new ConcurrentHashMap<>();
+
+        private SyncopePullExecutor executor;
+
+        TestPullResultHandler(final Predicate<SyncDelta> commit) {
+            this.commit = commit;
+        }
+
+        @Override
+        public ProvisioningProfile<PullTask, PullActions> getProfile() {
+            return null;
+        }
+
+        @Override
+        public void setProfile(final ProvisioningProfile<PullTask, PullActions> profile) {
+            // nothing to do
+        }
+
+        @Override
+        public void setPullExecutor(final SyncopePullExecutor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public boolean handle(final SyncDelta delta) {
+            handled.computeIfAbsent(delta.getUid().getUidValue(), k -> Collections.synchronizedList(new ArrayList<>())).
+                    add((Integer) delta.getToken().getValue());
+            if (commit.test(delta)) {
+                executor.setLatestSyncToken(delta.getObjectClass(), delta.getToken());
+            }
+            return true;
+        }
+    }
+
+    private static SyncDelta delta(final String uid, final int token) {
+        return new SyncDeltaBuilder().
+                setToken(new SyncToken(token)).
+                setDeltaType(SyncDeltaType.CREATE_OR_UPDATE).
+                setObject(new ConnectorObjectBuilder().
+                        setObjectClass(ObjectClass.ACCOUNT).setUid(uid).setName(uid).build()).
+                build();
+    }
+
+    @Test
+    public void orderPerUid() throws Exception {
+        TestPullExecutor executor = new TestPullExecutor();
+        TestPullResultHandler handler = new TestPullResultHandler(delta -> true);
+
+        PartitionedPullResultHandler partitioned =
+                new PartitionedPullResultHandler(handler, executor, true, "orderPerUid", 4, 2);
+        int deltas = 200;
+        for (int i = 0; i < deltas; i++) {
+            partitioned.handle(delta("uid" + (i % 7), i));
+        }
+        partitioned.await();
+
+        assertEquals(7, handler.handled.size());
+        handler.handled.forEach((uid, tokens) -> {
+            List<Integer> sorted = new ArrayList<>(tokens);
+            Collections.sort(sorted);
+            assertEquals(sorted, tokens);
+        });
+        assertEquals(deltas - 1, executor.latestSyncToken.getValue());
+    }
+
+    @Test
+    public void tokenNotAdvancedPastFailure() throws Exception {
+        TestPullExecutor executor = new TestPullExecutor();
+        // delta 5 is handled but not committed: no token from 5 on can be reported
+        TestPullResultHandler handler = new TestPullResultHandler(delta -> !delta.getToken().getValue().equals(5));
+
+        PartitionedPullResultHandler partitioned =
+                new PartitionedPullResultHandler(handler, executor, true, "tokenNotAdvancedPastFailure", 3, 2);
+        for (int i = 0; i < 20; i++) {
+            partitioned.handle(delta("uid" + (i % 5), i));
+        }
+        partitioned.await();
+
+        assertEquals(4, executor.latestSyncToken.getValue());
+    }
+
+    @Test
+    public void commitNotLeakedAcrossDeltas() throws Exception {
+        TestPullExecutor executor = new TestPullExecutor();
+        // single worker: the commit of delta 0 must not be taken for delta 1, which is not committed
+        TestPullResultHandler handler = new TestPullResultHandler(delta -> delta.getToken().getValue().equals(0));
+
+        PartitionedPullResultHandler partitioned =
+                new PartitionedPullResultHandler(handler, executor, true, "commitNotLeakedAcrossDeltas", 1, 2);
+        partitioned.handle(delta("uid", 0));
+        partitioned.handle(delta("uid", 1));
+        partitioned.handle(delta("uid", 2));
+        partitioned.await();
+
+        assertEquals(0, executor.latestSyncToken.getValue());
+    }
+
+    @Test
+    public void nonIncremental() throws Exception {
+        TestPullExecutor executor = new TestPullExecutor();
+        TestPullResultHandler handler = new TestPullResultHandler(delta -> true);
+
+        PartitionedPullResultHandler partitioned =
+                new PartitionedPullResultHandler(handler, executor, false, "nonIncremental", 2, 2);
+        for (int i = 0; i < 10; i++) {
+            partitioned.handle(delta("uid" + i, i));
+        }
+        partitioned.await();
+
+        assertEquals(10, handler.handled.size());
+        assertNull(executor.latestSyncToken);
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.syncope.common.lib.to.PropagationTaskTO;
+import org.apache.syncope.common.lib.types.ExecStatus;
+import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
+import org.apache.syncope.core.persistence.api.entity.ConnInstance;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationException;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskCallable;
+import org.apache.syncope.core.provisioning.java.propagation.LatencyHistogram;
+import org.apache.syncope.core.provisioning.java.propagation.PriorityPropagationTaskExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class PriorityPropagationTaskExecutorTest {
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(final Class<T> reference, final Map<String, Object> properties) {
+        return (T) Proxy.newProxyInstance(
+                PriorityPropagationTaskExecutorTest.class.getClassLoader(),
+                new Class<?>[] { reference },
+                (proxy, method, args) -> properties.get(method.getName()));
+    }
+
+    private static TaskExec execution(final ExecStatus status) {
+        return stub(TaskExec.class, Collections.singletonMap("getStatus", status.name()));
+    }
+
+    private static PropagationTaskTO task(final String resource) {
+        PropagationTaskTO task = new PropagationTaskTO();
+        task.setResource(resource);
+        return task;
+    }
+
+    /**
+     * Executes tasks via {@link TestCallable}, according to the given resource priorities.
+     */
+    private static class TestExecutor extends PriorityPropagationTaskExecutor {
+
+        private final Map<String, Integer> priorities = new HashMap<>();
+
+        private final Set<String> failing = new HashSet<>();
+
+        private final CyclicBarrier level = new CyclicBarrier(2);
+
+        private final Set<String> started = ConcurrentHashMap.newKeySet();
+
+        private final Set<String> completed = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Resources completed, as seen when each resource was started.
+         */
+        private final Map<String, Set<String>> completedBefore = new ConcurrentHashMap<>();
+
+        TestExecutor() {
+            resourceDAO = (ExternalResourceDAO) Proxy.newProxyInstance(
+                    getClass().getClassLoader(),
+                    new Class<?>[] { ExternalResourceDAO.class },
+                    (proxy, method, args) -> {
+                        Map<String, Object> properties = new HashMap<>();
+                        properties.put("getKey", args[0]);
+                        properties.put("getPropagationPriority", priorities.get(args[0]));
+                        properties.put("getConnector", stub(ConnInstance.class, Collections.emptyMap()));
+                        return stub(ExternalResource.class, properties);
+                    });
+        }
+
+        @Override
+        protected PropagationTaskCallable newPropagationTaskCallable(
+                final PropagationTaskTO taskTO, final PropagationReporter reporter) {
+
+            return new TestCallable(this, taskTO);
+        }
+
+        void execute(final Collection<PropagationTaskTO> tasks) {
+            doExecute(tasks, null, false);
+        }
+    }
+
+    private static class TestCallable implements PropagationTaskCallable {
+
+        private final TestExecutor executor;
+
+        private PropagationTaskTO taskTO;
+
+        TestCallable(final TestExecutor executor, final PropagationTaskTO taskTO) {
+            this.executor = executor;
+            this.taskTO = taskTO;
+        }
+
+        @Override
+        public void setTaskTO(final PropagationTaskTO taskTO) {
+            this.taskTO = taskTO;
+        }
+
+        @Override
+        public void setReporter(final PropagationReporter reporter) {
+            // not used
+        }
+
+        @Override
+        public TaskExec call() throws Exception {
+            String resource = taskTO.getResource();
+            executor.completedBefore.put(resource, new HashSet<>(executor.completed));
+            executor.started.add(resource);
+
+            if (resource.startsWith("concurrent")) {
+                // fails unless the other task of the same level is running meanwhile
+                executor.level.await(5, TimeUnit.SECONDS);
+            }
+
+            executor.completed.add(resource);
+            return execution(executor.failing.contains(resource) ? ExecStatus.FAILURE : ExecStatus.SUCCESS);
+        }
+    }
+
+    private ThreadPoolTaskExecutor threadPool;
+
+    private TestExecutor executor;
+
+    @BeforeEach
+    public void setUp() {
+        threadPool = new ThreadPoolTaskExecutor();
+        threadPool.setCorePoolSize(4);
+        threadPool.initialize();
+
+        executor = new TestExecutor();
+        ReflectionTestUtils.setField(executor, "executor", threadPool);
+
+        executor.priorities.put("first", 1);
+        executor.priorities.put("concurrent1", 2);
+        executor.priorities.put("concurrent2", 2);
+        executor.priorities.put("last", 3);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        threadPool.shutdown();
+    }
+
+    @Test
+    public void levelByLevel() {
+        List<PropagationTaskTO> tasks = Arrays.asList(
+                task("nopriority"), task("last"), task("concurrent1"), task("first"), task("concurrent2"));
+        executor.execute(tasks);
+
+        assertEquals(
+                tasks.stream().map(PropagationTaskTO::getResource).collect(Collectors.toSet()),
+                executor.completed);
+
+        assertTrue(executor.completedBefore.get("first").isEmpty());
+        assertEquals(Collections.singleton("first"), executor.completedBefore.get("concurrent1"));
+        assertEquals(Collections.singleton("first"), executor.completedBefore.get("concurrent2"));
+        assertEquals(
+                new HashSet<>(Arrays.asList("first", "concurrent1", "concurrent2")),
+                executor.completedBefore.get("last"));
+        assertEquals(
+                new HashSet<>(Arrays.asList("first", "concurrent1", "concurrent2", "last")),
+                executor.completedBefore.get("nopriority"));
+
+        // one latency was recorded for each resource
+        Map<String, LatencyHistogram> latencies = executor.getLatencies();
+        assertEquals(executor.completed, latencies.keySet());
+        latencies.values().forEach(histogram -> assertEquals(1, histogram.getCount()));
+    }
+
+    @Test
+    public void failureStopsFollowingLevels() {
+        executor.failing.add("concurrent2");
+
+        PropagationException e = assertThrows(
+                PropagationException.class,
+                () -> executor.execute(Arrays.asList(
+                        task("first"), task("concurrent1"), task("concurrent2"), task("last"), task("nopriority"))));
+        assertEquals("concurrent2", e.getResourceName());
+
+        // the whole failing level was executed, nothing afterwards
+        assertEquals(new HashSet<>(Arrays.asList("first", "concurrent1", "concurrent2")), executor.started);
+        assertFalse(executor.getLatencies().containsKey("last"));
+    }
+
+    @Test
+    public void histogramBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+
+        // bounds are inclusive
+        long[] latencies = { 0, 10, 11, 50, 51, 999, 1000, 30000, 30001, Long.MAX_VALUE / 2 };
+        for (int i = 0; i < latencies.length; i++) {
+            assertEquals(i + 1, histogram.record(latencies[i]));
+        }
+
+        assertArrayEquals(new long[] { 10, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000 }, histogram.getBounds());
+        assertArrayEquals(new long[] { 2, 2, 1, 0, 0, 2, 0, 0, 0, 1, 2 }, histogram.getCounts());
+        assertEquals(latencies.length, histogram.getCount());
+        assertEquals(Arrays.stream(latencies).sum(), histogram.getTotalMillis());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.syncope.common.lib.report.GroupReportletConf;
+import org.apache.syncope.common.lib.report.ReconciliationReportletConf;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.provisioning.java.job.report.GroupReportlet;
+import org.apache.syncope.core.provisioning.java.job.report.ReconciliationReportlet;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+@Transactional("Master")
+public class ReportletTest extends AbstractTest {
+
+    private static final String ROOT_GROUP = "37d15e4c-cdc1-460b-a591-8505c8133806";
+
+    /**
+     * Collects the keys of all elements with a {@code key} attribute.
+     */
+    private static class KeyCollector extends DefaultHandler {
+
+        private final List<String> keys = new ArrayList<>();
+
+        @Override
+        public void startElement(
+                final String uri, final String localName, final String qName, final Attributes attributes) {
+
+            if (attributes != null && attributes.getValue("key") != null) {
+                keys.add(attributes.getValue("key"));
+            }
+        }
+    }
+
+    @Autowired
+    private ConfigurableApplicationContext ctx;
+
+    @Autowired
+    private AnySearchDAO searchDAO;
+
+    @Test
+    public void groupReportletSearchesGroups() throws Exception {
+        GroupReportletConf conf = new GroupReportletConf("groups");
+        conf.setMatchingCond("name==root");
+        conf.getFeatures().add(GroupReportletConf.Feature.key);
+
+        GroupReportlet reportlet = new GroupReportlet();
+        ctx.getAutowireCapableBeanFactory().autowireBean(reportlet);
+        reportlet.setConf(conf);
+
+        KeyCollector handler = new KeyCollector();
+        reportlet.extract(handler, new AtomicReference<>());
+
+        assertEquals(Collections.singletonList(ROOT_GROUP), handler.keys);
+    }
+
+    @Test
+    public void reconciliationReportletSearchesGroupsByGroupMatchingCond() throws Exception {
+        ReconciliationReportletConf conf = new ReconciliationReportletConf("reconciliation");
+        conf.setUserMatchingCond("username==notfound");
+        conf.setGroupMatchingCond("name==root");
+        conf.setAnyObjectMatchingCond("name==notfound");
+
+        // records the keys streamed for each kind, as only anys misaligned with their resources are reported
+        Map<AnyTypeKind, List<String>> streamed = new EnumMap<>(AnyTypeKind.class);
+        AnySearchDAO recordingSearchDAO = (AnySearchDAO) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] { AnySearchDAO.class },
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(searchDAO, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if ("streamKeys".equals(method.getName())) {
+                        List<String> keys = ((Stream<?>) result).map(String.class::cast).
+                                collect(Collectors.toList());
+                        streamed.computeIfAbsent((AnyTypeKind) args[2], k -> new ArrayList<>()).addAll(keys);
+                        result = keys.stream();
+                    }
+                    return result;
+                });
+
+        ReconciliationReportlet reportlet = new ReconciliationReportlet();
+        ctx.getAutowireCapableBeanFactory().autowireBean(reportlet);
+        ReflectionTestUtils.setField(reportlet, "searchDAO", recordingSearchDAO);
+        reportlet.setConf(conf);
+
+        reportlet.extract(new DefaultHandler(), new AtomicReference<>());
+
+        assertEquals(Collections.emptyList(), streamed.get(AnyTypeKind.USER));
+        assertEquals(Collections.singletonList(ROOT_GROUP), streamed.get(AnyTypeKind.GROUP));
+    }
+}
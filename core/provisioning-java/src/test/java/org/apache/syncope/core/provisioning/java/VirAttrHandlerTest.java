@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.apache.syncope.common.lib.to.ConnInstanceTO;
+import org.apache.syncope.common.lib.types.ConnConfProperty;
+import org.apache.syncope.common.lib.types.ConnectorCapability;
+import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
+import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.dao.VirSchemaDAO;
+import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
+import org.apache.syncope.core.persistence.api.entity.ConnInstance;
+import org.apache.syncope.core.persistence.api.entity.VirSchema;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.resource.Provision;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.provisioning.api.Connector;
+import org.apache.syncope.core.provisioning.api.ConnectorFactory;
+import org.apache.syncope.core.provisioning.api.MappingManager;
+import org.apache.syncope.core.provisioning.java.cache.CaffeineVirAttrCache;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class VirAttrHandlerTest extends AbstractTest {
+
+    /**
+     * Stands in for the connectors of the given resources, replying to reads with the given futures.
+     */
+    private static class TestConnectorFactory implements ConnectorFactory {
+
+        private final Map<String, Future<ConnectorObject>> reads = new HashMap<>();
+
+        private final AtomicInteger issued = new AtomicInteger();
+
+        @Override
+        public ConnInstance buildConnInstanceOverride(
+                final ConnInstanceTO connInstance,
+                final Collection<ConnConfProperty> confOverride,
+                final Collection<ConnectorCapability> capabilitiesOverride) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Connector createConnector(final ConnInstance connInstance) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Connector getConnector(final ExternalResource resource) {
+            return (Connector) Proxy.newProxyInstance(
+                    getClass().getClassLoader(),
+                    new Class<?>[] { Connector.class },
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getConnInstance":
+                                return resource.getConnector();
+
+                            case "getObjectAsync":
+                                issued.incrementAndGet();
+                                return reads.get(resource.getKey());
+
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        @Override
+        public void load() {
+            // nothing to do
+        }
+
+        @Override
+        public void unload() {
+            // nothing to do
+        }
+    }
+
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private ExternalResourceDAO resourceDAO;
+
+    @Autowired
+    private VirSchemaDAO virSchemaDAO;
+
+    @Autowired
+    private MappingManager mappingManager;
+
+    @Autowired
+    private AnyUtilsFactory anyUtilsFactory;
+
+    /**
+     * Virtual schemas by provision, as found by the test thread: the handler might be invoked from other threads, with
+     * no transaction hence no access to persistence.
+     */
+    private final Map<String, List<VirSchema>> provisionSchemas = new HashMap<>();
+
+    private TestConnectorFactory connFactory;
+
+    private VirAttrHandlerImpl virAttrHandler;
+
+    private ExecutorService executor;
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met in time");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static ConnectorObject connObject(final User user) {
+        return new ConnectorObjectBuilder().
+                setObjectClass(ObjectClass.ACCOUNT).
+                setUid(user.getKey()).
+                setName(user.getKey()).
+                addAttribute(AttributeBuilder.build("USERNAME", user.getUsername())).
+                build();
+    }
+
+    private int waiters() {
+        Map<?, ?> inFlight = (Map<?, ?>) ReflectionTestUtils.getField(virAttrHandler, "inFlight");
+        return inFlight.values().stream().
+                mapToInt(read -> (Integer) ReflectionTestUtils.getField(read, "waiters")).sum();
+    }
+
+    private User user(final String resource, final int timeout) {
+        User user = userDAO.findByUsername("vivaldi");
+        assign(user, resource, timeout);
+
+        // loads whatever is needed by the handler, which might then be invoked from other threads
+        anyUtilsFactory.getInstance(user).getAllResources(user);
+        anyUtilsFactory.getInstance(user).dao().findAllowedSchemas(user, VirSchema.class);
+
+        return user;
+    }
+
+    private void assign(final User user, final String resource, final int timeout) {
+        ExternalResource assigned = resourceDAO.find(resource);
+        assigned.getConnector().setConnRequestTimeout(timeout);
+        user.add(assigned);
+
+        assigned.getProvisions().forEach(provision -> provisionSchemas.put(
+                provision.getKey(), virSchemaDAO.findByProvision(provision)));
+    }
+
+    @BeforeEach
+    public void before() {
+        connFactory = new TestConnectorFactory();
+
+        virAttrHandler = new VirAttrHandlerImpl();
+        ReflectionTestUtils.setField(virAttrHandler, "connFactory", connFactory);
+        ReflectionTestUtils.setField(virAttrHandler, "virAttrCache", new CaffeineVirAttrCache(60, 10));
+        ReflectionTestUtils.setField(virAttrHandler, "mappingManager", mappingManager);
+        ReflectionTestUtils.setField(virAttrHandler, "anyUtilsFactory", anyUtilsFactory);
+        ReflectionTestUtils.setField(virAttrHandler, "virSchemaDAO", Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] { VirSchemaDAO.class },
+                (proxy, method, args) -> {
+                    if ("findByProvision".equals(method.getName())) {
+                        return provisionSchemas.get(((Provision) args[0]).getKey());
+                    }
+
+                    try {
+                        return method.invoke(virSchemaDAO, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                }));
+
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void partialResultsOnTimeout() {
+        User user = user("resource-db-virattr", 10);
+        assign(user, "resource-ldap", 1);
+
+        CompletableFuture<ConnectorObject> ldap = new CompletableFuture<>();
+        connFactory.reads.put("resource-db-virattr", CompletableFuture.completedFuture(connObject(user)));
+        connFactory.reads.put("resource-ldap", ldap);
+
+        Map<VirSchema, List<String>> values = virAttrHandler.getValues(user);
+        assertEquals(2, connFactory.issued.get());
+        assertEquals(Collections.singletonList("vivaldi"), values.get(virSchemaDAO.find("virtualdata")));
+        assertFalse(values.containsKey(virSchemaDAO.find("virtualReadOnly")));
+
+        // nobody else was waiting for the read timed out
+        assertTrue(ldap.isCancelled());
+        assertEquals(0, waiters());
+    }
+
+    @Test
+    public void concurrentReadsCollapsed() throws Exception {
+        User user = user("resource-db-virattr", 10);
+        VirSchema virtualdata = virSchemaDAO.find("virtualdata");
+
+        CompletableFuture<ConnectorObject> read = new CompletableFuture<>();
+        connFactory.reads.put("resource-db-virattr", read);
+
+        Future<List<String>> first = executor.submit(() -> virAttrHandler.getValues(user, virtualdata));
+        await(() -> waiters() == 1);
+        Future<List<String>> second = executor.submit(() -> virAttrHandler.getValues(user, virtualdata));
+        await(() -> waiters() == 2);
+
+        read.complete(connObject(user));
+
+        assertEquals(Collections.singletonList("vivaldi"), first.get(10, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("vivaldi"), second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, connFactory.issued.get());
+        assertEquals(0, waiters());
+    }
+
+    @Test
+    public void sharedReadNotCancelledByFirstTimeout() throws Exception {
+        User user = user("resource-db-virattr", 2);
+        VirSchema virtualdata = virSchemaDAO.find("virtualdata");
+
+        CompletableFuture<ConnectorObject> read = new CompletableFuture<>();
+        connFactory.reads.put("resource-db-virattr", read);
+
+        Future<List<String>> first = executor.submit(() -> virAttrHandler.getValues(user, virtualdata));
+        await(() -> waiters() == 1);
+        // the second request starts later, hence its own timeout expires later
+        Thread.sleep(1000);
+        Future<List<String>> second = executor.submit(() -> virAttrHandler.getValues(user, virtualdata));
+        await(() -> waiters() == 2);
+
+        assertTrue(first.get(10, TimeUnit.SECONDS).isEmpty());
+        assertFalse(read.isCancelled());
+
+        read.complete(connObject(user));
+        assertEquals(Collections.singletonList("vivaldi"), second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, connFactory.issued.get());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.jexl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlExpression;
+import org.apache.commons.jexl3.MapContext;
+import org.apache.syncope.common.lib.types.AttrSchemaType;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.persistence.jpa.entity.JPAPlainSchema;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUPlainAttr;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUPlainAttrValue;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the evaluation of several derived schema expressions against the same user, both with a
+ * {@link MapContext} fully populated for each expression and with a single {@link AnyJexlContext} shared among
+ * pre-parsed expressions, as done by {@code DerAttrHandlerImpl}; not run as part of the build, launch via
+ * {@link #main(java.lang.String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DerAttrBenchmark {
+
+    private static final List<String> EXPRESSIONS = Arrays.asList(
+            "username + ' - ' + creationDate + '[' + failedLogins + ']'",
+            "surname + ', ' + firstname",
+            "firstname + '.' + surname + '@' + ctype",
+            "fullname.toUpperCase()");
+
+    private User user;
+
+    private List<JexlExpression> compiled;
+
+    private static void addPlainAttr(final User user, final String schemaKey, final String value) {
+        JPAPlainSchema schema = new JPAPlainSchema();
+        schema.setKey(schemaKey);
+        schema.setType(AttrSchemaType.String);
+
+        JPAUPlainAttr attr = new JPAUPlainAttr();
+        attr.setOwner(user);
+        attr.setSchema(schema);
+        attr.add(value, new JPAUPlainAttrValue());
+        user.add(attr);
+    }
+
+    @Setup
+    public void setup() {
+        user = new JPAUser();
+        user.setUsername("vivaldi");
+        user.setCreationDate(new Date());
+        user.setFailedLogins(0);
+        addPlainAttr(user, "firstname", "Antonio");
+        addPlainAttr(user, "surname", "Vivaldi");
+        addPlainAttr(user, "fullname", "Antonio Vivaldi");
+        addPlainAttr(user, "ctype", "F");
+        addPlainAttr(user, "userId", "vivaldi@apache.org");
+        addPlainAttr(user, "email", "vivaldi@apache.org");
+        addPlainAttr(user, "loginDate", "2009-05-26");
+
+        compiled = new ArrayList<>(EXPRESSIONS.size());
+        EXPRESSIONS.forEach(expression -> compiled.add(JexlUtils.createExpression(expression)));
+    }
+
+    @Benchmark
+    public void contextPerExpression(final Blackhole blackhole) {
+        EXPRESSIONS.forEach(expression -> {
+            JexlContext jexlContext = new MapContext();
+            JexlUtils.addPlainAttrsToContext(user.getPlainAttrs(), jexlContext);
+            JexlUtils.addFieldsToContext(user, jexlContext);
+
+            blackhole.consume(JexlUtils.evaluate(expression, jexlContext));
+        });
+    }
+
+    @Benchmark
+    public void sharedContext(final Blackhole blackhole) {
+        AnyJexlContext jexlContext = new AnyJexlContext(user, user.getPlainAttrs());
+        compiled.forEach(expression -> blackhole.consume(JexlUtils.evaluate(expression, jexlContext.local())));
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DerAttrBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -23,6 +23,10 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.servlet.ReadListener;
 import javax.servlet.ServletInputStream;
@@ -40,6 +44,12 @@ public class BatchItemRequest extends HttpServletRequestWrapper {
 
     private final ServletInputStream inputStream;
 
+    /**
+     * Attributes set while processing this item, not shared with the wrapped request since items might be processed
+     * concurrently.
+     */
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
     public BatchItemRequest(
             final String basePath,
             final HttpServletRequest request,
@@ -142,4 +152,30 @@ public class BatchItemRequest extends HttpServletRequestWrapper {
     public ServletInputStream getInputStream() throws IOException {
         return inputStream;
     }
+
+    @Override
+    public Object getAttribute(final String name) {
+        return attributes.containsKey(name) ? attributes.get(name) : super.getAttribute(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        Set<String> names = new HashSet<>(Collections.list(super.getAttributeNames()));
+        names.addAll(attributes.keySet());
+        return Collections.enumeration(names);
+    }
+
+    @Override
+    public void setAttribute(final String name, final Object value) {
+        if (value == null) {
+            removeAttribute(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(final String name) {
+        attributes.remove(name);
+    }
 }
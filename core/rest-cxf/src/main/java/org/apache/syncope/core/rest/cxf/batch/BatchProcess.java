@@ -20,12 +20,20 @@ package org.apache.syncope.core.rest.cxf.batch;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import javax.annotation.Resource;
 import javax.servlet.ServletConfig;
 import javax.servlet.http.HttpServletRequest;
 import org.apache.cxf.transport.http.AbstractHTTPDestination;
 import org.apache.cxf.transport.http.DestinationRegistry;
 import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.rest.api.RESTHeaders;
 import org.apache.syncope.common.rest.api.batch.BatchPayloadGenerator;
 import org.apache.syncope.common.rest.api.batch.BatchRequestItem;
 import org.apache.syncope.common.rest.api.batch.BatchResponseItem;
@@ -34,16 +42,40 @@ import org.apache.syncope.core.persistence.api.entity.Batch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+/**
+ * Processes the items of a batch request and saves the results on the related {@link Batch}.
+ * Items are processed one after the other, unless a parallelism greater than 1 is set: in such case items are
+ * processed concurrently via the {@code batchItemExecutor}, except for those sharing the same
+ * {@link RESTHeaders#BATCH_SEQUENCE} value, which are processed in order by the same worker.
+ * In any case, results are appended to the payload as soon as all previous items were processed, in the same order
+ * as the request items; the payload is saved in chunks, so that it is never kept in memory as a whole.
+ * At most {@link #MAX_PENDING} results are kept waiting for some previous item: once such limit is reached, workers
+ * stop picking new items until the oldest pending item is processed.
+ */
 public class BatchProcess implements Runnable {
 
     private static final Logger LOG = LoggerFactory.getLogger(BatchProcess.class);
 
+    /**
+     * Size, in chars, of the payload chunks saved on the {@link Batch}.
+     */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Maximum number of results kept in memory while waiting for some previous item to be processed.
+     */
+    private static final int MAX_PENDING = 1000;
+
     @Autowired
     private BatchDAO batchDAO;
 
+    @Resource(name = "batchItemExecutor")
+    private ThreadPoolTaskExecutor batchItemExecutor;
+
     private String boundary;
 
     private String basePath;
@@ -58,6 +90,27 @@ public class BatchProcess implements Runnable {
 
     private Authentication authentication;
 
+    private int parallelism = 1;
+
+    /**
+     * Payload chunk not yet saved.
+     */
+    private final StringBuilder chunk = new StringBuilder();
+
+    /**
+     * Results of items processed but not yet appended to the payload because some previous item is still pending.
+     */
+    private BatchResponseItem[] pending;
+
+    private int pendingCount;
+
+    private int nextToAppend;
+
+    /**
+     * Lanes not yet picked by any worker, sorted by their first item.
+     */
+    private Queue<List<Integer>> lanes;
+
     public void setBoundary(final String boundary) {
         this.boundary = boundary;
     }
@@ -86,59 +139,186 @@ public class BatchProcess implements Runnable {
         this.authentication = authentication;
     }
 
-    @Override
-    public void run() {
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+    public void setParallelism(final int parallelism) {
+        this.parallelism = parallelism;
+    }
 
-        List<BatchResponseItem> batchResponseItems = new ArrayList<>(batchRequestItems.size());
+    private BatchResponseItem process(final BatchRequestItem reqItem) {
+        LOG.debug("Batch item:\n{}", reqItem);
 
-        batchRequestItems.forEach((BatchRequestItem reqItem) -> {
-            LOG.debug("Batch item:\n{}", reqItem);
+        AbstractHTTPDestination dest = destinationRegistry.getDestinationForPath(reqItem.getRequestURI(), true);
+        if (dest == null) {
+            dest = destinationRegistry.checkRestfulRequest(reqItem.getRequestURI());
+        }
+        LOG.debug("Destination found for {}: {}", reqItem.getRequestURI(), dest);
 
-            AbstractHTTPDestination dest = destinationRegistry.getDestinationForPath(reqItem.getRequestURI(), true);
-            if (dest == null) {
-                dest = destinationRegistry.checkRestfulRequest(reqItem.getRequestURI());
-            }
-            LOG.debug("Destination found for {}: {}", reqItem.getRequestURI(), dest);
+        BatchResponseItem resItem = new BatchResponseItem();
+        if (dest == null) {
+            resItem.setStatus(404);
+        } else {
+            BatchItemRequest request = new BatchItemRequest(basePath, servletRequest, reqItem);
+            BatchItemResponse response = new BatchItemResponse();
+            try {
+                dest.invoke(servletConfig, servletConfig.getServletContext(), request, response);
+
+                resItem.setStatus(response.getStatus());
+                resItem.setHeaders(response.getHeaders());
+                String output = new String(response.getUnderlyingOutputStream().toByteArray());
+                if (output.length() > 0) {
+                    resItem.setContent(output);
+                }
+                LOG.debug("Returned:\nstatus: {}\nheaders: {}\nbody:\n{}",
+                        resItem.getStatus(), resItem.getHeaders(), output);
+            } catch (IOException e) {
+                LOG.error("Invocation of {} failed", dest.getPath(), e);
 
-            if (dest == null) {
-                BatchResponseItem resItem = new BatchResponseItem();
                 resItem.setStatus(404);
-                batchResponseItems.add(resItem);
-            } else {
-                BatchItemRequest request = new BatchItemRequest(basePath, servletRequest, reqItem);
-                BatchItemResponse response = new BatchItemResponse();
-                try {
-                    dest.invoke(servletConfig, servletConfig.getServletContext(), request, response);
-                    LOG.debug("Returned:\nstatus: {}\nheaders: {}\nbody:\n{}", response.getStatus(),
-                            response.getHeaders(), new String(response.getUnderlyingOutputStream().toByteArray()));
-
-                    BatchResponseItem resItem = new BatchResponseItem();
-                    resItem.setStatus(response.getStatus());
-                    resItem.setHeaders(response.getHeaders());
-                    String output = new String(response.getUnderlyingOutputStream().toByteArray());
-                    if (output.length() > 0) {
-                        resItem.setContent(output);
-                    }
-                    batchResponseItems.add(resItem);
-                } catch (IOException e) {
-                    LOG.error("Invocation of {} failed", dest.getPath(), e);
+            }
+        }
+        return resItem;
+    }
 
-                    BatchResponseItem resItem = new BatchResponseItem();
-                    resItem.setStatus(404);
-                    batchResponseItems.add(resItem);
+    private void save() {
+        if (!batchDAO.appendResults(boundary, chunk.toString())) {
+            LOG.error("Could not find batch {}, cannot save results hence reporting here:\n{}", boundary, chunk);
+        }
+        chunk.setLength(0);
+    }
+
+    private void processItem(final int index) {
+        BatchResponseItem resItem;
+        try {
+            resItem = process(batchRequestItems.get(index));
+        } catch (RuntimeException e) {
+            LOG.error("While processing batch item {}", batchRequestItems.get(index), e);
+
+            resItem = new BatchResponseItem();
+            resItem.setStatus(500);
+        }
+
+        synchronized (chunk) {
+            pending[index] = resItem;
+            pendingCount++;
+            while (nextToAppend < pending.length && pending[nextToAppend] != null) {
+                BatchPayloadGenerator.append(
+                        pending[nextToAppend], SyncopeConstants.DOUBLE_DASH + boundary, chunk);
+                pending[nextToAppend] = null;
+                pendingCount--;
+                nextToAppend++;
+            }
+            if (chunk.length() >= CHUNK_SIZE) {
+                save();
+            }
+            chunk.notifyAll();
+        }
+    }
+
+    /**
+     * Waits until the given item can be processed without exceeding {@link #MAX_PENDING}; while waiting, if the
+     * oldest pending item was not picked by any worker yet, its lane is processed by the current thread, as no other
+     * worker might be available for that.
+     *
+     * @param index item index
+     */
+    private void awaitTurn(final int index) {
+        while (true) {
+            List<Integer> head;
+            synchronized (chunk) {
+                if (index == nextToAppend || pendingCount < MAX_PENDING) {
+                    return;
+                }
+
+                head = lanes.peek();
+                if (head == null || head.get(0) != nextToAppend) {
+                    head = null;
+                    try {
+                        chunk.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        LOG.error("Interrupted while waiting for batch {} item {} to be processed",
+                                boundary, nextToAppend, e);
+                        return;
+                    }
                 }
             }
+
+            if (head != null && lanes.remove(head)) {
+                processLane(head);
+            }
+        }
+    }
+
+    private void processLane(final List<Integer> lane) {
+        lane.forEach(index -> {
+            awaitTurn(index);
+            processItem(index);
         });
+    }
+
+    private void runParallel(final int threads) {
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            batchItemExecutor.execute(() -> {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                try {
+                    for (List<Integer> lane = lanes.poll(); lane != null; lane = lanes.poll()) {
+                        processLane(lane);
+                    }
+                } finally {
+                    SecurityContextHolder.clearContext();
+                    latch.countDown();
+                }
+            });
+        }
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Interrupted while waiting for batch {} items to be processed", boundary, e);
+        }
+    }
+
+    @Override
+    public void run() {
+        SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        String results = BatchPayloadGenerator.generate(batchResponseItems, SyncopeConstants.DOUBLE_DASH + boundary);
+        pending = new BatchResponseItem[batchRequestItems.size()];
 
-        Batch batch = batchDAO.find(boundary);
-        if (batch == null) {
-            LOG.error("Could not find batch {}, cannot save results hence reporting here:\n{}", boundary, results);
+        // items sharing the same sequence form a single lane, all other items form a lane on their own
+        lanes = new ConcurrentLinkedQueue<>();
+        Map<String, List<Integer>> sequences = new HashMap<>();
+        for (int i = 0; i < batchRequestItems.size(); i++) {
+            List<Object> sequence = batchRequestItems.get(i).getHeaders().get(RESTHeaders.BATCH_SEQUENCE);
+            if (sequence == null || sequence.isEmpty()) {
+                lanes.add(Collections.singletonList(i));
+            } else {
+                List<Integer> lane = sequences.get(sequence.get(0).toString());
+                if (lane == null) {
+                    lane = new ArrayList<>();
+                    sequences.put(sequence.get(0).toString(), lane);
+                    lanes.add(lane);
+                }
+                lane.add(i);
+            }
+        }
+
+        int threads = Math.min(Math.min(parallelism, batchItemExecutor.getMaxPoolSize()), lanes.size());
+        if (threads > 1) {
+            LOG.debug("Processing {} items of batch {} via {} threads", pending.length, boundary, threads);
+            runParallel(threads);
         } else {
-            batch.setResults(results);
-            batchDAO.save(batch);
+            for (int i = 0; i < batchRequestItems.size(); i++) {
+                processItem(i);
+            }
+        }
+
+        // closing the payload marks the results as complete, see BatchPayloadGenerator#isComplete
+        synchronized (chunk) {
+            BatchPayloadGenerator.appendEnd(SyncopeConstants.DOUBLE_DASH + boundary, chunk);
+            save();
         }
+        pending = null;
+        lanes = null;
     }
 }
@@ -25,7 +25,9 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.ws.rs.BadRequestException;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.SyncopeConstants;
@@ -38,21 +40,26 @@ import org.apache.syncope.common.lib.to.AnyTO;
 import org.apache.syncope.common.lib.to.AttrTO;
 import org.apache.syncope.common.lib.to.PagedResult;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
 import org.apache.syncope.common.lib.types.PatchOperation;
 import org.apache.syncope.common.lib.types.ResourceAssociationAction;
 import org.apache.syncope.common.lib.types.ResourceDeassociationAction;
 import org.apache.syncope.common.lib.types.SchemaType;
+import org.apache.syncope.common.lib.types.SearchCountMode;
 import org.apache.syncope.common.rest.api.Preference;
 import org.apache.syncope.common.rest.api.RESTHeaders;
 import org.apache.syncope.common.rest.api.batch.BatchPayloadGenerator;
 import org.apache.syncope.common.rest.api.batch.BatchResponseItem;
+import org.apache.syncope.common.rest.api.beans.AnyExportQuery;
 import org.apache.syncope.common.rest.api.beans.AnyQuery;
 import org.apache.syncope.common.rest.api.service.AnyService;
 import org.apache.syncope.core.logic.AbstractAnyLogic;
+import org.apache.syncope.core.logic.export.AnyExport;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 
 public abstract class AbstractAnyService<TO extends AnyTO, P extends AnyPatch>
         extends AbstractServiceImpl
@@ -134,9 +141,42 @@ public abstract class AbstractAnyService<TO extends AnyTO, P extends AnyPatch>
                 anyQuery.getSize(),
                 getOrderByClauses(anyQuery.getOrderBy()),
                 isAssignableCond ? SyncopeConstants.ROOT_REALM : realm,
-                anyQuery.getDetails());
+                anyQuery.getDetails(),
+                anyQuery.getCount());
+
+        PagedResult<TO> pagedResult =
+                buildPagedResult(result.getRight(), anyQuery.getPage(), anyQuery.getSize(), result.getLeft());
+        if (anyQuery.getCount() == SearchCountMode.NONE) {
+            // only the next link tells whether further pages exist
+            pagedResult.setTotalCount(-1);
+        }
+        return pagedResult;
+    }
+
+    @Override
+    public Response export(final AnyExportQuery exportQuery) {
+        String realm = StringUtils.prependIfMissing(exportQuery.getRealm(), SyncopeConstants.ROOT_REALM);
 
-        return buildPagedResult(result.getRight(), anyQuery.getPage(), anyQuery.getSize(), result.getLeft());
+        SearchCond searchCond = StringUtils.isBlank(exportQuery.getFiql())
+                ? null
+                : getSearchCond(exportQuery.getFiql(), realm);
+
+        AnyExportFormat format = exportQuery.getFormat();
+        AnyExport export = getAnyLogic().prepareExport(
+                searchCond,
+                realm,
+                format,
+                exportQuery.getFields(),
+                exportQuery.getPlainAttrs(),
+                exportQuery.getDerAttrs(),
+                exportQuery.getVirAttrs());
+        StreamingOutput sout = (os) -> getAnyLogic().export(os, export);
+
+        return Response.ok(sout).
+                type(format == AnyExportFormat.CSV ? RESTHeaders.TEXT_CSV : RESTHeaders.APPLICATION_NDJSON).
+                header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + AuthContextUtils.getDomain() + "." + format.name().toLowerCase()).
+                build();
     }
 
     protected Date findLastChange(final String key) {
@@ -29,6 +29,7 @@ import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.cxf.Bus;
 import org.apache.cxf.transport.DestinationFactoryManager;
@@ -45,6 +46,7 @@ import org.apache.syncope.common.lib.to.TypeExtensionTO;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
 import org.apache.syncope.common.rest.api.Preference;
 import org.apache.syncope.common.rest.api.RESTHeaders;
+import org.apache.syncope.common.rest.api.batch.BatchPayloadGenerator;
 import org.apache.syncope.common.rest.api.batch.BatchPayloadParser;
 import org.apache.syncope.common.rest.api.batch.BatchRequestItem;
 import org.apache.syncope.common.rest.api.service.SyncopeService;
@@ -155,6 +157,10 @@ public class SyncopeServiceImpl extends AbstractServiceImpl implements SyncopeSe
         batchProcess.setServletConfig(messageContext.getServletConfig());
         batchProcess.setServletRequest(messageContext.getHttpServletRequest());
         batchProcess.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+        String parallelism = messageContext.getHttpServletRequest().getHeader(RESTHeaders.BATCH_PARALLELISM);
+        if (NumberUtils.isDigits(parallelism)) {
+            batchProcess.setParallelism(NumberUtils.toInt(parallelism, 1));
+        }
 
         // manage synchronous Vs asynchronous batch processing
         if (getPreference() == Preference.RESPOND_ASYNC) {
@@ -181,7 +187,8 @@ public class SyncopeServiceImpl extends AbstractServiceImpl implements SyncopeSe
             throw new NotFoundException("Batch " + boundary);
         }
 
-        if (batch.getResults() == null) {
+        String results = batchDAO.getResults(boundary);
+        if (!BatchPayloadGenerator.isComplete(SyncopeConstants.DOUBLE_DASH + boundary, results)) {
             return Response.accepted().
                     type(RESTHeaders.multipartMixedWith(boundary)).
                     header(HttpHeaders.RETRY_AFTER, 5).
@@ -189,7 +196,7 @@ public class SyncopeServiceImpl extends AbstractServiceImpl implements SyncopeSe
                     build();
         }
 
-        Response response = Response.ok(batch.getResults()).
+        Response response = Response.ok(results).
                 type(RESTHeaders.multipartMixedWith(boundary)).
                 build();
 
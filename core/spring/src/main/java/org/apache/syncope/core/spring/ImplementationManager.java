@@ -19,10 +19,13 @@
 package org.apache.syncope.core.spring;
 
 import groovy.lang.GroovyClassLoader;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import org.apache.syncope.common.lib.policy.AccountRuleConf;
 import org.apache.syncope.common.lib.policy.PasswordRuleConf;
 import org.apache.syncope.common.lib.policy.PullCorrelationRuleConf;
@@ -36,17 +39,45 @@ import org.apache.syncope.core.persistence.api.entity.Implementation;
 import org.apache.syncope.core.persistence.api.dao.PullCorrelationRule;
 import org.apache.syncope.core.persistence.api.dao.PushCorrelationRule;
 import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 
+/**
+ * Builds instances out of {@link Implementation} definitions.
+ * Compiled Groovy classes, loaded Java classes and configured Java rules / reportlets are kept in a registry keyed by
+ * domain and implementation key, as different domains can define implementations with the same key; each entry
+ * remembers the body it was built from, so that it is transparently rebuilt whenever the implementation body changes,
+ * even if {@link #purge(java.lang.String)} was not invoked - as it happens when the change was performed by another
+ * node.
+ */
 public final class ImplementationManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(ImplementationManager.class);
 
-    private static final GroovyClassLoader GROOVY_CLASSLOADER = new GroovyClassLoader();
+    private static final class Built {
+
+        private final String body;
+
+        private final Class<?> clazz;
+
+        private final Object instance;
+
+        private Built(final String body, final Class<?> clazz, final Object instance) {
+            this.body = body;
+            this.clazz = clazz;
+            this.instance = instance;
+        }
+    }
+
+    private static final Map<String, Built> REGISTRY = new ConcurrentHashMap<>();
+
+    private static final AtomicLong HITS = new AtomicLong();
 
-    private static final Map<String, Class<?>> CLASS_CACHE = Collections.synchronizedMap(new HashMap<>());
+    private static final AtomicLong BUILDS = new AtomicLong();
+
+    private static final AtomicLong BUILD_NANOS = new AtomicLong();
 
     public static Optional<Reportlet> buildReportlet(final Implementation impl)
             throws InstantiationException, IllegalAccessException {
@@ -57,28 +88,12 @@ public final class ImplementationManager {
 
             case JAVA:
             default:
-                Reportlet reportlet = null;
-
-                ReportletConf reportletConf = POJOHelper.deserialize(impl.getBody(), ReportletConf.class);
-                Class<? extends Reportlet> reportletClass = ApplicationContextProvider.getApplicationContext().
-                        getBean(ImplementationLookup.class).getReportletClass(reportletConf.getClass());
-                if (reportletClass == null) {
-                    LOG.warn("Could not find matching reportlet for {}", reportletConf.getClass());
-                } else {
-                    // fetch (or create) reportlet
-                    if (ApplicationContextProvider.getBeanFactory().containsSingleton(reportletClass.getName())) {
-                        reportlet = (Reportlet) ApplicationContextProvider.getBeanFactory().
-                                getSingleton(reportletClass.getName());
-                    } else {
-                        reportlet = (Reportlet) ApplicationContextProvider.getBeanFactory().
-                                createBean(reportletClass, AbstractBeanDefinition.AUTOWIRE_BY_TYPE, false);
-                        ApplicationContextProvider.getBeanFactory().
-                                registerSingleton(reportletClass.getName(), reportlet);
-                    }
-                    reportlet.setConf(reportletConf);
-                }
-
-                return Optional.ofNullable(reportlet);
+                return buildConfigured(
+                        impl,
+                        ReportletConf.class,
+                        conf -> lookup().getReportletClass(conf.getClass()),
+                        Reportlet::setConf,
+                        "reportlet");
         }
     }
 
@@ -91,28 +106,12 @@ public final class ImplementationManager {
 
             case JAVA:
             default:
-                AccountRule rule = null;
-
-                AccountRuleConf ruleConf = POJOHelper.deserialize(impl.getBody(), AccountRuleConf.class);
-                Class<? extends AccountRule> ruleClass = ApplicationContextProvider.getApplicationContext().
-                        getBean(ImplementationLookup.class).getAccountRuleClass(ruleConf.getClass());
-                if (ruleClass == null) {
-                    LOG.warn("Could not find matching account rule for {}", impl.getClass());
-                } else {
-                    // fetch (or create) rule
-                    if (ApplicationContextProvider.getBeanFactory().containsSingleton(ruleClass.getName())) {
-                        rule = (AccountRule) ApplicationContextProvider.getBeanFactory().
-                                getSingleton(ruleClass.getName());
-                    } else {
-                        rule = (AccountRule) ApplicationContextProvider.getBeanFactory().
-                                createBean(ruleClass, AbstractBeanDefinition.AUTOWIRE_BY_TYPE, false);
-                        ApplicationContextProvider.getBeanFactory().
-                                registerSingleton(ruleClass.getName(), rule);
-                    }
-                    rule.setConf(ruleConf);
-                }
-
-                return Optional.ofNullable(rule);
+                return buildConfigured(
+                        impl,
+                        AccountRuleConf.class,
+                        conf -> lookup().getAccountRuleClass(conf.getClass()),
+                        AccountRule::setConf,
+                        "account rule");
         }
     }
 
@@ -125,28 +124,12 @@ public final class ImplementationManager {
 
             case JAVA:
             default:
-                PasswordRule rule = null;
-
-                PasswordRuleConf ruleConf = POJOHelper.deserialize(impl.getBody(), PasswordRuleConf.class);
-                Class<? extends PasswordRule> ruleClass = ApplicationContextProvider.getApplicationContext().
-                        getBean(ImplementationLookup.class).getPasswordRuleClass(ruleConf.getClass());
-                if (ruleClass == null) {
-                    LOG.warn("Could not find matching password rule for {}", impl.getClass());
-                } else {
-                    // fetch (or create) rule
-                    if (ApplicationContextProvider.getBeanFactory().containsSingleton(ruleClass.getName())) {
-                        rule = (PasswordRule) ApplicationContextProvider.getBeanFactory().
-                                getSingleton(ruleClass.getName());
-                    } else {
-                        rule = (PasswordRule) ApplicationContextProvider.getBeanFactory().
-                                createBean(ruleClass, AbstractBeanDefinition.AUTOWIRE_BY_TYPE, false);
-                        ApplicationContextProvider.getBeanFactory().
-                                registerSingleton(ruleClass.getName(), rule);
-                    }
-                    rule.setConf(ruleConf);
-                }
-
-                return Optional.ofNullable(rule);
+                return buildConfigured(
+                        impl,
+                        PasswordRuleConf.class,
+                        conf -> lookup().getPasswordRuleClass(conf.getClass()),
+                        PasswordRule::setConf,
+                        "password rule");
         }
     }
 
@@ -159,29 +142,12 @@ public final class ImplementationManager {
 
             case JAVA:
             default:
-                PullCorrelationRule rule = null;
-
-                PullCorrelationRuleConf ruleConf =
-                        POJOHelper.deserialize(impl.getBody(), PullCorrelationRuleConf.class);
-                Class<? extends PullCorrelationRule> ruleClass = ApplicationContextProvider.getApplicationContext().
-                        getBean(ImplementationLookup.class).getPullCorrelationRuleClass(ruleConf.getClass());
-                if (ruleClass == null) {
-                    LOG.warn("Could not find matching pull correlation rule for {}", impl.getClass());
-                } else {
-                    // fetch (or create) rule
-                    if (ApplicationContextProvider.getBeanFactory().containsSingleton(ruleClass.getName())) {
-                        rule = (PullCorrelationRule) ApplicationContextProvider.getBeanFactory().
-                                getSingleton(ruleClass.getName());
-                    } else {
-                        rule = (PullCorrelationRule) ApplicationContextProvider.getBeanFactory().
-                                createBean(ruleClass, AbstractBeanDefinition.AUTOWIRE_BY_TYPE, false);
-                        ApplicationContextProvider.getBeanFactory().
-                                registerSingleton(ruleClass.getName(), rule);
-                    }
-                    rule.setConf(ruleConf);
-                }
-
-                return Optional.ofNullable(rule);
+                return buildConfigured(
+                        impl,
+                        PullCorrelationRuleConf.class,
+                        conf -> lookup().getPullCorrelationRuleClass(conf.getClass()),
+                        PullCorrelationRule::setConf,
+                        "pull correlation rule");
         }
     }
 
@@ -194,29 +160,12 @@ public final class ImplementationManager {
 
             case JAVA:
             default:
-                PushCorrelationRule rule = null;
-
-                PushCorrelationRuleConf ruleConf =
-                        POJOHelper.deserialize(impl.getBody(), PushCorrelationRuleConf.class);
-                Class<? extends PushCorrelationRule> ruleClass = ApplicationContextProvider.getApplicationContext().
-                        getBean(ImplementationLookup.class).getPushCorrelationRuleClass(ruleConf.getClass());
-                if (ruleClass == null) {
-                    LOG.warn("Could not find matching push correlation rule for {}", impl.getClass());
-                } else {
-                    // fetch (or create) rule
-                    if (ApplicationContextProvider.getBeanFactory().containsSingleton(ruleClass.getName())) {
-                        rule = (PushCorrelationRule) ApplicationContextProvider.getBeanFactory().
-                                getSingleton(ruleClass.getName());
-                    } else {
-                        rule = (PushCorrelationRule) ApplicationContextProvider.getBeanFactory().
-                                createBean(ruleClass, AbstractBeanDefinition.AUTOWIRE_BY_TYPE, false);
-                        ApplicationContextProvider.getBeanFactory().
-                                registerSingleton(ruleClass.getName(), rule);
-                    }
-                    rule.setConf(ruleConf);
-                }
-
-                return Optional.ofNullable(rule);
+                return buildConfigured(
+                        impl,
+                        PushCorrelationRuleConf.class,
+                        conf -> lookup().getPushCorrelationRuleClass(conf.getClass()),
+                        PushCorrelationRule::setConf,
+                        "push correlation rule");
         }
     }
 
@@ -233,40 +182,178 @@ public final class ImplementationManager {
         }
     }
 
+    /**
+     * Compiles, loads or configures - according to engine and type - the given implementation, so that no such cost
+     * is paid upon first actual usage.
+     *
+     * @param impl implementation
+     * @throws Exception if the given implementation cannot be built
+     */
+    public static void precompile(final Implementation impl) throws Exception {
+        switch (impl.getEngine()) {
+            case GROOVY:
+                groovyClass(impl);
+                break;
+
+            case JAVA:
+            default:
+                switch (impl.getType()) {
+                    case REPORTLET:
+                        buildReportlet(impl);
+                        break;
+
+                    case ACCOUNT_RULE:
+                        buildAccountRule(impl);
+                        break;
+
+                    case PASSWORD_RULE:
+                        buildPasswordRule(impl);
+                        break;
+
+                    case PULL_CORRELATION_RULE:
+                        buildPullCorrelationRule(impl);
+                        break;
+
+                    case PUSH_CORRELATION_RULE:
+                        buildPushCorrelationRule(impl);
+                        break;
+
+                    default:
+                        javaClass(impl);
+                }
+        }
+    }
+
+    private static ImplementationLookup lookup() {
+        return ApplicationContextProvider.getApplicationContext().getBean(ImplementationLookup.class);
+    }
+
+    private static String registryKey(final String implementation) {
+        return AuthContextUtils.getDomain() + '/' + implementation;
+    }
+
+    private static Built cached(final Implementation impl) {
+        Built built = REGISTRY.get(registryKey(impl.getKey()));
+        if (built != null && built.body.equals(impl.getBody())) {
+            HITS.incrementAndGet();
+            return built;
+        }
+        return null;
+    }
+
+    private static Built register(
+            final Implementation impl, final long start, final Class<?> clazz, final Object instance) {
+
+        Built built = new Built(impl.getBody(), clazz, instance);
+        // concurrent builds of the same implementation are harmless: the latest one wins
+        REGISTRY.put(registryKey(impl.getKey()), built);
+
+        long elapsed = System.nanoTime() - start;
+        BUILDS.incrementAndGet();
+        BUILD_NANOS.addAndGet(elapsed);
+        LOG.debug("Implementation {} built in {} ms", impl.getKey(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+
+        return built;
+    }
+
     @SuppressWarnings("unchecked")
-    private static <T> T buildGroovy(final Implementation impl)
-            throws InstantiationException, IllegalAccessException {
+    private static <C, T> Optional<T> buildConfigured(
+            final Implementation impl,
+            final Class<C> confClass,
+            final Function<C, Class<? extends T>> classLookup,
+            final BiConsumer<T, C> setConf,
+            final String description) {
+
+        Built built = cached(impl);
+        if (built == null) {
+            long start = System.nanoTime();
+
+            C conf = POJOHelper.deserialize(impl.getBody(), confClass);
+            Class<? extends T> clazz = classLookup.apply(conf);
+            if (clazz == null) {
+                LOG.warn("Could not find matching {} for {}", description, conf.getClass());
+                return Optional.empty();
+            }
+
+            // each implementation gets its own instance, configured once
+            T instance = (T) ApplicationContextProvider.getBeanFactory().
+                    createBean(clazz, AbstractBeanDefinition.AUTOWIRE_BY_TYPE, false);
+            setConf.accept(instance, conf);
+
+            built = register(impl, start, clazz, instance);
+        }
+
+        return Optional.of((T) built.instance);
+    }
 
-        Class<?> clazz;
-        if (CLASS_CACHE.containsKey(impl.getKey())) {
-            clazz = CLASS_CACHE.get(impl.getKey());
-        } else {
-            clazz = GROOVY_CLASSLOADER.parseClass(impl.getBody());
-            CLASS_CACHE.put(impl.getKey(), clazz);
+    private static Class<?> groovyClass(final Implementation impl) {
+        Built built = cached(impl);
+        if (built == null) {
+            long start = System.nanoTime();
+
+            // one class loader per script, so that classes compiled from outdated bodies can be garbage collected
+            @SuppressWarnings("resource")
+            GroovyClassLoader classLoader = new GroovyClassLoader(ImplementationManager.class.getClassLoader());
+            built = register(impl, start, classLoader.parseClass(impl.getBody()), null);
         }
+        return built.clazz;
+    }
+
+    private static Class<?> javaClass(final Implementation impl) throws ClassNotFoundException {
+        Built built = cached(impl);
+        if (built == null) {
+            long start = System.nanoTime();
+            built = register(impl, start, Class.forName(impl.getBody()), null);
+        }
+        return built.clazz;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T buildGroovy(final Implementation impl)
+            throws InstantiationException, IllegalAccessException {
 
         return (T) ApplicationContextProvider.getBeanFactory().
-                createBean(clazz, AbstractBeanDefinition.AUTOWIRE_BY_TYPE, false);
+                createBean(groovyClass(impl), AbstractBeanDefinition.AUTOWIRE_BY_TYPE, false);
     }
 
     @SuppressWarnings("unchecked")
     private static <T> T buildJava(final Implementation impl)
             throws ClassNotFoundException {
 
-        Class<?> clazz;
-        if (CLASS_CACHE.containsKey(impl.getKey())) {
-            clazz = CLASS_CACHE.get(impl.getKey());
-        } else {
-            clazz = Class.forName(impl.getBody());
-            CLASS_CACHE.put(impl.getKey(), clazz);
-        }
-
         return (T) ApplicationContextProvider.getBeanFactory().
-                createBean(clazz, AbstractBeanDefinition.AUTOWIRE_BY_TYPE, false);
+                createBean(javaClass(impl), AbstractBeanDefinition.AUTOWIRE_BY_TYPE, false);
     }
 
+    /**
+     * Removes the given implementation, for the current domain, from the registry.
+     *
+     * @param implementation implementation key
+     * @return class previously built for the given implementation, if any
+     */
     public static Class<?> purge(final String implementation) {
-        return CLASS_CACHE.remove(implementation);
+        Built built = REGISTRY.remove(registryKey(implementation));
+        return built == null ? null : built.clazz;
+    }
+
+    /**
+     * @return number of times a built implementation was served from the registry, for all domains
+     */
+    public static long getHits() {
+        return HITS.get();
+    }
+
+    /**
+     * @return number of times an implementation was actually built, for all domains
+     */
+    public static long getBuilds() {
+        return BUILDS.get();
+    }
+
+    /**
+     * @return total time, in nanoseconds, spent building implementations, for all domains
+     */
+    public static long getBuildNanos() {
+        return BUILD_NANOS.get();
     }
 
     private ImplementationManager() {
@@ -18,6 +18,9 @@
  */
 package org.apache.syncope.core.spring.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -27,6 +30,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import javax.annotation.Resource;
 import org.apache.commons.lang3.BooleanUtils;
@@ -49,15 +55,21 @@ import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.AccessToken;
+import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.Domain;
 import org.apache.syncope.core.persistence.api.entity.Realm;
-import org.apache.syncope.core.persistence.api.entity.conf.CPlainAttr;
+import org.apache.syncope.core.persistence.api.entity.Role;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.provisioning.api.AuditManager;
 import org.apache.syncope.core.provisioning.api.ConnectorFactory;
 import org.apache.syncope.core.provisioning.api.EntitlementsHolder;
 import org.apache.syncope.core.provisioning.api.MappingManager;
+import org.apache.syncope.core.provisioning.api.event.AnyBulkUpdatedEvent;
+import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.identityconnectors.framework.common.objects.Uid;
 import org.slf4j.Logger;
@@ -70,6 +82,7 @@ import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * Domain-sensible (via {@code @Transactional}) access to authentication / authorization data.
@@ -135,6 +148,45 @@ public class AuthDataAccessor {
 
     private Map<String, JWTSSOProvider> jwtSSOProviders;
 
+    /**
+     * Authorities computed for a given user, along with the version of the user they were computed for.
+     */
+    protected static class CachedAuthorities {
+
+        protected final long version;
+
+        protected final Set<String> ownedGroups;
+
+        protected final Set<SyncopeGrantedAuthority> authorities;
+
+        public CachedAuthorities(
+                final long version, final Set<String> ownedGroups, final Set<SyncopeGrantedAuthority> authorities) {
+
+            this.version = version;
+            this.ownedGroups = ownedGroups;
+            this.authorities = authorities;
+        }
+    }
+
+    protected long authoritiesCacheMaximumSize = 10000;
+
+    protected long authoritiesCacheExpireAfterWrite = 300;
+
+    /**
+     * Per-domain cache of user authorities, by user key.
+     */
+    protected final Map<String, Cache<String, CachedAuthorities>> authoritiesCache = new ConcurrentHashMap<>();
+
+    protected volatile Pair<Integer, Set<SyncopeGrantedAuthority>> adminAuthorities;
+
+    public void setAuthoritiesCacheMaximumSize(final long authoritiesCacheMaximumSize) {
+        this.authoritiesCacheMaximumSize = authoritiesCacheMaximumSize;
+    }
+
+    public void setAuthoritiesCacheExpireAfterWrite(final long authoritiesCacheExpireAfterWrite) {
+        this.authoritiesCacheExpireAfterWrite = authoritiesCacheExpireAfterWrite;
+    }
+
     public JWTSSOProvider getJWTSSOProvider(final String issuer) {
         synchronized (this) {
             if (jwtSSOProviders == null) {
@@ -181,10 +233,8 @@ public class AuthDataAccessor {
     public Pair<User, Boolean> authenticate(final Authentication authentication) {
         User user = null;
 
-        Optional<? extends CPlainAttr> authAttrs = confDAO.find("authentication.attributes");
-        List<String> authAttrValues = authAttrs.isPresent()
-                ? authAttrs.get().getValuesAsStrings()
-                : Collections.singletonList("username");
+        List<String> authAttrValues = confDAO.getValuesAsStrings().getOrDefault(
+                "authentication.attributes", Collections.singletonList("username"));
         for (int i = 0; user == null && i < authAttrValues.size(); i++) {
             if ("username".equals(authAttrValues.get(i))) {
                 user = userDAO.findByUsername(authentication.getName());
@@ -210,7 +260,7 @@ public class AuthDataAccessor {
                 throw new DisabledException("User " + user.getUsername() + " is suspended");
             }
 
-            if (!confDAO.getValuesAsStrings("authentication.statuses").contains(user.getStatus())) {
+            if (!getAuthStatuses().contains(user.getStatus())) {
                 throw new DisabledException("User " + user.getUsername() + " not allowed to authenticate");
             }
 
@@ -294,13 +344,57 @@ public class AuthDataAccessor {
         return result == null ? Collections.emptySet() : result;
     }
 
+    protected List<String> getAuthStatuses() {
+        return confDAO.getValuesAsStrings("authentication.statuses");
+    }
+
     protected Set<SyncopeGrantedAuthority> getAdminAuthorities() {
-        return EntitlementsHolder.getInstance().getValues().stream().
-                map(entitlement -> new SyncopeGrantedAuthority(entitlement, SyncopeConstants.ROOT_REALM)).
-                collect(Collectors.toSet());
+        Set<String> entitlements = EntitlementsHolder.getInstance().getValues();
+
+        // rebuild only when further entitlements were registered
+        Pair<Integer, Set<SyncopeGrantedAuthority>> current = adminAuthorities;
+        if (current == null || current.getLeft() != entitlements.size()) {
+            current = Pair.of(entitlements.size(), Collections.unmodifiableSet(entitlements.stream().
+                    map(entitlement -> new SyncopeGrantedAuthority(entitlement, SyncopeConstants.ROOT_REALM)).
+                    collect(Collectors.toSet())));
+            adminAuthorities = current;
+        }
+
+        return current.getRight();
+    }
+
+    protected Cache<String, CachedAuthorities> getAuthoritiesCache(final String domain) {
+        return authoritiesCache.computeIfAbsent(domain, k -> Caffeine.newBuilder().
+                maximumSize(authoritiesCacheMaximumSize).
+                expireAfterWrite(authoritiesCacheExpireAfterWrite, TimeUnit.SECONDS).
+                recordStats().
+                build());
+    }
+
+    /**
+     * @return hit / miss / eviction statistics of the user authorities cache, summed up for all domains
+     */
+    public CacheStats getAuthoritiesCacheStats() {
+        return authoritiesCache.values().stream().map(Cache::stats).reduce(CacheStats.empty(), CacheStats::plus);
     }
 
     protected Set<SyncopeGrantedAuthority> getUserAuthorities(final User user) {
+        long version = user.getLastChangeDate() == null ? 0 : user.getLastChangeDate().getTime();
+
+        Cache<String, CachedAuthorities> cache = getAuthoritiesCache(AuthContextUtils.getDomain());
+        CachedAuthorities cached = cache.getIfPresent(user.getKey());
+        if (cached == null || cached.version != version) {
+            Set<String> ownedGroups = new HashSet<>();
+            Set<SyncopeGrantedAuthority> authorities = buildUserAuthorities(user, ownedGroups);
+
+            cached = new CachedAuthorities(version, ownedGroups, Collections.unmodifiableSet(authorities));
+            cache.put(user.getKey(), cached);
+        }
+
+        return cached.authorities;
+    }
+
+    protected Set<SyncopeGrantedAuthority> buildUserAuthorities(final User user, final Set<String> ownedGroups) {
         Set<SyncopeGrantedAuthority> authorities = new HashSet<>();
 
         if (user.isMustChangePassword()) {
@@ -327,6 +421,8 @@ public class AuthDataAccessor {
 
             // Give group entitlements for owned groups
             groupDAO.findOwnedByUser(user.getKey()).forEach((group) -> {
+                ownedGroups.add(group.getKey());
+
                 for (String entitlement : GROUP_OWNER_ENTITLEMENTS) {
                     Set<String> realms = entForRealms.get(entitlement);
                     if (realms == null) {
@@ -404,7 +500,7 @@ public class AuthDataAccessor {
                 throw new DisabledException("User " + username + " is suspended");
             }
 
-            if (!confDAO.getValuesAsStrings("authentication.statuses").contains(user.getStatus())) {
+            if (!getAuthStatuses().contains(user.getStatus())) {
                 throw new DisabledException("User " + username + " not allowed to authenticate");
             }
 
@@ -418,6 +514,61 @@ public class AuthDataAccessor {
         return Pair.of(username, authorities);
     }
 
+    protected void invalidateAuthorities(
+            final String domain, final Predicate<Map.Entry<String, CachedAuthorities>> filter) {
+
+        Cache<String, CachedAuthorities> cache = authoritiesCache.get(domain);
+        if (cache != null) {
+            cache.invalidateAll(cache.asMap().entrySet().stream().
+                    filter(filter).map(Map.Entry::getKey).collect(Collectors.toList()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void after(final AnyCreatedUpdatedEvent<Any<?>> event) {
+        Any<?> any = event.getAny();
+        if (any instanceof User) {
+            Optional.ofNullable(authoritiesCache.get(event.getDomain())).
+                    ifPresent(cache -> cache.invalidate(any.getKey()));
+        } else if (any instanceof Group) {
+            Group group = (Group) any;
+            if (group.getGroupOwner() == null) {
+                // previous and current owners
+                invalidateAuthorities(event.getDomain(), entry -> entry.getValue().ownedGroups.contains(group.getKey())
+                        || (group.getUserOwner() != null && group.getUserOwner().getKey().equals(entry.getKey())));
+            } else {
+                // members of the owner group are entitled as well
+                Optional.ofNullable(authoritiesCache.get(event.getDomain())).ifPresent(Cache::invalidateAll);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void after(final AnyDeletedEvent event) {
+        if (event.getAnyTypeKind() == AnyTypeKind.USER) {
+            Optional.ofNullable(authoritiesCache.get(event.getDomain())).
+                    ifPresent(cache -> cache.invalidate(event.getAnyKey()));
+        } else if (event.getAnyTypeKind() == AnyTypeKind.GROUP) {
+            invalidateAuthorities(event.getDomain(), entry -> entry.getValue().ownedGroups.contains(event.getAnyKey()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void after(final AnyBulkUpdatedEvent event) {
+        // dynamic group memberships were refreshed: owned groups might have changed, with no change of user version
+        if (event.getAnyTypeKind() == AnyTypeKind.USER) {
+            Optional.ofNullable(authoritiesCache.get(event.getDomain())).
+                    ifPresent(cache -> cache.invalidateAll(event.getAnyKeys()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void after(final EntityChangedEvent event) {
+        if (Role.class.isAssignableFrom(event.getReference()) || Realm.class.isAssignableFrom(event.getReference())) {
+            Optional.ofNullable(authoritiesCache.get(event.getDomain())).ifPresent(Cache::invalidateAll);
+        }
+    }
+
     @Transactional
     public void removeExpired(final String tokenKey) {
         accessTokenDAO.delete(tokenKey);
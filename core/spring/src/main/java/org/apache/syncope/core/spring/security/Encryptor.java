@@ -47,6 +47,11 @@ public final class Encryptor {
 
     private static final Map<String, Encryptor> INSTANCES = new ConcurrentHashMap<>();
 
+    /**
+     * Digesters do not depend on the secret key and are thread-safe once initialized, hence they can be shared.
+     */
+    private static final Map<CipherAlgorithm, StandardStringDigester> DIGESTERS = new ConcurrentHashMap<>();
+
     private static final String DEFAULT_SECRET_KEY = "1abcdefghilmnopqrstuvz2!";
 
     /**
@@ -133,17 +138,21 @@ public final class Encryptor {
     public static Encryptor getInstance(final String secretKey) {
         String actualKey = StringUtils.isBlank(secretKey) ? DEFAULT_SECRET_KEY : secretKey;
 
-        Encryptor instance = INSTANCES.get(actualKey);
-        if (instance == null) {
-            instance = new Encryptor(actualKey);
-            INSTANCES.put(actualKey, instance);
-        }
-
-        return instance;
+        return INSTANCES.computeIfAbsent(actualKey, Encryptor::new);
     }
 
     private SecretKeySpec keySpec;
 
+    /**
+     * Cipher instances are not thread-safe, hence each thread gets its own, already initialized for encryption.
+     */
+    private final ThreadLocal<Cipher> encryptCipher = new ThreadLocal<>();
+
+    /**
+     * Cipher instances are not thread-safe, hence each thread gets its own, already initialized for decryption.
+     */
+    private final ThreadLocal<Cipher> decryptCipher = new ThreadLocal<>();
+
     private Encryptor(final String secretKey) {
         String actualKey = secretKey;
         if (actualKey.length() < 16) {
@@ -177,10 +186,8 @@ public final class Encryptor {
             if (cipherAlgorithm == null || cipherAlgorithm == CipherAlgorithm.AES) {
                 final byte[] cleartext = value.getBytes(StandardCharsets.UTF_8);
 
-                final Cipher cipher = Cipher.getInstance(CipherAlgorithm.AES.getAlgorithm());
-                cipher.init(Cipher.ENCRYPT_MODE, keySpec);
-
-                encodedValue = new String(Base64.getEncoder().encode(cipher.doFinal(cleartext)));
+                encodedValue = new String(Base64.getEncoder().encode(
+                        doFinal(encryptCipher, Cipher.ENCRYPT_MODE, cleartext)));
             } else if (cipherAlgorithm == CipherAlgorithm.BCRYPT) {
                 encodedValue = BCrypt.hashpw(value, BCrypt.gensalt());
             } else {
@@ -220,16 +227,40 @@ public final class Encryptor {
         if (encodedValue != null && cipherAlgorithm == CipherAlgorithm.AES) {
             final byte[] encoded = encodedValue.getBytes(StandardCharsets.UTF_8);
 
-            final Cipher cipher = Cipher.getInstance(CipherAlgorithm.AES.getAlgorithm());
-            cipher.init(Cipher.DECRYPT_MODE, keySpec);
-
-            value = new String(cipher.doFinal(Base64.getDecoder().decode(encoded)), StandardCharsets.UTF_8);
+            value = new String(
+                    doFinal(decryptCipher, Cipher.DECRYPT_MODE, Base64.getDecoder().decode(encoded)),
+                    StandardCharsets.UTF_8);
         }
 
         return value;
     }
 
+    private byte[] doFinal(final ThreadLocal<Cipher> holder, final int mode, final byte[] input)
+            throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException,
+            IllegalBlockSizeException, BadPaddingException {
+
+        Cipher cipher = holder.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(CipherAlgorithm.AES.getAlgorithm());
+            cipher.init(mode, keySpec);
+            holder.set(cipher);
+        }
+
+        try {
+            // doFinal() resets the cipher to its initialized state, ready for the next invocation
+            return cipher.doFinal(input);
+        } catch (IllegalBlockSizeException | BadPaddingException e) {
+            // cipher state is undefined after failure
+            holder.remove();
+            throw e;
+        }
+    }
+
     private StandardStringDigester getDigester(final CipherAlgorithm cipherAlgorithm) {
+        return DIGESTERS.computeIfAbsent(cipherAlgorithm, Encryptor::buildDigester);
+    }
+
+    private static StandardStringDigester buildDigester(final CipherAlgorithm cipherAlgorithm) {
         StandardStringDigester digester = new StandardStringDigester();
 
         if (cipherAlgorithm.getAlgorithm().startsWith("S-")) {
@@ -248,6 +279,8 @@ public final class Encryptor {
         }
 
         digester.setStringOutputType(CommonUtils.STRING_OUTPUT_TYPE_HEXADECIMAL);
+        // initialize now rather than on first use, so that the shared instance is not reconfigured afterwards
+        digester.initialize();
         return digester;
     }
 }
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.policy.DefaultPasswordRuleConf;
+import org.apache.syncope.core.persistence.api.dao.PasswordRule;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.apache.syncope.core.spring.security.SyncopeAuthenticationDetails;
+import org.apache.syncope.core.spring.security.TestImplementation;
+import org.apache.syncope.core.spring.security.TestPasswordRule;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+@SpringJUnitConfig(locations = { "classpath:springTest.xml" })
+public class ImplementationManagerTest {
+
+    private static TestImplementation passwordRule(final String key, final int maxLength) {
+        DefaultPasswordRuleConf conf = new DefaultPasswordRuleConf();
+        conf.setMaxLength(maxLength);
+
+        TestImplementation impl = new TestImplementation();
+        impl.setKey(key);
+        impl.setBody(POJOHelper.serialize(conf));
+        return impl;
+    }
+
+    private static <T> T inDomain(final String domain, final Callable<T> callable) throws Exception {
+        UsernamePasswordAuthenticationToken auth =
+                new UsernamePasswordAuthenticationToken("admin", "FAKE_PASSWORD", Collections.emptyList());
+        auth.setDetails(new SyncopeAuthenticationDetails(domain));
+        SecurityContextHolder.getContext().setAuthentication(auth);
+        try {
+            return callable.call();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static PasswordRule build(final String domain, final TestImplementation impl) throws Exception {
+        return inDomain(domain, () -> ImplementationManager.buildPasswordRule(impl).get());
+    }
+
+    private static int maxLength(final PasswordRule rule) {
+        return ((DefaultPasswordRuleConf) rule.getConf()).getMaxLength();
+    }
+
+    @Test
+    public void cached() throws Exception {
+        TestImplementation impl = passwordRule("cached", 10);
+
+        PasswordRule rule = build(SyncopeConstants.MASTER_DOMAIN, impl);
+        assertEquals(TestPasswordRule.class, rule.getClass());
+        assertEquals(10, maxLength(rule));
+        assertSame(rule, build(SyncopeConstants.MASTER_DOMAIN, impl));
+
+        // body changed, possibly by another node
+        impl = passwordRule("cached", 20);
+        PasswordRule changed = build(SyncopeConstants.MASTER_DOMAIN, impl);
+        assertNotSame(rule, changed);
+        assertEquals(20, maxLength(changed));
+        assertSame(changed, build(SyncopeConstants.MASTER_DOMAIN, impl));
+    }
+
+    @Test
+    public void sameKeyInDifferentDomains() throws Exception {
+        TestImplementation master = passwordRule("shared", 10);
+        TestImplementation two = passwordRule("shared", 20);
+
+        PasswordRule masterRule = build(SyncopeConstants.MASTER_DOMAIN, master);
+        PasswordRule twoRule = build("Two", two);
+        assertEquals(10, maxLength(masterRule));
+        assertEquals(20, maxLength(twoRule));
+
+        // neither domain evicted the other one
+        assertSame(masterRule, build(SyncopeConstants.MASTER_DOMAIN, master));
+        assertSame(twoRule, build("Two", two));
+    }
+
+    @Test
+    public void purge() throws Exception {
+        TestImplementation impl = passwordRule("purged", 10);
+
+        PasswordRule masterRule = build(SyncopeConstants.MASTER_DOMAIN, impl);
+        PasswordRule twoRule = build("Two", impl);
+
+        assertEquals(TestPasswordRule.class, inDomain("Two", () -> ImplementationManager.purge("purged")));
+        assertNull(inDomain("Two", () -> ImplementationManager.purge("purged")));
+
+        assertNotSame(twoRule, build("Two", impl));
+        assertSame(masterRule, build(SyncopeConstants.MASTER_DOMAIN, impl));
+    }
+
+    @Test
+    public void counters() throws Exception {
+        TestImplementation impl = passwordRule("counted", 10);
+
+        long hits = ImplementationManager.getHits();
+        long builds = ImplementationManager.getBuilds();
+        long buildNanos = ImplementationManager.getBuildNanos();
+
+        build(SyncopeConstants.MASTER_DOMAIN, impl);
+        assertEquals(hits, ImplementationManager.getHits());
+        assertEquals(builds + 1, ImplementationManager.getBuilds());
+        assertTrue(ImplementationManager.getBuildNanos() > buildNanos);
+
+        build(SyncopeConstants.MASTER_DOMAIN, impl);
+        build(SyncopeConstants.MASTER_DOMAIN, impl);
+        assertEquals(hits + 2, ImplementationManager.getHits());
+        assertEquals(builds + 1, ImplementationManager.getBuilds());
+
+        // a changed body is built again
+        build(SyncopeConstants.MASTER_DOMAIN, passwordRule("counted", 20));
+        assertEquals(hits + 2, ImplementationManager.getHits());
+        assertEquals(builds + 2, ImplementationManager.getBuilds());
+    }
+}
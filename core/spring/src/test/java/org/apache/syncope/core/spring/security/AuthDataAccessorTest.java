@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.entity.Realm;
+import org.apache.syncope.core.persistence.api.entity.Role;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.provisioning.api.event.AnyBulkUpdatedEvent;
+import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AuthDataAccessorTest {
+
+    private static final String DOMAIN = SyncopeConstants.MASTER_DOMAIN;
+
+    @SuppressWarnings("unchecked")
+    private static <T> T entity(final Class<T> reference, final Map<String, Object> properties) {
+        return (T) Proxy.newProxyInstance(
+                AuthDataAccessorTest.class.getClassLoader(),
+                new Class<?>[] { reference },
+                (proxy, method, args) -> properties.get(method.getName()));
+    }
+
+    private static User user(final String key, final Date lastChangeDate) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("getKey", key);
+        properties.put("getLastChangeDate", lastChangeDate);
+        return entity(User.class, properties);
+    }
+
+    private static Group group(final String key, final User userOwner) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("getKey", key);
+        properties.put("getUserOwner", userOwner);
+        return entity(Group.class, properties);
+    }
+
+    /**
+     * Counts how many times authorities are built per user; the given owned groups are reported for each user.
+     */
+    private static class CountingAuthDataAccessor extends AuthDataAccessor {
+
+        private final Map<String, Integer> builds = new HashMap<>();
+
+        private final Map<String, Set<String>> ownedGroups = new HashMap<>();
+
+        @Override
+        protected Set<SyncopeGrantedAuthority> buildUserAuthorities(final User user, final Set<String> ownedGroups) {
+            builds.merge(user.getKey(), 1, Integer::sum);
+            ownedGroups.addAll(this.ownedGroups.getOrDefault(user.getKey(), Collections.emptySet()));
+            return new HashSet<>(Collections.singleton(new SyncopeGrantedAuthority("ENTITLEMENT")));
+        }
+
+        private int builds(final String key) {
+            return builds.getOrDefault(key, 0);
+        }
+    }
+
+    private CountingAuthDataAccessor accessor;
+
+    private User rossini;
+
+    private User verdi;
+
+    @BeforeEach
+    public void setUp() {
+        accessor = new CountingAuthDataAccessor();
+        accessor.ownedGroups.put("verdi", Collections.singleton("root"));
+
+        rossini = user("rossini", new Date(1000));
+        verdi = user("verdi", new Date(1000));
+
+        accessor.getUserAuthorities(rossini);
+        accessor.getUserAuthorities(verdi);
+    }
+
+    @Test
+    public void cached() {
+        Set<SyncopeGrantedAuthority> authorities = accessor.getUserAuthorities(rossini);
+        assertSame(authorities, accessor.getUserAuthorities(rossini));
+        assertEquals(1, accessor.builds("rossini"));
+        assertEquals(2, accessor.getAuthoritiesCacheStats().hitCount());
+
+        // newer version of the same user
+        accessor.getUserAuthorities(user("rossini", new Date(2000)));
+        assertEquals(2, accessor.builds("rossini"));
+    }
+
+    @Test
+    public void userUpdated() {
+        accessor.after(new AnyCreatedUpdatedEvent<>(this, rossini, DOMAIN));
+
+        accessor.getUserAuthorities(rossini);
+        accessor.getUserAuthorities(verdi);
+        assertEquals(2, accessor.builds("rossini"));
+        assertEquals(1, accessor.builds("verdi"));
+    }
+
+    @Test
+    public void userDeleted() {
+        accessor.after(new AnyDeletedEvent(this, AnyTypeKind.USER, "rossini", "rossini", DOMAIN));
+
+        accessor.getUserAuthorities(rossini);
+        accessor.getUserAuthorities(verdi);
+        assertEquals(2, accessor.builds("rossini"));
+        assertEquals(1, accessor.builds("verdi"));
+    }
+
+    @Test
+    public void groupOwnerChanged() {
+        // rossini becomes owner of root, previously owned by verdi
+        accessor.after(new AnyCreatedUpdatedEvent<>(this, group("root", rossini), DOMAIN));
+
+        accessor.getUserAuthorities(rossini);
+        accessor.getUserAuthorities(verdi);
+        assertEquals(2, accessor.builds("rossini"));
+        assertEquals(2, accessor.builds("verdi"));
+    }
+
+    @Test
+    public void groupDeleted() {
+        accessor.after(new AnyDeletedEvent(this, AnyTypeKind.GROUP, "root", "root", DOMAIN));
+
+        accessor.getUserAuthorities(rossini);
+        accessor.getUserAuthorities(verdi);
+        assertEquals(1, accessor.builds("rossini"));
+        assertEquals(2, accessor.builds("verdi"));
+    }
+
+    @Test
+    public void dynMembershipsRefreshed() {
+        accessor.after(new AnyBulkUpdatedEvent(this, AnyTypeKind.USER, Collections.singleton("rossini"), DOMAIN));
+
+        accessor.getUserAuthorities(rossini);
+        accessor.getUserAuthorities(verdi);
+        assertEquals(2, accessor.builds("rossini"));
+        assertEquals(1, accessor.builds("verdi"));
+
+        // changes of any object memberships do not affect authorities
+        accessor.after(new AnyBulkUpdatedEvent(
+                this, AnyTypeKind.ANY_OBJECT, Collections.singleton("verdi"), DOMAIN));
+
+        accessor.getUserAuthorities(verdi);
+        assertEquals(1, accessor.builds("verdi"));
+    }
+
+    @Test
+    public void roleOrRealmChanged() {
+        accessor.after(new EntityChangedEvent(this, Role.class, "Other", false, DOMAIN));
+
+        accessor.getUserAuthorities(rossini);
+        accessor.getUserAuthorities(verdi);
+        assertEquals(2, accessor.builds("rossini"));
+        assertEquals(2, accessor.builds("verdi"));
+
+        accessor.after(new EntityChangedEvent(this, Realm.class, "/even", true, DOMAIN));
+
+        accessor.getUserAuthorities(rossini);
+        assertEquals(3, accessor.builds("rossini"));
+    }
+
+    @Test
+    public void otherDomain() {
+        accessor.after(new EntityChangedEvent(this, Role.class, "Other", false, "Two"));
+        accessor.after(new AnyCreatedUpdatedEvent<>(this, rossini, "Two"));
+
+        accessor.getUserAuthorities(rossini);
+        accessor.getUserAuthorities(verdi);
+        assertEquals(1, accessor.builds("rossini"));
+        assertEquals(1, accessor.builds("verdi"));
+    }
+}
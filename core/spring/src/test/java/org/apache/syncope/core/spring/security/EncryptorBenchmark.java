@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.syncope.common.lib.types.CipherAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures {@link Encryptor} throughput under concurrent access; not run as part of the build, launch via
+ * {@link #main(java.lang.String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EncryptorBenchmark {
+
+    private static final String VALUE = "password";
+
+    @Param({ "AES", "SHA256", "SSHA256", "BCRYPT" })
+    public CipherAlgorithm cipherAlgorithm;
+
+    private Encryptor encryptor;
+
+    private String encoded;
+
+    @Setup
+    public void setup() throws Exception {
+        encryptor = Encryptor.getInstance();
+        encoded = encryptor.encode(VALUE, cipherAlgorithm);
+    }
+
+    @Benchmark
+    public String encode() throws Exception {
+        return encryptor.encode(VALUE, cipherAlgorithm);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return encryptor.verify(VALUE, cipherAlgorithm, encoded);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EncryptorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
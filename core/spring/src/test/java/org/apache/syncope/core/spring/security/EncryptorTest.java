@@ -21,8 +21,14 @@ package org.apache.syncope.core.spring.security;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.syncope.common.lib.types.CipherAlgorithm;
 import org.junit.jupiter.api.Test;
 
@@ -79,4 +85,32 @@ public class EncryptorTest {
 
         assertTrue(encryptor.verify(password, CipherAlgorithm.SSHA256, encPassword));
     }
+
+    @Test
+    public void testConcurrentUsage() throws Exception {
+        assertSame(encryptor, Encryptor.getInstance());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                String value = password + i;
+                futures.add(executor.submit(() -> {
+                    for (CipherAlgorithm cipherAlgorithm : CipherAlgorithm.values()) {
+                        String encValue = encryptor.encode(value, cipherAlgorithm);
+                        assertTrue(encryptor.verify(value, cipherAlgorithm, encValue));
+                        if (cipherAlgorithm.isInvertible()) {
+                            assertEquals(value, encryptor.decode(encValue, cipherAlgorithm));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
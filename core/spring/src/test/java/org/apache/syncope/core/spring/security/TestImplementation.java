@@ -26,16 +26,18 @@ public class TestImplementation implements Implementation {
 
     private static final long serialVersionUID = -2362660463135828190L;
 
+    private String key = "";
+
     private String body;
 
     @Override
     public void setKey(final String key) {
-        // nothing to do
+        this.key = key;
     }
 
     @Override
     public String getKey() {
-        return "";
+        return key;
     }
 
     @Override
@@ -19,24 +19,45 @@
 package org.apache.syncope.ext.elasticsearch.client;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.AnyDAO;
+import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
+import org.apache.syncope.core.persistence.api.dao.GroupDAO;
+import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.provisioning.api.event.AnyBulkUpdatedEvent;
 import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
 import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
-import org.elasticsearch.action.delete.DeleteResponse;
-import org.elasticsearch.action.get.GetResponse;
-import org.elasticsearch.action.index.IndexResponse;
-import org.elasticsearch.action.update.UpdateResponse;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.Client;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * Listen to any create / update and delete in order to keep the Elasticsearch indexes consistent.
+ * Changes are not sent right away but collected and sent via bulk requests, either every
+ * {@link ElasticsearchUtils#getBulkFlushInterval()} seconds or as soon as
+ * {@link ElasticsearchUtils#getBulkActions()} documents were changed.
+ * While an index is being rebuilt, changes are sent to both the current and the new index.
  */
-public class ElasticsearchIndexManager {
+public class ElasticsearchIndexManager implements InitializingBean, DisposableBean {
 
     private static final Logger LOG = LoggerFactory.getLogger(ElasticsearchIndexManager.class);
 
@@ -46,34 +67,140 @@ public class ElasticsearchIndexManager {
     @Autowired
     private ElasticsearchUtils elasticsearchUtils;
 
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private GroupDAO groupDAO;
+
+    @Autowired
+    private AnyObjectDAO anyObjectDAO;
+
+    /**
+     * For each domain alias, the index being rebuilt and the deletions sent to it meanwhile.
+     */
+    private final Map<String, Pair<String, List<DeleteRequest>>> reindexing = new ConcurrentHashMap<>();
+
+    private BulkProcessor bulkProcessor;
+
+    @Override
+    public void afterPropertiesSet() {
+        bulkProcessor = elasticsearchUtils.bulkProcessor(client, new BulkProcessor.Listener() {
+
+            @Override
+            public void beforeBulk(final long executionId, final BulkRequest request) {
+                LOG.debug("About to send {} index changes", request.numberOfActions());
+            }
+
+            @Override
+            public void afterBulk(final long executionId, final BulkRequest request, final BulkResponse response) {
+                if (response.hasFailures()) {
+                    LOG.error("While sending index changes: {}", response.buildFailureMessage());
+                } else {
+                    LOG.debug("Index changes successfully sent: {}", request.numberOfActions());
+                }
+            }
+
+            @Override
+            public void afterBulk(final long executionId, final BulkRequest request, final Throwable failure) {
+                LOG.error("While sending {} index changes", request.numberOfActions(), failure);
+            }
+        }).build();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (bulkProcessor != null) {
+            bulkProcessor.awaitClose(elasticsearchUtils.getBulkFlushInterval(), TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Starts sending changes for the given domain alias also to the given index, until
+     * {@link #reindexEnded(java.lang.String)} is invoked.
+     *
+     * @param alias domain alias
+     * @param index index being rebuilt
+     */
+    public void reindexStarted(final String alias, final String index) {
+        reindexing.put(alias, Pair.of(index, Collections.synchronizedList(new ArrayList<>())));
+    }
+
+    /**
+     * Returns the deletions sent to the index being rebuilt for the given domain alias since
+     * {@link #reindexStarted(java.lang.String, java.lang.String)}: these need to be sent again once the rebuild
+     * completed, not to have documents loaded before deletion still in the new index.
+     *
+     * @param alias domain alias
+     * @return deletions sent to the index being rebuilt
+     */
+    public List<DeleteRequest> reindexDeleted(final String alias) {
+        Pair<String, List<DeleteRequest>> target = reindexing.get(alias);
+        if (target == null) {
+            return Collections.emptyList();
+        }
+
+        synchronized (target.getRight()) {
+            return new ArrayList<>(target.getRight());
+        }
+    }
+
+    /**
+     * Stops sending changes for the given domain alias also to the index being rebuilt.
+     *
+     * @param alias domain alias
+     */
+    public void reindexEnded(final String alias) {
+        reindexing.remove(alias);
+    }
+
+    private void enqueue(final DocWriteRequest<?> request) {
+        try {
+            bulkProcessor.add(request);
+        } catch (IllegalStateException e) {
+            // bulk processor closed: shutting down, nothing can be sent anymore
+            LOG.warn("Could not send index change for {}/{}", request.index(), request.id(), e);
+        }
+    }
+
+    private void index(final String index, final Any<?> any) throws IOException {
+        enqueue(new UpdateRequest(
+                index,
+                any.getType().getKind().name(),
+                any.getKey()).
+                retryOnConflict(elasticsearchUtils.getRetryOnConflict()).
+                doc(elasticsearchUtils.builder(any)).
+                docAsUpsert(true));
+    }
+
+    private void index(final Any<?> any) throws IOException {
+        LOG.debug("About to update index for {}", any);
+
+        String alias = AuthContextUtils.getDomain().toLowerCase();
+        index(alias, any);
+
+        Pair<String, List<DeleteRequest>> target = reindexing.get(alias);
+        if (target != null) {
+            index(target.getLeft(), any);
+        }
+    }
+
     @TransactionalEventListener
     public void after(final AnyCreatedUpdatedEvent<Any<?>> event) throws IOException {
-        GetResponse getResponse = client.prepareGet(AuthContextUtils.getDomain().toLowerCase(),
-                event.getAny().getType().getKind().name(),
-                event.getAny().getKey()).
-                get();
-        if (getResponse.isExists()) {
-            LOG.debug("About to update index for {}", event.getAny());
-
-            UpdateResponse response = client.prepareUpdate(
-                    AuthContextUtils.getDomain().toLowerCase(),
-                    event.getAny().getType().getKind().name(),
-                    event.getAny().getKey()).
-                    setRetryOnConflict(elasticsearchUtils.getRetryOnConflict()).
-                    setDoc(elasticsearchUtils.builder(event.getAny())).
-                    get();
-            LOG.debug("Index successfully updated for {}: {}", event.getAny(), response);
-        } else {
-            LOG.debug("About to create index for {}", event.getAny());
-
-            IndexResponse response = client.prepareIndex(
-                    AuthContextUtils.getDomain().toLowerCase(),
-                    event.getAny().getType().getKind().name(),
-                    event.getAny().getKey()).
-                    setSource(elasticsearchUtils.builder(event.getAny())).
-                    get();
-
-            LOG.debug("Index successfully created for {}: {}", event.getAny(), response);
+        index(event.getAny());
+    }
+
+    @TransactionalEventListener
+    public void after(final AnyBulkUpdatedEvent event) throws IOException {
+        LOG.debug("About to update index for {} {}", event.getAnyKeys().size(), event.getAnyTypeKind());
+
+        AnyDAO<?> anyDAO = event.getAnyTypeKind() == AnyTypeKind.USER
+                ? userDAO
+                : event.getAnyTypeKind() == AnyTypeKind.GROUP
+                        ? groupDAO
+                        : anyObjectDAO;
+        for (Any<?> any : anyDAO.findByKeys(event.getAnyKeys())) {
+            index(any);
         }
     }
 
@@ -81,13 +208,15 @@ public class ElasticsearchIndexManager {
     public void after(final AnyDeletedEvent event) {
         LOG.debug("About to delete index for {}[{}]", event.getAnyTypeKind(), event.getAnyKey());
 
-        DeleteResponse response = client.prepareDelete(
-                AuthContextUtils.getDomain().toLowerCase(),
-                event.getAnyTypeKind().name(),
-                event.getAnyKey()).
-                get();
+        String alias = AuthContextUtils.getDomain().toLowerCase();
+        enqueue(new DeleteRequest(alias, event.getAnyTypeKind().name(), event.getAnyKey()));
 
-        LOG.debug("Index successfully deleted for {}[{}]: {}",
-                event.getAnyTypeKind(), event.getAnyKey(), response);
+        Pair<String, List<DeleteRequest>> target = reindexing.get(alias);
+        if (target != null) {
+            DeleteRequest request = new DeleteRequest(
+                    target.getLeft(), event.getAnyTypeKind().name(), event.getAnyKey());
+            target.getRight().add(request);
+            enqueue(request);
+        }
     }
 }
@@ -24,6 +24,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
@@ -33,6 +35,11 @@ import org.apache.syncope.core.persistence.api.entity.PlainAttr;
 import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -56,6 +63,14 @@ public class ElasticsearchUtils {
 
     private int retryOnConflict = 5;
 
+    private int bulkActions = 1000;
+
+    private int bulkFlushInterval = 1;
+
+    private int bulkConcurrentRequests = 1;
+
+    private int reindexThreads = 4;
+
     public void setIndexMaxResultWindow(final int indexMaxResultWindow) {
         this.indexMaxResultWindow = indexMaxResultWindow;
     }
@@ -72,6 +87,95 @@ public class ElasticsearchUtils {
         return retryOnConflict;
     }
 
+    public void setBulkActions(final int bulkActions) {
+        this.bulkActions = bulkActions;
+    }
+
+    /**
+     * @return number of actions after which a bulk request is sent
+     */
+    public int getBulkActions() {
+        return bulkActions;
+    }
+
+    public void setBulkFlushInterval(final int bulkFlushInterval) {
+        this.bulkFlushInterval = bulkFlushInterval;
+    }
+
+    /**
+     * @return seconds after which a bulk request is sent, whatever the number of actions collected
+     */
+    public int getBulkFlushInterval() {
+        return bulkFlushInterval;
+    }
+
+    public void setBulkConcurrentRequests(final int bulkConcurrentRequests) {
+        this.bulkConcurrentRequests = bulkConcurrentRequests;
+    }
+
+    /**
+     * @return number of bulk requests allowed to be in flight while collecting new actions
+     */
+    public int getBulkConcurrentRequests() {
+        return bulkConcurrentRequests;
+    }
+
+    public void setReindexThreads(final int reindexThreads) {
+        this.reindexThreads = reindexThreads;
+    }
+
+    /**
+     * @return number of threads loading users, groups and any objects while reindexing
+     */
+    public int getReindexThreads() {
+        return reindexThreads;
+    }
+
+    /**
+     * Returns a bulk processor builder configured according to the bulk settings.
+     *
+     * @param client Elasticsearch client
+     * @param listener bulk processor listener
+     * @return bulk processor builder
+     */
+    public BulkProcessor.Builder bulkProcessor(final Client client, final BulkProcessor.Listener listener) {
+        return BulkProcessor.builder(client, listener).
+                setBulkActions(bulkActions).
+                setFlushInterval(TimeValue.timeValueSeconds(bulkFlushInterval)).
+                setConcurrentRequests(bulkConcurrentRequests).
+                setBackoffPolicy(BackoffPolicy.exponentialBackoff());
+    }
+
+    private AnyDAO<?> anyDAO(final AnyTypeKind kind) {
+        return kind == AnyTypeKind.USER
+                ? userDAO
+                : kind == AnyTypeKind.GROUP
+                        ? groupDAO
+                        : anyObjectDAO;
+    }
+
+    /**
+     * Returns the index requests for the users, groups or any objects matching the given keys, all loaded at once.
+     * Requests only create documents not yet existing, in order not to overwrite more recent content sent meanwhile
+     * by {@link ElasticsearchIndexManager}.
+     *
+     * @param index index name
+     * @param kind any type kind
+     * @param keys keys of users, groups or any objects to index
+     * @return index requests, one for each key found
+     * @throws IOException in case of errors
+     */
+    @Transactional(readOnly = true)
+    public List<IndexRequest> indexRequests(final String index, final AnyTypeKind kind, final List<String> keys)
+            throws IOException {
+
+        List<IndexRequest> requests = new ArrayList<>(keys.size());
+        for (Any<?> any : anyDAO(kind).findByKeys(keys)) {
+            requests.add(new IndexRequest(index, kind.name(), any.getKey()).source(builder(any)).create(true));
+        }
+        return requests;
+    }
+
     /**
      * Returns the builder specialized with content from the provided any.
      *
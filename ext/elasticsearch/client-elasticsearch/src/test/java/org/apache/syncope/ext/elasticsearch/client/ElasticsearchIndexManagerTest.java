@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.ext.elasticsearch.client;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
+import org.elasticsearch.action.Action;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.client.support.AbstractClient;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ElasticsearchIndexManagerTest {
+
+    /**
+     * Stands in for an Elasticsearch node: acknowledges and records the bulk requests received.
+     */
+    private static class StandInClient extends AbstractClient {
+
+        private final List<DocWriteRequest<?>> received = Collections.synchronizedList(new ArrayList<>());
+
+        StandInClient(final ThreadPool threadPool) {
+            super(Settings.EMPTY, threadPool);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected <Request extends ActionRequest, Response extends ActionResponse,
+                RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder>> void doExecute(
+                final Action<Request, Response, RequestBuilder> action,
+                final Request request,
+                final ActionListener<Response> listener) {
+
+            if (request instanceof BulkRequest) {
+                received.addAll(BulkRequest.class.cast(request).requests());
+                listener.onResponse((Response) new BulkResponse(new BulkItemResponse[0], 0));
+            } else {
+                listener.onFailure(new UnsupportedOperationException(action.name()));
+            }
+        }
+
+        @Override
+        public void close() {
+            // nothing to do
+        }
+    }
+
+    private static final String ALIAS = SyncopeConstants.MASTER_DOMAIN.toLowerCase();
+
+    private ThreadPool threadPool;
+
+    private StandInClient client;
+
+    private ElasticsearchIndexManager indexManager;
+
+    @BeforeEach
+    public void setup() {
+        threadPool = new ThreadPool(Settings.builder().put("node.name", getClass().getSimpleName()).build());
+        client = new StandInClient(threadPool);
+
+        indexManager = new ElasticsearchIndexManager();
+        ReflectionTestUtils.setField(indexManager, "client", client);
+        ReflectionTestUtils.setField(indexManager, "elasticsearchUtils", new ElasticsearchUtils());
+        indexManager.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        indexManager.destroy();
+        ThreadPool.terminate(threadPool, 10, TimeUnit.SECONDS);
+    }
+
+    private void delete(final String key) {
+        indexManager.after(new AnyDeletedEvent(this, AnyTypeKind.USER, key, key, SyncopeConstants.MASTER_DOMAIN));
+    }
+
+    @Test
+    public void changesSentToIndexBeingRebuilt() throws Exception {
+        delete("before");
+
+        indexManager.reindexStarted(ALIAS, ALIAS + "_new");
+        delete("during");
+        assertEquals(
+                Collections.singletonList(ALIAS + "_new/during"),
+                indexManager.reindexDeleted(ALIAS).stream().
+                        map(request -> request.index() + '/' + request.id()).collect(Collectors.toList()));
+
+        indexManager.reindexEnded(ALIAS);
+        delete("after");
+        assertTrue(indexManager.reindexDeleted(ALIAS).isEmpty());
+
+        // closing sends whatever is pending
+        indexManager.destroy();
+        assertEquals(
+                Arrays.asList(ALIAS + "/before", ALIAS + "/during", ALIAS + "_new/during", ALIAS + "/after"),
+                client.received.stream().
+                        map(request -> request.index() + '/' + request.id()).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void changeAfterDestroy() throws Exception {
+        indexManager.destroy();
+
+        assertDoesNotThrow(() -> delete("late"));
+        assertTrue(client.received.isEmpty());
+    }
+}
@@ -19,9 +19,11 @@
 package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.tuple.Pair;
@@ -173,14 +175,14 @@ public class ElasticsearchAnySearchDAO extends AbstractAnySearchDAO {
     protected <T extends Any<?>> List<T> doSearch(
             final Set<String> adminRealms,
             final SearchCond cond,
-            final int page,
-            final int itemsPerPage,
+            final int firstResult,
+            final int maxResults,
             final List<OrderByClause> orderBy,
             final AnyTypeKind kind) {
 
         SearchRequestBuilder builder = searchRequestBuilder(adminRealms, cond, kind).
-                setFrom(page <= 0 ? 0 : page - 1).
-                setSize(itemsPerPage < 0 ? elasticsearchUtils.getIndexMaxResultWindow() : itemsPerPage);
+                setFrom(firstResult).
+                setSize(maxResults < 0 ? elasticsearchUtils.getIndexMaxResultWindow() : maxResults);
         addSort(builder, kind, orderBy);
 
         return buildResult(Stream.of(builder.get().getHits().getHits()).
@@ -188,6 +190,54 @@ public class ElasticsearchAnySearchDAO extends AbstractAnySearchDAO {
                 kind);
     }
 
+    /**
+     * Collects all the keys returned by the given keyset-paginated search, since no single request can return more
+     * than {@code index.max_result_window} hits.
+     *
+     * @param page keyset-paginated search, taking the last key of the previous page (or null) and the page size
+     * @param pageSize page size
+     * @return all matching keys
+     */
+    static List<String> searchAllKeys(final BiFunction<String, Integer, List<String>> page, final int pageSize) {
+        List<String> keys = new ArrayList<>();
+
+        List<String> chunk = page.apply(null, pageSize);
+        keys.addAll(chunk);
+        while (chunk.size() == pageSize) {
+            chunk = page.apply(chunk.get(chunk.size() - 1), pageSize);
+            keys.addAll(chunk);
+        }
+
+        return keys;
+    }
+
+    @Override
+    protected List<String> doSearchKeys(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final AnyTypeKind kind,
+            final String afterKey,
+            final int limit) {
+
+        if (limit < 0) {
+            return searchAllKeys(
+                    (after, size) -> doSearchKeys(adminRealms, cond, kind, after, size),
+                    elasticsearchUtils.getIndexMaxResultWindow());
+        }
+
+        SearchRequestBuilder builder = searchRequestBuilder(adminRealms, cond, kind).
+                setFetchSource(false).
+                setFrom(0).
+                setSize(limit).
+                addSort("id", SortOrder.ASC);
+        if (afterKey != null) {
+            builder.searchAfter(new Object[] { afterKey });
+        }
+
+        return Stream.of(builder.get().getHits().getHits()).
+                map(hit -> hit.getId()).collect(Collectors.toList());
+    }
+
     private QueryBuilder getQueryBuilder(final SearchCond cond, final AnyTypeKind kind) {
         QueryBuilder builder = EMPTY_QUERY_BUILDER;
 
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class ElasticsearchAnySearchDAOTest {
+
+    private static final int MAX_RESULT_WINDOW = 10;
+
+    private static List<String> keys(final int count) {
+        List<String> keys = IntStream.range(0, count).
+                mapToObj(i -> UUID.randomUUID().toString()).collect(Collectors.toList());
+        Collections.sort(keys);
+        return keys;
+    }
+
+    /**
+     * Stands for an index holding the given keys, which - as Elasticsearch does - refuses to return more than
+     * {@link #MAX_RESULT_WINDOW} hits per request.
+     */
+    private static List<String> page(
+            final List<String> index, final String afterKey, final int size, final AtomicInteger requests) {
+
+        if (size > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Result window is too large");
+        }
+        requests.incrementAndGet();
+
+        List<String> page = new ArrayList<>();
+        for (int i = 0; i < index.size() && page.size() < size; i++) {
+            if (afterKey == null || index.get(i).compareTo(afterKey) > 0) {
+                page.add(index.get(i));
+            }
+        }
+        return page;
+    }
+
+    @Test
+    public void searchAllKeysBeyondMaxResultWindow() {
+        List<String> index = keys(MAX_RESULT_WINDOW * 3 + 7);
+        AtomicInteger requests = new AtomicInteger();
+
+        List<String> keys = ElasticsearchAnySearchDAO.searchAllKeys(
+                (afterKey, size) -> page(index, afterKey, size, requests), MAX_RESULT_WINDOW);
+
+        assertEquals(index, keys);
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    public void searchAllKeysExactMultipleOfMaxResultWindow() {
+        List<String> index = keys(MAX_RESULT_WINDOW * 2);
+        AtomicInteger requests = new AtomicInteger();
+
+        List<String> keys = ElasticsearchAnySearchDAO.searchAllKeys(
+                (afterKey, size) -> page(index, afterKey, size, requests), MAX_RESULT_WINDOW);
+
+        assertEquals(index, keys);
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void searchAllKeysEmpty() {
+        AtomicInteger requests = new AtomicInteger();
+
+        List<String> keys = ElasticsearchAnySearchDAO.searchAllKeys(
+                (afterKey, size) -> page(Collections.emptyList(), afterKey, size, requests), MAX_RESULT_WINDOW);
+
+        assertEquals(Collections.emptyList(), keys);
+        assertEquals(1, requests.get());
+    }
+}
@@ -18,32 +18,55 @@
  */
 package org.apache.syncope.core.provisioning.java.job;
 
+import java.util.List;
+import java.util.stream.StreamSupport;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
-import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
-import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
-import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.apache.syncope.ext.elasticsearch.client.ElasticsearchIndexManager;
 import org.apache.syncope.ext.elasticsearch.client.ElasticsearchUtils;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesResponse;
+import org.elasticsearch.action.admin.indices.alias.get.GetAliasesRequest;
+import org.elasticsearch.action.admin.indices.alias.get.GetAliasesResponse;
 import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
-import org.elasticsearch.action.admin.indices.delete.DeleteIndexResponse;
 import org.elasticsearch.action.admin.indices.exists.indices.IndicesExistsRequest;
-import org.elasticsearch.action.admin.indices.exists.indices.IndicesExistsResponse;
-import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.admin.indices.refresh.RefreshRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.rest.RestStatus;
 import org.quartz.JobExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 /**
- * Remove and rebuild all Elasticsearch indexes with information from existing users, groups and any objects.
+ * Rebuild all Elasticsearch indexes with information from existing users, groups and any objects.
+ * A new index is built aside via bulk requests, while users, groups and any objects are loaded by several threads;
+ * the domain alias is then atomically moved from the previous index - which is removed - to the new one, so that
+ * searches keep being served all along.
+ * Changes happening meanwhile are sent by {@link ElasticsearchIndexManager} to the new index as well; documents are
+ * only created by the rebuild, hence never overwritten with older content, and deletions are sent again once the
+ * rebuild completed. Changes made on other cluster nodes while rebuilding are not tracked.
  */
 public class ElasticsearchReindex extends AbstractSchedTaskJobDelegate {
 
@@ -53,6 +76,9 @@ public class ElasticsearchReindex extends AbstractSchedTaskJobDelegate {
     @Autowired
     private ElasticsearchUtils elasticsearchUtils;
 
+    @Autowired
+    private ElasticsearchIndexManager indexManager;
+
     @Autowired
     private UserDAO userDAO;
 
@@ -62,103 +88,196 @@ public class ElasticsearchReindex extends AbstractSchedTaskJobDelegate {
     @Autowired
     private AnyObjectDAO anyObjectDAO;
 
+    private void createIndex(final String index) throws Exception {
+        XContentBuilder settings = XContentFactory.jsonBuilder().
+                startObject().
+                startObject("analysis").
+                startObject("analyzer").
+                startObject("string_lowercase").
+                field("type", "custom").
+                field("tokenizer", "standard").
+                field("filter").
+                startArray().
+                value("lowercase").
+                endArray().
+                endObject().
+                endObject().
+                endObject().
+                endObject();
+        XContentBuilder mapping = XContentFactory.jsonBuilder().
+                startObject().
+                startArray("dynamic_templates").
+                startObject().
+                startObject("strings").
+                field("match_mapping_type", "string").
+                startObject("mapping").
+                field("type", "keyword").
+                field("analyzer", "string_lowercase").
+                endObject().
+                endObject().
+                endObject().
+                endArray().
+                endObject();
+        CreateIndexResponse createIndexResponse = client.admin().indices().
+                create(new CreateIndexRequest(index).
+                        settings(settings).
+                        mapping(AnyTypeKind.USER.name(), mapping).
+                        mapping(AnyTypeKind.GROUP.name(), mapping).
+                        mapping(AnyTypeKind.ANY_OBJECT.name(), mapping)).
+                get();
+        LOG.debug("Successfully created {}: {}", index, createIndexResponse);
+    }
+
+    private void indexAll(
+            final String index,
+            final AnyTypeKind kind,
+            final AnyDAO<?> anyDAO,
+            final ThreadPoolExecutor producers,
+            final BulkProcessor bulkProcessor,
+            final AtomicReference<Throwable> failure) {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        String afterKey = null;
+        List<String> keys;
+        do {
+            keys = anyDAO.findAllKeys(afterKey, AnyDAO.DEFAULT_PAGE_SIZE);
+            if (!keys.isEmpty()) {
+                afterKey = keys.get(keys.size() - 1);
+
+                List<String> chunk = keys;
+                producers.execute(() -> {
+                    boolean producer = SecurityContextHolder.getContext().getAuthentication() == null;
+                    if (producer) {
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                    }
+                    try {
+                        if (failure.get() == null) {
+                            List<IndexRequest> requests = elasticsearchUtils.indexRequests(index, kind, chunk);
+                            requests.forEach(bulkProcessor::add);
+                        }
+                    } catch (Throwable t) {
+                        LOG.error("While indexing {} {}", kind, chunk, t);
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        if (producer) {
+                            SecurityContextHolder.clearContext();
+                        }
+                    }
+                });
+            }
+        } while (keys.size() == AnyDAO.DEFAULT_PAGE_SIZE && failure.get() == null && !interrupt);
+    }
+
+    private void swapAlias(final String alias, final String index) throws Exception {
+        IndicesAliasesRequest aliasesRequest = new IndicesAliasesRequest().
+                addAliasAction(AliasActions.add().index(index).alias(alias));
+
+        GetAliasesResponse aliasesResponse = client.admin().indices().
+                getAliases(new GetAliasesRequest(alias)).get();
+        aliasesResponse.getAliases().forEach(cursor -> {
+            if (!cursor.value.isEmpty() && !index.equals(cursor.key)) {
+                aliasesRequest.addAliasAction(AliasActions.removeIndex().index(cursor.key));
+            }
+        });
+        if (aliasesResponse.getAliases().isEmpty() && client.admin().indices().
+                exists(new IndicesExistsRequest(alias)).get().isExists()) {
+
+            // index built before aliases were used, named after the domain
+            aliasesRequest.addAliasAction(AliasActions.removeIndex().index(alias));
+        }
+
+        IndicesAliasesResponse response = client.admin().indices().aliases(aliasesRequest).get();
+        LOG.debug("Successfully moved {} to {}: {}", alias, index, response);
+    }
+
     @Override
     protected String doExecute(final boolean dryRun) throws JobExecutionException {
         if (!dryRun) {
+            String alias = AuthContextUtils.getDomain().toLowerCase();
+            String index = alias + '_' + System.currentTimeMillis();
             try {
-                LOG.debug("Start rebuild index {}", AuthContextUtils.getDomain().toLowerCase());
-
-                IndicesExistsResponse existsIndexResponse = client.admin().indices().
-                        exists(new IndicesExistsRequest(AuthContextUtils.getDomain().toLowerCase())).
-                        get();
-                if (existsIndexResponse.isExists()) {
-                    DeleteIndexResponse deleteIndexResponse = client.admin().indices().
-                            delete(new DeleteIndexRequest(AuthContextUtils.getDomain().toLowerCase())).
-                            get();
-                    LOG.debug("Successfully removed {}: {}",
-                            AuthContextUtils.getDomain().toLowerCase(), deleteIndexResponse);
-                }
+                LOG.debug("Start rebuild index {} as {}", alias, index);
 
-                XContentBuilder settings = XContentFactory.jsonBuilder().
-                        startObject().
-                        startObject("analysis").
-                        startObject("analyzer").
-                        startObject("string_lowercase").
-                        field("type", "custom").
-                        field("tokenizer", "standard").
-                        field("filter").
-                        startArray().
-                        value("lowercase").
-                        endArray().
-                        endObject().
-                        endObject().
-                        endObject().
-                        endObject();
-                XContentBuilder mapping = XContentFactory.jsonBuilder().
-                        startObject().
-                        startArray("dynamic_templates").
-                        startObject().
-                        startObject("strings").
-                        field("match_mapping_type", "string").
-                        startObject("mapping").
-                        field("type", "keyword").
-                        field("analyzer", "string_lowercase").
-                        endObject().
-                        endObject().
-                        endObject().
-                        endArray().
-                        endObject();
-                CreateIndexResponse createIndexResponse = client.admin().indices().
-                        create(new CreateIndexRequest(AuthContextUtils.getDomain().toLowerCase()).
-                                settings(settings).
-                                mapping(AnyTypeKind.USER.name(), mapping).
-                                mapping(AnyTypeKind.GROUP.name(), mapping).
-                                mapping(AnyTypeKind.ANY_OBJECT.name(), mapping)).
-                        get();
-                LOG.debug("Successfully created {}: {}",
-                        AuthContextUtils.getDomain().toLowerCase(), createIndexResponse);
-
-                LOG.debug("Indexing users...");
-                for (int page = 1; page <= (userDAO.count() / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
-                    for (User user : userDAO.findAll(page, AnyDAO.DEFAULT_PAGE_SIZE)) {
-                        IndexResponse response = client.prepareIndex(
-                                AuthContextUtils.getDomain().toLowerCase(),
-                                AnyTypeKind.USER.name(),
-                                user.getKey()).
-                                setSource(elasticsearchUtils.builder(user)).
-                                get();
-                        LOG.debug("Index successfully created for {}: {}", user, response);
+                createIndex(index);
+                indexManager.reindexStarted(alias, index);
+
+                AtomicReference<Throwable> failure = new AtomicReference<>();
+                AtomicLong indexed = new AtomicLong();
+                BulkProcessor bulkProcessor = elasticsearchUtils.bulkProcessor(client, new BulkProcessor.Listener() {
+
+                    @Override
+                    public void beforeBulk(final long executionId, final BulkRequest request) {
+                        // nothing to do
                     }
+
+                    @Override
+                    public void afterBulk(
+                            final long executionId, final BulkRequest request, final BulkResponse response) {
+
+                        // conflicts are documents already sent by ElasticsearchIndexManager, with more recent content
+                        StreamSupport.stream(response.spliterator(), false).
+                                filter(item -> item.isFailed() && item.getFailure().getStatus() != RestStatus.CONFLICT).
+                                findFirst().map(BulkItemResponse::getFailureMessage).
+                                ifPresent(message -> failure.compareAndSet(null, new IllegalStateException(message)));
+                        status.set("Indexed " + indexed.addAndGet(request.numberOfActions()));
+                    }
+
+                    @Override
+                    public void afterBulk(final long executionId, final BulkRequest request, final Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                }).build();
+
+                ThreadPoolExecutor producers = new ThreadPoolExecutor(
+                        elasticsearchUtils.getReindexThreads(),
+                        elasticsearchUtils.getReindexThreads(),
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(elasticsearchUtils.getReindexThreads()),
+                        new CustomizableThreadFactory("elasticsearch-reindex-"),
+                        new ThreadPoolExecutor.CallerRunsPolicy());
+                try {
+                    LOG.debug("Indexing users...");
+                    indexAll(index, AnyTypeKind.USER, userDAO, producers, bulkProcessor, failure);
+                    LOG.debug("Indexing groups...");
+                    indexAll(index, AnyTypeKind.GROUP, groupDAO, producers, bulkProcessor, failure);
+                    LOG.debug("Indexing any objects...");
+                    indexAll(index, AnyTypeKind.ANY_OBJECT, anyObjectDAO, producers, bulkProcessor, failure);
+                } finally {
+                    producers.shutdown();
+                    producers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                    bulkProcessor.awaitClose(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
                 }
-                LOG.debug("Indexing groups...");
-                for (int page = 1; page <= (groupDAO.count() / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
-                    for (Group group : groupDAO.findAll(page, AnyDAO.DEFAULT_PAGE_SIZE)) {
-                        IndexResponse response = client.prepareIndex(
-                                AuthContextUtils.getDomain().toLowerCase(),
-                                AnyTypeKind.GROUP.name(),
-                                group.getKey()).
-                                setSource(elasticsearchUtils.builder(group)).
-                                get();
-                        LOG.debug("Index successfully created for {}: {}", group, response);
+
+                if (failure.get() != null || interrupt) {
+                    // stop sending changes before removing, not to have the index created again
+                    indexManager.reindexEnded(alias);
+                    client.admin().indices().delete(new DeleteIndexRequest(index)).get();
+                    if (interrupt) {
+                        interrupted = true;
+                        return "INTERRUPTED";
                     }
+                    throw failure.get();
                 }
-                LOG.debug("Indexing any objects...");
-                for (int page = 1; page <= (anyObjectDAO.count() / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
-                    for (AnyObject anyObject : anyObjectDAO.findAll(page, AnyDAO.DEFAULT_PAGE_SIZE)) {
-                        IndexResponse response = client.prepareIndex(
-                                AuthContextUtils.getDomain().toLowerCase(),
-                                AnyTypeKind.ANY_OBJECT.name(),
-                                anyObject.getKey()).
-                                setSource(elasticsearchUtils.builder(anyObject)).
-                                get();
-                        LOG.debug("Index successfully created for {}: {}", anyObject, response);
+
+                BulkRequest deleted = new BulkRequest();
+                indexManager.reindexDeleted(alias).forEach(deleted::add);
+                if (deleted.numberOfActions() > 0) {
+                    BulkResponse response = client.bulk(deleted).get();
+                    if (response.hasFailures()) {
+                        throw new IllegalStateException(response.buildFailureMessage());
                     }
                 }
 
-                LOG.debug("Rebuild index {} successfully completed", AuthContextUtils.getDomain().toLowerCase());
-            } catch (Exception e) {
-                throw new JobExecutionException(
-                        "While rebuilding index " + AuthContextUtils.getDomain().toLowerCase(), e);
+                client.admin().indices().refresh(new RefreshRequest(index)).get();
+                swapAlias(alias, index);
+
+                LOG.debug("Rebuild index {} successfully completed", alias);
+            } catch (Throwable t) {
+                throw new JobExecutionException("While rebuilding index " + alias, t);
+            } finally {
+                indexManager.reindexEnded(alias);
             }
         }
 
@@ -36,6 +36,7 @@ import org.apache.syncope.common.lib.to.AttrTO;
 import org.apache.syncope.common.lib.to.GroupTO;
 import org.apache.syncope.common.lib.to.MembershipTO;
 import org.apache.syncope.common.lib.to.UserTO;
+import org.apache.syncope.common.lib.types.SearchCountMode;
 import org.apache.syncope.core.logic.scim.SCIMConfManager;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
@@ -655,7 +656,7 @@ public class SCIMDataBinder {
         if (output(attributes, excludedAttributes, "members")) {
             int count = userLogic.search(searchCond,
                     1, 1, Collections.<OrderByClause>emptyList(),
-                    SyncopeConstants.ROOT_REALM, false).getLeft();
+                    SyncopeConstants.ROOT_REALM, false, SearchCountMode.EXACT).getLeft();
 
             for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
                 List<UserTO> users = userLogic.search(
@@ -664,7 +665,8 @@ public class SCIMDataBinder {
                         AnyDAO.DEFAULT_PAGE_SIZE,
                         Collections.<OrderByClause>emptyList(),
                         SyncopeConstants.ROOT_REALM,
-                        false).
+                        false,
+                        SearchCountMode.NONE).
                         getRight();
                 users.forEach(userTO -> {
                     group.getMembers().add(new Member(
@@ -33,6 +33,7 @@ import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.to.AnyTO;
 import org.apache.syncope.common.lib.to.GroupTO;
 import org.apache.syncope.common.lib.to.UserTO;
+import org.apache.syncope.common.lib.types.SearchCountMode;
 import org.apache.syncope.core.logic.AbstractAnyLogic;
 import org.apache.syncope.core.logic.GroupLogic;
 import org.apache.syncope.core.logic.SCIMDataBinder;
@@ -221,7 +222,8 @@ abstract class AbstractService<R extends SCIMResource> {
                 itemsPerPage,
                 sort,
                 SyncopeConstants.ROOT_REALM,
-                false);
+                false,
+                SearchCountMode.EXACT);
 
         if (result.getLeft() > confManager().get().getGeneralConf().getFilterMaxResults()) {
             throw new BadRequestException(ErrorType.tooMany, "Too many results found");
@@ -35,6 +35,7 @@ import org.apache.syncope.common.lib.to.EntityTO;
 import org.apache.syncope.common.lib.to.GroupTO;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
 import org.apache.syncope.common.lib.types.PatchOperation;
+import org.apache.syncope.common.lib.types.SearchCountMode;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
@@ -115,7 +116,7 @@ public class GroupServiceImpl extends AbstractService<SCIMGroup> implements Grou
         SearchCond searchCond = SearchCond.getLeafCond(membCond);
         int count = userLogic().search(searchCond,
                 1, 1, Collections.<OrderByClause>emptyList(),
-                SyncopeConstants.ROOT_REALM, false).getLeft();
+                SyncopeConstants.ROOT_REALM, false, SearchCountMode.EXACT).getLeft();
         for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
             beforeMembers.addAll(userLogic().search(
                     searchCond,
@@ -123,7 +124,8 @@ public class GroupServiceImpl extends AbstractService<SCIMGroup> implements Grou
                     AnyDAO.DEFAULT_PAGE_SIZE,
                     Collections.<OrderByClause>emptyList(),
                     SyncopeConstants.ROOT_REALM,
-                    false).
+                    false,
+                    SearchCountMode.NONE).
                     getRight().stream().map(EntityTO::getKey).collect(Collectors.toSet()));
         }
 
@@ -346,4 +346,24 @@ public class BatchITCase extends AbstractITCase {
         response = batchResponse.poll();
         assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
     }
+
+    @Test
+    public void syncopeClientParallel() throws IOException, JAXBException {
+        BatchRequest batchRequest = batchRequest();
+
+        // user and group items depend on each other, respectively: 4. and 5. can run on their own
+        List<BatchRequestItem> items = batchRequest.getItems();
+        Arrays.asList(0, 2).forEach(i -> items.get(i).getHeaders().
+                put(RESTHeaders.BATCH_SEQUENCE, Arrays.asList("user")));
+        Arrays.asList(1, 5).forEach(i -> items.get(i).getHeaders().
+                put(RESTHeaders.BATCH_SEQUENCE, Arrays.asList("group")));
+
+        BatchResponse batchResponse = batchRequest.commit(false, 4);
+
+        Response response = batchResponse.getResponse();
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertTrue(response.getMediaType().toString().startsWith(RESTHeaders.MULTIPART_MIXED));
+
+        check(batchResponse.getItems());
+    }
 }
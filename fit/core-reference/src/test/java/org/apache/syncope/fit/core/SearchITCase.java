@@ -22,11 +22,21 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-
+import static org.junit.jupiter.api.Assertions.fail;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import javax.ws.rs.core.Response;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.syncope.client.lib.SyncopeClient;
+import org.apache.syncope.common.lib.SyncopeClientException;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.patch.AnyObjectPatch;
 import org.apache.syncope.common.lib.patch.AttrPatch;
@@ -39,7 +49,12 @@ import org.apache.syncope.common.lib.to.GroupTO;
 import org.apache.syncope.common.lib.to.MembershipTO;
 import org.apache.syncope.common.lib.to.RoleTO;
 import org.apache.syncope.common.lib.to.UserTO;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.ClientExceptionType;
+import org.apache.syncope.common.lib.types.SearchCountMode;
+import org.apache.syncope.common.rest.api.RESTHeaders;
+import org.apache.syncope.common.rest.api.beans.AnyExportQuery;
 import org.apache.syncope.common.rest.api.beans.AnyQuery;
 import org.apache.syncope.common.rest.api.service.RoleService;
 import org.apache.syncope.fit.AbstractITCase;
@@ -434,6 +449,63 @@ public class SearchITCase extends AbstractITCase {
         }
     }
 
+    @Test
+    public void export() throws IOException {
+        // NDJSON
+        Response response = userService.export(new AnyExportQuery.Builder().realm(SyncopeConstants.ROOT_REALM).
+                fiql(SyncopeClient.getUserSearchConditionBuilder().is("username").equalTo("rossini").query()).
+                fields("key", "username", "realm").plainAttrs("fullname", "loginDate").derAttrs("cn").build());
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatusInfo().getStatusCode());
+        assertTrue(response.getMediaType().toString().startsWith(RESTHeaders.APPLICATION_NDJSON));
+
+        List<String> lines = IOUtils.readLines((InputStream) response.getEntity(), StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+
+        JsonNode rossini = new ObjectMapper().readTree(lines.get(0));
+        assertEquals("1417acbe-cbf6-4277-9372-e75e04f97000", rossini.get("key").asText());
+        assertEquals("rossini", rossini.get("username").asText());
+        assertEquals("/even", rossini.get("realm").asText());
+        assertEquals("Gioacchino Rossini", rossini.get("plainAttrs").get("fullname").get(0).asText());
+        assertEquals(2, rossini.get("plainAttrs").get("loginDate").size());
+        assertEquals("Rossini, Gioacchino", rossini.get("derAttrs").get("cn").asText());
+        assertFalse(rossini.has("virAttrs"));
+
+        // CSV
+        response = userService.export(new AnyExportQuery.Builder().realm(SyncopeConstants.ROOT_REALM).
+                fiql(SyncopeClient.getUserSearchConditionBuilder().is("username").equalTo("rossini").query()).
+                format(AnyExportFormat.CSV).fields("username").plainAttrs("ctype").derAttrs("cn").build());
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatusInfo().getStatusCode());
+        assertTrue(response.getMediaType().toString().startsWith(RESTHeaders.TEXT_CSV));
+
+        lines = IOUtils.readLines((InputStream) response.getEntity(), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertEquals("username,ctype,cn", lines.get(0));
+        assertEquals("rossini,G,\"Rossini, Gioacchino\"", lines.get(1));
+
+        // all users, default fields
+        response = userService.export(new AnyExportQuery.Builder().realm(SyncopeConstants.ROOT_REALM).build());
+        lines = IOUtils.readLines((InputStream) response.getEntity(), StandardCharsets.UTF_8);
+        assertEquals(
+                userService.search(new AnyQuery.Builder().page(1).size(1).build()).getTotalCount(),
+                lines.size());
+
+        // invalid requests are rejected before anything is written
+        try {
+            userService.export(new AnyExportQuery.Builder().realm(SyncopeConstants.ROOT_REALM).
+                    fields("key", "password").build());
+            fail("This should not happen");
+        } catch (SyncopeClientException e) {
+            assertEquals(ClientExceptionType.InvalidRequest, e.getType());
+        }
+        try {
+            userService.export(new AnyExportQuery.Builder().realm(SyncopeConstants.ROOT_REALM).
+                    plainAttrs("notfound").build());
+            fail("This should not happen");
+        } catch (SyncopeClientException e) {
+            assertEquals(ClientExceptionType.NotFound, e.getType());
+        }
+    }
+
     @Test
     public void issueSYNCOPE768() {
         int usersWithNullable = userService.search(new AnyQuery.Builder().realm(SyncopeConstants.ROOT_REALM).
@@ -453,6 +525,51 @@ public class SearchITCase extends AbstractITCase {
         assertEquals(nonOrdered, orderedByNullable);
     }
 
+    @Test
+    public void searchWithoutCount() {
+        PagedResult<UserTO> users = userService.search(new AnyQuery.Builder().realm(SyncopeConstants.ROOT_REALM).
+                page(1).size(2).count(SearchCountMode.NONE).build());
+        assertEquals(-1, users.getTotalCount());
+        assertEquals(2, users.getResult().size());
+        assertNotNull(users.getNext());
+
+        users = userService.search(new AnyQuery.Builder().realm(SyncopeConstants.ROOT_REALM).
+                fiql(SyncopeClient.getUserSearchConditionBuilder().is("username").equalTo("rossini").query()).
+                page(1).size(2).count(SearchCountMode.NONE).build());
+        assertEquals(-1, users.getTotalCount());
+        assertEquals(1, users.getResult().size());
+        assertNull(users.getNext());
+    }
+
+    @Test
+    public void searchWithEstimatedCount() throws InterruptedException {
+        String prefix = RandomStringUtils.randomAlphabetic(8).toLowerCase();
+        AnyQuery query = new AnyQuery.Builder().realm(SyncopeConstants.ROOT_REALM).
+                fiql(SyncopeClient.getUserSearchConditionBuilder().is("username").equalTo(prefix + "*").query()).
+                count(SearchCountMode.ESTIMATE).build();
+
+        UserTO first = createUser(UserITCase.getSampleTO(prefix + "1@syncope.apache.org")).getEntity();
+        if (ElasticsearchDetector.isElasticSearchEnabled(syncopeService)) {
+            Thread.sleep(2000);
+        }
+        assertEquals(1, userService.search(query).getTotalCount());
+
+        // estimates are discarded as soon as users are created or deleted
+        UserTO second = createUser(UserITCase.getSampleTO(prefix + "2@syncope.apache.org")).getEntity();
+        if (ElasticsearchDetector.isElasticSearchEnabled(syncopeService)) {
+            Thread.sleep(2000);
+        }
+        assertEquals(2, userService.search(query).getTotalCount());
+
+        deleteUser(first.getKey());
+        if (ElasticsearchDetector.isElasticSearchEnabled(syncopeService)) {
+            Thread.sleep(2000);
+        }
+        assertEquals(1, userService.search(query).getTotalCount());
+
+        deleteUser(second.getKey());
+    }
+
     @Test
     public void issueSYNCOPE929() {
         PagedResult<UserTO> matchingUsers = userService.search(